@@ -0,0 +1,130 @@
+package com._jasettlement.Wallet.benchmark;
+
+import com._jasettlement.Wallet.WalletApplication;
+import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransactionHistoryRequest;
+import com._jasettlement.Wallet.dto.response.TransactionHistoryResponse;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.WalletResponse;
+import com._jasettlement.Wallet.service.WalletService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-path latency of the WalletService under each datasource setup:
+ * <ul>
+ *     <li>MEM: the default in-memory H2 database</li>
+ *     <li>MEM_SHOW_SQL: the same with {@code spring.jpa.show-sql=true}, to show the cost of SQL logging</li>
+ *     <li>LOCAL_FILE: the {@code local} profile's file-backed H2 database, in a temporary directory</li>
+ *     <li>PROD: the {@code prod} profile (tuned Hikari pool, statement cache, Flyway schema). It needs an
+ *     empty PostgreSQL database in WALLET_DB_URL / WALLET_DB_USERNAME / WALLET_DB_PASSWORD, so it is not
+ *     in the default list; pass {@code -p datasource=PROD} to the JMH runner to include it</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class DatasourceProfileBenchmark {
+
+    private static final int WALLETS = 64;
+
+    @Param({"MEM", "MEM_SHOW_SQL", "LOCAL_FILE"})
+    public String datasource;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private Path dataDirectory;
+    private final List<String> walletIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--wallet.balance-snapshot.verify-on-startup=false",
+                "--wallet.settlement.cron=-",
+                "--wallet.ledger-tiering.cron=-",
+                "--logging.level.root=WARN"));
+        switch (datasource) {
+            case "MEM" -> args.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            case "MEM_SHOW_SQL" -> {
+                args.add("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+                args.add("--spring.jpa.show-sql=true");
+            }
+            case "LOCAL_FILE" -> {
+                dataDirectory = Files.createTempDirectory("wallet-bench");
+                args.add("--spring.profiles.active=local");
+                args.add("--spring.datasource.url=jdbc:h2:file:" + dataDirectory.resolve("walletdb") + ";LOCK_TIMEOUT=10000");
+            }
+            case "PROD" -> args.add("--spring.profiles.active=prod");
+            default -> throw new IllegalArgumentException("Unknown datasource " + datasource);
+        }
+
+        context = SpringApplication.run(WalletApplication.class, args.toArray(String[]::new));
+        walletService = context.getBean(WalletService.class);
+        for (int w = 0; w < WALLETS; w++) {
+            CreateWalletRequest request = new CreateWalletRequest();
+            request.setFullName("Benchmark Wallet " + w);
+            request.setEmail("bench-" + w + "-" + UUID.randomUUID() + "@bench.local");
+            request.setBvn(String.format("%010d", w));
+            String walletId = walletService.createWallet(request).getWalletId();
+            walletIds.add(walletId);
+            for (int i = 0; i < 20; i++) {
+                deposit(walletId);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        if (dataDirectory != null) {
+            try (var files = Files.walk(dataDirectory)) {
+                for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public TransactionResponse deposit() {
+        return deposit(pickWallet());
+    }
+
+    @Benchmark
+    public WalletResponse getWallet() {
+        return walletService.getWallet(pickWallet());
+    }
+
+    @Benchmark
+    public TransactionHistoryResponse historyPage() {
+        TransactionHistoryRequest request = new TransactionHistoryRequest();
+        request.setLimit(20);
+        return walletService.getTransactionHistory(pickWallet(), request);
+    }
+
+    private TransactionResponse deposit(String walletId) {
+        DepositRequest request = new DepositRequest();
+        request.setWalletId(walletId);
+        request.setAmountMinorUnits(1L);
+        return walletService.deposit(request);
+    }
+
+    private String pickWallet() {
+        return walletIds.get(ThreadLocalRandom.current().nextInt(WALLETS));
+    }
+}
@@ -0,0 +1,123 @@
+package com._jasettlement.Wallet.benchmark;
+
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ledger insert throughput for random (UUIDv4) versus time-ordered (UUIDv7-style) primary keys, with and
+ * without JDBC batching, against a file-backed H2 copy of the transaction table and its indexes.
+ * The on-disk size of the table plus indexes is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class IdStrategyInsertBenchmark {
+
+    private static final int ROWS_PER_INVOCATION = 100;
+    private static final int WALLETS = 10_000;
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public String idStrategy;
+
+    @Param({"1", "100"})
+    public int batchSize;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private long rowsInserted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("id-bench");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("ledger"), "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("""
+                    CREATE TABLE transaction (
+                        id VARCHAR(36) PRIMARY KEY,
+                        reference VARCHAR(255) NOT NULL UNIQUE,
+                        wallet_id VARCHAR(32) NOT NULL,
+                        type VARCHAR(16) NOT NULL,
+                        amount_minor_units BIGINT NOT NULL,
+                        created_at TIMESTAMP NOT NULL)
+                    """);
+            ddl.execute("CREATE INDEX idx_txn_wallet_created ON transaction (wallet_id, created_at, id)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(
+                "INSERT INTO transaction (id, reference, wallet_id, type, amount_minor_units, created_at) VALUES (?, ?, ?, ?, ?, ?)");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_INVOCATION)
+    public void insertLedgerRows() throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < ROWS_PER_INVOCATION; i++) {
+            insert.setString(1, nextId());
+            insert.setString(2, UUID.randomUUID().toString());
+            insert.setString(3, "WALNG" + random.nextInt(WALLETS));
+            insert.setString(4, "CREDIT");
+            insert.setLong(5, random.nextLong(1, 1_000_000));
+            insert.setTimestamp(6, now);
+            if (batchSize == 1) {
+                insert.executeUpdate();
+            } else {
+                insert.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+        if (batchSize > 1) {
+            insert.executeBatch();
+        }
+        connection.commit();
+        rowsInserted += ROWS_PER_INVOCATION;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try (Statement query = connection.createStatement();
+             ResultSet size = query.executeQuery("CALL DISK_SPACE_USED('TRANSACTION')")) {
+            size.next();
+            long bytes = size.getLong(1);
+            System.out.printf("%n[id-strategy] %s batch=%d rows=%d table+index bytes=%d (%.1f bytes/row)%n",
+                    idStrategy, batchSize, rowsInserted, bytes, rowsInserted == 0 ? 0.0 : (double) bytes / rowsInserted);
+        }
+        insert.close();
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                    // Temp directory cleanup is best effort
+                }
+            });
+        }
+    }
+
+    private String nextId() {
+        return "TIME_ORDERED".equals(idStrategy) ? TimeOrderedIds.nextString() : UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com._jasettlement.Wallet.benchmark;
+
+import com._jasettlement.Wallet.WalletApplication;
+import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.service.HotWalletService;
+import com._jasettlement.Wallet.service.WalletService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Credit throughput into a single collection wallet, with every thread crediting the same wallet.
+ * {@code stripes=0} is the plain wallet, where each credit waits for the wallet row lock; larger
+ * values turn on hot wallet mode with that many stripes. Run it at increasing thread counts up to the
+ * core count (-Djmh.threads=1, 2, 4, ...): unstriped throughput stays flat while striped throughput
+ * grows until the stripes or the database run out of parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class StripedWalletBenchmark {
+
+    private static final int PAYERS = 64;
+
+    @Param({"0", "4", "16", "64"})
+    public int stripes;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private String collectionWallet;
+    private final List<String> payers = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(WalletApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "--spring.h2.console.enabled=false",
+                "--wallet.balance-snapshot.verify-on-startup=false",
+                "--wallet.concurrency.max-attempts=50",
+                "--logging.level.root=WARN");
+        walletService = context.getBean(WalletService.class);
+
+        collectionWallet = createWallet("collection");
+        if (stripes > 0) {
+            context.getBean(HotWalletService.class).configure(collectionWallet, stripes);
+        }
+        for (int p = 0; p < PAYERS; p++) {
+            String payer = createWallet("payer-" + p);
+            DepositRequest request = new DepositRequest();
+            request.setWalletId(payer);
+            request.setAmountMinorUnits(1_000_000_000L);
+            walletService.deposit(request);
+            payers.add(payer);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionResponse deposit() {
+        DepositRequest request = new DepositRequest();
+        request.setWalletId(collectionWallet);
+        request.setAmountMinorUnits(1L);
+        return walletService.deposit(request);
+    }
+
+    @Benchmark
+    public TransferResponse transferIn() {
+        TransferRequest request = new TransferRequest();
+        request.setFromWalletId(payers.get(ThreadLocalRandom.current().nextInt(PAYERS)));
+        request.setToWalletId(collectionWallet);
+        request.setAmountMinorUnits(1L);
+        return walletService.transfer(request);
+    }
+
+    private String createWallet(String name) {
+        CreateWalletRequest request = new CreateWalletRequest();
+        request.setFullName("Benchmark " + name);
+        request.setEmail(name + "-" + UUID.randomUUID() + "@bench.local");
+        request.setBvn(String.format("%010d", Math.abs(name.hashCode()) % 1_000_000_000L));
+        return walletService.createWallet(request).getWalletId();
+    }
+}
@@ -0,0 +1,123 @@
+package com._jasettlement.Wallet.benchmark;
+
+import com._jasettlement.Wallet.WalletApplication;
+import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
+import com._jasettlement.Wallet.service.WalletService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end HTTP comparison of platform-thread Tomcat against virtual-thread request handling with
+ * the connection-permit filter. Each invocation fires {@code burst} concurrent requests and waits for
+ * all of them, so the score is the latency of a whole burst; shed (503) responses are counted
+ * separately through the Blackhole so a faster score is not mistaken for more work done.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class VirtualThreadWebBenchmark {
+
+    private static final int WALLETS = 64;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public String threadModel;
+
+    @Param({"200", "2000"})
+    public int burst;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private final List<String> walletIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(WalletApplication.class,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + "VIRTUAL".equals(threadModel),
+                "--spring.datasource.url=jdbc:h2:mem:web-bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--wallet.balance-snapshot.verify-on-startup=false",
+                "--wallet.web.permit-acquire-timeout=30s",
+                "--logging.level.root=WARN");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/wallets";
+
+        WalletService walletService = context.getBean(WalletService.class);
+        for (int w = 0; w < WALLETS; w++) {
+            CreateWalletRequest request = new CreateWalletRequest();
+            request.setFullName("Web Benchmark Wallet " + w);
+            request.setEmail("web-bench-" + w + "-" + UUID.randomUUID() + "@bench.local");
+            request.setBvn(String.format("%010d", w));
+            walletIds.add(walletService.createWallet(request).getWalletId());
+        }
+
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public void depositBurst(Blackhole blackhole) {
+        List<CompletableFuture<HttpResponse<Void>>> calls = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            String body = "{\"walletId\":\"" + walletIds.get(i % WALLETS) + "\",\"amountMinorUnits\":1}";
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/deposit"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        drain(calls, blackhole);
+    }
+
+    @Benchmark
+    public void getWalletBurst(Blackhole blackhole) {
+        List<CompletableFuture<HttpResponse<Void>>> calls = new ArrayList<>(burst);
+        for (int i = 0; i < burst; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + walletIds.get(i % WALLETS)))
+                    .GET()
+                    .build();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        drain(calls, blackhole);
+    }
+
+    private void drain(List<CompletableFuture<HttpResponse<Void>>> calls, Blackhole blackhole) {
+        int shed = 0;
+        for (CompletableFuture<HttpResponse<Void>> call : calls) {
+            if (call.join().statusCode() == 503) {
+                shed++;
+            }
+        }
+        blackhole.consume(shed);
+    }
+}
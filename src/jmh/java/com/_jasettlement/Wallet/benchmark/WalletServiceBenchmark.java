@@ -0,0 +1,162 @@
+package com._jasettlement.Wallet.benchmark;
+
+import com._jasettlement.Wallet.WalletApplication;
+import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.dto.response.WalletResponse;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.service.WalletService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency percentiles of the WalletService hot paths against an in-memory H2 ledger.
+ * Every wallet is pre-seeded with {@code ledgerDepth} rows so that anything still aggregating the
+ * ledger shows up as a depth-dependent slowdown. HOT sends every operation to one wallet; SPREAD
+ * picks a random wallet per operation. Vary threads with -Djmh.threads=N.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class WalletServiceBenchmark {
+
+    private static final int WALLETS = 8;
+    private static final int SEED_CHUNK = 10_000;
+    private static final long SEED_AMOUNT = 1_000_000L;
+
+    @Param({"100", "10000", "1000000"})
+    public int ledgerDepth;
+
+    @Param({"HOT", "SPREAD"})
+    public String contention;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private TransactionRepository transactionRepository;
+    private final List<String> walletIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(WalletApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--wallet.balance-snapshot.verify-on-startup=false",
+                "--logging.level.root=WARN");
+        walletService = context.getBean(WalletService.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+
+        TransactionJdbcRepository ledgerWriter = context.getBean(TransactionJdbcRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int w = 0; w < WALLETS; w++) {
+            String walletId = createWallet(w);
+            walletIds.add(walletId);
+            seedLedger(ledgerWriter, jdbcTemplate, walletId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Caller {
+        private ThreadLocalRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            random = ThreadLocalRandom.current();
+        }
+    }
+
+    @Benchmark
+    public TransactionResponse deposit(Caller caller) {
+        DepositRequest request = new DepositRequest();
+        request.setWalletId(pickWallet(caller));
+        request.setAmountMinorUnits(1L);
+        return walletService.deposit(request);
+    }
+
+    @Benchmark
+    public TransactionResponse withdraw(Caller caller) {
+        WithdrawalRequest request = new WithdrawalRequest();
+        request.setWalletId(pickWallet(caller));
+        request.setAmountMinorUnits(1L);
+        return walletService.withdraw(request);
+    }
+
+    @Benchmark
+    public TransferResponse transfer(Caller caller) {
+        String from = pickWallet(caller);
+        String to = walletIds.get(caller.random.nextInt(WALLETS));
+        TransferRequest request = new TransferRequest();
+        request.setFromWalletId(from);
+        request.setToWalletId(to.equals(from) ? walletIds.get((walletIds.indexOf(from) + 1) % WALLETS) : to);
+        request.setAmountMinorUnits(1L);
+        return walletService.transfer(request);
+    }
+
+    @Benchmark
+    public WalletResponse getWallet(Caller caller) {
+        return walletService.getWallet(pickWallet(caller));
+    }
+
+    @Benchmark
+    public Long calculateBalance(Caller caller) {
+        return transactionRepository.calculateBalance(pickWallet(caller));
+    }
+
+    private String pickWallet(Caller caller) {
+        return "HOT".equals(contention) ? walletIds.get(0) : walletIds.get(caller.random.nextInt(WALLETS));
+    }
+
+    private String createWallet(int index) {
+        CreateWalletRequest request = new CreateWalletRequest();
+        request.setFullName("Benchmark Wallet " + index);
+        request.setEmail("bench-" + index + "-" + UUID.randomUUID() + "@bench.local");
+        request.setBvn(String.format("%010d", index));
+        return walletService.createWallet(request).getWalletId();
+    }
+
+    private void seedLedger(TransactionJdbcRepository ledgerWriter, JdbcTemplate jdbcTemplate, String walletId) {
+        long sequence = 0;
+        while (sequence < ledgerDepth) {
+            int chunk = (int) Math.min(SEED_CHUNK, ledgerDepth - sequence);
+            List<Transaction> rows = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                sequence++;
+                rows.add(Transaction.builder()
+                        .reference(walletId + "-seed-" + sequence)
+                        .walletId(walletId)
+                        .type(TransactionType.CREDIT)
+                        .amountMinorUnits(SEED_AMOUNT)
+                        .ledgerSequence(sequence)
+                        .balanceAfterMinorUnits(sequence * SEED_AMOUNT)
+                        .build());
+            }
+            ledgerWriter.insertAll(rows);
+        }
+        jdbcTemplate.update("UPDATE wallet SET balance_minor_units = ?, ledger_sequence = ? WHERE wallet_id = ?",
+                ledgerDepth * SEED_AMOUNT, (long) ledgerDepth, walletId);
+    }
+}
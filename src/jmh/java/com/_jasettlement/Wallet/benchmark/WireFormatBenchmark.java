@@ -0,0 +1,179 @@
+package com._jasettlement.Wallet.benchmark;
+
+import com._jasettlement.Wallet.dto.ApiResponse;
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.dto.response.WalletResponse;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.util.WalletFrameCodec;
+import com._jasettlement.Wallet.util.WalletFrameCodec.Op;
+import com._jasettlement.Wallet.util.WalletFrameCodec.RequestFrame;
+import com._jasettlement.Wallet.util.WalletFrameCodec.ResponseFrame;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the JSON API against the binary frame protocol, for one deposit, transfer and
+ * getWallet. {@code server} decodes the request and encodes the response, as the endpoint does;
+ * {@code client} does the reverse. The database is left out, so the score is the CPU spent on the wire
+ * format alone. Payload sizes are printed once per trial. Add {@code -prof gc} to the JMH arguments to
+ * compare allocation per request too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final int MAX_FRAME_BYTES = 16 * 1024;
+
+    @Param({"DEPOSIT", "TRANSFER", "GET_WALLET"})
+    public Op op;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private Object request;
+    private Object response;
+    private JavaType jsonResponseType;
+    private byte[] jsonRequest;
+    private byte[] jsonResponse;
+    private byte[] frameRequest;
+    private byte[] frameResponse;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String walletId = "4012345678";
+        String counterparty = "4087654321";
+        LocalDateTime now = LocalDateTime.now();
+        TransactionResponse credit = entry(walletId, TransactionType.CREDIT, now);
+
+        switch (op) {
+            case DEPOSIT -> {
+                DepositRequest deposit = new DepositRequest();
+                deposit.setWalletId(walletId);
+                deposit.setAmountMinorUnits(250_000L);
+                deposit.setDescription("POS collection");
+                deposit.setIdempotencyKey(UUID.randomUUID().toString());
+                request = deposit;
+                response = credit;
+            }
+            case TRANSFER -> {
+                TransferRequest transfer = new TransferRequest();
+                transfer.setFromWalletId(counterparty);
+                transfer.setToWalletId(walletId);
+                transfer.setAmountMinorUnits(250_000L);
+                transfer.setDescription("Merchant settlement");
+                transfer.setIdempotencyKey(UUID.randomUUID().toString());
+                request = transfer;
+                response = TransferResponse.builder()
+                        .transferId(UUID.randomUUID().toString())
+                        .reference(transfer.getIdempotencyKey())
+                        .fromWalletId(counterparty)
+                        .toWalletId(walletId)
+                        .amountMinorUnits(250_000L)
+                        .currency("NGN")
+                        .description("Merchant settlement")
+                        .debit(entry(counterparty, TransactionType.TRANSFER_OUT, now))
+                        .credit(entry(walletId, TransactionType.TRANSFER_IN, now))
+                        .createdAt(now)
+                        .build();
+            }
+            case GET_WALLET -> {
+                // The JSON endpoint takes the walletId from the path, so only the frame carries a body
+                request = walletId;
+                response = WalletResponse.builder()
+                        .id(UUID.randomUUID().toString())
+                        .walletId(walletId)
+                        .ownerName("Adaeze Okafor")
+                        .balanceMinorUnits(125_000_000L)
+                        .currency("NGN")
+                        .createdAt(now.minusDays(90))
+                        .updatedAt(now)
+                        .build();
+            }
+            // Withdrawals are encoded exactly like deposits
+            case WITHDRAW -> throw new IllegalArgumentException("Benchmark DEPOSIT instead of WITHDRAW");
+        }
+
+        jsonResponseType = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, response.getClass());
+        jsonRequest = op == Op.GET_WALLET ? new byte[0] : objectMapper.writeValueAsBytes(request);
+        jsonResponse = objectMapper.writeValueAsBytes(ApiResponse.success(response));
+        frameRequest = encodeRequest();
+        frameResponse = encodeResponse(new ResponseFrame(op, 1, 200, response));
+
+        System.out.printf("%n%s request: JSON %d bytes, frame %d bytes; response: JSON %d bytes, frame %d bytes%n",
+                op, jsonRequest.length, frameRequest.length, jsonResponse.length, frameResponse.length);
+    }
+
+    @Benchmark
+    public byte[] jsonServer() {
+        if (op != Op.GET_WALLET) {
+            objectMapper.readValue(jsonRequest, request.getClass());
+        }
+        return objectMapper.writeValueAsBytes(ApiResponse.success(response));
+    }
+
+    @Benchmark
+    public byte[] frameServer() throws IOException {
+        RequestFrame decoded = WalletFrameCodec.readRequest(
+                new DataInputStream(new ByteArrayInputStream(frameRequest)), MAX_FRAME_BYTES);
+        return encodeResponse(new ResponseFrame(decoded.op(), decoded.correlationId(), 200, response));
+    }
+
+    @Benchmark
+    public Object jsonClient() {
+        if (op != Op.GET_WALLET) {
+            objectMapper.writeValueAsBytes(request);
+        }
+        return objectMapper.readValue(jsonResponse, jsonResponseType);
+    }
+
+    @Benchmark
+    public Object frameClient() throws IOException {
+        encodeRequest();
+        return WalletFrameCodec.readResponse(
+                new DataInputStream(new ByteArrayInputStream(frameResponse)), "NGN", MAX_FRAME_BYTES);
+    }
+
+    private byte[] encodeRequest() throws IOException {
+        buffer.reset();
+        WalletFrameCodec.writeRequest(new DataOutputStream(buffer), new RequestFrame(op, 1, request));
+        return buffer.toByteArray();
+    }
+
+    private byte[] encodeResponse(ResponseFrame frame) throws IOException {
+        buffer.reset();
+        WalletFrameCodec.writeResponse(new DataOutputStream(buffer), frame);
+        return buffer.toByteArray();
+    }
+
+    private static TransactionResponse entry(String walletId, TransactionType type, LocalDateTime createdAt) {
+        return TransactionResponse.builder()
+                .id(UUID.randomUUID().toString())
+                .reference(UUID.randomUUID().toString())
+                .walletId(walletId)
+                .type(type)
+                .amountMinorUnits(250_000L)
+                .currency("NGN")
+                .description("Merchant settlement")
+                .balanceAfterMinorUnits(125_000_000L)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com._jasettlement.Wallet.config;
+
+import com._jasettlement.Wallet.web.ConnectionPermitFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Request handling on virtual threads (spring.threads.virtual.enabled=true), with API concurrency
+ * bounded by the database connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadWebConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public FilterRegistrationBean<ConnectionPermitFilter> connectionPermitFilter(
+            DataSource dataSource, WalletProperties walletProperties, MeterRegistry meterRegistry) {
+        WalletProperties.Web settings = walletProperties.getWeb();
+        int permits = settings.getConnectionPermits() > 0 ? settings.getConnectionPermits() : poolSize(dataSource);
+        log.info("Virtual-thread request handling enabled; admitting {} concurrent API requests", permits);
+
+        ConnectionPermitFilter filter = new ConnectionPermitFilter(permits, settings.getPermitAcquireTimeout());
+        Gauge.builder("wallet.web.permits.available", filter, ConnectionPermitFilter::getAvailablePermits)
+                .description("Database permits currently free for API requests")
+                .register(meterRegistry);
+        Gauge.builder("wallet.web.permits.queued", filter, ConnectionPermitFilter::getQueuedRequests)
+                .description("API requests parked waiting for a database permit")
+                .register(meterRegistry);
+        Gauge.builder("wallet.web.permits.max", filter, ConnectionPermitFilter::getMaxPermits)
+                .description("Database permits the gate admits in total")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<ConnectionPermitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException ex) {
+            log.warn("Could not inspect the connection pool, assuming {} connections", DEFAULT_POOL_SIZE, ex);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
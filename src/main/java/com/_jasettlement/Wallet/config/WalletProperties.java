@@ -0,0 +1,274 @@
+package com._jasettlement.Wallet.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "wallet")
+public class WalletProperties {
+
+    private final BalanceSnapshot balanceSnapshot = new BalanceSnapshot();
+    private final Concurrency concurrency = new Concurrency();
+    private final Idempotency idempotency = new Idempotency();
+    private final MetadataCache metadataCache = new MetadataCache();
+    private final Web web = new Web();
+    private final Engine engine = new Engine();
+    private final Index index = new Index();
+    private final WalletIds ids = new WalletIds();
+    private final Onboarding onboarding = new Onboarding();
+    private final Export export = new Export();
+    private final Settlement settlement = new Settlement();
+    private final LedgerTiering ledgerTiering = new LedgerTiering();
+    private final HotWallet hotWallet = new HotWallet();
+    private final DepositBatching depositBatching = new DepositBatching();
+    private final BinaryProtocol binaryProtocol = new BinaryProtocol();
+    private final Events events = new Events();
+    private final Holds holds = new Holds();
+
+    @Data
+    public static class BalanceSnapshot {
+        // Compare every wallet's snapshot against the ledger aggregate when the app starts
+        private boolean verifyOnStartup = false;
+
+        // Overwrite drifted snapshots with the ledger aggregate instead of only reporting them
+        private boolean repairOnStartup = false;
+
+        // Number of wallet IDs fetched per page while walking the wallet table
+        private int pageSize = 500;
+    }
+
+    @Data
+    public static class Concurrency {
+        public enum Mode { PESSIMISTIC, OPTIMISTIC }
+
+        // PESSIMISTIC takes SELECT ... FOR UPDATE row locks; OPTIMISTIC relies on Wallet.version and retries
+        private Mode mode = Mode.PESSIMISTIC;
+
+        // Total attempts for a posting that loses a version race, lock timeout or deadlock
+        private int maxAttempts = 5;
+
+        // Base delay for the jittered exponential backoff between attempts
+        private long retryBackoffMillis = 5;
+    }
+
+    @Data
+    public static class Idempotency {
+        // Upper bound on remembered idempotency keys; older keys fall back to the reference index
+        private long maxEntries = 100_000;
+
+        // How long a completed result is replayed from memory
+        private Duration ttl = Duration.ofHours(24);
+    }
+
+    @Data
+    public static class MetadataCache {
+        // Roughly 300 bytes per entry; size to the active wallet population rather than the whole table
+        private long maxEntries = 1_000_000;
+
+        private Duration ttl = Duration.ofMinutes(30);
+
+        // Unknown wallet IDs are remembered briefly so scans over bad IDs stay off the database
+        private long negativeMaxEntries = 100_000;
+
+        private Duration negativeTtl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Web {
+        // Concurrent API requests admitted in virtual-thread mode; 0 means the DataSource pool size
+        private int connectionPermits = 0;
+
+        // How long a request may wait for a permit before it is shed with 503
+        private Duration permitAcquireTimeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Engine {
+        public enum Mode { DATABASE, IN_MEMORY }
+
+        // DATABASE posts through JPA row locks; IN_MEMORY posts through the sharded journal engine
+        private Mode mode = Mode.DATABASE;
+
+        // Single-threaded shards that own the in-memory balances; wallets are routed by walletId hash
+        private int shards = 8;
+
+        // Append-only write-ahead journal replayed on startup
+        private String journalPath = "data/ledger.journal";
+
+        // Most postings written under one fsync by the journal's group commit
+        private int groupCommitMaxBatch = 1024;
+
+        // Journal frames that may wait for the projection before postings are held back
+        private int projectionQueueCapacity = 65_536;
+
+        // Most journal frames written to the Transaction table in one database transaction
+        private int projectionBatchFrames = 1_000;
+
+        // How often journal frames already projected to the database are compacted away
+        private Duration compactionInterval = Duration.ofMinutes(10);
+
+        // Longest a request waits for its posting to become durable before answering 503
+        private Duration postingTimeout = Duration.ofSeconds(10);
+    }
+
+    @Data
+    public static class Index {
+        // Memory-mapped walletId index for existence checks and balance reads; needs a persistent database
+        private boolean enabled = false;
+
+        private String path = "data/wallet.index";
+
+        // Slots in the open-addressing table, rounded up to a power of two; 48 bytes each, filled to 75% at most
+        private int capacity = 4_194_304;
+    }
+
+    @Data
+    public static class WalletIds {
+        public enum Mode { RANDOM, PERMUTED_SEQUENCE }
+
+        // RANDOM draws six random digits (collisions surface as constraint failures);
+        // PERMUTED_SEQUENCE is collision-free and appends a Luhn check digit
+        private Mode mode = Mode.RANDOM;
+
+        // Counters reserved per database round trip
+        private int blockSize = 1_000;
+
+        // Secret for the Feistel permutation; changing it on a live system can reuse suffixes already issued.
+        // No default: application.yml supplies one for local and test runs, the prod profile requires the env var
+        private Long permutationKey;
+    }
+
+    @Data
+    public static class Onboarding {
+        // Records deduplicated and inserted per round trip; bounds memory regardless of upload size
+        private int chunkSize = 1_000;
+    }
+
+    @Data
+    public static class Export {
+        // Rows the driver pulls per round trip while a statement export streams its cursor
+        private int fetchSize = 1_000;
+    }
+
+    @Data
+    public static class Settlement {
+        // Business days start and end at midnight in this zone
+        private String zone = "Africa/Lagos";
+
+        // Workers that settle disjoint walletId hash partitions in parallel
+        private int partitions = 8;
+
+        // Ledger rows read per keyset query
+        private int chunkRows = 10_000;
+
+        // Chunks read ahead of the slowest partition; with chunkRows this is the job's memory budget
+        private int maxInFlightChunks = 4;
+
+        // Rows younger than this are left for the next run, on top of the safe point; covers other instances' commits
+        private Duration settleLag = Duration.ofMinutes(2);
+
+        // Incremental run for today (and yesterday until it is complete); "-" disables the schedule
+        private String cron = "0 */15 * * * *";
+    }
+
+    @Data
+    public static class LedgerTiering {
+        // Closed months kept in the Transaction table before their entries move to the archive
+        private int hotMonths = 3;
+
+        // A month is closed into checkpoints this long after it ends (months follow wallet.settlement.zone)
+        private Duration closeLag = Duration.ofDays(1);
+
+        // Wallets checkpointed or archived per database transaction
+        private int walletChunk = 1_000;
+
+        // Entries per compressed archive block; a busy wallet-month is split over several blocks
+        private int archiveBlockEntries = 10_000;
+
+        // Daily close and archive run; "-" disables the schedule
+        private String cron = "0 30 2 * * *";
+    }
+
+    @Data
+    public static class HotWallet {
+        // Pause between sweeps that fold hot wallets' stripes and unsequenced entries into the wallet row
+        private Duration sweepInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class DepositBatching {
+        // Commit concurrent deposits in shared transactions (group commit) instead of one each
+        private boolean enabled = false;
+
+        // How long a batch stays open after its first deposit; this is the most latency batching adds
+        private Duration window = Duration.ofNanos(500_000);
+
+        // A batch commits as soon as it holds this many deposits
+        private int maxBatch = 128;
+
+        // Threads collecting and committing batches, so one batch can fill while another commits
+        private int workers = 2;
+
+        // Deposits waiting for a batch before callers block
+        private int queueCapacity = 10_000;
+    }
+
+    @Data
+    public static class BinaryProtocol {
+        // Largest frame accepted by the binary endpoint; a longer length prefix ends the stream
+        private int maxFrameBytes = 16 * 1024;
+
+        // Frames one pipelined request may carry; they run in order on the request's thread
+        private int maxFramesPerRequest = 1_000;
+    }
+
+    @Data
+    public static class Events {
+        // How often the relay reads the outbox when no local posting has woken it
+        private Duration pollInterval = Duration.ofMillis(200);
+
+        // Outbox rows read per relay query
+        private int relayBatch = 500;
+
+        // Recent events kept in memory, so resuming subscribers are served without a database read
+        private int replayBuffer = 10_000;
+
+        // Events buffered per stream subscriber; a subscriber that falls further behind is dropped
+        private int subscriberBuffer = 256;
+
+        // Streams are closed after this long; clients reconnect with Last-Event-ID
+        private Duration streamTimeout = Duration.ofMinutes(30);
+
+        // Comment line sent on idle streams so proxies keep the connection open
+        private Duration heartbeat = Duration.ofSeconds(15);
+
+        // Longest a long-poll request waits for an event
+        private Duration maxWait = Duration.ofSeconds(30);
+
+        // Most events returned by one long-poll or one catch-up read
+        private int pageSize = 200;
+
+        // Outbox rows older than this are purged; resuming from an older offset returns 410
+        private Duration retention = Duration.ofHours(24);
+
+        // Pause between purges of expired outbox rows
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Holds {
+        // Lifetime of a hold whose request names no expiry
+        private Duration defaultTtl = Duration.ofDays(7);
+
+        // Longest lifetime a hold may ask for
+        private Duration maxTtl = Duration.ofDays(30);
+
+        // Resolution of the expiry timer wheel; a hold expires at most one tick late
+        private Duration reaperTick = Duration.ofSeconds(1);
+
+        // Slots in the timer wheel (a power of two); later deadlines wrap around and wait their turn
+        private int wheelSlots = 512;
+    }
+}
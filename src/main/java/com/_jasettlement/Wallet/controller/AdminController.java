@@ -0,0 +1,133 @@
+package com._jasettlement.Wallet.controller;
+
+import com._jasettlement.Wallet.dto.ApiResponse;
+import com._jasettlement.Wallet.dto.request.HotWalletRequest;
+import com._jasettlement.Wallet.dto.response.BalanceReconciliationResponse;
+import com._jasettlement.Wallet.dto.response.HotWalletResponse;
+import com._jasettlement.Wallet.dto.response.LedgerPeriodResponse;
+import com._jasettlement.Wallet.dto.response.LedgerTieringResponse;
+import com._jasettlement.Wallet.dto.response.SettlementRunResponse;
+import com._jasettlement.Wallet.dto.response.SettlementSummaryResponse;
+import com._jasettlement.Wallet.dto.response.WalletDailyPositionResponse;
+import com._jasettlement.Wallet.service.BalanceReconciliationService;
+import com._jasettlement.Wallet.service.HotWalletService;
+import com._jasettlement.Wallet.service.LedgerTieringService;
+import com._jasettlement.Wallet.service.SettlementService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administration", description = "Operational jobs for the wallet ledger")
+public class AdminController {
+
+    private final BalanceReconciliationService balanceReconciliationService;
+    private final SettlementService settlementService;
+    private final LedgerTieringService ledgerTieringService;
+    private final HotWalletService hotWalletService;
+
+    @Operation(
+            summary = "Reconcile balance snapshots",
+            description = "Compares every wallet's persisted balance snapshot with the Transaction ledger and optionally rebuilds drifted snapshots"
+    )
+    @PostMapping("/balance-snapshots/reconcile")
+    public ResponseEntity<ApiResponse<BalanceReconciliationResponse>> reconcileBalanceSnapshots(
+            @Parameter(description = "Overwrite drifted snapshots with the ledger aggregate")
+            @RequestParam(defaultValue = "false") boolean repair) {
+        BalanceReconciliationResponse response = balanceReconciliationService.reconcile(repair);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Run settlement for a business day",
+            description = "Folds the day's ledger rows that arrived since the last run into the settlement summary tables. Rows younger than wallet.settlement.settle-lag are left for the next run."
+    )
+    @PostMapping("/settlements/{businessDate}/run")
+    public ResponseEntity<ApiResponse<SettlementRunResponse>> runSettlement(
+            @Parameter(description = "Business day (yyyy-MM-dd)", required = true)
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate) {
+        SettlementRunResponse response = settlementService.settle(businessDate);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Get the settlement summary for a business day",
+            description = "Totals by transaction type, number of settled wallets and unmatched transfer legs, read from the settlement summary tables"
+    )
+    @GetMapping("/settlements/{businessDate}")
+    public ResponseEntity<ApiResponse<SettlementSummaryResponse>> getSettlementSummary(
+            @Parameter(description = "Business day (yyyy-MM-dd)", required = true)
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate) {
+        SettlementSummaryResponse response = settlementService.getSummary(businessDate);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Get a wallet's settled position for a business day",
+            description = "Credits, debits, net movement and closing balance of the wallet's settled entries for the day"
+    )
+    @GetMapping("/settlements/{businessDate}/positions/{walletId}")
+    public ResponseEntity<ApiResponse<WalletDailyPositionResponse>> getSettlementPosition(
+            @Parameter(description = "Business day (yyyy-MM-dd)", required = true)
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate,
+            @Parameter(description = "Wallet ID", required = true)
+            @PathVariable String walletId) {
+        WalletDailyPositionResponse response = settlementService.getPosition(businessDate, walletId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Run ledger tiering",
+            description = "Closes ended months into per-wallet balance checkpoints and moves entries of closed months older than wallet.ledger-tiering.hot-months to the compressed archive"
+    )
+    @PostMapping("/ledger-periods/run")
+    public ResponseEntity<ApiResponse<LedgerTieringResponse>> runLedgerTiering() {
+        LedgerTieringResponse response = ledgerTieringService.run();
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "List closed ledger periods",
+            description = "Closed and archived months, newest first, with their wallet and entry counts"
+    )
+    @GetMapping("/ledger-periods")
+    public ResponseEntity<ApiResponse<List<LedgerPeriodResponse>>> getLedgerPeriods() {
+        List<LedgerPeriodResponse> response = ledgerTieringService.getPeriods();
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Configure hot wallet mode",
+            description = "Splits a wallet's balance across the given number of striped sub-balances so concurrent credits do not queue on the wallet row; 0 turns the mode off. The wallet is swept first."
+    )
+    @PutMapping("/wallets/{walletId}/stripes")
+    public ResponseEntity<ApiResponse<HotWalletResponse>> configureStripes(
+            @Parameter(description = "Wallet ID", required = true)
+            @PathVariable String walletId,
+            @Valid @RequestBody HotWalletRequest request) {
+        HotWalletResponse response = hotWalletService.configure(walletId, request.getStripes());
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Get hot wallet status",
+            description = "Stripe count, total balance and the part of it still on the stripes awaiting a sweep"
+    )
+    @GetMapping("/wallets/{walletId}/stripes")
+    public ResponseEntity<ApiResponse<HotWalletResponse>> getStripes(
+            @Parameter(description = "Wallet ID", required = true)
+            @PathVariable String walletId) {
+        HotWalletResponse response = hotWalletService.getStatus(walletId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
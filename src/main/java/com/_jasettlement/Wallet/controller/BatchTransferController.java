@@ -0,0 +1,67 @@
+package com._jasettlement.Wallet.controller;
+
+import com._jasettlement.Wallet.dto.ApiResponse;
+import com._jasettlement.Wallet.dto.request.BatchTransferRequest;
+import com._jasettlement.Wallet.dto.response.BatchTransferResponse;
+import com._jasettlement.Wallet.service.BatchTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/wallets/transfers")
+@RequiredArgsConstructor
+@Tag(name = "Batch Transfers", description = "APIs for settlement and payroll transfer files")
+public class BatchTransferController {
+
+    private final BatchTransferService batchTransferService;
+
+    @Operation(
+            summary = "Transfer funds in bulk",
+            description = "Applies many transfer legs in one request. ALL_OR_NOTHING checks each wallet's net position and applies every leg or none; BEST_EFFORT applies legs in order and reports the ones that failed."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Batch processed; see per-leg results",
+                    content = @Content(schema = @Schema(implementation = BatchTransferResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid request, or an ALL_OR_NOTHING batch was rejected"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "The in-memory ledger engine is on"
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchTransferResponse>> transferBatch(
+            @Valid @RequestBody BatchTransferRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original result")
+            @Size(max = 80, message = "Idempotency key must be at most 80 characters")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
+        BatchTransferResponse response = batchTransferService.transferBatch(request);
+        if (request.getMode() == BatchTransferRequest.Mode.ALL_OR_NOTHING && !response.isApplied()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.<BatchTransferResponse>builder()
+                            .code(400)
+                            .message("Batch rejected; no transfers were applied")
+                            .data(response)
+                            .build());
+        }
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
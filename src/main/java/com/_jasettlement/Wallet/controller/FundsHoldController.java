@@ -0,0 +1,143 @@
+package com._jasettlement.Wallet.controller;
+
+import com._jasettlement.Wallet.dto.ApiResponse;
+import com._jasettlement.Wallet.dto.request.CaptureHoldRequest;
+import com._jasettlement.Wallet.dto.request.HoldRequest;
+import com._jasettlement.Wallet.dto.response.FundsHoldResponse;
+import com._jasettlement.Wallet.service.WalletService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/wallets/holds")
+@RequiredArgsConstructor
+@Tag(name = "Funds Holds", description = "APIs for authorizing funds and settling them later")
+public class FundsHoldController {
+
+    private final WalletService walletService;
+
+    @Operation(
+            summary = "Place a funds hold",
+            description = "Reserves an amount against the wallet's available balance (balance minus active holds) without posting to the ledger. The hold expires after expiresInSeconds unless it is captured or released first."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "201",
+                    description = "Hold authorized",
+                    content = @Content(schema = @Schema(implementation = FundsHoldResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Wallet not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Insufficient available funds or invalid amount"
+            )
+    })
+    @PostMapping
+    public ResponseEntity<ApiResponse<FundsHoldResponse>> holdFunds(
+            @Valid @RequestBody HoldRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original hold")
+            @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
+        FundsHoldResponse response = walletService.holdFunds(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Get a funds hold",
+            description = "Returns the hold's status and the wallet's current available balance"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Hold found",
+                    content = @Content(schema = @Schema(implementation = FundsHoldResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Hold not found"
+            )
+    })
+    @GetMapping("/{holdId}")
+    public ResponseEntity<ApiResponse<FundsHoldResponse>> getHold(
+            @Parameter(description = "Hold ID", required = true)
+            @PathVariable String holdId) {
+        FundsHoldResponse response = walletService.getHold(holdId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Capture a funds hold",
+            description = "Posts a DEBIT for the held amount, or for part of it; the remainder is released. Capturing again with the same amount returns the captured hold."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Hold captured",
+                    content = @Content(schema = @Schema(implementation = FundsHoldResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Hold not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "Hold already released, expired or captured for a different amount"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Amount exceeds the hold"
+            )
+    })
+    @PostMapping("/{holdId}/capture")
+    public ResponseEntity<ApiResponse<FundsHoldResponse>> captureHold(
+            @Parameter(description = "Hold ID", required = true)
+            @PathVariable String holdId,
+            @Valid @RequestBody(required = false) CaptureHoldRequest request) {
+        FundsHoldResponse response = walletService.captureHold(holdId,
+                request != null ? request : new CaptureHoldRequest());
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Release a funds hold",
+            description = "Gives the held amount back to the wallet's available balance. Releasing a released hold returns it unchanged."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Hold released",
+                    content = @Content(schema = @Schema(implementation = FundsHoldResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Hold not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "Hold already captured or expired"
+            )
+    })
+    @PostMapping("/{holdId}/release")
+    public ResponseEntity<ApiResponse<FundsHoldResponse>> releaseHold(
+            @Parameter(description = "Hold ID", required = true)
+            @PathVariable String holdId) {
+        FundsHoldResponse response = walletService.releaseHold(holdId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
@@ -0,0 +1,73 @@
+package com._jasettlement.Wallet.controller;
+
+import com._jasettlement.Wallet.service.StatementExportService;
+import com._jasettlement.Wallet.service.WalletService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/v1/wallets")
+@RequiredArgsConstructor
+@Tag(name = "Statements", description = "APIs for exporting a wallet's full ledger")
+public class StatementExportController {
+
+    private final StatementExportService statementExportService;
+    private final WalletService walletService;
+
+    @Operation(
+            summary = "Export a wallet statement",
+            description = "Streams every ledger entry of the wallet in ledger-sequence order as CSV or NDJSON (one TransactionResponse per line). Rows are written as they are read from the database, so statements of any length start downloading immediately."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Statement streamed as an attachment"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Wallet not found"
+            )
+    })
+    @GetMapping("/{walletId}/statement")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @Parameter(description = "Wallet ID", required = true)
+            @PathVariable String walletId,
+            @Parameter(description = "CSV or NDJSON")
+            @RequestParam(defaultValue = "CSV") StatementExportService.Format format,
+            @Parameter(description = "Compress the statement with gzip")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        // Resolve the wallet before streaming so an unknown ID still gets a 404 instead of an empty file
+        walletService.getWallet(walletId);
+
+        String extension = format.name().toLowerCase(Locale.ROOT) + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : format == StatementExportService.Format.CSV
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType("application/x-ndjson");
+
+        StreamingResponseBody body = output -> statementExportService.export(walletId, format, gzip, output);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement-" + walletId + "." + extension)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
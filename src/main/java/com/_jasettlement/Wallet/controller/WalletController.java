@@ -4,9 +4,12 @@ package com._jasettlement.Wallet.controller;
 import com._jasettlement.Wallet.dto.ApiResponse;
 import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
 import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransactionHistoryRequest;
 import com._jasettlement.Wallet.dto.request.TransferRequest;
 import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.TransactionHistoryResponse;
 import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
 import com._jasettlement.Wallet.dto.response.WalletResponse;
 import com._jasettlement.Wallet.service.WalletService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +19,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +31,8 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Wallet Management", description = "APIs for managing wallets and transactions")
 public class WalletController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final WalletService walletService;
 
     @Operation(
@@ -74,6 +80,33 @@ public class WalletController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @Operation(
+            summary = "Get wallet transaction history",
+            description = "Returns a wallet's statement newest first using cursor pagination. Pass the returned nextCursor to fetch the following page."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Statement page returned",
+                    content = @Content(schema = @Schema(implementation = TransactionHistoryResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Wallet not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid filter, limit or cursor"
+            )
+    })
+    @GetMapping("/{walletId}/transactions")
+    public ResponseEntity<ApiResponse<TransactionHistoryResponse>> getTransactionHistory(
+            @Parameter(description = "Wallet ID", required = true)
+            @PathVariable String walletId,
+            @Valid @ModelAttribute TransactionHistoryRequest request) {
+        TransactionHistoryResponse response = walletService.getTransactionHistory(walletId, request);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
 
     @Operation(
             summary = "Deposit funds",
@@ -96,7 +129,13 @@ public class WalletController {
     })
     @PostMapping("/deposit")
     public ResponseEntity<ApiResponse<TransactionResponse>> deposit(
-            @Valid @RequestBody DepositRequest request) {
+            @Valid @RequestBody DepositRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original result")
+            @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
         TransactionResponse response = walletService.deposit(request);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
@@ -122,20 +161,26 @@ public class WalletController {
     })
     @PostMapping("/withdraw")
     public ResponseEntity<ApiResponse<TransactionResponse>> withdraw(
-            @Valid @RequestBody WithdrawalRequest request) {
+            @Valid @RequestBody WithdrawalRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original result")
+            @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
         TransactionResponse response = walletService.withdraw(request);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     @Operation(
             summary = "Transfer funds between wallets",
-            description = "Transfers money from one wallet to another. Creates TRANSFER_OUT and TRANSFER_IN transactions."
+            description = "Transfers money from one wallet to another. Creates one transfer with linked TRANSFER_OUT and TRANSFER_IN legs and returns both."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "200",
                     description = "Transfer successful",
-                    content = @Content(schema = @Schema(implementation = TransactionResponse.class))
+                    content = @Content(schema = @Schema(implementation = TransferResponse.class))
             ),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
                     responseCode = "404",
@@ -147,9 +192,69 @@ public class WalletController {
             )
     })
     @PostMapping("/transfer")
-    public ResponseEntity<ApiResponse<TransactionResponse>> transfer(
-            @Valid @RequestBody TransferRequest request) {
-        TransactionResponse response = walletService.transfer(request);
+    public ResponseEntity<ApiResponse<TransferResponse>> transfer(
+            @Valid @RequestBody TransferRequest request,
+            @Parameter(description = "Client-generated key; retries with the same key return the original result")
+            @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
+        TransferResponse response = walletService.transfer(request);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Get a transfer",
+            description = "Returns a transfer with both of its legs, and the id of its reversal if it has been reversed"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Transfer found",
+                    content = @Content(schema = @Schema(implementation = TransferResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Transfer not found"
+            )
+    })
+    @GetMapping("/transfers/{transferId}")
+    public ResponseEntity<ApiResponse<TransferResponse>> getTransfer(
+            @Parameter(description = "Transfer ID", required = true)
+            @PathVariable String transferId) {
+        TransferResponse response = walletService.getTransfer(transferId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(
+            summary = "Reverse a transfer",
+            description = "Moves the amount of a transfer back from the destination to the source wallet as a new linked transfer. A transfer can be reversed once; repeating the call returns the existing reversal, so no Idempotency-Key is needed."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Reversal posted",
+                    content = @Content(schema = @Schema(implementation = TransferResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Transfer not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Insufficient funds in the destination wallet"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "409",
+                    description = "The transfer is itself a reversal"
+            )
+    })
+    @PostMapping("/transfers/{transferId}/reversal")
+    public ResponseEntity<ApiResponse<TransferResponse>> reverseTransfer(
+            @Parameter(description = "Transfer ID", required = true)
+            @PathVariable String transferId) {
+        TransferResponse response = walletService.reverseTransfer(transferId);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
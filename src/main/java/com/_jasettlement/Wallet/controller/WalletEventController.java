@@ -0,0 +1,91 @@
+package com._jasettlement.Wallet.controller;
+
+import com._jasettlement.Wallet.dto.ApiResponse;
+import com._jasettlement.Wallet.dto.response.WalletEventsResponse;
+import com._jasettlement.Wallet.service.WalletEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/v1/wallets")
+@RequiredArgsConstructor
+@Tag(name = "Wallet Events", description = "Balance change notifications instead of polling wallets")
+public class WalletEventController {
+
+    private final WalletEventService walletEventService;
+
+    @Operation(
+            summary = "Stream balance changes",
+            description = "Server-sent events, one 'balance' event per ledger entry of the wallet. Each event id is its offset; "
+                    + "reconnect with Last-Event-ID (or ?after=) to resume without gaps. A client that falls behind "
+                    + "receives a 'dropped' event and should reconnect."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Wallet not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "410",
+                    description = "Events after the offset are no longer retained"
+            )
+    })
+    @GetMapping(value = "/{walletId}/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @Parameter(description = "Wallet ID", required = true)
+            @PathVariable String walletId,
+            @Parameter(description = "Offset of the last event received; omit to receive only new changes")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Set by EventSource clients on reconnect; takes precedence over after")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return walletEventService.stream(walletId, lastEventId != null ? lastEventId : after);
+    }
+
+    @Operation(
+            summary = "Long-poll balance changes",
+            description = "Returns the wallet's balance changes after the offset, waiting up to waitSeconds for one if there are none yet. "
+                    + "Pass nextOffset as after on the next call."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Events returned, possibly none if the wait ran out",
+                    content = @Content(schema = @Schema(implementation = WalletEventsResponse.class))
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Wallet not found"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "410",
+                    description = "Events after the offset are no longer retained"
+            )
+    })
+    @GetMapping("/{walletId}/events")
+    public CompletableFuture<ResponseEntity<ApiResponse<WalletEventsResponse>>> pollEvents(
+            @Parameter(description = "Wallet ID", required = true)
+            @PathVariable String walletId,
+            @Parameter(description = "Offset of the last event received; omit to wait for the next change")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Seconds to wait when there is nothing new, capped at wallet.events.max-wait")
+            @RequestParam(defaultValue = "25") int waitSeconds) {
+        return walletEventService.poll(walletId, after, Duration.ofSeconds(waitSeconds))
+                .thenApply(response -> ResponseEntity.ok(ApiResponse.success(response)));
+    }
+}
@@ -0,0 +1,51 @@
+package com._jasettlement.Wallet.controller;
+
+import com._jasettlement.Wallet.service.WalletFrameService;
+import com._jasettlement.Wallet.util.WalletFrameCodec;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/wallets")
+@RequiredArgsConstructor
+@Tag(name = "Internal Binary API", description = "Compact framed protocol for service-to-service calls")
+public class WalletFrameController {
+
+    private final WalletFrameService walletFrameService;
+
+    @Operation(
+            summary = "Run pipelined wallet operations",
+            description = "Accepts a stream of length-prefixed deposit, withdraw, transfer and getWallet frames ("
+                    + WalletFrameCodec.MEDIA_TYPE + ") and streams back one response frame per request frame, in order. "
+                    + "Frames run one after another; a failed frame carries its own status and message."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Frames processed; see the status of each response frame"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Missing or unsupported frame version"
+            )
+    })
+    @PostMapping(value = "/frames", consumes = WalletFrameCodec.MEDIA_TYPE)
+    public void exchange(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(request.getInputStream()));
+        // Checked before the content type is set, so a bad header still gets the JSON error envelope
+        WalletFrameCodec.readRequestHeader(in);
+        response.setContentType(WalletFrameCodec.MEDIA_TYPE);
+        walletFrameService.exchange(in, response.getOutputStream());
+    }
+}
@@ -0,0 +1,57 @@
+package com._jasettlement.Wallet.controller;
+
+import com._jasettlement.Wallet.dto.response.WalletOnboardingResult;
+import com._jasettlement.Wallet.service.WalletOnboardingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/v1/wallets")
+@RequiredArgsConstructor
+@Tag(name = "Wallet Onboarding", description = "APIs for migrating customer bases in bulk")
+public class WalletOnboardingController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    private final WalletOnboardingService walletOnboardingService;
+
+    @Operation(
+            summary = "Create wallets in bulk",
+            description = "Streams CreateWalletRequest records as NDJSON (one JSON object per line) or CSV (header row with fullName,email,bvn). Results are streamed back as NDJSON, one line per record, while the upload is still being processed."
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Upload accepted; each result line reports CREATED, DUPLICATE or INVALID",
+                    content = @Content(mediaType = NDJSON, schema = @Schema(implementation = WalletOnboardingResult.class))
+            )
+    })
+    @PostMapping(value = "/bulk", consumes = {NDJSON, CSV}, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> createWallets(HttpServletRequest request) throws IOException {
+        WalletOnboardingService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? WalletOnboardingService.Format.CSV
+                : WalletOnboardingService.Format.NDJSON;
+        InputStream upload = request.getInputStream();
+
+        StreamingResponseBody body = output -> walletOnboardingService.onboard(upload, format, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+}
@@ -0,0 +1,31 @@
+package com._jasettlement.Wallet.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+
+    public enum Mode {
+        // Every leg is applied or none is; wallets are checked on their net position across the batch
+        ALL_OR_NOTHING,
+        // Legs are applied in order and individually rejected when the source cannot cover them
+        BEST_EFFORT
+    }
+
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 10000, message = "A batch may contain at most 10000 transfers")
+    private List<@Valid TransferRequest> transfers;
+
+    @NotNull(message = "Mode is required")
+    private Mode mode = Mode.ALL_OR_NOTHING;
+
+    // Also accepted as the Idempotency-Key header; leg references are derived from it
+    @Size(max = 80, message = "Idempotency key must be at most 80 characters")
+    private String idempotencyKey;
+}
@@ -0,0 +1,13 @@
+package com._jasettlement.Wallet.dto.request;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+@Data
+public class CaptureHoldRequest {
+    // Defaults to the full hold; anything less releases the rest
+    @Min(value = 1, message = "Amount must be positive")
+    private Long amountMinorUnits;
+
+    private String description;
+}
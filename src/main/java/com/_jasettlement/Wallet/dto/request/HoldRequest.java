@@ -0,0 +1,27 @@
+package com._jasettlement.Wallet.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class HoldRequest {
+    @NotBlank(message = "Wallet ID is required")
+    private String walletId;
+
+    @NotNull(message = "Amount is required")
+    @Min(value = 1, message = "Amount must be positive")
+    private Long amountMinorUnits;
+
+    private String description;
+
+    // Defaults to wallet.holds.default-ttl; capped at wallet.holds.max-ttl
+    @Min(value = 1, message = "Expiry must be positive")
+    private Long expiresInSeconds;
+
+    // Also accepted as the Idempotency-Key header; retries with the same key return the original hold
+    @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+    private String idempotencyKey;
+}
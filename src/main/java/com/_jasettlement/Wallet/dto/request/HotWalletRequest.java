@@ -0,0 +1,15 @@
+package com._jasettlement.Wallet.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class HotWalletRequest {
+    // 0 turns hot wallet mode off; more stripes let more credits run concurrently but make sweeps longer
+    @NotNull(message = "Stripe count is required")
+    @Min(value = 0, message = "Stripe count cannot be negative")
+    @Max(value = 256, message = "Stripe count must be at most 256")
+    private Integer stripes;
+}
@@ -0,0 +1,28 @@
+package com._jasettlement.Wallet.dto.request;
+
+import com._jasettlement.Wallet.entity.TransactionType;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+public class TransactionHistoryRequest {
+
+    private Set<TransactionType> type;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private String cursor;
+
+    @Min(value = 1, message = "limit must be at least 1")
+    @Max(value = 200, message = "limit must be at most 200")
+    private Integer limit = 50;
+}
@@ -3,6 +3,7 @@ package com._jasettlement.Wallet.dto.request;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
@@ -15,4 +16,8 @@ public class WithdrawalRequest {
     private Long amountMinorUnits;
 
     private String description;
+
+    // Also accepted as the Idempotency-Key header; retries with the same key replay the original result
+    @Size(max = 100, message = "Idempotency key must be at most 100 characters")
+    private String idempotencyKey;
 }
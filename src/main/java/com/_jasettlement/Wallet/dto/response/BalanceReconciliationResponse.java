@@ -0,0 +1,19 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class BalanceReconciliationResponse {
+    private long walletsChecked;
+    private long walletsDrifted;
+    private long walletsRepaired;
+    private long walletsSkipped;
+    private List<String> driftedWalletIds;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,19 @@
+package com._jasettlement.Wallet.dto.response;
+
+import com._jasettlement.Wallet.dto.request.BatchTransferRequest;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchTransferResponse {
+    private String batchReference;
+    private BatchTransferRequest.Mode mode;
+    private boolean applied;
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<TransferLegResult> results;
+}
@@ -0,0 +1,27 @@
+package com._jasettlement.Wallet.dto.response;
+
+import com._jasettlement.Wallet.entity.HoldStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class FundsHoldResponse {
+    private String holdId;
+    private String reference;
+    private String walletId;
+    private Long amountMinorUnits;
+    private String currency;
+    private HoldStatus status;
+    private String description;
+    private Long capturedMinorUnits;
+    // The capture's DEBIT entry
+    private String transactionId;
+    // Wallet balance less active holds, as this instance sees it
+    private Long availableBalanceMinorUnits;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime closedAt;
+}
@@ -0,0 +1,18 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class HotWalletResponse {
+    private String walletId;
+    private int stripeCount;
+    private long balanceMinorUnits;
+    // Part of the balance still on the stripes, waiting for the next sweep
+    private long stripedMinorUnits;
+    private long ledgerSequence;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class LedgerPeriodResponse {
+    private LocalDate periodStart;
+    private String status;
+    private long walletCount;
+    private long rowCount;
+    private LocalDateTime closedAt;
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,20 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class LedgerTieringResponse {
+    private List<LocalDate> periodsClosed;
+    private List<LocalDate> periodsArchived;
+    private long checkpointsWritten;
+    private long rowsArchived;
+    private long archivedBytes;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,19 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class SettlementRunResponse {
+    private LocalDate businessDate;
+    private long rowsSettled;
+    private long breaksFound;
+    private LocalDateTime settledUpTo;
+    private boolean dayComplete;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,39 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class SettlementSummaryResponse {
+    private LocalDate businessDate;
+    private long rowsSettled;
+    private LocalDateTime settledUpTo;
+    private boolean dayComplete;
+    private long walletCount;
+    private List<TypeTotal> totalsByType;
+    private long breakCount;
+    private List<Break> breaks;
+
+    @Data
+    @Builder
+    public static class TypeTotal {
+        private String type;
+        private long entryCount;
+        private long amountMinorUnits;
+    }
+
+    @Data
+    @Builder
+    public static class Break {
+        private String kind;
+        private String reference;
+        private String walletId;
+        private long amountMinorUnits;
+        private LocalDateTime detectedAt;
+    }
+}
@@ -0,0 +1,15 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionHistoryResponse {
+    private String walletId;
+    private List<TransactionResponse> transactions;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TransferLegResult {
+
+    public enum Status { SUCCEEDED, FAILED, NOT_APPLIED }
+
+    private int index;
+    private Status status;
+    private String reference;
+    private String transferId;
+    private String fromWalletId;
+    private String toWalletId;
+    private Long amountMinorUnits;
+    private Long fromBalanceAfterMinorUnits;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class TransferResponse {
+    private String transferId;
+    private String reference;
+    private String fromWalletId;
+    private String toWalletId;
+    private Long amountMinorUnits;
+    private String currency;
+    private String description;
+    private String reversalOf;
+    private String reversedBy;
+    private TransactionResponse debit;
+    private TransactionResponse credit;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class WalletDailyPositionResponse {
+    private LocalDate businessDate;
+    private String walletId;
+    private long creditsMinorUnits;
+    private long debitsMinorUnits;
+    private long netMinorUnits;
+    private long entryCount;
+    private Long closingBalanceMinorUnits;
+    private String currency;
+}
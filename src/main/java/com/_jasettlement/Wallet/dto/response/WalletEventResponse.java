@@ -0,0 +1,22 @@
+package com._jasettlement.Wallet.dto.response;
+
+import com._jasettlement.Wallet.entity.TransactionType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class WalletEventResponse {
+    // Pass back as Last-Event-ID or ?after= to resume after this event
+    private Long offset;
+    private String walletId;
+    private String transactionId;
+    private TransactionType type;
+    private Long amountMinorUnits;
+    private String currency;
+    private Long balanceAfterMinorUnits;
+    private Long ledgerSequence;
+    private LocalDateTime createdAt;
+}
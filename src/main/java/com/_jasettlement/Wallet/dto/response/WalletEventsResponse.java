@@ -0,0 +1,15 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class WalletEventsResponse {
+    private String walletId;
+    private List<WalletEventResponse> events;
+    // Offset to pass as ?after= on the next poll; unchanged when the poll timed out empty
+    private Long nextOffset;
+}
@@ -0,0 +1,21 @@
+package com._jasettlement.Wallet.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one record of a bulk onboarding upload, streamed back as one NDJSON line.
+ */
+@Data
+@Builder
+public class WalletOnboardingResult {
+
+    public enum Status { CREATED, DUPLICATE, INVALID }
+
+    // 1-based record number in the upload (CSV header excluded)
+    private long record;
+    private Status status;
+    private String email;
+    private String walletId;
+    private String error;
+}
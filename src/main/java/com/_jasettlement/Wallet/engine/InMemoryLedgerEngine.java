@@ -0,0 +1,450 @@
+package com._jasettlement.Wallet.engine;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.EngineModeConflictException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.index.MappedWalletIndex;
+import com._jasettlement.Wallet.repository.WalletJdbcRepository.LedgerPosition;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.service.implementation.AvailableBalanceTracker;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * LMAX-style posting engine. Balances live in memory, partitioned by walletId across single-threaded
+ * {@link LedgerShard}s; every posting is appended to the {@link LedgerJournal} and acknowledged once
+ * its frame is fsynced. The database is only read to seed a wallet the journal has never seen, and is
+ * kept up to date asynchronously by the {@link LedgerProjection}.
+ * <p>
+ * A transfer between wallets on different shards is debited first, then credited on the other shard,
+ * each leg in its own frame. The debit frame always precedes the credit frame in the journal, so a
+ * crash between the two is detected on replay and the credit is re-posted.
+ * <p>
+ * Debits are checked against the shard's balance less what the {@link AvailableBalanceTracker} holds
+ * for the wallet, and stay reserved there until their frame is durable.
+ * <p>
+ * The journal is compacted at startup and every {@code wallet.engine.compaction-interval} up to the
+ * projection checkpoint, since the database snapshot already holds everything before it. Compaction
+ * never passes the debit of a cross-shard transfer whose credit is not durable yet, so a restart still
+ * finds and completes it.
+ * <p>
+ * The engine remembers the reference of every posting the projection has not written yet, and rebuilds
+ * that set from the frames past the checkpoint on replay. A retry of such a posting gets the journaled
+ * entry back instead of a second posting, even after a restart or once the idempotency guard has
+ * forgotten the key. A reference leaves the set only after its rows are committed, so callers that
+ * check here before checking the database never miss a posting that exists.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.engine.mode", havingValue = "IN_MEMORY")
+@Slf4j
+public class InMemoryLedgerEngine {
+
+    private static final String DEBIT_SUFFIX = "_debit";
+    private static final String CREDIT_SUFFIX = "_credit";
+    private static final long SAFE_POINT_POLL_MILLIS = 20;
+
+    private final LedgerJournal journal;
+    private final LedgerProjection projection;
+    private final LedgerShard[] shards;
+    private final AvailableBalanceTracker availableBalances;
+    private final Optional<MappedWalletIndex> walletIndex;
+    // Journal offset at which each in-flight cross-shard transfer's debit was appended
+    private final Map<String, Long> transfersAwaitingCredit = new ConcurrentHashMap<>();
+    // Postings not yet in the database, by reference; a transfer is keyed by its debit leg's reference
+    private final Map<String, CompletableFuture<List<JournalEntry>>> unprojected = new ConcurrentHashMap<>();
+    // Durable keys of the map above in journal order, so they can be dropped as the checkpoint passes them
+    private final Queue<JournaledReference> unprojectedByOffset = new ConcurrentLinkedQueue<>();
+    private volatile long provenSafePoint;
+
+    public InMemoryLedgerEngine(LedgerJournal journal, LedgerProjection projection,
+                                WalletRepository walletRepository, WalletProperties walletProperties,
+                                AvailableBalanceTracker availableBalances, Optional<MappedWalletIndex> walletIndex) {
+        this.journal = journal;
+        this.projection = projection;
+        this.availableBalances = availableBalances;
+        this.walletIndex = walletIndex;
+        this.shards = new LedgerShard[walletProperties.getEngine().getShards()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new LedgerShard(i, walletId -> walletRepository.findByWalletId(walletId)
+                    .map(wallet -> {
+                        // Stripe money is not in the row balance; the engine would post against a short balance
+                        if (wallet.getStripeCount() != null && wallet.getStripeCount() > 0) {
+                            throw new EngineModeConflictException("Wallet " + walletId
+                                    + " is in hot wallet mode; turn it off before posting through the in-memory engine");
+                        }
+                        return new LedgerShard.WalletState(
+                                wallet.getBalanceMinorUnits(), wallet.getLedgerSequence(), wallet.getUpdatedAt());
+                    })
+                    .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + walletId)));
+        }
+
+        Map<String, JournalEntry> debitsAwaitingCredit = replay(projection);
+        journal.onDurable((offset, entries) -> {
+            projection.enqueue(offset, entries);
+            rememberUnprojected(offset, entries);
+        });
+        completeTransfers(debitsAwaitingCredit);
+        compactJournal();
+    }
+
+    public CompletableFuture<JournalEntry> post(String walletId, TransactionType type, long amountMinorUnits,
+                                                String reference, String description) {
+        return post(walletId, type, amountMinorUnits, 0, reference, description);
+    }
+
+    /**
+     * Posts the DEBIT of a captured funds hold. The hold's reservation of {@code heldMinorUnits} covers
+     * the debit instead of being counted against it.
+     */
+    public CompletableFuture<JournalEntry> capture(String walletId, long amountMinorUnits, long heldMinorUnits,
+                                                   String reference, String description) {
+        return post(walletId, TransactionType.DEBIT, amountMinorUnits, heldMinorUnits, reference, description);
+    }
+
+    /**
+     * The posting with this reference if the database may not have it yet. Checked before the
+     * database, a miss in both means the reference was never posted.
+     */
+    public Optional<CompletableFuture<JournalEntry>> findUnprojected(String reference) {
+        return Optional.ofNullable(unprojected.get(reference)).map(legs -> legs.thenApply(entries -> entries.get(0)));
+    }
+
+    /**
+     * The {@code [debit, credit]} legs of the transfer with this reference if the database may not
+     * have them yet.
+     */
+    public Optional<CompletableFuture<List<JournalEntry>>> findUnprojectedTransfer(String reference) {
+        return Optional.ofNullable(unprojected.get(reference + DEBIT_SUFFIX));
+    }
+
+    private CompletableFuture<JournalEntry> post(String walletId, TransactionType type, long amountMinorUnits,
+                                                 long convertedHold, String reference, String description) {
+        return deduplicated(reference, () -> shardFor(walletId).submit(shard -> {
+            JournalEntry entry = apply(shard.state(walletId), walletId, null, type, amountMinorUnits, reference, description,
+                    null, null, convertedHold);
+            return settled(journal.append(List.of(entry)).thenApply(offset -> List.of(indexed(entry))), entry, convertedHold);
+        }).thenCompose(Function.identity())).thenApply(entries -> entries.get(0));
+    }
+
+    /**
+     * Posts both legs of a transfer and completes with {@code [debit, credit]} once both are durable.
+     * Legs use the {@code reference + "_debit"} / {@code "_credit"} convention of the database path
+     * and share a new transfer id; {@code reversalOf} names the transfer this one reverses, if any.
+     */
+    public CompletableFuture<List<JournalEntry>> transfer(String fromWalletId, String toWalletId, long amountMinorUnits,
+                                                          String reference, String description, String reversalOf) {
+        return deduplicated(reference + DEBIT_SUFFIX,
+                () -> postTransfer(fromWalletId, toWalletId, amountMinorUnits, reference, description, reversalOf));
+    }
+
+    private CompletableFuture<List<JournalEntry>> postTransfer(String fromWalletId, String toWalletId, long amountMinorUnits,
+                                                               String reference, String description, String reversalOf) {
+        LedgerShard fromShard = shardFor(fromWalletId);
+        LedgerShard toShard = shardFor(toWalletId);
+        String transferId = TimeOrderedIds.nextString();
+
+        if (fromShard == toShard) {
+            return fromShard.submit(shard -> {
+                LedgerShard.WalletState from = shard.state(fromWalletId);
+                LedgerShard.WalletState to = shard.state(toWalletId);
+                JournalEntry debit = apply(from, fromWalletId, toWalletId, TransactionType.TRANSFER_OUT,
+                        amountMinorUnits, reference + DEBIT_SUFFIX, description, transferId, reversalOf, 0);
+                JournalEntry credit = apply(to, toWalletId, fromWalletId, TransactionType.TRANSFER_IN,
+                        amountMinorUnits, reference + CREDIT_SUFFIX, description, transferId, reversalOf, 0);
+                List<JournalEntry> legs = List.of(debit, credit);
+                return settled(journal.append(legs).thenApply(offset -> List.of(indexed(debit), indexed(credit))),
+                        debit, 0);
+            }).thenCompose(Function.identity());
+        }
+
+        // Load the credit side first so that, once the debit is posted, the credit cannot fail on a missing wallet
+        return toShard.submit(shard -> shard.state(toWalletId))
+                .thenCompose(loaded -> fromShard.submit(shard -> {
+                    JournalEntry debit = apply(shard.state(fromWalletId), fromWalletId, toWalletId,
+                            TransactionType.TRANSFER_OUT, amountMinorUnits, reference + DEBIT_SUFFIX, description,
+                            transferId, reversalOf, 0);
+                    transfersAwaitingCredit.put(transferId, journal.end());
+                    CompletableFuture<JournalEntry> debitDurable =
+                            settled(journal.append(List.of(debit)).thenApply(offset -> indexed(debit)), debit, 0);
+                    CompletableFuture<JournalEntry> creditDurable = postCredit(debit)
+                            .thenApply(credit -> {
+                                transfersAwaitingCredit.remove(transferId);
+                                return credit;
+                            });
+                    return debitDurable.thenCombine(creditDurable, (debited, credit) -> List.of(debited, credit));
+                }))
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Live balance as seen by the owning shard. It includes postings whose frame is still waiting for
+     * the group commit, which are never acknowledged to their callers unless they become durable.
+     */
+    public CompletableFuture<WalletBalance> balance(String walletId) {
+        return shardFor(walletId).submit(shard -> {
+            LedgerShard.WalletState state = shard.state(walletId);
+            return new WalletBalance(state.balance, state.sequence, state.updatedAt);
+        });
+    }
+
+    /**
+     * The wallet's available balance, seeding the {@link AvailableBalanceTracker} from the shard's live
+     * state when the wallet is not tracked yet. Seeding on the shard keeps it ordered with the wallet's
+     * debits, which reserve through the tracker on the same thread.
+     */
+    public CompletableFuture<Long> trackAvailable(String walletId) {
+        return shardFor(walletId).submit(shard -> {
+            LedgerShard.WalletState state = shard.state(walletId);
+            return availableBalances.available(walletId, () -> new LedgerPosition(state.balance, state.sequence));
+        });
+    }
+
+    /**
+     * Epoch millis before which every posting is in the database, or the last such time proven when
+     * the projection does not catch up within {@code maxWait}. Entries get their id when their shard
+     * applies them, and a shard appends an entry in the same task, so once a no-op has run on every
+     * shard after time T, all entries with older ids sit in frames before the journal's next sync point.
+     */
+    public long databaseSafePoint(Duration maxWait) {
+        long candidate = System.currentTimeMillis();
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        try {
+            CompletableFuture<?>[] barriers = new CompletableFuture<?>[shards.length];
+            for (int i = 0; i < shards.length; i++) {
+                barriers[i] = shards[i].submit(shard -> null);
+            }
+            long offset = CompletableFuture.allOf(barriers)
+                    .thenCompose(ignored -> journal.sync())
+                    .get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            while (projection.checkpoint() < offset) {
+                if (System.nanoTime() >= deadline) {
+                    return provenSafePoint;
+                }
+                Thread.sleep(SAFE_POINT_POLL_MILLIS);
+            }
+            provenSafePoint = candidate;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            log.warn("Could not establish a database safe point: {}", ex.toString());
+        }
+        return provenSafePoint;
+    }
+
+    /**
+     * Drops journal frames the projection has already written to the database.
+     */
+    @Scheduled(fixedDelayString = "${wallet.engine.compaction-interval:10m}")
+    public void compactJournal() {
+        long safePoint = projection.checkpoint();
+        for (long debitOffset : transfersAwaitingCredit.values()) {
+            safePoint = Math.min(safePoint, debitOffset);
+        }
+        try {
+            journal.compact(safePoint);
+        } catch (RuntimeException ex) {
+            log.error("Ledger journal compaction up to offset {} failed", safePoint, ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (LedgerShard shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    /**
+     * Runs the posting unless one with the same reference is still waiting for the projection, in
+     * which case that posting's result is returned. A posting that fails frees its reference again.
+     */
+    private CompletableFuture<List<JournalEntry>> deduplicated(String reference,
+                                                               Supplier<CompletableFuture<List<JournalEntry>>> posting) {
+        CompletableFuture<List<JournalEntry>> result = new CompletableFuture<>();
+        CompletableFuture<List<JournalEntry>> earlier = unprojected.putIfAbsent(reference, result);
+        if (earlier != null) {
+            return earlier;
+        }
+        try {
+            posting.get().whenComplete((legs, failure) -> {
+                if (failure != null) {
+                    unprojected.remove(reference, result);
+                    result.completeExceptionally(failure);
+                } else {
+                    result.complete(legs);
+                }
+            });
+        } catch (RuntimeException ex) {
+            unprojected.remove(reference, result);
+            result.completeExceptionally(ex);
+            throw ex;
+        }
+        return result;
+    }
+
+    /**
+     * Runs on the journal writer after the frame is handed to the projection. A cross-shard credit
+     * frame adds nothing: its transfer is keyed by the debit frame before it.
+     */
+    private void rememberUnprojected(long offset, List<JournalEntry> entries) {
+        JournalEntry first = entries.get(0);
+        if (first.type() != TransactionType.TRANSFER_IN) {
+            unprojectedByOffset.add(new JournaledReference(offset, first.reference()));
+        }
+        forgetProjected();
+    }
+
+    private synchronized void forgetProjected() {
+        long projected = projection.checkpoint();
+        for (JournaledReference head = unprojectedByOffset.peek();
+             head != null && head.offset() <= projected;
+             head = unprojectedByOffset.peek()) {
+            unprojectedByOffset.poll();
+            unprojected.remove(head.reference());
+        }
+    }
+
+    private CompletableFuture<JournalEntry> postCredit(JournalEntry debit) {
+        String toWalletId = debit.counterpartyWalletId();
+        String reference = debit.reference().substring(0, debit.reference().length() - DEBIT_SUFFIX.length()) + CREDIT_SUFFIX;
+        return shardFor(toWalletId).submit(shard -> {
+            JournalEntry credit = apply(shard.state(toWalletId), toWalletId, debit.walletId(), TransactionType.TRANSFER_IN,
+                    debit.amountMinorUnits(), reference, debit.description(), debit.transferId(), debit.reversalOf(), 0);
+            return journal.append(List.of(credit)).thenApply(offset -> indexed(credit));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Restores every frame into the shards, re-projects the ones past the checkpoint and remembers
+     * their references. A cross-shard transfer's legs are known once its credit frame is seen; one whose
+     * credit is missing is returned, keyed by its base reference, and completed by {@link #completeTransfers}.
+     */
+    private Map<String, JournalEntry> replay(LedgerProjection projection) {
+        Map<String, JournalEntry> debitsAwaitingCredit = new HashMap<>();
+        long projected = projection.checkpoint();
+        long[] frames = {0};
+        long end = journal.replay(0, (offset, entries) -> {
+            for (JournalEntry entry : entries) {
+                shardFor(entry.walletId()).restore(entry);
+                indexed(entry);
+                if (entry.type() == TransactionType.TRANSFER_OUT) {
+                    debitsAwaitingCredit.put(stripSuffix(entry.reference(), DEBIT_SUFFIX), entry);
+                } else if (entry.type() == TransactionType.TRANSFER_IN) {
+                    JournalEntry debit = debitsAwaitingCredit.remove(stripSuffix(entry.reference(), CREDIT_SUFFIX));
+                    CompletableFuture<List<JournalEntry>> transfer = debit == null ? null : unprojected.get(debit.reference());
+                    if (transfer != null) {
+                        transfer.complete(List.of(debit, entry));
+                    }
+                }
+            }
+            if (offset > projected) {
+                projection.enqueue(offset, entries);
+                JournalEntry first = entries.get(0);
+                if (first.type() != TransactionType.TRANSFER_IN) {
+                    unprojected.put(first.reference(), first.type() == TransactionType.TRANSFER_OUT && entries.size() == 1
+                            ? new CompletableFuture<>()
+                            : CompletableFuture.completedFuture(entries));
+                    unprojectedByOffset.add(new JournaledReference(offset, first.reference()));
+                }
+            }
+            frames[0]++;
+        });
+        log.info("Replayed {} journal frames ({} bytes) into {} ledger shards; projection resumes at offset {}",
+                frames[0], end, shards.length, projected);
+        return debitsAwaitingCredit;
+    }
+
+    /**
+     * A durable debit is the commit point of a transfer, so a debit without its credit is rolled forward.
+     */
+    private void completeTransfers(Map<String, JournalEntry> debitsAwaitingCredit) {
+        if (debitsAwaitingCredit.isEmpty()) {
+            return;
+        }
+        log.warn("Completing {} transfers whose credit leg was not durable before the last shutdown",
+                debitsAwaitingCredit.size());
+        List<CompletableFuture<JournalEntry>> credits = new ArrayList<>();
+        for (JournalEntry debit : debitsAwaitingCredit.values()) {
+            CompletableFuture<List<JournalEntry>> transfer = unprojected.get(debit.reference());
+            credits.add(postCredit(debit).whenComplete((credit, failure) -> {
+                if (transfer != null && failure == null) {
+                    transfer.complete(List.of(debit, credit));
+                }
+            }));
+        }
+        CompletableFuture.allOf(credits.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private JournalEntry apply(LedgerShard.WalletState state, String walletId, String counterpartyWalletId,
+                               TransactionType type, long amountMinorUnits, String reference, String description,
+                               String transferId, String reversalOf, long convertedHold) {
+        if (!type.isCredit()) {
+            // Seeded from the live shard state the first time the wallet is seen
+            availableBalances.reserveDebit(walletId, amountMinorUnits, state.balance, convertedHold,
+                    () -> new LedgerPosition(state.balance, state.sequence));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        state.balance += type.signedAmount(amountMinorUnits);
+        state.sequence++;
+        state.updatedAt = now;
+        return new JournalEntry(TimeOrderedIds.nextString(), reference, walletId, counterpartyWalletId, type,
+                amountMinorUnits, description, state.sequence, state.balance, now, transferId, reversalOf);
+    }
+
+    /**
+     * Ends a debit's reservation once its frame is durable or has failed; by then a durable debit's
+     * balance has been published by {@link #indexed}.
+     */
+    private <T> CompletableFuture<T> settled(CompletableFuture<T> durable, JournalEntry debit, long convertedHold) {
+        return durable.whenComplete((result, failure) -> availableBalances.settleDebit(debit.walletId(),
+                debit.amountMinorUnits(), convertedHold, failure == null));
+    }
+
+    /**
+     * Publishes a durable entry's balance to the available-balance tracker and the wallet index, which
+     * only ever move forward in sequence.
+     */
+    private JournalEntry indexed(JournalEntry entry) {
+        availableBalances.recordBalance(entry.walletId(), entry.balanceAfterMinorUnits(), entry.ledgerSequence());
+        walletIndex.ifPresent(index -> index.recordBalance(entry.walletId(), entry.balanceAfterMinorUnits(),
+                entry.ledgerSequence(), entry.createdAt()));
+        return entry;
+    }
+
+    private LedgerShard shardFor(String walletId) {
+        return shards[Math.floorMod(walletId.hashCode(), shards.length)];
+    }
+
+    private static String stripSuffix(String reference, String suffix) {
+        return reference.endsWith(suffix) ? reference.substring(0, reference.length() - suffix.length()) : reference;
+    }
+
+    private record JournaledReference(long offset, String reference) {
+    }
+
+    public record WalletBalance(long balanceMinorUnits, long ledgerSequence, LocalDateTime updatedAt) {
+    }
+}
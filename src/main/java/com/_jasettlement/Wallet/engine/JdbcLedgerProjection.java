@@ -0,0 +1,261 @@
+package com._jasettlement.Wallet.engine;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.ProjectionCheckpoint;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.TransferJournal;
+import com._jasettlement.Wallet.exception.LedgerUnavailableException;
+import com._jasettlement.Wallet.repository.ProjectionCheckpointRepository;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.repository.TransferJournalJdbcRepository;
+import com._jasettlement.Wallet.service.implementation.WalletEventOutbox;
+import com._jasettlement.Wallet.util.InLists;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projects durable journal frames into the Transaction table and the Wallet balance snapshot.
+ * <p>
+ * Frames wait in a bounded queue. When the queue is full, {@link #enqueue} blocks the journal writer,
+ * which holds back acknowledgements until the database catches up. One background thread drains up to
+ * {@code projection-batch-frames} frames at a time. It writes all of their entries as a single JDBC
+ * batch, updates each touched wallet's snapshot once, and stores the journal checkpoint in the same
+ * transaction. That single drain thread, in journal order, is what keeps per-wallet ordering intact.
+ * A transfer's TransferJournal row is written together with its debit leg, and every projected entry
+ * gets its outbox event in the same transaction, so subscribers hear of it once it is durable in the
+ * database rather than when it is acknowledged.
+ * <p>
+ * A batch that fails with a transient error (a lost connection, a lock timeout, a serialization
+ * failure) is retried with backoff. Any other failure would fail again on every attempt, so the
+ * projection halts instead: it logs the checkpoint, raises {@code wallet.projection.halted} and stops
+ * accepting frames. Postings are still acknowledged from the journal, and every frame past the
+ * checkpoint is projected again once the cause is fixed and the instance restarted.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.engine.mode", havingValue = "IN_MEMORY")
+@Slf4j
+public class JdbcLedgerProjection implements LedgerProjection {
+
+    private static final String CHECKPOINT_NAME = "jdbc-ledger-projection";
+
+    private static final String UPDATE_SNAPSHOT_SQL = """
+            UPDATE wallet SET balance_minor_units = ?, ledger_sequence = ?, updated_at = ?, version = version + 1
+            WHERE wallet_id = ? AND ledger_sequence < ?
+            """;
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
+    private static final long ENQUEUE_POLL_MILLIS = 100;
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransferJournalJdbcRepository transferJournalJdbcRepository;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final WalletEventOutbox outbox;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Frame> queue;
+    private final int batchFrames;
+    private final Timer batchTimer;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile long checkpoint;
+    private volatile boolean halted;
+
+    public JdbcLedgerProjection(TransactionJdbcRepository transactionJdbcRepository,
+                                TransferJournalJdbcRepository transferJournalJdbcRepository,
+                                ProjectionCheckpointRepository checkpointRepository,
+                                WalletEventOutbox outbox,
+                                JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                WalletProperties walletProperties, MeterRegistry meterRegistry) {
+        WalletProperties.Engine settings = walletProperties.getEngine();
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.transferJournalJdbcRepository = transferJournalJdbcRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.outbox = outbox;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(settings.getProjectionQueueCapacity());
+        this.batchFrames = settings.getProjectionBatchFrames();
+        this.checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .map(ProjectionCheckpoint::getJournalOffset)
+                .orElse(0L);
+
+        Gauge.builder("wallet.projection.queue.depth", queue, BlockingQueue::size)
+                .description("Durable journal frames waiting to be written to the database")
+                .register(meterRegistry);
+        Gauge.builder("wallet.projection.checkpoint", this, JdbcLedgerProjection::checkpoint)
+                .description("Journal offset the database projection has committed up to")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("wallet.projection.halted", this, projection -> projection.halted ? 1 : 0)
+                .description("1 when the database projection stopped on a non-transient failure")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("wallet.projection.batch")
+                .description("Time to write one batch of journal frames to the database")
+                .register(meterRegistry);
+
+        this.writer = Thread.ofPlatform().name("ledger-projection").unstarted(this::drainLoop);
+        writer.start();
+    }
+
+    /**
+     * Waits for room in the queue while the projection is running. Once it has halted the frame is
+     * dropped here: it is durable in the journal, past the checkpoint, and is projected on restart.
+     */
+    @Override
+    public void enqueue(long journalOffset, List<JournalEntry> entries) {
+        Frame frame = new Frame(journalOffset, entries);
+        try {
+            while (!halted && !queue.offer(frame, ENQUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                // The drain thread frees room or halts; either ends the wait
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new LedgerUnavailableException("Interrupted while waiting for the ledger projection", ex);
+        }
+    }
+
+    @Override
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void drainLoop() {
+        List<Frame> batch = new ArrayList<>(batchFrames);
+        while (running || !queue.isEmpty()) {
+            try {
+                Frame first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchFrames - 1);
+                project(batch);
+            } catch (RuntimeException ex) {
+                halt(batch, ex);
+                return;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                log.warn("Projection stopped with {} frames queued; they are re-projected from the journal on restart",
+                        queue.size());
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Retries transient failures until the batch is written: skipping it would leave a hole in the
+     * wallets' sequences, and later batches must not overtake it. Anything else is thrown to the drain
+     * loop, which halts.
+     */
+    private void project(List<Frame> batch) throws InterruptedException {
+        long offset = batch.get(batch.size() - 1).journalOffset();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                batchTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(batch, offset)));
+                checkpoint = offset;
+                return;
+            } catch (TransientDataAccessException | RecoverableDataAccessException
+                     | DataAccessResourceFailureException | CannotCreateTransactionException ex) {
+                long delay = Math.min(100L * attempt, MAX_RETRY_DELAY_MILLIS);
+                log.warn("Projection of {} journal frames failed (attempt {}), retrying in {} ms: {}",
+                        batch.size(), attempt, delay, ex.getMessage());
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private void halt(List<Frame> batch, RuntimeException cause) {
+        halted = true;
+        int dropped = queue.size();
+        queue.clear();
+        log.error("Projection halted at checkpoint {}: journal frames up to offset {} could not be written and "
+                        + "will not succeed on retry. {} queued frames were dropped; everything past the checkpoint "
+                        + "is projected again from the journal after a restart",
+                checkpoint, batch.get(batch.size() - 1).journalOffset(), dropped, cause);
+    }
+
+    private void write(List<Frame> batch, long offset) {
+        List<JournalEntry> entries = new ArrayList<>();
+        batch.forEach(frame -> entries.addAll(frame.entries()));
+        Map<String, Long> projected = projectedSequences(entries);
+
+        List<Transaction> fresh = new ArrayList<>(entries.size());
+        List<TransferJournal> transfers = new ArrayList<>();
+        Map<String, JournalEntry> latest = new LinkedHashMap<>();
+        for (JournalEntry entry : entries) {
+            if (entry.ledgerSequence() > projected.getOrDefault(entry.walletId(), 0L)) {
+                fresh.add(entry.toTransaction());
+                if (entry.type() == TransactionType.TRANSFER_OUT && entry.transferId() != null) {
+                    transfers.add(entry.toTransferJournal());
+                }
+                latest.merge(entry.walletId(), entry,
+                        (current, candidate) -> candidate.ledgerSequence() > current.ledgerSequence() ? candidate : current);
+            }
+        }
+
+        if (!fresh.isEmpty()) {
+            if (!transfers.isEmpty()) {
+                transferJournalJdbcRepository.insertAll(transfers);
+            }
+            transactionJdbcRepository.insertAll(fresh);
+            outbox.append(fresh);
+            for (JournalEntry entry : latest.values()) {
+                jdbcTemplate.update(UPDATE_SNAPSHOT_SQL, entry.balanceAfterMinorUnits(), entry.ledgerSequence(),
+                        entry.createdAt(), entry.walletId(), entry.ledgerSequence());
+            }
+        }
+
+        checkpointRepository.save(ProjectionCheckpoint.builder()
+                .name(CHECKPOINT_NAME)
+                .journalOffset(offset)
+                .build());
+    }
+
+    private Map<String, Long> projectedSequences(List<JournalEntry> entries) {
+        List<String> walletIds = entries.stream().map(JournalEntry::walletId).distinct().toList();
+        Map<String, Long> sequences = new HashMap<>();
+        for (List<String> chunk : InLists.chunks(walletIds)) {
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT wallet_id, ledger_sequence FROM wallet WHERE wallet_id IN (" + placeholders + ")",
+                    rs -> {
+                        sequences.put(rs.getString("wallet_id"), rs.getLong("ledger_sequence"));
+                    },
+                    chunk.toArray());
+        }
+        return sequences;
+    }
+
+    private record Frame(long journalOffset, List<JournalEntry> entries) {
+    }
+}
@@ -0,0 +1,63 @@
+package com._jasettlement.Wallet.engine;
+
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.TransferJournal;
+
+import java.time.LocalDateTime;
+
+/**
+ * One posting as written to the ledger journal. It carries everything the Transaction row needs, so
+ * the journal alone can rebuild balances and re-feed the projection. Transfer legs also name the
+ * counterparty wallet, which lets replay finish a transfer whose credit leg never became durable, and
+ * the transfer id both legs share.
+ */
+public record JournalEntry(
+        String id,
+        String reference,
+        String walletId,
+        String counterpartyWalletId,
+        TransactionType type,
+        long amountMinorUnits,
+        String description,
+        long ledgerSequence,
+        long balanceAfterMinorUnits,
+        LocalDateTime createdAt,
+        String transferId,
+        String reversalOf
+) {
+
+    public Transaction toTransaction() {
+        return Transaction.builder()
+                .id(id)
+                .reference(reference)
+                .walletId(walletId)
+                .type(type)
+                .amountMinorUnits(amountMinorUnits)
+                .description(description)
+                .ledgerSequence(ledgerSequence)
+                .balanceAfterMinorUnits(balanceAfterMinorUnits)
+                .createdAt(createdAt)
+                .transferId(transferId)
+                .build();
+    }
+
+    /**
+     * The TransferJournal row of the transfer whose debit leg this is.
+     */
+    public TransferJournal toTransferJournal() {
+        String debitSuffix = "_debit";
+        return TransferJournal.builder()
+                .id(transferId)
+                .reference(reference.endsWith(debitSuffix)
+                        ? reference.substring(0, reference.length() - debitSuffix.length())
+                        : reference)
+                .fromWalletId(walletId)
+                .toWalletId(counterpartyWalletId)
+                .amountMinorUnits(amountMinorUnits)
+                .description(description)
+                .reversalOf(reversalOf)
+                .createdAt(createdAt)
+                .build();
+    }
+}
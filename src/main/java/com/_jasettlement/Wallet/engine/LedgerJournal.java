@@ -0,0 +1,430 @@
+package com._jasettlement.Wallet.engine;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.LedgerUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal for the in-memory ledger engine.
+ * <p>
+ * Each append is one frame: {@code [int length][int crc32][payload]}, where the payload holds every
+ * entry of one posting, so the entries of a posting become durable together or not at all. A single
+ * writer thread drains whatever frames are waiting, writes them with one gathering write and fsyncs
+ * once for the whole group. Frames are written in the order they were appended.
+ * <p>
+ * The high bit of a payload's entry count marks frames whose entries also carry transfer ids. Frames
+ * written before transfer ids existed are still read, with both ids null.
+ * <p>
+ * Offsets are logical: {@link #compact} drops the frames before a given offset and writes a base
+ * frame at the head of the file recording where the remaining frames start, so offsets handed out
+ * earlier (such as the projection checkpoint) stay valid.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.engine.mode", havingValue = "IN_MEMORY")
+@Slf4j
+public class LedgerJournal {
+
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int TRANSFER_IDS_FLAG = 0x8000;
+    private static final int BASE_OFFSET_FLAG = 0x4000;
+
+    private final Path path;
+    // Guards the file between the writer thread and compaction
+    private final Object fileLock = new Object();
+    private FileChannel channel;
+    // Logical offset of the first frame after the base frame, and the base frame's size
+    private long base;
+    private long headerBytes;
+    private final int maxBatch;
+    private final BlockingQueue<PendingFrame> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile IOException failure;
+    private volatile BiConsumer<Long, List<JournalEntry>> durableListener = (offset, entries) -> { };
+    private volatile long position;
+
+    public LedgerJournal(WalletProperties walletProperties) throws IOException {
+        WalletProperties.Engine settings = walletProperties.getEngine();
+        this.path = Path.of(settings.getJournalPath()).toAbsolutePath();
+        this.maxBatch = settings.getGroupCommitMaxBatch();
+        Files.createDirectories(path.getParent());
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        readBase();
+        this.position = scan(base, null);
+        long end = physical(position);
+        if (end < channel.size()) {
+            // A crash mid-write leaves a torn frame at the tail; it was never acknowledged, so drop it
+            log.warn("Truncating {} bytes of incomplete journal tail in {}", channel.size() - end, path);
+            channel.truncate(end);
+        }
+        channel.position(end);
+
+        this.writer = Thread.ofPlatform().name("ledger-journal-writer").unstarted(this::writeLoop);
+        writer.start();
+        log.info("Ledger journal {} opened at offset {}", path, position);
+    }
+
+    /**
+     * Registers the callback run on the writer thread, in journal order, after each frame is fsynced
+     * and before its append future completes.
+     */
+    public void onDurable(BiConsumer<Long, List<JournalEntry>> listener) {
+        this.durableListener = listener;
+    }
+
+    /**
+     * Queues the entries as one frame. The future completes with the journal offset just past the
+     * frame once it is on disk.
+     */
+    public CompletableFuture<Long> append(List<JournalEntry> entries) {
+        if (failure != null || !running) {
+            return CompletableFuture.failedFuture(new LedgerUnavailableException("Ledger journal is not accepting writes", failure));
+        }
+        PendingFrame frame = new PendingFrame(encodeFrame(entries), entries, new CompletableFuture<>());
+        pending.add(frame);
+        return frame.durable();
+    }
+
+    /**
+     * Completes with the journal offset once every frame queued before this call is durable.
+     */
+    public CompletableFuture<Long> sync() {
+        if (failure != null || !running) {
+            return CompletableFuture.failedFuture(new LedgerUnavailableException("Ledger journal is not accepting writes", failure));
+        }
+        // An empty frame writes nothing; it only marks a point in the writer's queue
+        PendingFrame marker = new PendingFrame(new byte[0], List.of(), new CompletableFuture<>());
+        pending.add(marker);
+        return marker.durable();
+    }
+
+    /**
+     * Offset just past the last durable frame.
+     */
+    public long end() {
+        return position;
+    }
+
+    /**
+     * Drops every frame before {@code upTo}, which must be a frame boundary. The remaining frames are
+     * copied to a new file that atomically replaces the journal, so a crash leaves either file intact.
+     *
+     * @return the number of journal bytes dropped
+     */
+    public long compact(long upTo) {
+        synchronized (fileLock) {
+            long target = Math.min(upTo, position);
+            if (target <= base) {
+                return 0;
+            }
+            Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+            try {
+                byte[] header = encodeBaseFrame(target);
+                long from = physical(target);
+                long to = physical(position);
+                try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(header);
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    for (long copied = from; copied < to; ) {
+                        copied += channel.transferTo(copied, to - copied, out);
+                    }
+                    out.force(true);
+                }
+                channel.close();
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                long dropped = target - base;
+                base = target;
+                headerBytes = header.length;
+                channel.position(physical(position));
+                log.info("Compacted ledger journal {}: dropped {} bytes before offset {}", path, dropped, target);
+                return dropped;
+            } catch (IOException ex) {
+                if (channel.isOpen()) {
+                    // Failed while copying; the journal itself is untouched
+                    try {
+                        Files.deleteIfExists(compacted);
+                    } catch (IOException ignored) {
+                        // The next compaction truncates it
+                    }
+                } else {
+                    // Without a usable channel the journal cannot append safely any more
+                    log.error("Ledger journal could not be reopened after compaction; the engine is no longer accepting postings", ex);
+                    failure = ex;
+                }
+                throw new UncheckedIOException("Could not compact ledger journal " + path, ex);
+            }
+        }
+    }
+
+    /**
+     * Reads every complete frame from the given offset, handing each to the consumer with the offset
+     * just past it. Frames before the journal's base were compacted away and are skipped. Meant for
+     * startup, before any new frames are appended.
+     */
+    public long replay(long fromOffset, BiConsumer<Long, List<JournalEntry>> consumer) {
+        try {
+            return scan(fromOffset, consumer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not replay ledger journal " + path, ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        running = false;
+        writer.join();
+        synchronized (fileLock) {
+            channel.close();
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingFrame> batch = new ArrayList<>(maxBatch);
+        while (running || !pending.isEmpty()) {
+            try {
+                PendingFrame first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, maxBatch - 1);
+                commit(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingFrame> batch) {
+        if (failure != null) {
+            batch.forEach(frame -> frame.durable().completeExceptionally(
+                    new LedgerUnavailableException("Ledger journal is not accepting writes", failure)));
+            return;
+        }
+
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long remaining = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            buffers[i] = ByteBuffer.wrap(batch.get(i).bytes());
+            remaining += buffers[i].remaining();
+        }
+
+        long offset;
+        synchronized (fileLock) {
+            if (failure != null) {
+                // A compaction failed while this batch waited for the file
+                batch.forEach(frame -> frame.durable().completeExceptionally(
+                        new LedgerUnavailableException("Ledger journal is not accepting writes", failure)));
+                return;
+            }
+            try {
+                while (remaining > 0) {
+                    remaining -= channel.write(buffers);
+                }
+                channel.force(false);
+            } catch (IOException ex) {
+                // The in-memory state already includes these postings, so stop taking writes rather than diverge further
+                log.error("Ledger journal write failed; the engine is no longer accepting postings", ex);
+                failure = ex;
+                batch.forEach(frame -> frame.durable().completeExceptionally(
+                        new LedgerUnavailableException("Ledger journal write failed", ex)));
+                return;
+            }
+            offset = position;
+            for (PendingFrame frame : batch) {
+                position += frame.bytes().length;
+            }
+        }
+
+        for (PendingFrame frame : batch) {
+            offset += frame.bytes().length;
+            if (frame.entries().isEmpty()) {
+                frame.durable().complete(offset);
+                continue;
+            }
+            try {
+                durableListener.accept(offset, frame.entries());
+            } catch (RuntimeException ex) {
+                log.error("Durable-frame listener failed at journal offset {}", offset, ex);
+            }
+            frame.durable().complete(offset);
+        }
+    }
+
+    /**
+     * Reads the base frame a compaction leaves at the head of the file, if there is one.
+     */
+    private void readBase() throws IOException {
+        base = 0;
+        headerBytes = 0;
+        if (channel.size() < FRAME_HEADER_BYTES + 2 + 8) {
+            return;
+        }
+        ByteBuffer head = ByteBuffer.allocate(FRAME_HEADER_BYTES + 2 + 8);
+        channel.read(head, 0);
+        head.flip();
+        int length = head.getInt();
+        int checksum = head.getInt();
+        byte[] payload = new byte[2 + 8];
+        head.get(payload);
+        if (length == payload.length && crc(payload) == checksum
+                && (ByteBuffer.wrap(payload).getShort() & 0xFFFF) == BASE_OFFSET_FLAG) {
+            base = ByteBuffer.wrap(payload, 2, 8).getLong();
+            headerBytes = FRAME_HEADER_BYTES + length;
+        }
+    }
+
+    private long physical(long offset) {
+        return headerBytes + Math.max(0, offset - base);
+    }
+
+    private long scan(long fromOffset, BiConsumer<Long, List<JournalEntry>> consumer) throws IOException {
+        try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = reader.size();
+            long offset = Math.max(fromOffset, base);
+            long at = physical(offset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(reader.position(at)), 1 << 16));
+            while (at + FRAME_HEADER_BYTES <= size) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length <= 0 || at + FRAME_HEADER_BYTES + length > size) {
+                    break;
+                }
+                byte[] payload = in.readNBytes(length);
+                if (crc(payload) != checksum) {
+                    break;
+                }
+                at += FRAME_HEADER_BYTES + length;
+                offset += FRAME_HEADER_BYTES + length;
+                if (consumer != null) {
+                    consumer.accept(offset, decode(payload));
+                }
+            }
+            return offset;
+        }
+    }
+
+    private static byte[] encodeBaseFrame(long base) {
+        ByteBuffer payload = ByteBuffer.allocate(2 + 8).putShort((short) BASE_OFFSET_FLAG).putLong(base);
+        byte[] bytes = payload.array();
+        return ByteBuffer.allocate(FRAME_HEADER_BYTES + bytes.length)
+                .putInt(bytes.length)
+                .putInt(crc(bytes))
+                .put(bytes)
+                .array();
+    }
+
+    private static byte[] encodeFrame(List<JournalEntry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(FRAME_HEADER_BYTES + 160 * entries.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(0L); // header placeholder, filled in below
+            out.writeShort(entries.size() | TRANSFER_IDS_FLAG);
+            for (JournalEntry entry : entries) {
+                out.writeUTF(entry.id());
+                out.writeUTF(entry.reference());
+                out.writeUTF(entry.walletId());
+                writeNullable(out, entry.counterpartyWalletId());
+                out.writeUTF(entry.type().name());
+                out.writeLong(entry.amountMinorUnits());
+                writeNullable(out, entry.description());
+                out.writeLong(entry.ledgerSequence());
+                out.writeLong(entry.balanceAfterMinorUnits());
+                out.writeLong(entry.createdAt().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(entry.createdAt().getNano());
+                writeNullable(out, entry.transferId());
+                writeNullable(out, entry.reversalOf());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        byte[] frame = bytes.toByteArray();
+        int length = frame.length - FRAME_HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(frame, FRAME_HEADER_BYTES, length);
+        ByteBuffer.wrap(frame).putInt(length).putInt((int) crc.getValue());
+        return frame;
+    }
+
+    private static List<JournalEntry> decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int header = in.readUnsignedShort();
+        boolean transferIds = (header & TRANSFER_IDS_FLAG) != 0;
+        int count = header & ~TRANSFER_IDS_FLAG;
+        List<JournalEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new JournalEntry(
+                    in.readUTF(),
+                    in.readUTF(),
+                    in.readUTF(),
+                    readNullable(in),
+                    TransactionType.valueOf(in.readUTF()),
+                    in.readLong(),
+                    readNullable(in),
+                    in.readLong(),
+                    in.readLong(),
+                    LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC),
+                    transferIds ? readNullable(in) : null,
+                    transferIds ? readNullable(in) : null));
+        }
+        return entries;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private record PendingFrame(byte[] bytes, List<JournalEntry> entries, CompletableFuture<Long> durable) {
+    }
+}
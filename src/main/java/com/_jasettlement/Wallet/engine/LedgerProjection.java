@@ -0,0 +1,22 @@
+package com._jasettlement.Wallet.engine;
+
+import java.util.List;
+
+/**
+ * Downstream copy of the journal, fed with frames only after they are durable. Frames arrive in
+ * journal order. Frames past {@link #checkpoint()} are delivered again after a restart, so
+ * implementations must skip entries they have already applied.
+ */
+public interface LedgerProjection {
+
+    /**
+     * @param journalOffset journal position just past the frame, usable as a resume point
+     * @param entries       the postings of one frame, all committed together
+     */
+    void enqueue(long journalOffset, List<JournalEntry> entries);
+
+    /**
+     * Journal offset up to which frames are already applied; replay only re-feeds frames past it.
+     */
+    long checkpoint();
+}
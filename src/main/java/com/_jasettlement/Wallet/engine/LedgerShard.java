@@ -0,0 +1,73 @@
+package com._jasettlement.Wallet.engine;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * One partition of the in-memory ledger. All state for the wallets routed here is owned by a single
+ * thread, so postings never take a lock on a balance; callers hand work to the shard and get a future back.
+ */
+class LedgerShard {
+
+    private final ExecutorService executor;
+    private final Map<String, WalletState> wallets = new HashMap<>();
+    private final Function<String, WalletState> loader;
+
+    LedgerShard(int index, Function<String, WalletState> loader) {
+        this.executor = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("ledger-shard-" + index).factory());
+        this.loader = loader;
+    }
+
+    <T> CompletableFuture<T> submit(Function<LedgerShard, T> work) {
+        return CompletableFuture.supplyAsync(() -> work.apply(this), executor);
+    }
+
+    /**
+     * The wallet's live state, loaded from the database snapshot the first time the shard sees it.
+     * Only call from the shard thread, or before the shard has been handed any work.
+     */
+    WalletState state(String walletId) {
+        WalletState state = wallets.get(walletId);
+        if (state == null) {
+            state = loader.apply(walletId);
+            wallets.put(walletId, state);
+        }
+        return state;
+    }
+
+    /**
+     * Replay hook: adopts the entry's balance if it is newer than what the shard already holds.
+     * Runs on the startup thread before the shard accepts work.
+     */
+    void restore(JournalEntry entry) {
+        WalletState state = wallets.get(entry.walletId());
+        if (state == null || state.sequence < entry.ledgerSequence()) {
+            wallets.put(entry.walletId(), new WalletState(
+                    entry.balanceAfterMinorUnits(), entry.ledgerSequence(), entry.createdAt()));
+        }
+    }
+
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    static final class WalletState {
+        long balance;
+        long sequence;
+        LocalDateTime updatedAt;
+
+        WalletState(long balance, long sequence, LocalDateTime updatedAt) {
+            this.balance = balance;
+            this.sequence = sequence;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entry count and volume per TransactionType for a business day. Each settlement partition keeps its
+ * own row, so partitions never contend on a shared total; readers sum over the partitions.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "uk_type_total_date_type_partition", columnList = "businessDate, type, partitionNo", unique = true))
+public class DailyTypeTotal {
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDate businessDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Column(nullable = false)
+    private Integer partitionNo;
+
+    @Column(nullable = false)
+    private Long entryCount;
+
+    @Column(nullable = false)
+    private Long amountMinorUnits;
+}
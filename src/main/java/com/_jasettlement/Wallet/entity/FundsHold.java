@@ -0,0 +1,59 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Funds reserved on a wallet until they are captured into a DEBIT, released, or expire. A hold does
+ * not touch the ledger; it only lowers the wallet's available balance while it is ACTIVE.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "uk_funds_hold_reference", columnList = "reference", unique = true),
+        @Index(name = "idx_funds_hold_wallet_status", columnList = "walletId, status"),
+        @Index(name = "idx_funds_hold_status_expires", columnList = "status, expiresAt")
+})
+public class FundsHold {
+    @Id
+    private String id;
+
+    // Client idempotency key or generated reference; the capture's DEBIT is referenced by the hold id instead
+    @Column(nullable = false)
+    private String reference;
+
+    @Column(nullable = false)
+    private String walletId;
+
+    @Column(nullable = false)
+    private Long amountMinorUnits;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private HoldStatus status;
+
+    private String description;
+
+    // Set on capture; the rest of the hold is released
+    private Long capturedMinorUnits;
+
+    // The capture's DEBIT entry
+    private String transactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // When the hold stopped being ACTIVE
+    private LocalDateTime closedAt;
+}
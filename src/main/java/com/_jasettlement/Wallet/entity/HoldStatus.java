@@ -0,0 +1,8 @@
+package com._jasettlement.Wallet.entity;
+
+public enum HoldStatus {
+    ACTIVE,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
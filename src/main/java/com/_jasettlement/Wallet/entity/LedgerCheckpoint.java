@@ -0,0 +1,49 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A wallet's running totals at the end of a closed {@link LedgerPeriod}: everything up to and
+ * including {@code ledgerSequence}. A balance is the latest checkpoint plus the entries after it,
+ * so no read has to aggregate closed months.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "uk_ledger_checkpoint_wallet_period", columnList = "walletId, periodStart", unique = true))
+public class LedgerCheckpoint {
+    // periodStart + "/" + walletId
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String walletId;
+
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private Long balanceMinorUnits;
+
+    // Last ledger sequence folded in; later entries are still in the Transaction table
+    @Column(nullable = false)
+    private Long ledgerSequence;
+
+    @Column(nullable = false)
+    private Long entryCount;
+
+    private LocalDateTime createdAt;
+}
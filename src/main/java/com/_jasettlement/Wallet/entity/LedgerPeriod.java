@@ -0,0 +1,50 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One calendar month of the Transaction ledger. Months without a row here are still open. A CLOSED
+ * month has been folded into {@link LedgerCheckpoint}s; an ARCHIVED month's rows have also been moved
+ * out of the Transaction table into {@link TransactionArchive}.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerPeriod {
+    // First day of the month in the settlement zone; the month is the primary-key range of ids created in it
+    @Id
+    private LocalDate periodStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    // Wallets with at least one entry in the month, i.e. checkpoints written for it
+    @Column(nullable = false)
+    private Long walletCount;
+
+    @Column(nullable = false)
+    private Long rowCount;
+
+    private LocalDateTime closedAt;
+
+    private LocalDateTime archivedAt;
+
+    public enum Status {
+        CLOSED,
+        ARCHIVED
+    }
+}
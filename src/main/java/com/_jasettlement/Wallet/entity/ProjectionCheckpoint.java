@@ -0,0 +1,33 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a projection has applied the ledger journal. Written in the same database transaction as
+ * the rows it covers, so after a crash the projection resumes exactly where its last commit ended.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionCheckpoint {
+    @Id
+    private String name;
+
+    // Journal byte offset just past the last frame this projection committed
+    @Column(nullable = false)
+    private Long journalOffset;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,58 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A transfer leg the settlement job could not match with its counterpart.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_break_date_reference", columnList = "businessDate, reference"))
+public class SettlementBreak {
+    public enum Kind {
+        // A TRANSFER_OUT leg whose _credit reference does not exist
+        MISSING_CREDIT,
+        // A TRANSFER_IN leg whose _debit reference does not exist
+        MISSING_DEBIT,
+        // Both legs exist but move different amounts
+        AMOUNT_MISMATCH
+    }
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDate businessDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    // Reference of the leg that was settled
+    @Column(nullable = false)
+    private String reference;
+
+    @Column(nullable = false)
+    private String walletId;
+
+    @Column(nullable = false)
+    private Long amountMinorUnits;
+
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,46 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * How far one settlement partition has folded a business day's ledger into the summary tables.
+ * Advanced in the same database transaction as the summary rows it covers, so a rerun picks up
+ * exactly where the last committed chunk ended and never counts a row twice.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_settlement_watermark_date", columnList = "businessDate"))
+public class SettlementWatermark {
+    // businessDate + "/" + partitionNo
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDate businessDate;
+
+    @Column(nullable = false)
+    private Integer partitionNo;
+
+    // Transaction ids are time-ordered; every row of the day up to and including this id is settled
+    @Column(nullable = false)
+    private String lastTransactionId;
+
+    @Column(nullable = false)
+    private Long rowsSettled;
+
+    private LocalDateTime updatedAt;
+}
@@ -15,11 +15,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(indexes = {
-        @Index(name = "idx_reference", columnList = "reference", unique = true)
+        @Index(name = "idx_reference", columnList = "reference", unique = true),
+        @Index(name = "uk_wallet_ledger_sequence", columnList = "walletId, ledgerSequence", unique = true),
+        @Index(name = "idx_txn_wallet_created", columnList = "walletId, createdAt, id"),
+        @Index(name = "idx_txn_transfer", columnList = "transferId")
 })
 public class Transaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     @Column(nullable = false, unique = true)
@@ -37,6 +40,13 @@ public class Transaction {
 
     private String description;
 
+    private Long ledgerSequence;
+
+    private Long balanceAfterMinorUnits;
+
+    // TransferJournal id shared by both legs of a transfer; null for deposits and withdrawals
+    private String transferId;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,50 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.Length;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One wallet's entries for an archived {@link LedgerPeriod}, moved out of the Transaction table and
+ * stored as a single compressed block (see {@link com._jasettlement.Wallet.util.LedgerArchiveCodec}).
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "idx_txn_archive_wallet_period", columnList = "walletId, periodStart"))
+public class TransactionArchive {
+    // periodStart + "/" + walletId
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private String walletId;
+
+    @Column(nullable = false)
+    private Long rowCount;
+
+    private Long firstLedgerSequence;
+
+    private Long lastLedgerSequence;
+
+    // Gzipped entries in ledger-sequence order
+    @Column(nullable = false, length = Length.LONG32)
+    private byte[] payload;
+
+    private LocalDateTime archivedAt;
+}
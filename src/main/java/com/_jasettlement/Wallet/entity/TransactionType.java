@@ -4,5 +4,17 @@ public enum TransactionType {
     CREDIT,
     DEBIT,
     TRANSFER_IN,
-    TRANSFER_OUT
+    TRANSFER_OUT;
+
+    public boolean isCredit() {
+        return this == CREDIT || this == TRANSFER_IN;
+    }
+
+    public boolean isTransfer() {
+        return this == TRANSFER_IN || this == TRANSFER_OUT;
+    }
+
+    public long signedAmount(long amountMinorUnits) {
+        return isCredit() ? amountMinorUnits : -amountMinorUnits;
+    }
 }
@@ -0,0 +1,53 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A transfer as one double entry. Its TRANSFER_OUT and TRANSFER_IN legs carry its id in
+ * {@link Transaction#getTransferId()}, so the pair is found through an index rather than by
+ * rewriting reference suffixes. A reversal is a transfer of its own that names the transfer it undoes.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "uk_transfer_reference", columnList = "reference", unique = true),
+        @Index(name = "uk_transfer_reversal_of", columnList = "reversalOf", unique = true)
+})
+public class TransferJournal {
+    @Id
+    private String id;
+
+    // Client idempotency key or generated reference; the legs use it with _debit / _credit appended
+    @Column(nullable = false)
+    private String reference;
+
+    @Column(nullable = false)
+    private String fromWalletId;
+
+    @Column(nullable = false)
+    private String toWalletId;
+
+    @Column(nullable = false)
+    private Long amountMinorUnits;
+
+    private String description;
+
+    // Id of the transfer this one reverses; unique, so a transfer can be reversed at most once
+    private String reversalOf;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Wallet {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private String id;
 
     @Column(nullable = false, unique = true)
@@ -35,6 +35,22 @@ public class Wallet {
 
     private String currency = "NGN";
 
+    // Running balance maintained alongside every ledger insert, so reads never aggregate the ledger.
+    // A hot wallet's balance is this plus its stripes (see WalletBalanceStripe)
+    @Column(nullable = false)
+    @Builder.Default
+    private Long balanceMinorUnits = 0L;
+
+    // Number of ledger entries posted to this wallet; the last entry carries the same sequence
+    @Column(nullable = false)
+    @Builder.Default
+    private Long ledgerSequence = 0L;
+
+    // Striped sub-balances for hot wallet mode; 0 means every posting goes through balanceMinorUnits
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer stripeCount = 0;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -0,0 +1,40 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sub-balance of a hot wallet ({@link Wallet#getStripeCount()} &gt; 0). It holds the net of the
+ * wallet's postings that have not been swept into {@link Wallet#getBalanceMinorUnits()} yet.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "uk_wallet_balance_stripe", columnList = "walletId, stripe", unique = true))
+public class WalletBalanceStripe {
+    // walletId + "/" + stripe
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String walletId;
+
+    @Column(nullable = false)
+    private Integer stripe;
+
+    @Column(nullable = false)
+    private Long balanceMinorUnits;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,54 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One wallet's settled movements for a business day. Written by the settlement job only.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = @Index(name = "uk_position_date_wallet", columnList = "businessDate, walletId", unique = true))
+public class WalletDailyPosition {
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDate businessDate;
+
+    @Column(nullable = false)
+    private String walletId;
+
+    @Column(nullable = false)
+    private Long creditsMinorUnits;
+
+    @Column(nullable = false)
+    private Long debitsMinorUnits;
+
+    // creditsMinorUnits - debitsMinorUnits
+    @Column(nullable = false)
+    private Long netMinorUnits;
+
+    @Column(nullable = false)
+    private Long entryCount;
+
+    // Balance after the wallet's last settled entry of the day
+    private Long closingBalanceMinorUnits;
+
+    private Long closingLedgerSequence;
+
+    private LocalDateTime updatedAt;
+}
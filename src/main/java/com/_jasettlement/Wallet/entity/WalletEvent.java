@@ -0,0 +1,54 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row written in the same database transaction as the ledger entry it announces. The relay
+ * gives it an offset once it is committed; offsets only grow, in the order rows became visible, so
+ * subscribers resume from the last offset they saw.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_wallet_event_wallet", columnList = "walletId, eventOffset"),
+        @Index(name = "idx_wallet_event_created", columnList = "createdAt")
+})
+public class WalletEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Null until the relay numbers the committed row
+    @Column(unique = true)
+    private Long eventOffset;
+
+    @Column(nullable = false)
+    private String walletId;
+
+    @Column(nullable = false)
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+
+    @Column(nullable = false)
+    private Long amountMinorUnits;
+
+    // Null for hot wallet postings, which only get a balance when they are swept
+    private Long balanceAfterMinorUnits;
+
+    private Long ledgerSequence;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,26 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The last wallet event offset handed out by the relay. Relays lock this row while they number newly
+ * committed outbox rows, so offsets never repeat across instances.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletEventSequence {
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long lastOffset;
+}
@@ -0,0 +1,28 @@
+package com._jasettlement.Wallet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * High-water mark of the wallet ID counter for one MMDD prefix. Instances reserve blocks of counters
+ * by advancing it, so IDs stay unique across instances without a lookup per wallet.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletIdBlock {
+    @Id
+    @Column(length = 4)
+    private String mmdd;
+
+    // First counter not yet handed to any instance
+    @Column(nullable = false)
+    private Long nextCounter;
+}
@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class EngineModeConflictException extends RuntimeException {
+    public EngineModeConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class EventOffsetExpiredException extends RuntimeException {
+    public EventOffsetExpiredException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,17 @@
 package com._jasettlement.Wallet.exception;
 
 import com._jasettlement.Wallet.dto.ApiResponse;
+import com._jasettlement.Wallet.metrics.WalletMetrics;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.method.ParameterErrors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.time.LocalDateTime;
@@ -14,10 +19,21 @@ import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final WalletMetrics walletMetrics;
+
     @ExceptionHandler(WalletNotFoundException.class)
     public ResponseEntity<ApiResponse<Void>> handleWalletNotFound(WalletNotFoundException ex) {
+        walletMetrics.recordOutcome(WalletMetrics.OUTCOME_WALLET_NOT_FOUND);
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(404, ex.getMessage()));
+    }
+
+    @ExceptionHandler(TransferNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleTransferNotFound(TransferNotFoundException ex) {
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .body(ApiResponse.error(404, ex.getMessage()));
@@ -25,6 +41,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InsufficientFundsException.class)
     public ResponseEntity<ApiResponse<Void>> handleInsufficientFunds(InsufficientFundsException ex) {
+        walletMetrics.recordOutcome(WalletMetrics.OUTCOME_INSUFFICIENT_FUNDS);
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(ApiResponse.error(400, ex.getMessage()));
@@ -32,11 +49,90 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DuplicateTransactionException.class)
     public ResponseEntity<ApiResponse<Void>> handleDuplicateTransaction(DuplicateTransactionException ex) {
+        walletMetrics.recordOutcome(WalletMetrics.OUTCOME_DUPLICATE_TRANSACTION);
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, ex.getMessage()));
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<ApiResponse<Void>> handleConcurrentUpdate(ConcurrentUpdateException ex) {
+        walletMetrics.recordOutcome(WalletMetrics.OUTCOME_CONCURRENT_UPDATE);
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, ex.getMessage()));
+    }
+
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleHoldNotFound(HoldNotFoundException ex) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(404, ex.getMessage()));
+    }
+
+    @ExceptionHandler(HoldNotActiveException.class)
+    public ResponseEntity<ApiResponse<Void>> handleHoldNotActive(HoldNotActiveException ex) {
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .body(ApiResponse.error(409, ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidHoldAmountException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidHoldAmount(InvalidHoldAmountException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(400, ex.getMessage()));
+    }
+
+    @ExceptionHandler(EventOffsetExpiredException.class)
+    public ResponseEntity<ApiResponse<Void>> handleEventOffsetExpired(EventOffsetExpiredException ex) {
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .body(ApiResponse.error(410, ex.getMessage()));
+    }
+
+    @ExceptionHandler(LedgerUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLedgerUnavailable(LedgerUnavailableException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(503, ex.getMessage()));
+    }
+
+    @ExceptionHandler(SettlementInProgressException.class)
+    public ResponseEntity<ApiResponse<Void>> handleSettlementInProgress(SettlementInProgressException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, ex.getMessage()));
+    }
+
+    @ExceptionHandler(LedgerTieringInProgressException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLedgerTieringInProgress(LedgerTieringInProgressException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, ex.getMessage()));
+    }
+
+    @ExceptionHandler(EngineModeConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleEngineModeConflict(EngineModeConflictException ex) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(409, ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(400, ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidFrameException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidFrame(InvalidFrameException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(400, ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationErrors(
             MethodArgumentNotValidException ex) {
@@ -46,6 +142,30 @@ public class GlobalExceptionHandler {
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
         });
+        return validationFailed(errors);
+    }
+
+    /**
+     * Raised instead of {@link MethodArgumentNotValidException} when a handler also constrains a header,
+     * so body field errors and header errors are reported in the same shape.
+     */
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleMethodValidationErrors(
+            HandlerMethodValidationException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getParameterValidationResults().forEach(result -> {
+            if (result instanceof ParameterErrors parameterErrors) {
+                parameterErrors.getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+                return;
+            }
+            RequestHeader header = result.getMethodParameter().getParameterAnnotation(RequestHeader.class);
+            String name = header != null ? header.value() : result.getMethodParameter().getParameterName();
+            result.getResolvableErrors().forEach(error -> errors.put(name, error.getDefaultMessage()));
+        });
+        return validationFailed(errors);
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, String>>> validationFailed(Map<String, String> errors) {
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(ApiResponse.<Map<String, String>>builder()
@@ -64,6 +184,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DuplicateEmailException.class)
     public ResponseEntity<Map<String, Object>> handleDuplicateEmail(DuplicateEmailException ex) {
+        walletMetrics.recordOutcome(WalletMetrics.OUTCOME_DUPLICATE_EMAIL);
         Map<String, Object> error = new HashMap<>();
         error.put("timestamp", LocalDateTime.now());
         error.put("status", HttpStatus.CONFLICT.value());
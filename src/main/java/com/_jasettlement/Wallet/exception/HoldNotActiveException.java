@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class HoldNotActiveException extends RuntimeException {
+    public HoldNotActiveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class HoldNotFoundException extends RuntimeException {
+    public HoldNotFoundException(String message) {
+        super(message);
+    }
+}
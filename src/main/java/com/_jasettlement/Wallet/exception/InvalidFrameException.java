@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class InvalidFrameException extends RuntimeException {
+    public InvalidFrameException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class InvalidHoldAmountException extends RuntimeException {
+    public InvalidHoldAmountException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class LedgerTieringInProgressException extends RuntimeException {
+    public LedgerTieringInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class SettlementInProgressException extends RuntimeException {
+    public SettlementInProgressException(String message) {
+        super(message);
+    }
+}
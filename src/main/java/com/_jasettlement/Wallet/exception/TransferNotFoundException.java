@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.exception;
+
+public class TransferNotFoundException extends RuntimeException {
+    public TransferNotFoundException(String message) {
+        super(message);
+    }
+}
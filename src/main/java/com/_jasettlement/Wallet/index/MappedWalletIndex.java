@@ -0,0 +1,305 @@
+package com._jasettlement.Wallet.index;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.util.WalletIdKeys;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Off-heap walletId index backed by a memory-mapped file.
+ * <p>
+ * Wallet IDs are packed into {@code long} keys ({@link WalletIdKeys}) and stored in an open-addressing
+ * table with linear probing. Each 48-byte slot holds the key, the wallet's internal id as two longs,
+ * and its balance, ledger sequence and last-update time. Lookups read the mapped file directly, so
+ * they allocate nothing and never reach the heap-resident caches or the database.
+ * <p>
+ * Writers are serialized on the index; readers are lock-free. A slot's key is published last with a
+ * volatile write, so a reader that finds the key also sees the rest of the slot. A balance update
+ * only wins if it carries a ledger sequence at least as high as the stored one, so post-commit
+ * updates arriving out of order cannot roll a balance back.
+ * <p>
+ * The header records whether the file was closed cleanly and when it was last in sync with the
+ * wallet table. A dirty or mismatched file is rebuilt from the wallet table at startup. A clean file
+ * is used as-is and only catches up on wallets created since it was closed, which reads an index
+ * range rather than the whole table.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.index.enabled", havingValue = "true")
+@Slf4j
+public class MappedWalletIndex {
+
+    /** Returned by {@link #balance} when the wallet is not in the index. */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    // Version 2 keys carry the digit count of the wallet ID
+    private static final long MAGIC = 0x57414C4C4958_0002L;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+    private static final int CLEAN_OFFSET = 24;
+    private static final int SYNCED_AT_OFFSET = 32;
+
+    // Covers wallets whose created_at was stamped before the sync point but committed after it
+    private static final long CATCH_UP_SLACK_MILLIS = 5 * 60_000L;
+
+    private static final int SLOT_BYTES = 48;
+    private static final int KEY = 0;
+    private static final int ID_MSB = 8;
+    private static final int ID_LSB = 16;
+    private static final int BALANCE = 24;
+    private static final int SEQUENCE = 32;
+    private static final int UPDATED_AT = 40;
+
+    // Keeps the whole table inside a single mapping (at most 2 GB)
+    private static final int MAX_CAPACITY = 1 << 25;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final String REBUILD_SQL = "SELECT id, wallet_id, balance_minor_units, ledger_sequence, updated_at FROM wallet";
+    private static final String CATCH_UP_SQL = REBUILD_SQL + " WHERE created_at > ?";
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int maxSize;
+
+    private int size;
+    private boolean closed;
+    private boolean fullWarningLogged;
+
+    public MappedWalletIndex(WalletProperties walletProperties, JdbcTemplate jdbcTemplate) throws IOException {
+        WalletProperties.Index settings = walletProperties.getIndex();
+        this.path = Path.of(settings.getPath()).toAbsolutePath();
+        this.capacity = Integer.highestOneBit(Math.min(Math.max(settings.getCapacity(), 1024) * 2 - 1, MAX_CAPACITY));
+        this.mask = capacity - 1;
+        this.maxSize = (int) (capacity * 0.75);
+        Files.createDirectories(path.getParent());
+
+        long fileBytes = HEADER_BYTES + (long) capacity * SLOT_BYTES;
+        boolean existed = Files.exists(path) && Files.size(path) == fileBytes;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+
+        boolean reusable = existed
+                && buffer.getLong(MAGIC_OFFSET) == MAGIC
+                && buffer.getInt(CAPACITY_OFFSET) == capacity
+                && buffer.get(CLEAN_OFFSET) == 1;
+        this.size = reusable ? buffer.getInt(SIZE_OFFSET) : 0;
+
+        // Marked dirty while open; only a clean shutdown makes the file trustworthy again
+        buffer.put(CLEAN_OFFSET, (byte) 0);
+        buffer.force();
+
+        long started = System.nanoTime();
+        if (!reusable) {
+            rebuild(jdbcTemplate);
+            log.info("Rebuilt wallet index {} from the database: {} wallets in {} ms",
+                    path, size, (System.nanoTime() - started) / 1_000_000);
+        } else {
+            int opened = size;
+            catchUp(jdbcTemplate, buffer.getLong(SYNCED_AT_OFFSET) - CATCH_UP_SLACK_MILLIS);
+            log.info("Opened wallet index {} with {} wallets ({} created since it was closed) in {} ms",
+                    path, size, size - opened, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * True only when the ID is in the generated format and definitely has no wallet. IDs in any
+     * other format are never reported absent, so callers fall back to the database for them.
+     */
+    public boolean isAbsent(String walletId) {
+        long key = WalletIdKeys.toKey(walletId);
+        return key != WalletIdKeys.NO_KEY && find(key) < 0;
+    }
+
+    /**
+     * The indexed balance in minor units, or {@link #MISSING}.
+     */
+    public long balance(String walletId) {
+        int slot = find(WalletIdKeys.toKey(walletId));
+        return slot < 0 ? MISSING : (long) LONGS.getVolatile(buffer, offset(slot) + BALANCE);
+    }
+
+    /**
+     * Last-update time of the indexed balance, or null when the wallet is not in the index.
+     */
+    public LocalDateTime updatedAt(String walletId) {
+        int slot = find(WalletIdKeys.toKey(walletId));
+        if (slot < 0) {
+            return null;
+        }
+        long millis = (long) LONGS.getVolatile(buffer, offset(slot) + UPDATED_AT);
+        return millis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    /**
+     * Inserts or overwrites a wallet's slot. Used on creation and when a snapshot is repaired.
+     */
+    public synchronized void put(String walletId, String id, long balanceMinorUnits, long ledgerSequence,
+                                 LocalDateTime updatedAt) {
+        long key = WalletIdKeys.toKey(walletId);
+        if (closed || key == WalletIdKeys.NO_KEY) {
+            return;
+        }
+
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(id);
+        } catch (IllegalArgumentException ex) {
+            return;
+        }
+
+        int slot = find(key);
+        if (slot < 0) {
+            if (size >= maxSize) {
+                if (!fullWarningLogged) {
+                    log.warn("Wallet index {} is full ({} wallets); raise wallet.index.capacity", path, size);
+                    fullWarningLogged = true;
+                }
+                return;
+            }
+            slot = freeSlot(key);
+            int base = offset(slot);
+            buffer.putLong(base + ID_MSB, uuid.getMostSignificantBits());
+            buffer.putLong(base + ID_LSB, uuid.getLeastSignificantBits());
+            writeBalance(base, balanceMinorUnits, ledgerSequence, updatedAt);
+            LONGS.setVolatile(buffer, base + KEY, key);
+            size++;
+            buffer.putInt(SIZE_OFFSET, size);
+        } else {
+            writeBalance(offset(slot), balanceMinorUnits, ledgerSequence, updatedAt);
+        }
+    }
+
+    /**
+     * Applies a committed posting's balance, unless the slot already holds a later one.
+     */
+    public synchronized void recordBalance(String walletId, long balanceMinorUnits, long ledgerSequence,
+                                           LocalDateTime updatedAt) {
+        if (closed) {
+            return;
+        }
+        int slot = find(WalletIdKeys.toKey(walletId));
+        if (slot < 0) {
+            return;
+        }
+        int base = offset(slot);
+        if ((long) LONGS.getVolatile(buffer, base + SEQUENCE) <= ledgerSequence) {
+            writeBalance(base, balanceMinorUnits, ledgerSequence, updatedAt);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        closed = true;
+        buffer.putLong(SYNCED_AT_OFFSET, toMillis(LocalDateTime.now()));
+        buffer.force();
+        buffer.put(CLEAN_OFFSET, (byte) 1);
+        buffer.force();
+        channel.close();
+    }
+
+    private synchronized void rebuild(JdbcTemplate jdbcTemplate) {
+        for (int slot = 0; slot < capacity; slot++) {
+            buffer.putLong(offset(slot) + KEY, 0L);
+        }
+        size = 0;
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putInt(SIZE_OFFSET, 0);
+        buffer.putLong(SYNCED_AT_OFFSET, toMillis(LocalDateTime.now()));
+
+        load(jdbcTemplate, REBUILD_SQL, null);
+        buffer.force();
+    }
+
+    /**
+     * Adds the wallets created after the given time. Rows already in the index are overwritten with
+     * their database balance, which is current at startup.
+     */
+    private synchronized void catchUp(JdbcTemplate jdbcTemplate, long createdAfterMillis) {
+        load(jdbcTemplate, CATCH_UP_SQL,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(Math.max(createdAfterMillis, 0L)), ZoneOffset.UTC));
+        buffer.force();
+    }
+
+    private void load(JdbcTemplate jdbcTemplate, String sql, LocalDateTime createdAfter) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            if (createdAfter != null) {
+                statement.setObject(1, createdAfter);
+            }
+            statement.setFetchSize(1000);
+            return statement;
+        }, (RowCallbackHandler) rs -> put(
+                rs.getString("wallet_id"),
+                rs.getString("id"),
+                rs.getLong("balance_minor_units"),
+                rs.getLong("ledger_sequence"),
+                rs.getObject("updated_at", LocalDateTime.class)));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private void writeBalance(int base, long balanceMinorUnits, long ledgerSequence, LocalDateTime updatedAt) {
+        long millis = updatedAt == null ? 0L : toMillis(updatedAt);
+        LONGS.setVolatile(buffer, base + UPDATED_AT, millis);
+        LONGS.setVolatile(buffer, base + SEQUENCE, ledgerSequence);
+        LONGS.setVolatile(buffer, base + BALANCE, balanceMinorUnits);
+    }
+
+    private int find(long key) {
+        if (key == WalletIdKeys.NO_KEY) {
+            return -1;
+        }
+        for (int slot = home(key); ; slot = (slot + 1) & mask) {
+            long stored = (long) LONGS.getVolatile(buffer, offset(slot) + KEY);
+            if (stored == key) {
+                return slot;
+            }
+            if (stored == 0L) {
+                return -1;
+            }
+        }
+    }
+
+    private int freeSlot(long key) {
+        int slot = home(key);
+        while ((long) LONGS.getVolatile(buffer, offset(slot) + KEY) != 0L) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int home(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+}
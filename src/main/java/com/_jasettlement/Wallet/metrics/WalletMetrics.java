@@ -0,0 +1,63 @@
+package com._jasettlement.Wallet.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Instrumentation for wallet-specific signals that the HTTP and @Observed service timers do not cover:
+ * repository query timings, business-error outcomes and how many ledger rows an aggregation touched.
+ */
+@Component
+public class WalletMetrics {
+
+    public static final String OUTCOME_INSUFFICIENT_FUNDS = "insufficient_funds";
+    public static final String OUTCOME_WALLET_NOT_FOUND = "wallet_not_found";
+    public static final String OUTCOME_DUPLICATE_EMAIL = "duplicate_email";
+    public static final String OUTCOME_DUPLICATE_TRANSACTION = "duplicate_transaction";
+    public static final String OUTCOME_CONCURRENT_UPDATE = "concurrent_update";
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+
+    public WalletMetrics(ObservationRegistry observationRegistry, MeterRegistry meterRegistry) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Times a repository call as a "wallet.repository" observation (a timer, plus a span when tracing is on).
+     */
+    public <T> T observeQuery(String query, Supplier<T> call) {
+        return Observation.createNotStarted("wallet.repository", observationRegistry)
+                .contextualName("wallet-repository " + query)
+                .lowCardinalityKeyValue("query", query)
+                .observe(call);
+    }
+
+    public void recordOutcome(String outcome) {
+        Counter.builder("wallet.outcomes")
+                .description("Business rule rejections returned to clients")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Only the per-wallet reads are covered: a history page and a reconcile check. Settlement counts
+     * its bulk reads separately as {@code wallet.settlement.rows}.
+     */
+    public void recordWalletLedgerRowsRead(String query, long rows) {
+        DistributionSummary.builder("wallet.ledger.wallet.rows.read")
+                .description("Ledger rows read for one wallet by a history page or a reconcile check")
+                .baseUnit("rows")
+                .tag("query", query)
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
@@ -0,0 +1,22 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.DailyTypeTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyTypeTotalRepository extends JpaRepository<DailyTypeTotal, String> {
+    @Query("""
+            SELECT t.type AS type, SUM(t.entryCount) AS entryCount, SUM(t.amountMinorUnits) AS amountMinorUnits
+            FROM DailyTypeTotal t
+            WHERE t.businessDate = :businessDate
+            GROUP BY t.type
+            ORDER BY t.type
+            """)
+    List<TypeTotalView> sumByType(@Param("businessDate") LocalDate businessDate);
+}
@@ -0,0 +1,126 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.FundsHold;
+import com._jasettlement.Wallet.entity.HoldStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and single-statement state changes of {@link FundsHold} rows. Every change is conditional on
+ * the hold still being ACTIVE, so a capture, a release and the reaper racing for the same hold have
+ * exactly one winner, which is the one that gives back its reservation.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FundsHoldJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO funds_hold (id, reference, wallet_id, amount_minor_units, status, description,
+                                    expires_at, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String COLUMNS = """
+            id, reference, wallet_id, amount_minor_units, status, description, captured_minor_units,
+            transaction_id, expires_at, created_at, closed_at
+            """;
+
+    private static final String BY_ID_SQL = "SELECT " + COLUMNS + " FROM funds_hold WHERE id = ?";
+
+    private static final String BY_REFERENCE_SQL = "SELECT " + COLUMNS + " FROM funds_hold WHERE reference = ?";
+
+    private static final String ACTIVE_SQL = "SELECT " + COLUMNS + " FROM funds_hold WHERE status = 'ACTIVE'";
+
+    private static final String SUM_ACTIVE_SQL = """
+            SELECT COALESCE(SUM(amount_minor_units), 0) FROM funds_hold WHERE wallet_id = ? AND status = 'ACTIVE'
+            """;
+
+    private static final String CAPTURE_SQL = """
+            UPDATE funds_hold SET status = 'CAPTURED', captured_minor_units = ?, closed_at = ?
+            WHERE id = ? AND status = 'ACTIVE' AND expires_at > ?
+            """;
+
+    private static final String RECORD_CAPTURE_SQL = "UPDATE funds_hold SET transaction_id = ? WHERE id = ?";
+
+    private static final String REOPEN_SQL = """
+            UPDATE funds_hold SET status = 'ACTIVE', captured_minor_units = NULL, closed_at = NULL
+            WHERE id = ? AND status = 'CAPTURED' AND transaction_id IS NULL
+            """;
+
+    private static final String CLOSE_SQL = """
+            UPDATE funds_hold SET status = ?, closed_at = ? WHERE id = ? AND status = 'ACTIVE'
+            """;
+
+    private static final RowMapper<FundsHold> ROW_MAPPER = (rs, rowNum) -> FundsHold.builder()
+            .id(rs.getString("id"))
+            .reference(rs.getString("reference"))
+            .walletId(rs.getString("wallet_id"))
+            .amountMinorUnits(rs.getLong("amount_minor_units"))
+            .status(HoldStatus.valueOf(rs.getString("status")))
+            .description(rs.getString("description"))
+            .capturedMinorUnits(rs.getObject("captured_minor_units", Long.class))
+            .transactionId(rs.getString("transaction_id"))
+            .expiresAt(rs.getObject("expires_at", LocalDateTime.class))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .closedAt(rs.getObject("closed_at", LocalDateTime.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(FundsHold hold) {
+        jdbcTemplate.update(INSERT_SQL, hold.getId(), hold.getReference(), hold.getWalletId(),
+                hold.getAmountMinorUnits(), hold.getStatus().name(), hold.getDescription(),
+                hold.getExpiresAt(), hold.getCreatedAt());
+    }
+
+    public Optional<FundsHold> findById(String id) {
+        return jdbcTemplate.query(BY_ID_SQL, ROW_MAPPER, id).stream().findFirst();
+    }
+
+    public Optional<FundsHold> findByReference(String reference) {
+        return jdbcTemplate.query(BY_REFERENCE_SQL, ROW_MAPPER, reference).stream().findFirst();
+    }
+
+    /**
+     * Every ACTIVE hold, for rescheduling with the reaper at startup.
+     */
+    public List<FundsHold> findActive() {
+        return jdbcTemplate.query(ACTIVE_SQL, ROW_MAPPER);
+    }
+
+    public long sumActive(String walletId) {
+        Long total = jdbcTemplate.queryForObject(SUM_ACTIVE_SQL, Long.class, walletId);
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Marks an unexpired ACTIVE hold CAPTURED. Returns 0 when it is no longer ACTIVE or has expired.
+     */
+    public int capture(String id, long capturedMinorUnits, LocalDateTime now) {
+        return jdbcTemplate.update(CAPTURE_SQL, capturedMinorUnits, now, id, now);
+    }
+
+    public void recordCapture(String id, String transactionId) {
+        jdbcTemplate.update(RECORD_CAPTURE_SQL, transactionId, id);
+    }
+
+    /**
+     * Puts back a hold whose capture was claimed but never posted.
+     */
+    public int reopen(String id) {
+        return jdbcTemplate.update(REOPEN_SQL, id);
+    }
+
+    /**
+     * Moves an ACTIVE hold to RELEASED or EXPIRED. Returns 0 when it is no longer ACTIVE.
+     */
+    public int close(String id, HoldStatus status, LocalDateTime now) {
+        return jdbcTemplate.update(CLOSE_SQL, status.name(), now, id);
+    }
+}
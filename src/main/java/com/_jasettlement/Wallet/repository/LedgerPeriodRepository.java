@@ -0,0 +1,19 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.LedgerPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerPeriodRepository extends JpaRepository<LedgerPeriod, LocalDate> {
+
+    Optional<LedgerPeriod> findFirstByOrderByPeriodStartDesc();
+
+    List<LedgerPeriod> findByStatusOrderByPeriodStart(LedgerPeriod.Status status);
+
+    List<LedgerPeriod> findAllByOrderByPeriodStartDesc();
+}
@@ -0,0 +1,9 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.ProjectionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+}
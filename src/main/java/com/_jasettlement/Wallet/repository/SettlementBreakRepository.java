@@ -0,0 +1,15 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.SettlementBreak;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SettlementBreakRepository extends JpaRepository<SettlementBreak, String> {
+    long countByBusinessDate(LocalDate businessDate);
+
+    List<SettlementBreak> findTop100ByBusinessDateOrderByReference(LocalDate businessDate);
+}
@@ -0,0 +1,13 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.SettlementWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SettlementWatermarkRepository extends JpaRepository<SettlementWatermark, String> {
+    List<SettlementWatermark> findByBusinessDateOrderByPartitionNo(LocalDate businessDate);
+}
@@ -0,0 +1,134 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bulk write path for the Transaction table. Rows go out as JDBC batches instead of one
+ * Hibernate persist per entity.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO transaction (id, reference, wallet_id, type, amount_minor_units, description,
+                                     ledger_sequence, balance_after_minor_units, created_at, transfer_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_PAIR_SQL = """
+            INSERT INTO transaction (id, reference, wallet_id, type, amount_minor_units, description,
+                                     ledger_sequence, balance_after_minor_units, created_at, transfer_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int COLUMNS = 10;
+
+    private static final String UNSEQUENCED_SQL = """
+            SELECT id, type, amount_minor_units FROM transaction
+            WHERE wallet_id = ? AND ledger_sequence IS NULL
+            ORDER BY id
+            """;
+
+    // Only hot wallets hold unsequenced entries, so idx_wallet_striped bounds the join
+    private static final String OLDEST_UNSEQUENCED_SQL = """
+            SELECT MIN(t.id) FROM wallet w
+            JOIN transaction t ON t.wallet_id = w.wallet_id AND t.ledger_sequence IS NULL
+            WHERE w.stripe_count > 0
+            """;
+
+    private static final String ASSIGN_SEQUENCE_SQL = """
+            UPDATE transaction SET ledger_sequence = ?, balance_after_minor_units = ?
+            WHERE id = ? AND ledger_sequence IS NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Assigns ids and creation timestamps to the given entries and inserts them in batches.
+     */
+    public void insertAll(List<Transaction> transactions) {
+        prepare(transactions);
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, BATCH_SIZE, (ps, transaction) -> bind(ps, 0, transaction));
+    }
+
+    /**
+     * Inserts both legs of a transfer with a single multi-row statement, so the pair costs one round trip.
+     */
+    public void insertPair(Transaction debit, Transaction credit) {
+        prepare(List.of(debit, credit));
+        jdbcTemplate.update(INSERT_PAIR_SQL, ps -> {
+            bind(ps, 0, debit);
+            bind(ps, COLUMNS, credit);
+        });
+    }
+
+    /**
+     * A wallet's entries that have no ledger sequence yet (striped postings awaiting their sweep), in id
+     * order. Only id, type and amount are loaded.
+     */
+    public List<Transaction> findUnsequenced(String walletId) {
+        return jdbcTemplate.query(UNSEQUENCED_SQL, (rs, rowNum) -> Transaction.builder()
+                .id(rs.getString("id"))
+                .walletId(walletId)
+                .type(TransactionType.valueOf(rs.getString("type")))
+                .amountMinorUnits(rs.getLong("amount_minor_units"))
+                .build(), walletId);
+    }
+
+    /**
+     * Id of the oldest entry still waiting for its hot wallet's sweep, if any.
+     */
+    public Optional<String> findOldestUnsequencedId() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(OLDEST_UNSEQUENCED_SQL, String.class));
+    }
+
+    /**
+     * Writes the ledger sequence and balance-after of previously unsequenced entries.
+     */
+    public void assignSequences(List<Transaction> transactions) {
+        jdbcTemplate.batchUpdate(ASSIGN_SEQUENCE_SQL, transactions, BATCH_SIZE, (ps, transaction) -> {
+            ps.setLong(1, transaction.getLedgerSequence());
+            ps.setLong(2, transaction.getBalanceAfterMinorUnits());
+            ps.setString(3, transaction.getId());
+        });
+    }
+
+    private void prepare(List<Transaction> transactions) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Transaction transaction : transactions) {
+            if (transaction.getId() == null) {
+                transaction.setId(TimeOrderedIds.nextString());
+            }
+            if (transaction.getCreatedAt() == null) {
+                transaction.setCreatedAt(now);
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, int offset, Transaction transaction) throws SQLException {
+        ps.setString(offset + 1, transaction.getId());
+        ps.setString(offset + 2, transaction.getReference());
+        ps.setString(offset + 3, transaction.getWalletId());
+        ps.setString(offset + 4, transaction.getType().name());
+        ps.setLong(offset + 5, transaction.getAmountMinorUnits());
+        ps.setString(offset + 6, transaction.getDescription());
+        ps.setObject(offset + 7, transaction.getLedgerSequence());
+        ps.setObject(offset + 8, transaction.getBalanceAfterMinorUnits());
+        ps.setObject(offset + 9, transaction.getCreatedAt());
+        ps.setString(offset + 10, transaction.getTransferId());
+    }
+}
@@ -1,30 +1,86 @@
 package com._jasettlement.Wallet.repository;
 
 import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, String> {
     Optional<Transaction> findByReference(String reference);
 
-    @Query("""
-    SELECT COALESCE(SUM(
-        CASE 
-            WHEN t.type IN ('CREDIT', 'TRANSFER_IN') THEN t.amountMinorUnits
-            WHEN t.type IN ('DEBIT', 'TRANSFER_OUT') THEN -t.amountMinorUnits
-            ELSE 0
-        END
-    ), 0)
-    FROM Transaction t
-    WHERE t.walletId = :walletId
+    List<Transaction> findByReferenceIn(Collection<String> references);
+
+    List<Transaction> findByTransferId(String transferId);
+
+    List<Transaction> findByTransferIdIn(Collection<String> transferIds);
+
+    /**
+     * The wallet's latest {@link com._jasettlement.Wallet.entity.LedgerCheckpoint} plus the entries
+     * after it. Closed months are never aggregated, and entries moved to the archive are still counted.
+     */
+    @Query(nativeQuery = true, value = """
+    SELECT COALESCE((SELECT c.balance_minor_units FROM ledger_checkpoint c
+                     WHERE c.wallet_id = :walletId ORDER BY c.period_start DESC LIMIT 1), 0)
+         + COALESCE((SELECT SUM(
+                         CASE
+                             WHEN t.type IN ('CREDIT', 'TRANSFER_IN') THEN t.amount_minor_units
+                             WHEN t.type IN ('DEBIT', 'TRANSFER_OUT') THEN -t.amount_minor_units
+                             ELSE 0
+                         END)
+                     FROM transaction t
+                     WHERE t.wallet_id = :walletId
+                       AND t.ledger_sequence > COALESCE((SELECT c.ledger_sequence FROM ledger_checkpoint c
+                                                         WHERE c.wallet_id = :walletId
+                                                         ORDER BY c.period_start DESC LIMIT 1), 0)), 0)
     """)
     Long calculateBalance(@Param("walletId") String walletId);
 
+    /**
+     * Entry count to match {@link #calculateBalance}: the latest checkpoint's count plus the entries after it.
+     */
+    @Query(nativeQuery = true, value = """
+    SELECT COALESCE((SELECT c.entry_count FROM ledger_checkpoint c
+                     WHERE c.wallet_id = :walletId ORDER BY c.period_start DESC LIMIT 1), 0)
+         + (SELECT COUNT(*) FROM transaction t
+            WHERE t.wallet_id = :walletId
+              AND t.ledger_sequence > COALESCE((SELECT c.ledger_sequence FROM ledger_checkpoint c
+                                                WHERE c.wallet_id = :walletId
+                                                ORDER BY c.period_start DESC LIMIT 1), 0))
+    """)
+    long countLedgerEntries(@Param("walletId") String walletId);
+
+    long countByWalletId(String walletId);
+
+    /**
+     * One keyset page of a wallet's statement, newest first. Served by idx_txn_wallet_created, so each
+     * page seeks straight to the cursor position instead of skipping over earlier rows.
+     */
+    @Query("""
+    SELECT t FROM Transaction t
+    WHERE t.walletId = :walletId
+      AND t.type IN :types
+      AND t.createdAt >= :from
+      AND t.createdAt < :to
+      AND (t.createdAt < :cursorCreatedAt
+           OR (t.createdAt = :cursorCreatedAt AND t.id < :cursorId))
+    ORDER BY t.createdAt DESC, t.id DESC
+    """)
+    List<Transaction> findHistoryPage(@Param("walletId") String walletId,
+                                      @Param("types") Collection<TransactionType> types,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                      @Param("cursorId") String cursorId,
+                                      Pageable pageable);
 
 }
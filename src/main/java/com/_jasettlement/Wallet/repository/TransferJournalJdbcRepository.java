@@ -0,0 +1,39 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.TransferJournal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Write path for TransferJournal rows, issued next to the JDBC insert of their legs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferJournalJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO transfer_journal (id, reference, from_wallet_id, to_wallet_id, amount_minor_units,
+                                          description, reversal_of, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<TransferJournal> transfers) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transfers, BATCH_SIZE, (ps, transfer) -> {
+            ps.setString(1, transfer.getId());
+            ps.setString(2, transfer.getReference());
+            ps.setString(3, transfer.getFromWalletId());
+            ps.setString(4, transfer.getToWalletId());
+            ps.setLong(5, transfer.getAmountMinorUnits());
+            ps.setString(6, transfer.getDescription());
+            ps.setString(7, transfer.getReversalOf());
+            ps.setObject(8, transfer.getCreatedAt());
+        });
+    }
+}
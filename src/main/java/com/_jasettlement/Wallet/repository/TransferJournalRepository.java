@@ -0,0 +1,18 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.TransferJournal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TransferJournalRepository extends JpaRepository<TransferJournal, String> {
+    Optional<TransferJournal> findByReference(String reference);
+
+    List<TransferJournal> findByReferenceIn(Collection<String> references);
+
+    Optional<TransferJournal> findByReversalOf(String transferId);
+}
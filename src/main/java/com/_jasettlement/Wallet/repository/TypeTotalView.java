@@ -0,0 +1,14 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.TransactionType;
+
+/**
+ * A business day's total for one TransactionType, summed over the settlement partitions.
+ */
+public interface TypeTotalView {
+    TransactionType getType();
+
+    Long getEntryCount();
+
+    Long getAmountMinorUnits();
+}
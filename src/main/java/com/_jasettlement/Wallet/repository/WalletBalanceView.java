@@ -0,0 +1,12 @@
+package com._jasettlement.Wallet.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Narrow projection of the mutable part of a wallet row.
+ */
+public interface WalletBalanceView {
+    Long getBalanceMinorUnits();
+
+    LocalDateTime getUpdatedAt();
+}
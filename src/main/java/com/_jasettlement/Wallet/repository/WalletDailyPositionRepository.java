@@ -0,0 +1,15 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.WalletDailyPosition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface WalletDailyPositionRepository extends JpaRepository<WalletDailyPosition, String> {
+    Optional<WalletDailyPosition> findByBusinessDateAndWalletId(LocalDate businessDate, String walletId);
+
+    long countByBusinessDate(LocalDate businessDate);
+}
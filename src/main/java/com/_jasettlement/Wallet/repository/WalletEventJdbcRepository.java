@@ -0,0 +1,158 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.WalletEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox writes and relay reads for {@link WalletEvent}. Identity ids are handed out at insert and
+ * do not follow commit order, so rows are inserted without an offset and numbered by
+ * {@link #assignOffsets} once they are committed. Offsets therefore become visible in the order they
+ * were assigned, with no holes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletEventJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO wallet_event (wallet_id, transaction_id, type, amount_minor_units,
+                                      balance_after_minor_units, ledger_sequence, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String COLUMNS = """
+            id, event_offset, wallet_id, transaction_id, type, amount_minor_units, balance_after_minor_units,
+            ledger_sequence, created_at
+            """;
+
+    private static final String AFTER_SQL =
+            "SELECT " + COLUMNS + " FROM wallet_event WHERE event_offset > ? ORDER BY event_offset LIMIT ?";
+
+    private static final String WALLET_AFTER_SQL = "SELECT " + COLUMNS + " FROM wallet_event"
+            + " WHERE wallet_id = ? AND event_offset > ? AND event_offset <= ? ORDER BY event_offset LIMIT ?";
+
+    private static final String SEQUENCE_NAME = "relay";
+
+    private static final String LOCK_SEQUENCE_SQL =
+            "SELECT last_offset FROM wallet_event_sequence WHERE name = ? FOR UPDATE";
+
+    private static final String INSERT_SEQUENCE_SQL =
+            "INSERT INTO wallet_event_sequence (name, last_offset) VALUES (?, 0)";
+
+    private static final String UPDATE_SEQUENCE_SQL =
+            "UPDATE wallet_event_sequence SET last_offset = ? WHERE name = ?";
+
+    private static final String UNASSIGNED_SQL =
+            "SELECT id FROM wallet_event WHERE event_offset IS NULL ORDER BY id LIMIT ?";
+
+    private static final String ASSIGN_SQL = "UPDATE wallet_event SET event_offset = ? WHERE id = ?";
+
+    private static final RowMapper<WalletEvent> ROW_MAPPER = (rs, rowNum) -> WalletEvent.builder()
+            .id(rs.getLong("id"))
+            .eventOffset(rs.getLong("event_offset"))
+            .walletId(rs.getString("wallet_id"))
+            .transactionId(rs.getString("transaction_id"))
+            .type(TransactionType.valueOf(rs.getString("type")))
+            .amountMinorUnits(rs.getLong("amount_minor_units"))
+            .balanceAfterMinorUnits(rs.getObject("balance_after_minor_units", Long.class))
+            .ledgerSequence(rs.getObject("ledger_sequence", Long.class))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes one event per ledger entry. The entries must already have their ids.
+     */
+    public void insertAll(List<Transaction> transactions) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, BATCH_SIZE, (ps, transaction) -> {
+            ps.setString(1, transaction.getWalletId());
+            ps.setString(2, transaction.getId());
+            ps.setString(3, transaction.getType().name());
+            ps.setLong(4, transaction.getAmountMinorUnits());
+            ps.setObject(5, transaction.getBalanceAfterMinorUnits());
+            ps.setObject(6, transaction.getLedgerSequence());
+            ps.setObject(7, transaction.getCreatedAt() != null ? transaction.getCreatedAt() : now);
+        });
+    }
+
+    /**
+     * Numbers up to {@code limit} committed rows that have no offset yet, continuing from the last
+     * offset handed out. Must run in a transaction: the sequence row stays locked until it commits, so
+     * relays on other instances number the next rows only after these are visible.
+     *
+     * @return the number of rows numbered
+     */
+    public int assignOffsets(int limit) {
+        long last = lockSequence();
+        List<Long> ids = jdbcTemplate.queryForList(UNASSIGNED_SQL, Long.class, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> offsets = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            offsets.add(new Object[]{++last, id});
+        }
+        jdbcTemplate.batchUpdate(ASSIGN_SQL, offsets);
+        jdbcTemplate.update(UPDATE_SEQUENCE_SQL, last, SEQUENCE_NAME);
+        return ids.size();
+    }
+
+    /**
+     * The next numbered events of every wallet after the offset, in offset order.
+     */
+    public List<WalletEvent> findAfter(long after, int limit) {
+        return jdbcTemplate.query(AFTER_SQL, ROW_MAPPER, after, limit);
+    }
+
+    /**
+     * One wallet's events in (after, through], for subscribers catching up on what the relay already passed.
+     */
+    public List<WalletEvent> findByWalletAfter(String walletId, long after, long through, int limit) {
+        return jdbcTemplate.query(WALLET_AFTER_SQL, ROW_MAPPER, walletId, after, through, limit);
+    }
+
+    public long maxOffset() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(event_offset) FROM wallet_event", Long.class);
+        return max != null ? max : 0;
+    }
+
+    /**
+     * Lowest retained offset, or null when no event has one.
+     */
+    public Long minOffset() {
+        return jdbcTemplate.queryForObject("SELECT MIN(event_offset) FROM wallet_event", Long.class);
+    }
+
+    /**
+     * Purges numbered events; rows the relay has not reached yet are kept.
+     */
+    public int deleteCreatedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM wallet_event WHERE created_at < ? AND event_offset IS NOT NULL", cutoff);
+    }
+
+    private long lockSequence() {
+        List<Long> last = jdbcTemplate.queryForList(LOCK_SEQUENCE_SQL, Long.class, SEQUENCE_NAME);
+        if (!last.isEmpty()) {
+            return last.get(0);
+        }
+        try {
+            jdbcTemplate.update(INSERT_SEQUENCE_SQL, SEQUENCE_NAME);
+        } catch (DuplicateKeyException ex) {
+            // Another relay created it first
+        }
+        return jdbcTemplate.queryForObject(LOCK_SEQUENCE_SQL, Long.class, SEQUENCE_NAME);
+    }
+}
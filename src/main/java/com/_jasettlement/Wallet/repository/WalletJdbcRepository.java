@@ -0,0 +1,87 @@
+package com._jasettlement.Wallet.repository;
+
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bulk write path for the Wallet table, used by onboarding to insert many wallets per round trip,
+ * plus the plain row lock taken by stripe sweeps and the ledger position read by available-balance tracking.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletJdbcRepository {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO wallet (id, wallet_id, full_name, email, bvn, currency, balance_minor_units,
+                                ledger_sequence, stripe_count, created_at, updated_at, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String LOCK_VERSION_SQL = "SELECT version FROM wallet WHERE wallet_id = ? FOR UPDATE";
+
+    private static final String LEDGER_POSITION_SQL =
+            "SELECT balance_minor_units, ledger_sequence FROM wallet WHERE wallet_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Assigns ids and timestamps to wallets that lack them and inserts them in batches. The caller
+     * must have set each walletId.
+     */
+    public void insertAll(List<Wallet> wallets) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Wallet wallet : wallets) {
+            if (wallet.getId() == null) {
+                wallet.setId(TimeOrderedIds.nextString());
+            }
+            if (wallet.getCreatedAt() == null) {
+                wallet.setCreatedAt(now);
+            }
+            wallet.setUpdatedAt(now);
+            wallet.setVersion(0L);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, wallets, BATCH_SIZE, (ps, wallet) -> {
+            ps.setString(1, wallet.getId());
+            ps.setString(2, wallet.getWalletId());
+            ps.setString(3, wallet.getFullName());
+            ps.setString(4, wallet.getEmail());
+            ps.setString(5, wallet.getBvn());
+            ps.setString(6, wallet.getCurrency() != null ? wallet.getCurrency() : "NGN");
+            ps.setLong(7, wallet.getBalanceMinorUnits());
+            ps.setLong(8, wallet.getLedgerSequence());
+            ps.setInt(9, wallet.getStripeCount() != null ? wallet.getStripeCount() : 0);
+            ps.setObject(10, wallet.getCreatedAt());
+            ps.setObject(11, wallet.getUpdatedAt());
+            ps.setLong(12, wallet.getVersion());
+        });
+    }
+
+    /**
+     * Row-locks the wallet and returns its current version, for callers that loaded it without a lock.
+     */
+    public Long lockVersion(String walletId) {
+        return jdbcTemplate.queryForObject(LOCK_VERSION_SQL, Long.class, walletId);
+    }
+
+    /**
+     * The wallet row's balance and ledger sequence as stored, without a lock or the persistence context.
+     * Entries still on a hot wallet's stripes are not included.
+     */
+    public Optional<LedgerPosition> findLedgerPosition(String walletId) {
+        return jdbcTemplate.query(LEDGER_POSITION_SQL,
+                (rs, rowNum) -> new LedgerPosition(rs.getLong(1), rs.getLong(2)), walletId).stream().findFirst();
+    }
+
+    public record LedgerPosition(long balanceMinorUnits, long ledgerSequence) {
+    }
+}
@@ -1,9 +1,19 @@
 package com._jasettlement.Wallet.repository;
 
 import com._jasettlement.Wallet.entity.Wallet;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +22,40 @@ public interface WalletRepository extends JpaRepository<Wallet, String> {
     Optional<Wallet> findByEmail(String email);
 
     Optional<Wallet> findByWalletId(@NotBlank(message = "Wallet ID is required") String walletId);
+
+    @Query("SELECT w.balanceMinorUnits AS balanceMinorUnits, w.updatedAt AS updatedAt FROM Wallet w WHERE w.walletId = :walletId")
+    Optional<WalletBalanceView> findBalanceByWalletId(@Param("walletId") String walletId);
+
+    /**
+     * A hot wallet's balance: the swept snapshot plus its stripes, read in one statement so a concurrent
+     * sweep is never counted twice or missed.
+     */
+    @Query("""
+    SELECT w.balanceMinorUnits + COALESCE((SELECT SUM(s.balanceMinorUnits) FROM WalletBalanceStripe s
+                                           WHERE s.walletId = w.walletId), 0) AS balanceMinorUnits,
+           w.updatedAt AS updatedAt
+    FROM Wallet w WHERE w.walletId = :walletId
+    """)
+    Optional<WalletBalanceView> findStripedBalanceByWalletId(@Param("walletId") String walletId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT w FROM Wallet w WHERE w.walletId = :walletId")
+    Optional<Wallet> findByWalletIdForUpdate(@Param("walletId") String walletId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT w FROM Wallet w WHERE w.walletId IN :walletIds ORDER BY w.walletId")
+    List<Wallet> findAllByWalletIdInForUpdate(@Param("walletIds") Collection<String> walletIds);
+
+    List<Wallet> findAllByWalletIdIn(Collection<String> walletIds);
+
+    @Query("SELECT w.email FROM Wallet w WHERE w.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT w.walletId FROM Wallet w WHERE w.walletId > :after ORDER BY w.walletId")
+    List<String> findWalletIdsAfter(@Param("after") String after, Pageable pageable);
+
+    @Query("SELECT w.walletId FROM Wallet w WHERE w.stripeCount > 0 ORDER BY w.walletId")
+    List<String> findStripedWalletIds();
 }
@@ -0,0 +1,114 @@
+package com._jasettlement.Wallet.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads and single-statement updates of a hot wallet's {@link com._jasettlement.Wallet.entity.WalletBalanceStripe}
+ * rows. Each update holds only its own stripe's row lock until the posting commits.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WalletStripeJdbcRepository {
+
+    private static final String ADD_SQL = """
+            UPDATE wallet_balance_stripe SET balance_minor_units = balance_minor_units + ?, updated_at = ?
+            WHERE wallet_id = ? AND stripe = ?
+            """;
+
+    private static final String DRAW_SQL = """
+            UPDATE wallet_balance_stripe SET balance_minor_units = balance_minor_units - ?, updated_at = ?
+            WHERE wallet_id = ? AND stripe = ? AND balance_minor_units >= ?
+            """;
+
+    private static final String COVERING_SQL = """
+            SELECT stripe FROM wallet_balance_stripe WHERE wallet_id = ? AND balance_minor_units >= ?
+            """;
+
+    private static final String LOCK_ALL_SQL = """
+            SELECT balance_minor_units FROM wallet_balance_stripe WHERE wallet_id = ? ORDER BY stripe FOR UPDATE
+            """;
+
+    private static final String RESET_SQL = """
+            UPDATE wallet_balance_stripe SET balance_minor_units = 0, updated_at = ?
+            WHERE wallet_id = ? AND balance_minor_units <> 0
+            """;
+
+    private static final String SUM_SQL = """
+            SELECT COALESCE(SUM(balance_minor_units), 0) FROM wallet_balance_stripe WHERE wallet_id = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO wallet_balance_stripe (id, wallet_id, stripe, balance_minor_units, updated_at)
+            VALUES (?, ?, ?, 0, ?)
+            """;
+
+    private static final String DELETE_FROM_SQL = "DELETE FROM wallet_balance_stripe WHERE wallet_id = ? AND stripe >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the amount to one stripe. Returns 0 when the stripe does not exist (the wallet was resized).
+     */
+    public int add(String walletId, int stripe, long amountMinorUnits) {
+        return jdbcTemplate.update(ADD_SQL, amountMinorUnits, LocalDateTime.now(), walletId, stripe);
+    }
+
+    /**
+     * Takes the amount from one stripe if it still covers it. Returns 0 when it does not.
+     */
+    public int draw(String walletId, int stripe, long amountMinorUnits) {
+        return jdbcTemplate.update(DRAW_SQL, amountMinorUnits, LocalDateTime.now(), walletId, stripe, amountMinorUnits);
+    }
+
+    /**
+     * Stripes that covered the amount when read; a {@link #draw} on them can still lose the race.
+     */
+    public List<Integer> findStripesCovering(String walletId, long amountMinorUnits) {
+        return jdbcTemplate.queryForList(COVERING_SQL, Integer.class, walletId, amountMinorUnits);
+    }
+
+    /**
+     * Locks every stripe of the wallet in stripe order, waiting for in-flight postings on them to
+     * commit, and returns their total.
+     */
+    public long lockAll(String walletId) {
+        long[] total = new long[1];
+        jdbcTemplate.query(LOCK_ALL_SQL, rs -> {
+            total[0] += rs.getLong(1);
+        }, walletId);
+        return total[0];
+    }
+
+    public void resetAll(String walletId) {
+        jdbcTemplate.update(RESET_SQL, LocalDateTime.now(), walletId);
+    }
+
+    public long sum(String walletId) {
+        Long total = jdbcTemplate.queryForObject(SUM_SQL, Long.class, walletId);
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Changes the wallet from {@code from} to {@code to} stripes. Removed stripes must already be swept.
+     */
+    public void resize(String walletId, int from, int to) {
+        if (to < from) {
+            jdbcTemplate.update(DELETE_FROM_SQL, walletId, to);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, IntStream.range(from, to).boxed().toList(), to - from + 1,
+                (ps, stripe) -> {
+                    ps.setString(1, walletId + "/" + stripe);
+                    ps.setString(2, walletId);
+                    ps.setInt(3, stripe);
+                    ps.setObject(4, now);
+                });
+    }
+}
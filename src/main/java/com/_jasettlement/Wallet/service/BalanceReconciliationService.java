@@ -0,0 +1,7 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.response.BalanceReconciliationResponse;
+
+public interface BalanceReconciliationService {
+    public BalanceReconciliationResponse reconcile(boolean repair);
+}
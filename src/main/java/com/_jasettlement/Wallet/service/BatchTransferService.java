@@ -0,0 +1,8 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.request.BatchTransferRequest;
+import com._jasettlement.Wallet.dto.response.BatchTransferResponse;
+
+public interface BatchTransferService {
+    public BatchTransferResponse transferBatch(BatchTransferRequest request);
+}
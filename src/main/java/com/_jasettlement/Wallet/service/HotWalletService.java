@@ -0,0 +1,14 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.response.HotWalletResponse;
+
+public interface HotWalletService {
+
+    /**
+     * Sets the number of striped sub-balances of a wallet; 0 turns hot wallet mode off. The wallet is
+     * swept first, so no money is left on stripes that are removed.
+     */
+    HotWalletResponse configure(String walletId, int stripes);
+
+    HotWalletResponse getStatus(String walletId);
+}
@@ -0,0 +1,17 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.response.LedgerPeriodResponse;
+import com._jasettlement.Wallet.dto.response.LedgerTieringResponse;
+
+import java.util.List;
+
+public interface LedgerTieringService {
+
+    /**
+     * Closes every month that ended more than {@code close-lag} ago into per-wallet checkpoints, then
+     * moves the rows of closed months older than {@code hot-months} into the archive.
+     */
+    LedgerTieringResponse run();
+
+    List<LedgerPeriodResponse> getPeriods();
+}
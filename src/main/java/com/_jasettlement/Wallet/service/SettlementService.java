@@ -0,0 +1,20 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.response.SettlementRunResponse;
+import com._jasettlement.Wallet.dto.response.SettlementSummaryResponse;
+import com._jasettlement.Wallet.dto.response.WalletDailyPositionResponse;
+
+import java.time.LocalDate;
+
+public interface SettlementService {
+
+    /**
+     * Folds the business day's ledger rows that arrived since the last run into the settlement
+     * summary tables.
+     */
+    SettlementRunResponse settle(LocalDate businessDate);
+
+    SettlementSummaryResponse getSummary(LocalDate businessDate);
+
+    WalletDailyPositionResponse getPosition(LocalDate businessDate, String walletId);
+}
@@ -0,0 +1,14 @@
+package com._jasettlement.Wallet.service;
+
+import java.io.OutputStream;
+
+public interface StatementExportService {
+
+    enum Format { CSV, NDJSON }
+
+    /**
+     * Writes every ledger entry of the wallet to the output in ledger-sequence order, row by row as
+     * it is read from the database, optionally gzip-compressed.
+     */
+    void export(String walletId, Format format, boolean gzip, OutputStream output);
+}
@@ -0,0 +1,22 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.response.WalletEventsResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+public interface WalletEventService {
+
+    /**
+     * Streams the wallet's balance changes after the offset as server-sent events, starting with any
+     * it has missed. A null offset streams only changes from now on.
+     */
+    SseEmitter stream(String walletId, Long after);
+
+    /**
+     * Returns the wallet's balance changes after the offset. When there are none yet, it waits up to
+     * {@code wait} (capped at wallet.events.max-wait) for the next one.
+     */
+    CompletableFuture<WalletEventsResponse> poll(String walletId, Long after, Duration wait);
+}
@@ -0,0 +1,17 @@
+package com._jasettlement.Wallet.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface WalletFrameService {
+
+    /**
+     * Reads request frames (see {@link com._jasettlement.Wallet.util.WalletFrameCodec}) from a buffered
+     * input whose version byte has already been checked, and runs them one after another as they arrive.
+     * Each frame's response is written to the output as soon as it is ready, and output is flushed
+     * whenever the next frame has not arrived yet, so a client can keep sending frames without waiting
+     * for earlier responses. A failed operation only fails its own frame.
+     */
+    void exchange(InputStream input, OutputStream output) throws IOException;
+}
@@ -0,0 +1,15 @@
+package com._jasettlement.Wallet.service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface WalletOnboardingService {
+
+    enum Format { NDJSON, CSV }
+
+    /**
+     * Reads CreateWalletRequest records from the input and writes one NDJSON result line per record
+     * to the output as each chunk completes.
+     */
+    void onboard(InputStream input, Format format, OutputStream output);
+}
@@ -1,16 +1,29 @@
 package com._jasettlement.Wallet.service;
 
+import com._jasettlement.Wallet.dto.request.CaptureHoldRequest;
 import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
 import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.HoldRequest;
+import com._jasettlement.Wallet.dto.request.TransactionHistoryRequest;
 import com._jasettlement.Wallet.dto.request.TransferRequest;
 import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.FundsHoldResponse;
+import com._jasettlement.Wallet.dto.response.TransactionHistoryResponse;
 import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
 import com._jasettlement.Wallet.dto.response.WalletResponse;
 
 public interface WalletService {
     public WalletResponse createWallet(CreateWalletRequest request);
     public TransactionResponse deposit(DepositRequest request);
     public TransactionResponse withdraw(WithdrawalRequest request);
-    public TransactionResponse transfer(TransferRequest request);
+    public TransferResponse transfer(TransferRequest request);
+    public TransferResponse getTransfer(String transferId);
+    public TransferResponse reverseTransfer(String transferId);
     public WalletResponse getWallet(String id);
+    public TransactionHistoryResponse getTransactionHistory(String walletId, TransactionHistoryRequest request);
+    public FundsHoldResponse holdFunds(HoldRequest request);
+    public FundsHoldResponse captureHold(String holdId, CaptureHoldRequest request);
+    public FundsHoldResponse releaseHold(String holdId);
+    public FundsHoldResponse getHold(String holdId);
 }
@@ -0,0 +1,213 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.exception.InsufficientFundsException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.repository.FundsHoldJdbcRepository;
+import com._jasettlement.Wallet.repository.WalletJdbcRepository;
+import com._jasettlement.Wallet.repository.WalletJdbcRepository.LedgerPosition;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Per-wallet available balance, kept in memory: the committed ledger balance minus everything
+ * reserved against it. Reservations are ACTIVE {@link com._jasettlement.Wallet.entity.FundsHold}s and
+ * debits that are being posted.
+ * <p>
+ * Each wallet's state is one immutable {@link Position} swapped by compare-and-set, so authorizing a
+ * hold is a read and a CAS, with no database lock or ledger query. Debits reserve through the same CAS
+ * before they are posted, so a hold and a withdrawal racing for the last funds cannot both succeed.
+ * The ledger balance follows committed postings by ledger sequence and never moves backwards, so
+ * callbacks arriving out of order are harmless.
+ * <p>
+ * A wallet is tracked from its first hold or debit on. It is seeded from the wallet row plus the sum
+ * of its ACTIVE holds, while its map bin is locked, so a release or ledger update racing with the seed
+ * waits for it. Credits still on a hot wallet's stripes are not counted until they are swept, which
+ * only ever understates what is available. The state is per instance: holds placed on another
+ * instance are only seen here after a restart.
+ */
+@Component
+public class AvailableBalanceTracker {
+
+    /**
+     * One wallet's state. {@code ledger} is its sequenced balance as of {@code sequence}; {@code reserved}
+     * is held or in-flight money that may not be spent again.
+     */
+    public record Position(long ledger, long sequence, long reserved) {
+        public long available() {
+            return ledger - reserved;
+        }
+    }
+
+    private final WalletJdbcRepository walletJdbcRepository;
+    private final FundsHoldJdbcRepository fundsHoldJdbcRepository;
+    private final Map<String, AtomicReference<Position>> wallets = new ConcurrentHashMap<>();
+
+    public AvailableBalanceTracker(WalletJdbcRepository walletJdbcRepository,
+                                   FundsHoldJdbcRepository fundsHoldJdbcRepository, MeterRegistry meterRegistry) {
+        this.walletJdbcRepository = walletJdbcRepository;
+        this.fundsHoldJdbcRepository = fundsHoldJdbcRepository;
+
+        Gauge.builder("wallet.holds.tracked.wallets", wallets, Map::size)
+                .description("Wallets whose available balance is tracked in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves the amount for a hold if the available balance covers it. Seeds the wallet from the
+     * wallet row when it is not tracked yet.
+     */
+    public boolean tryHold(String walletId, long amountMinorUnits) {
+        AtomicReference<Position> state = state(walletId, () -> databasePosition(walletId));
+        while (true) {
+            Position current = state.get();
+            if (current.available() < amountMinorUnits) {
+                return false;
+            }
+            if (state.compareAndSet(current, new Position(current.ledger(), current.sequence(),
+                    current.reserved() + amountMinorUnits))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reserves a debit that is about to be posted against {@code balance}, the wallet balance the
+     * poster sees under its lock or on its shard. {@code convertedHold} is the part of the reservation
+     * that a captured hold already holds; it is swapped for the debit rather than counted twice.
+     * The balance itself is always a floor, whatever the tracked reservations say.
+     *
+     * @throws InsufficientFundsException when the balance less other reservations does not cover it
+     */
+    public void reserveDebit(String walletId, long amountMinorUnits, long balance, long convertedHold,
+                             Supplier<LedgerPosition> seed) {
+        AtomicReference<Position> state = state(walletId, seed);
+        while (true) {
+            Position current = state.get();
+            long available = Math.min(balance, balance - (current.reserved() - convertedHold));
+            if (available < amountMinorUnits) {
+                throw new InsufficientFundsException("Insufficient funds. Available: " + available
+                        + ", Required: " + amountMinorUnits);
+            }
+            if (state.compareAndSet(current, new Position(current.ledger(), current.sequence(),
+                    current.reserved() - convertedHold + amountMinorUnits))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@link #reserveDebit} for a posting in the current database transaction. The reservation is given
+     * back once the transaction completes; on commit the posting's ledger balance has been recorded by then.
+     */
+    public void reserveDebitInTransaction(String walletId, long amountMinorUnits, long balance, long convertedHold) {
+        reserveDebit(walletId, amountMinorUnits, balance, convertedHold, () -> databasePosition(walletId));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            settleDebit(walletId, amountMinorUnits, convertedHold, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                settleDebit(walletId, amountMinorUnits, convertedHold, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    /**
+     * Ends a debit reservation. A posted debit is in the ledger balance by now; one that failed puts
+     * back the hold it was converting, if any.
+     */
+    public void settleDebit(String walletId, long amountMinorUnits, long convertedHold, boolean posted) {
+        adjustReserved(walletId, posted ? -amountMinorUnits : convertedHold - amountMinorUnits);
+    }
+
+    /**
+     * Gives back a released or expired hold.
+     */
+    public void release(String walletId, long amountMinorUnits) {
+        adjustReserved(walletId, -amountMinorUnits);
+    }
+
+    /**
+     * Records a committed posting's balance. Ignored for untracked wallets and for sequences already seen.
+     */
+    public void recordBalance(String walletId, long balanceAfter, long sequence) {
+        AtomicReference<Position> state = tracked(walletId);
+        if (state == null) {
+            return;
+        }
+        while (true) {
+            Position current = state.get();
+            if (sequence <= current.sequence()
+                    || state.compareAndSet(current, new Position(balanceAfter, sequence, current.reserved()))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The wallet's available balance, seeding it from the wallet row if needed.
+     */
+    public long available(String walletId) {
+        return state(walletId, () -> databasePosition(walletId)).get().available();
+    }
+
+    /**
+     * Variant for the in-memory engine, whose live balance is ahead of the wallet row. The engine
+     * seeds a wallet on its shard, so the seed never waits on the shard that posts to the wallet.
+     */
+    public long available(String walletId, Supplier<LedgerPosition> seed) {
+        return state(walletId, seed).get().available();
+    }
+
+    /**
+     * Stops tracking the wallet, as a restart would; it is seeded again on its next use. Reservations
+     * of debits in flight are lost, so only call it while the wallet has none.
+     */
+    public void forget(String walletId) {
+        wallets.remove(walletId);
+    }
+
+    private void adjustReserved(String walletId, long delta) {
+        AtomicReference<Position> state = tracked(walletId);
+        if (state == null) {
+            // Not seeded yet; the seed reads the hold table as it is by then
+            return;
+        }
+        state.updateAndGet(current -> new Position(current.ledger(), current.sequence(), current.reserved() + delta));
+    }
+
+    private AtomicReference<Position> tracked(String walletId) {
+        AtomicReference<Position> state = wallets.get(walletId);
+        if (state != null) {
+            return state;
+        }
+        // Waits for a seed of the same wallet that is in progress
+        return wallets.computeIfPresent(walletId, (id, seeded) -> seeded);
+    }
+
+    private AtomicReference<Position> state(String walletId, Supplier<LedgerPosition> seed) {
+        AtomicReference<Position> state = wallets.get(walletId);
+        if (state != null) {
+            return state;
+        }
+        return wallets.computeIfAbsent(walletId, id -> {
+            LedgerPosition position = seed.get();
+            return new AtomicReference<>(new Position(position.balanceMinorUnits(), position.ledgerSequence(),
+                    fundsHoldJdbcRepository.sumActive(id)));
+        });
+    }
+
+    private LedgerPosition databasePosition(String walletId) {
+        return walletJdbcRepository.findLedgerPosition(walletId)
+                .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + walletId));
+    }
+}
@@ -0,0 +1,148 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.response.BalanceReconciliationResponse;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.exception.EngineModeConflictException;
+import com._jasettlement.Wallet.index.MappedWalletIndex;
+import com._jasettlement.Wallet.metrics.WalletMetrics;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.service.BalanceReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rebuilds wallet balance snapshots from the Transaction ledger.
+ * Each wallet is checked in its own short transaction so the job never holds locks across the whole table.
+ * Repair is refused while the in-memory engine owns the balances: its projection writes the snapshots.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceReconciliationServiceImpl implements BalanceReconciliationService {
+
+    private static final int MAX_REPORTED_WALLETS = 100;
+
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletProperties walletProperties;
+    private final WalletMetrics walletMetrics;
+    private final Optional<MappedWalletIndex> walletIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        WalletProperties.BalanceSnapshot settings = walletProperties.getBalanceSnapshot();
+        if (!settings.isVerifyOnStartup()) {
+            return;
+        }
+        boolean repair = settings.isRepairOnStartup();
+        if (repair && inMemoryEngine()) {
+            log.warn("Skipping snapshot repair on startup: wallet.engine.mode=IN_MEMORY; checking only");
+            repair = false;
+        }
+        BalanceReconciliationResponse report = reconcile(repair);
+        log.info("Startup balance snapshot check: {} wallets checked, {} drifted, {} repaired, {} skipped",
+                report.getWalletsChecked(), report.getWalletsDrifted(),
+                report.getWalletsRepaired(), report.getWalletsSkipped());
+    }
+
+    @Override
+    public BalanceReconciliationResponse reconcile(boolean repair) {
+        if (repair && inMemoryEngine()) {
+            throw new EngineModeConflictException(
+                    "Snapshot repair writes straight to the database and is unavailable while wallet.engine.mode=IN_MEMORY");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        int pageSize = walletProperties.getBalanceSnapshot().getPageSize();
+        long checked = 0, drifted = 0, repaired = 0, skipped = 0;
+        List<String> driftedWalletIds = new ArrayList<>();
+
+        String after = "";
+        List<String> page;
+        do {
+            page = walletRepository.findWalletIdsAfter(after, PageRequest.of(0, pageSize));
+            for (String walletId : page) {
+                checked++;
+                try {
+                    Boolean drift = transactionTemplate.execute(status -> checkWallet(walletId, repair));
+                    if (Boolean.TRUE.equals(drift)) {
+                        drifted++;
+                        if (repair) {
+                            repaired++;
+                        }
+                        if (driftedWalletIds.size() < MAX_REPORTED_WALLETS) {
+                            driftedWalletIds.add(walletId);
+                        }
+                    }
+                } catch (OptimisticLockingFailureException ex) {
+                    // A posting raced the repair; the wallet's snapshot was advanced by that posting, so skip it
+                    log.warn("Skipped balance snapshot check for wallet {} due to concurrent update", walletId);
+                    skipped++;
+                }
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == pageSize);
+
+        return BalanceReconciliationResponse.builder()
+                .walletsChecked(checked)
+                .walletsDrifted(drifted)
+                .walletsRepaired(repaired)
+                .walletsSkipped(skipped)
+                .driftedWalletIds(driftedWalletIds)
+                .startedAt(startedAt)
+                .completedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private boolean checkWallet(String walletId, boolean repair) {
+        // Lock the row so no posting can land between reading the snapshot and aggregating the ledger
+        Wallet wallet = walletRepository.findByWalletIdForUpdate(walletId).orElse(null);
+        if (wallet == null) {
+            return false;
+        }
+
+        long ledgerBalance = walletMetrics.observeQuery("calculateBalance", () -> transactionRepository.calculateBalance(walletId));
+        long ledgerEntries = transactionRepository.countLedgerEntries(walletId);
+        walletMetrics.recordWalletLedgerRowsRead("calculateBalance", ledgerEntries);
+        boolean drift = wallet.getBalanceMinorUnits() != ledgerBalance
+                || wallet.getLedgerSequence() != ledgerEntries;
+        if (!drift) {
+            return false;
+        }
+
+        log.warn("Balance snapshot drift for wallet {}: snapshot={} (seq {}), ledger={} ({} entries)",
+                walletId, wallet.getBalanceMinorUnits(), wallet.getLedgerSequence(), ledgerBalance, ledgerEntries);
+        if (repair) {
+            wallet.setBalanceMinorUnits(ledgerBalance);
+            wallet.setLedgerSequence(ledgerEntries);
+            walletIndex.ifPresent(index -> TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index.put(walletId, wallet.getId(), ledgerBalance, ledgerEntries, LocalDateTime.now());
+                }
+            }));
+        }
+        return true;
+    }
+
+    private boolean inMemoryEngine() {
+        return walletProperties.getEngine().getMode() == WalletProperties.Engine.Mode.IN_MEMORY;
+    }
+}
@@ -0,0 +1,297 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.request.BatchTransferRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.response.BatchTransferResponse;
+import com._jasettlement.Wallet.dto.response.TransferLegResult;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.TransferJournal;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import com._jasettlement.Wallet.exception.EngineModeConflictException;
+import com._jasettlement.Wallet.exception.InsufficientFundsException;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.repository.TransferJournalRepository;
+import com._jasettlement.Wallet.service.BatchTransferService;
+import com._jasettlement.Wallet.util.InLists;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies many transfer legs in one database transaction: every wallet is resolved and locked with a
+ * single IN query, balances are checked in memory, and all transfers and their legs go out as JDBC batches.
+ * Debits are reserved in the {@link AvailableBalanceTracker}, so active funds holds are not spent.
+ * Batches are refused while the in-memory engine owns the balances, since they bypass its journal.
+ * <p>
+ * Leg references are {@code batch:<batch reference>:<index>}, a namespace no single transfer uses.
+ * A keyed batch replayed after its result left the {@link IdempotencyGuard} is rebuilt from those
+ * stored legs instead of failing on the unique reference.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Observed(name = "wallet.service")
+public class BatchTransferServiceImpl implements BatchTransferService {
+
+    private final WalletConcurrencyControl concurrencyControl;
+    private final LedgerPoster ledgerPoster;
+    private final IdempotencyGuard idempotencyGuard;
+    private final AvailableBalanceTracker availableBalances;
+    private final TransferJournalRepository transferJournalRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletProperties walletProperties;
+
+    @Override
+    public BatchTransferResponse transferBatch(BatchTransferRequest request) {
+        if (walletProperties.getEngine().getMode() == WalletProperties.Engine.Mode.IN_MEMORY) {
+            throw new EngineModeConflictException(
+                    "Batch transfers write straight to the database and are unavailable while wallet.engine.mode=IN_MEMORY");
+        }
+        String idempotencyKey = request.getIdempotencyKey() == null || request.getIdempotencyKey().isBlank()
+                ? null : request.getIdempotencyKey().trim();
+
+        // Batch results live in their own key space so a reused key can never be replayed as a single transfer
+        return idempotencyGuard.execute(idempotencyKey == null ? null : "batch:" + idempotencyKey, () -> {
+            String batchReference = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
+            try {
+                return concurrencyControl.inTransaction(() -> execute(batchReference, request));
+            } catch (DataIntegrityViolationException ex) {
+                if (idempotencyKey == null) {
+                    throw ex;
+                }
+                return replay(batchReference, request);
+            }
+        });
+    }
+
+    private BatchTransferResponse execute(String batchReference, BatchTransferRequest request) {
+        List<TransferRequest> legs = request.getTransfers();
+        boolean allOrNothing = request.getMode() == BatchTransferRequest.Mode.ALL_OR_NOTHING;
+
+        Set<String> walletIds = new HashSet<>();
+        for (TransferRequest leg : legs) {
+            walletIds.add(leg.getFromWalletId());
+            walletIds.add(leg.getToWalletId());
+        }
+        Map<String, Wallet> wallets = concurrencyControl.lockExisting(walletIds);
+
+        TransferLegResult[] results = new TransferLegResult[legs.size()];
+        if (allOrNothing && !validateNetPositions(batchReference, legs, wallets, results)) {
+            log.info("Rejected batch {}: {} legs not applied", batchReference, legs.size());
+            return buildResponse(batchReference, request.getMode(), false, results);
+        }
+
+        // Checked on net positions, so every credit lands before any debit: a wallet funded by a later
+        // leg never shows a negative balance after an earlier one
+        Transaction[] credits = new Transaction[legs.size()];
+        if (allOrNothing) {
+            for (int i = 0; i < legs.size(); i++) {
+                TransferRequest leg = legs.get(i);
+                credits[i] = ledgerPoster.applyTransferCredit(wallets.get(leg.getToWalletId()),
+                        leg.getAmountMinorUnits(), LedgerReferences.batchLeg(batchReference, i), leg.getDescription());
+            }
+        }
+
+        List<LedgerPoster.TransferPosting> postings = new ArrayList<>(legs.size());
+        // Reserved by earlier legs; the running balances below have already paid them
+        Map<String, Long> reservedInBatch = new HashMap<>();
+        for (int i = 0; i < legs.size(); i++) {
+            TransferRequest leg = legs.get(i);
+            String reference = LedgerReferences.batchLeg(batchReference, i);
+
+            if (!allOrNothing) {
+                // Best effort: earlier legs in the batch already moved the running balances
+                String error = missingWalletError(leg, wallets);
+                if (error == null) {
+                    String fromWalletId = leg.getFromWalletId();
+                    long reserved = reservedInBatch.getOrDefault(fromWalletId, 0L);
+                    try {
+                        availableBalances.reserveDebitInTransaction(fromWalletId, leg.getAmountMinorUnits(),
+                                wallets.get(fromWalletId).getBalanceMinorUnits() + reserved, 0);
+                        reservedInBatch.put(fromWalletId, reserved + leg.getAmountMinorUnits());
+                    } catch (InsufficientFundsException ex) {
+                        error = ex.getMessage();
+                    }
+                }
+                if (error != null) {
+                    results[i] = legResult(i, leg, reference, TransferLegResult.Status.FAILED, null, error);
+                    continue;
+                }
+            }
+
+            Wallet fromWallet = wallets.get(leg.getFromWalletId());
+            LedgerPoster.TransferPosting posting = allOrNothing
+                    ? ledgerPoster.applyTransfer(fromWallet, credits[i], leg.getAmountMinorUnits(), reference,
+                            leg.getDescription(), null)
+                    : ledgerPoster.applyTransfer(fromWallet, wallets.get(leg.getToWalletId()),
+                            leg.getAmountMinorUnits(), reference, leg.getDescription(), null);
+            postings.add(posting);
+            results[i] = legResult(i, leg, reference, TransferLegResult.Status.SUCCEEDED,
+                    posting.debit().getBalanceAfterMinorUnits(), null);
+            results[i].setTransferId(posting.transfer().getId());
+        }
+
+        if (!postings.isEmpty()) {
+            ledgerPoster.recordTransfers(postings);
+        }
+        log.info("Processed batch {}: {} of {} legs applied", batchReference, postings.size(), legs.size());
+        return buildResponse(batchReference, request.getMode(), !postings.isEmpty(), results);
+    }
+
+    /**
+     * Checks every source wallet against its net position across the whole batch, so credits arriving
+     * earlier or later in the file can fund its debits, and reserves each net outflow. Fills in failures
+     * and returns false if any leg fails.
+     */
+    private boolean validateNetPositions(String batchReference, List<TransferRequest> legs,
+                                         Map<String, Wallet> wallets, TransferLegResult[] results) {
+        Map<String, Long> netPositions = new HashMap<>();
+        for (TransferRequest leg : legs) {
+            netPositions.merge(leg.getFromWalletId(), -leg.getAmountMinorUnits(), Long::sum);
+            netPositions.merge(leg.getToWalletId(), leg.getAmountMinorUnits(), Long::sum);
+        }
+
+        Map<String, String> shortfalls = new HashMap<>();
+        netPositions.forEach((walletId, netPosition) -> {
+            Wallet wallet = wallets.get(walletId);
+            if (wallet == null || netPosition >= 0) {
+                return;
+            }
+            try {
+                availableBalances.reserveDebitInTransaction(walletId, -netPosition, wallet.getBalanceMinorUnits(), 0);
+            } catch (InsufficientFundsException ex) {
+                shortfalls.put(walletId, ex.getMessage() + ", net batch position: " + netPosition);
+            }
+        });
+
+        boolean valid = true;
+        for (int i = 0; i < legs.size(); i++) {
+            TransferRequest leg = legs.get(i);
+            String error = missingWalletError(leg, wallets);
+            if (error == null) {
+                error = shortfalls.get(leg.getFromWalletId());
+            }
+            if (error != null) {
+                results[i] = legResult(i, leg, LedgerReferences.batchLeg(batchReference, i), TransferLegResult.Status.FAILED, null, error);
+                valid = false;
+            }
+        }
+
+        if (!valid) {
+            for (int i = 0; i < legs.size(); i++) {
+                if (results[i] == null) {
+                    results[i] = legResult(i, legs.get(i), LedgerReferences.batchLeg(batchReference, i),
+                            TransferLegResult.Status.NOT_APPLIED, null, "Batch rejected");
+                }
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Rebuilds the response of a batch already committed under this key from its stored transfers.
+     * Legs with no stored transfer failed the first time (best effort only). A stored leg that does not
+     * match the request means the key was reused for a different batch.
+     */
+    private BatchTransferResponse replay(String batchReference, BatchTransferRequest request) {
+        List<TransferRequest> legs = request.getTransfers();
+        List<String> references = new ArrayList<>(legs.size());
+        for (int i = 0; i < legs.size(); i++) {
+            references.add(LedgerReferences.batchLeg(batchReference, i));
+        }
+        Map<String, TransferJournal> stored = new HashMap<>();
+        Map<String, Long> debitBalances = new HashMap<>();
+        for (List<String> chunk : InLists.chunks(references)) {
+            List<TransferJournal> transfers = transferJournalRepository.findByReferenceIn(chunk);
+            for (TransferJournal transfer : transfers) {
+                stored.put(transfer.getReference(), transfer);
+            }
+            for (Transaction leg : transactionRepository.findByTransferIdIn(
+                    transfers.stream().map(TransferJournal::getId).toList())) {
+                if (leg.getType() == TransactionType.TRANSFER_OUT) {
+                    debitBalances.put(leg.getTransferId(), leg.getBalanceAfterMinorUnits());
+                }
+            }
+        }
+        if (stored.isEmpty()) {
+            throw new DuplicateTransactionException("Batch " + batchReference + " conflicts with an existing posting");
+        }
+
+        boolean allOrNothing = request.getMode() == BatchTransferRequest.Mode.ALL_OR_NOTHING;
+        TransferLegResult[] results = new TransferLegResult[legs.size()];
+        for (int i = 0; i < legs.size(); i++) {
+            TransferRequest leg = legs.get(i);
+            TransferJournal transfer = stored.get(references.get(i));
+            if (transfer == null && !allOrNothing) {
+                results[i] = legResult(i, leg, references.get(i), TransferLegResult.Status.FAILED, null,
+                        "Not applied when batch " + batchReference + " was first processed");
+                continue;
+            }
+            if (transfer == null || !transfer.getFromWalletId().equals(leg.getFromWalletId())
+                    || !transfer.getToWalletId().equals(leg.getToWalletId())
+                    || !transfer.getAmountMinorUnits().equals(leg.getAmountMinorUnits())) {
+                throw new DuplicateTransactionException(
+                        "Idempotency key " + batchReference + " was already used for a different batch");
+            }
+            results[i] = legResult(i, leg, references.get(i), TransferLegResult.Status.SUCCEEDED,
+                    debitBalances.get(transfer.getId()), null);
+            results[i].setTransferId(transfer.getId());
+        }
+        log.info("Replayed batch {} from its stored transfers", batchReference);
+        return buildResponse(batchReference, request.getMode(), true, results);
+    }
+
+    private String missingWalletError(TransferRequest leg, Map<String, Wallet> wallets) {
+        if (!wallets.containsKey(leg.getFromWalletId())) {
+            return "Wallet not found: " + leg.getFromWalletId();
+        }
+        if (!wallets.containsKey(leg.getToWalletId())) {
+            return "Wallet not found: " + leg.getToWalletId();
+        }
+        return null;
+    }
+
+    private TransferLegResult legResult(int index, TransferRequest leg, String reference,
+                                        TransferLegResult.Status status, Long fromBalanceAfter, String error) {
+        return TransferLegResult.builder()
+                .index(index)
+                .status(status)
+                .reference(reference)
+                .fromWalletId(leg.getFromWalletId())
+                .toWalletId(leg.getToWalletId())
+                .amountMinorUnits(leg.getAmountMinorUnits())
+                .fromBalanceAfterMinorUnits(fromBalanceAfter)
+                .error(error)
+                .build();
+    }
+
+    private BatchTransferResponse buildResponse(String batchReference, BatchTransferRequest.Mode mode,
+                                                boolean applied, TransferLegResult[] results) {
+        int succeeded = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == TransferLegResult.Status.SUCCEEDED)
+                .count();
+        return BatchTransferResponse.builder()
+                .batchReference(batchReference)
+                .mode(mode)
+                .applied(applied)
+                .requested(results.length)
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .results(List.of(results))
+                .build();
+    }
+}
@@ -0,0 +1,227 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.exception.LedgerUnavailableException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for deposits (wallet.deposit-batching.enabled=true).
+ * <p>
+ * Callers queue their deposit and wait on its future. A worker opens a batch with the first queued
+ * deposit and keeps it open for up to {@code window} or until it holds {@code max-batch} deposits.
+ * It then commits the whole batch in one transaction: every wallet in the batch is locked once (in
+ * walletId order, see {@link WalletConcurrencyControl#lockExisting}), the entries are applied in queue
+ * order and written as one JDBC batch. Several workers run this loop, so one batch can fill while
+ * another commits.
+ * <p>
+ * If a batch fails, each of its deposits is retried in a transaction of its own. Each caller then sees
+ * its own result or error, and one bad deposit never fails its neighbours.
+ * <p>
+ * Once shutdown starts, new deposits are refused, and any deposit still queued after the workers stop
+ * is failed, so no caller is left waiting on a future that nothing will complete.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.deposit-batching.enabled", havingValue = "true")
+@Slf4j
+public class DepositBatcher {
+
+    private final WalletConcurrencyControl concurrencyControl;
+    private final LedgerPoster ledgerPoster;
+    private final BlockingQueue<PendingDeposit> queue;
+    private final int maxBatch;
+    private final long windowNanos;
+    private final DistributionSummary batchSize;
+    private final Timer queueWait;
+    private final Timer commitTimer;
+    private final Counter fallbacks;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running = true;
+
+    public DepositBatcher(WalletConcurrencyControl concurrencyControl, LedgerPoster ledgerPoster,
+                          WalletProperties walletProperties, MeterRegistry meterRegistry) {
+        WalletProperties.DepositBatching settings = walletProperties.getDepositBatching();
+        this.concurrencyControl = concurrencyControl;
+        this.ledgerPoster = ledgerPoster;
+        this.queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+        this.maxBatch = settings.getMaxBatch();
+        this.windowNanos = settings.getWindow().toNanos();
+
+        Gauge.builder("wallet.deposit.batch.queue.depth", queue, BlockingQueue::size)
+                .description("Deposits waiting to join a batch")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("wallet.deposit.batch.size")
+                .description("Deposits committed per batch; compare with wallet.deposit-batching.max-batch for fill")
+                .baseUnit("deposits")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("wallet.deposit.batch.wait")
+                .description("Time a deposit waited for its batch to close, the latency batching adds")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("wallet.deposit.batch.commit")
+                .description("Time to post and commit one batch of deposits")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("wallet.deposit.batch.fallbacks")
+                .description("Batches that failed and were retried one deposit at a time")
+                .register(meterRegistry);
+
+        for (int w = 0; w < settings.getWorkers(); w++) {
+            Thread worker = Thread.ofPlatform().name("deposit-batcher-" + w).unstarted(this::collectLoop);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues a deposit for the next batch. The future completes with the posted entry once its batch
+     * has committed, or with the error of this deposit alone.
+     */
+    public CompletableFuture<Transaction> submit(String walletId, long amountMinorUnits,
+                                                 String reference, String description) {
+        if (!running) {
+            throw new LedgerUnavailableException("Deposit batching is shutting down");
+        }
+        PendingDeposit deposit = new PendingDeposit(walletId, amountMinorUnits, reference, description,
+                System.nanoTime(), new CompletableFuture<>());
+        try {
+            // A full queue only drains while workers run, so keep checking for shutdown while waiting
+            while (!queue.offer(deposit, 100, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    throw new LedgerUnavailableException("Deposit batching is shutting down");
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new LedgerUnavailableException("Interrupted while waiting for a deposit batch", ex);
+        }
+        // Shutdown may have drained the queue before this deposit arrived; take it back if no one has
+        if (!running && queue.remove(deposit)) {
+            throw new LedgerUnavailableException("Deposit batching is shutting down");
+        }
+        return deposit.result();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        List<PendingDeposit> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(deposit -> deposit.result().completeExceptionally(
+                new LedgerUnavailableException("Deposit batching shut down before this deposit was posted")));
+        if (!abandoned.isEmpty()) {
+            log.warn("Failed {} queued deposits at shutdown", abandoned.size());
+        }
+    }
+
+    private void collectLoop() {
+        List<PendingDeposit> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingDeposit first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || remaining <= 0) {
+                        break;
+                    }
+                    PendingDeposit next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.forEach(deposit -> deposit.result().completeExceptionally(
+                        new LedgerUnavailableException("Deposit batching was interrupted", ex)));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingDeposit> batch) {
+        long started = System.nanoTime();
+        for (PendingDeposit deposit : batch) {
+            queueWait.record(started - deposit.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(batch.size());
+
+        List<Transaction> posted;
+        try {
+            posted = concurrencyControl.inTransaction(() -> post(batch));
+        } catch (RuntimeException ex) {
+            commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(ex);
+                return;
+            }
+            fallbacks.increment();
+            log.warn("Deposit batch of {} failed ({}), posting its deposits one at a time", batch.size(), ex.getMessage());
+            for (PendingDeposit deposit : batch) {
+                try {
+                    deposit.result().complete(concurrencyControl.inTransaction(() -> post(List.of(deposit))).get(0));
+                } catch (RuntimeException depositEx) {
+                    deposit.result().completeExceptionally(depositEx);
+                }
+            }
+            return;
+        }
+        commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(posted.get(i));
+        }
+    }
+
+    private List<Transaction> post(List<PendingDeposit> batch) {
+        Map<String, Wallet> wallets = concurrencyControl.lockExisting(
+                batch.stream().map(PendingDeposit::walletId).toList());
+        List<Transaction> entries = new ArrayList<>(batch.size());
+        for (PendingDeposit deposit : batch) {
+            Wallet wallet = wallets.get(deposit.walletId());
+            if (wallet == null) {
+                throw new WalletNotFoundException("Wallet not found: " + deposit.walletId());
+            }
+            entries.add(ledgerPoster.apply(wallet, TransactionType.CREDIT, deposit.amountMinorUnits(),
+                    deposit.reference(), deposit.description()));
+        }
+        return ledgerPoster.recordAll(entries);
+    }
+
+    private record PendingDeposit(String walletId, long amountMinorUnits, String reference, String description,
+                                  long enqueuedAt, CompletableFuture<Transaction> result) {
+    }
+}
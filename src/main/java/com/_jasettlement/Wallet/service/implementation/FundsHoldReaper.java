@@ -0,0 +1,131 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.FundsHold;
+import com._jasettlement.Wallet.entity.HoldStatus;
+import com._jasettlement.Wallet.repository.FundsHoldJdbcRepository;
+import com._jasettlement.Wallet.util.TimerWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires ACTIVE holds that reach their deadline. Holds wait in a {@link TimerWheel} driven by one
+ * thread, so the reaper never scans the hold table: request threads hand new holds over through a
+ * lock-free queue and each tick only looks at the holds due in it. Captured and released holds stay
+ * in the wheel until their deadline and are then skipped, since expiring them changes no row.
+ * <p>
+ * ACTIVE holds are read back into the wheel at startup; ones that expired while the service was down
+ * are expired on the first tick.
+ */
+@Component
+@Slf4j
+public class FundsHoldReaper {
+
+    private final FundsHoldJdbcRepository fundsHoldJdbcRepository;
+    private final AvailableBalanceTracker availableBalances;
+    private final WalletProperties.Holds settings;
+    private final Queue<FundsHold> scheduled = new ConcurrentLinkedQueue<>();
+    private final Counter expired;
+
+    // Touched by the reaper thread only
+    private TimerWheel<FundsHold> wheel;
+    private final List<FundsHold> retries = new ArrayList<>();
+    private volatile int pending;
+    private volatile boolean running = true;
+    private Thread reaper;
+
+    public FundsHoldReaper(FundsHoldJdbcRepository fundsHoldJdbcRepository, AvailableBalanceTracker availableBalances,
+                           WalletProperties walletProperties, MeterRegistry meterRegistry) {
+        this.fundsHoldJdbcRepository = fundsHoldJdbcRepository;
+        this.availableBalances = availableBalances;
+        this.settings = walletProperties.getHolds();
+
+        this.expired = Counter.builder("wallet.holds.outcomes")
+                .description("Funds holds by how they ended")
+                .tag("outcome", "expired")
+                .register(meterRegistry);
+        Gauge.builder("wallet.holds.reaper.pending", this, reaper -> reaper.pending + reaper.scheduled.size())
+                .description("Holds waiting in the expiry timer wheel")
+                .register(meterRegistry);
+    }
+
+    // Started once the schema is in place
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        wheel = new TimerWheel<>(settings.getReaperTick(), settings.getWheelSlots(), System.currentTimeMillis());
+        int restored = 0;
+        for (FundsHold hold : fundsHoldJdbcRepository.findActive()) {
+            schedule(hold);
+            restored++;
+        }
+        if (restored > 0) {
+            log.info("Rescheduled {} active funds holds for expiry", restored);
+        }
+        reaper = Thread.ofPlatform().name("funds-hold-reaper").daemon().unstarted(this::reapLoop);
+        reaper.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (reaper != null) {
+            reaper.interrupt();
+            reaper.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public void schedule(FundsHold hold) {
+        scheduled.add(hold);
+    }
+
+    private void reapLoop() {
+        long tickMillis = Math.max(1, settings.getReaperTick().toMillis());
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            FundsHold hold;
+            while ((hold = scheduled.poll()) != null) {
+                wheel.schedule(hold, hold.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            wheel.advance(System.currentTimeMillis(), this::expire);
+            for (FundsHold retry : retries) {
+                wheel.schedule(retry, System.currentTimeMillis() + tickMillis);
+            }
+            retries.clear();
+            pending = wheel.size();
+        }
+    }
+
+    private void expire(FundsHold hold) {
+        try {
+            if (fundsHoldJdbcRepository.close(hold.getId(), HoldStatus.EXPIRED, LocalDateTime.now()) == 1) {
+                availableBalances.release(hold.getWalletId(), hold.getAmountMinorUnits());
+                expired.increment();
+                log.info("Expired funds hold {} of {} on wallet {}", hold.getId(), hold.getAmountMinorUnits(), hold.getWalletId());
+            }
+        } catch (DataAccessException ex) {
+            // Retried on a later tick; until then the hold still counts against the wallet
+            log.warn("Could not expire funds hold {}, retrying: {}", hold.getId(), ex.getMessage());
+            retries.add(hold);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.request.CaptureHoldRequest;
+import com._jasettlement.Wallet.dto.request.HoldRequest;
+import com._jasettlement.Wallet.dto.response.FundsHoldResponse;
+import com._jasettlement.Wallet.engine.InMemoryLedgerEngine;
+import com._jasettlement.Wallet.entity.FundsHold;
+import com._jasettlement.Wallet.entity.HoldStatus;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import com._jasettlement.Wallet.exception.HoldNotActiveException;
+import com._jasettlement.Wallet.exception.HoldNotFoundException;
+import com._jasettlement.Wallet.exception.InsufficientFundsException;
+import com._jasettlement.Wallet.exception.InvalidHoldAmountException;
+import com._jasettlement.Wallet.repository.FundsHoldJdbcRepository;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Hold, capture and release logic shared by both {@link com._jasettlement.Wallet.service.WalletService}
+ * implementations; only the way a capture posts its DEBIT differs between them.
+ * <p>
+ * Authorizing a hold reserves its amount in the {@link AvailableBalanceTracker} and then inserts the
+ * hold row. No wallet lock is taken and the ledger is not read. A capture converts the hold's
+ * reservation into the DEBIT, so the funds stay reserved until the entry is in the ledger balance. A
+ * release or the {@link FundsHoldReaper} gives the reservation back.
+ * <p>
+ * With the {@link InMemoryLedgerEngine} a wallet is seeded into the tracker on its shard, from the
+ * shard's live balance, before the tracker is used; otherwise it is seeded from the wallet row.
+ */
+@Component
+@Slf4j
+public class FundsHolds {
+
+    /**
+     * Posts a capture's DEBIT. Implementations must claim the hold with {@link #claim} before posting
+     * and give the hold's reservation to the debit ({@code convertedHold}).
+     */
+    @FunctionalInterface
+    public interface CapturePosting {
+        Transaction post(FundsHold hold, long amountMinorUnits, String reference, String description);
+    }
+
+    private final FundsHoldJdbcRepository fundsHoldJdbcRepository;
+    private final AvailableBalanceTracker availableBalances;
+    private final FundsHoldReaper reaper;
+    private final IdempotencyGuard idempotencyGuard;
+    private final WalletMetadataCache walletMetadataCache;
+    private final WalletProperties.Holds settings;
+    private final Optional<InMemoryLedgerEngine> ledgerEngine;
+    private final Counter authorized;
+    private final Counter declined;
+    private final Counter captured;
+    private final Counter released;
+
+    public FundsHolds(FundsHoldJdbcRepository fundsHoldJdbcRepository, AvailableBalanceTracker availableBalances,
+                      FundsHoldReaper reaper, IdempotencyGuard idempotencyGuard,
+                      WalletMetadataCache walletMetadataCache, WalletProperties walletProperties,
+                      Optional<InMemoryLedgerEngine> ledgerEngine, MeterRegistry meterRegistry) {
+        this.fundsHoldJdbcRepository = fundsHoldJdbcRepository;
+        this.availableBalances = availableBalances;
+        this.reaper = reaper;
+        this.idempotencyGuard = idempotencyGuard;
+        this.walletMetadataCache = walletMetadataCache;
+        this.settings = walletProperties.getHolds();
+        this.ledgerEngine = ledgerEngine;
+
+        this.authorized = outcome(meterRegistry, "authorized");
+        this.declined = outcome(meterRegistry, "declined");
+        this.captured = outcome(meterRegistry, "captured");
+        this.released = outcome(meterRegistry, "released");
+    }
+
+    /**
+     * Authorizes a hold if the wallet's available balance covers it.
+     */
+    public FundsHoldResponse hold(HoldRequest request) {
+        String idempotencyKey = request.getIdempotencyKey() == null || request.getIdempotencyKey().isBlank()
+                ? null : request.getIdempotencyKey().trim();
+        String walletId = request.getWalletId();
+        long amount = request.getAmountMinorUnits();
+        walletMetadataCache.require(walletId);
+        track(walletId);
+
+        // Holds live in their own key space, like batches, so a deposit key is never replayed as a hold
+        FundsHoldResponse response = idempotencyGuard.execute(idempotencyKey == null ? null : "hold:" + idempotencyKey,
+                FundsHoldResponse.class, () -> {
+                    if (idempotencyKey != null) {
+                        var existing = fundsHoldJdbcRepository.findByReference(idempotencyKey);
+                        if (existing.isPresent()) {
+                            return toResponse(existing.get());
+                        }
+                    }
+
+                    if (!availableBalances.tryHold(walletId, amount)) {
+                        declined.increment();
+                        throw new InsufficientFundsException("Insufficient funds. Available: "
+                                + availableBalances.available(walletId) + ", Required: " + amount);
+                    }
+
+                    LocalDateTime now = LocalDateTime.now();
+                    FundsHold hold = FundsHold.builder()
+                            .id(TimeOrderedIds.nextString())
+                            .reference(idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString())
+                            .walletId(walletId)
+                            .amountMinorUnits(amount)
+                            .status(HoldStatus.ACTIVE)
+                            .description(request.getDescription())
+                            .expiresAt(now.plus(ttl(request.getExpiresInSeconds())))
+                            .createdAt(now)
+                            .build();
+                    try {
+                        fundsHoldJdbcRepository.insert(hold);
+                    } catch (RuntimeException ex) {
+                        availableBalances.release(walletId, amount);
+                        if (ex instanceof DataIntegrityViolationException && idempotencyKey != null) {
+                            // Another instance committed the same key between the lookup and our insert
+                            return fundsHoldJdbcRepository.findByReference(idempotencyKey)
+                                    .map(existing -> toResponse(existing))
+                                    .orElseThrow(() -> ex);
+                        }
+                        throw ex;
+                    }
+                    reaper.schedule(hold);
+                    authorized.increment();
+                    log.info("Authorized hold {} of {} on wallet {}", hold.getId(), amount, walletId);
+                    return toResponse(hold);
+                });
+
+        if (idempotencyKey != null
+                && (!response.getWalletId().equals(walletId) || response.getAmountMinorUnits() != amount)) {
+            throw new DuplicateTransactionException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different request");
+        }
+        return response;
+    }
+
+    /**
+     * Captures all of the hold or part of it; the rest is released. Capturing a captured hold again
+     * with the same amount returns it unchanged.
+     */
+    public FundsHoldResponse capture(String holdId, CaptureHoldRequest request, CapturePosting posting) {
+        FundsHold hold = require(holdId);
+        long amount = request.getAmountMinorUnits() != null ? request.getAmountMinorUnits() : hold.getAmountMinorUnits();
+        if (amount > hold.getAmountMinorUnits()) {
+            throw new InvalidHoldAmountException("Cannot capture " + amount + " from hold " + holdId
+                    + " of " + hold.getAmountMinorUnits());
+        }
+        if (hold.getStatus() == HoldStatus.CAPTURED && hold.getTransactionId() != null
+                && hold.getCapturedMinorUnits() == amount) {
+            return toResponse(hold);
+        }
+        requireActive(hold);
+        // Seed the wallet while the hold is still ACTIVE, so its reservation is counted before the claim
+        track(hold.getWalletId());
+        availableBalances.available(hold.getWalletId());
+
+        String description = request.getDescription() != null ? request.getDescription() : hold.getDescription();
+        Transaction debit = posting.post(hold, amount, LedgerReferences.capture(hold.getId()), description);
+        captured.increment();
+        log.info("Captured {} of hold {} on wallet {} as transaction {}", amount, holdId, hold.getWalletId(), debit.getId());
+        return toResponse(require(holdId));
+    }
+
+    /**
+     * Releases an active hold. Releasing a released hold returns it unchanged.
+     */
+    public FundsHoldResponse release(String holdId) {
+        FundsHold hold = require(holdId);
+        if (hold.getStatus() != HoldStatus.RELEASED) {
+            requireActive(hold);
+            if (fundsHoldJdbcRepository.close(holdId, HoldStatus.RELEASED, LocalDateTime.now()) == 1) {
+                availableBalances.release(hold.getWalletId(), hold.getAmountMinorUnits());
+                released.increment();
+                log.info("Released hold {} of {} on wallet {}", holdId, hold.getAmountMinorUnits(), hold.getWalletId());
+            } else {
+                // Captured, released or expired since it was read
+                hold = require(holdId);
+                if (hold.getStatus() != HoldStatus.RELEASED) {
+                    requireActive(hold);
+                }
+            }
+        }
+        return toResponse(require(holdId));
+    }
+
+    public FundsHoldResponse get(String holdId) {
+        return toResponse(require(holdId));
+    }
+
+    /**
+     * Marks the hold CAPTURED ahead of posting its DEBIT, so a release or the reaper can no longer give
+     * its reservation back.
+     *
+     * @throws HoldNotActiveException when the hold was closed or expired since it was read
+     */
+    public void claim(FundsHold hold, long amountMinorUnits) {
+        if (fundsHoldJdbcRepository.capture(hold.getId(), amountMinorUnits, LocalDateTime.now()) == 0) {
+            requireActive(require(hold.getId()));
+            throw new HoldNotActiveException("Hold " + hold.getId() + " has expired");
+        }
+    }
+
+    public void recordCapture(FundsHold hold, String transactionId) {
+        fundsHoldJdbcRepository.recordCapture(hold.getId(), transactionId);
+    }
+
+    /**
+     * Undoes {@link #claim} when the DEBIT could not be posted outside a database transaction. The hold
+     * goes back to the reaper, which may have passed its deadline while it was claimed.
+     */
+    public void reopen(FundsHold hold) {
+        if (fundsHoldJdbcRepository.reopen(hold.getId()) == 1) {
+            reaper.schedule(hold);
+        }
+    }
+
+    private FundsHold require(String holdId) {
+        return fundsHoldJdbcRepository.findById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException("Hold not found: " + holdId));
+    }
+
+    private void requireActive(FundsHold hold) {
+        if (hold.getStatus() != HoldStatus.ACTIVE) {
+            throw new HoldNotActiveException("Hold " + hold.getId() + " is " + hold.getStatus());
+        }
+        if (!hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new HoldNotActiveException("Hold " + hold.getId() + " has expired");
+        }
+    }
+
+    private Duration ttl(Long expiresInSeconds) {
+        if (expiresInSeconds == null) {
+            return settings.getDefaultTtl();
+        }
+        Duration requested = Duration.ofSeconds(expiresInSeconds);
+        return requested.compareTo(settings.getMaxTtl()) > 0 ? settings.getMaxTtl() : requested;
+    }
+
+    private void track(String walletId) {
+        ledgerEngine.ifPresent(engine -> {
+            try {
+                engine.trackAvailable(walletId).join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        });
+    }
+
+    private FundsHoldResponse toResponse(FundsHold hold) {
+        track(hold.getWalletId());
+        return FundsHoldResponse.builder()
+                .holdId(hold.getId())
+                .reference(hold.getReference())
+                .walletId(hold.getWalletId())
+                .amountMinorUnits(hold.getAmountMinorUnits())
+                .currency("NGN")
+                .status(hold.getStatus())
+                .description(hold.getDescription())
+                .capturedMinorUnits(hold.getCapturedMinorUnits())
+                .transactionId(hold.getTransactionId())
+                .availableBalanceMinorUnits(availableBalances.available(hold.getWalletId()))
+                .expiresAt(hold.getExpiresAt())
+                .createdAt(hold.getCreatedAt())
+                .closedAt(hold.getClosedAt())
+                .build();
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("wallet.holds.outcomes")
+                .description("Funds holds by how they ended")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,93 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.response.HotWalletResponse;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.exception.EngineModeConflictException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.repository.WalletStripeJdbcRepository;
+import com._jasettlement.Wallet.service.HotWalletService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Turns hot wallet mode on and off and sweeps hot wallets in the background, so their stripe postings
+ * get ledger sequences (and reach settlement and tiering) within {@code wallet.hot-wallet.sweep-interval}
+ * even when nothing else locks the wallet.
+ * <p>
+ * The in-memory engine posts without stripes and owns the wallets' sequences, so hot wallet mode can
+ * neither be configured nor swept while it is on.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotWalletServiceImpl implements HotWalletService {
+
+    private final WalletRepository walletRepository;
+    private final WalletStripeJdbcRepository stripeRepository;
+    private final WalletConcurrencyControl concurrencyControl;
+    private final WalletMetadataCache walletMetadataCache;
+    private final WalletProperties walletProperties;
+
+    @Override
+    public HotWalletResponse configure(String walletId, int stripes) {
+        if (inMemoryEngine()) {
+            throw new EngineModeConflictException(
+                    "Hot wallet mode is unavailable while wallet.engine.mode=IN_MEMORY");
+        }
+        HotWalletResponse response = concurrencyControl.inTransaction(() -> {
+            // Locking sweeps the current stripes into the wallet, so removed stripes are empty
+            Wallet wallet = concurrencyControl.lock(walletId);
+            int current = wallet.getStripeCount() != null ? wallet.getStripeCount() : 0;
+            if (current != stripes) {
+                stripeRepository.resize(walletId, current, stripes);
+                wallet.setStripeCount(stripes);
+            }
+            return toResponse(wallet, 0);
+        });
+
+        walletMetadataCache.invalidate(walletId);
+        log.info("Wallet {} now has {} balance stripes", walletId, stripes);
+        return response;
+    }
+
+    @Override
+    public HotWalletResponse getStatus(String walletId) {
+        Wallet wallet = walletRepository.findByWalletId(walletId)
+                .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + walletId));
+        return toResponse(wallet, stripeRepository.sum(walletId));
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.hot-wallet.sweep-interval:1s}")
+    public void sweepAll() {
+        if (inMemoryEngine()) {
+            return;
+        }
+        for (String walletId : walletRepository.findStripedWalletIds()) {
+            try {
+                concurrencyControl.inTransaction(() -> concurrencyControl.lock(walletId));
+            } catch (RuntimeException ex) {
+                // Postings that lock the wallet sweep it too, and the next run tries again
+                log.warn("Sweep of hot wallet {} failed: {}", walletId, ex.getMessage());
+            }
+        }
+    }
+
+    private boolean inMemoryEngine() {
+        return walletProperties.getEngine().getMode() == WalletProperties.Engine.Mode.IN_MEMORY;
+    }
+
+    private HotWalletResponse toResponse(Wallet wallet, long striped) {
+        return HotWalletResponse.builder()
+                .walletId(wallet.getWalletId())
+                .stripeCount(wallet.getStripeCount())
+                .balanceMinorUnits(wallet.getBalanceMinorUnits() + striped)
+                .stripedMinorUnits(striped)
+                .ledgerSequence(wallet.getLedgerSequence())
+                .updatedAt(wallet.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicted memory of recent results keyed by client idempotency key. It sits in front of the
+ * unique reference index: replays inside the TTL are answered without touching the database, and
+ * concurrent requests carrying the same key share a single execution.
+ */
+@Component
+public class IdempotencyGuard {
+
+    private final AsyncCache<String, Object> results;
+
+    public IdempotencyGuard(WalletProperties walletProperties) {
+        WalletProperties.Idempotency settings = walletProperties.getIdempotency();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxEntries())
+                .expireAfterWrite(settings.getTtl())
+                .buildAsync();
+    }
+
+    /**
+     * Runs the operation once per key. Callers arriving while the first execution is still in flight
+     * wait for its result; failed executions are forgotten so the client can retry them.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String idempotencyKey, Supplier<T> operation) {
+        if (idempotencyKey == null) {
+            return operation.get();
+        }
+
+        CompletableFuture<Object> execution = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = results.asMap().putIfAbsent(idempotencyKey, execution);
+        if (inFlight != null) {
+            return (T) await(inFlight);
+        }
+
+        try {
+            T result = operation.get();
+            execution.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            results.asMap().remove(idempotencyKey, execution);
+            execution.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Like {@link #execute(String, Supplier)}, but rejects a key whose remembered result is of another
+     * kind, such as a deposit key replayed as a transfer.
+     */
+    public <T> T execute(String idempotencyKey, Class<T> resultType, Supplier<T> operation) {
+        Object result = this.<Object>execute(idempotencyKey, operation::get);
+        if (!resultType.isInstance(result)) {
+            throw new DuplicateTransactionException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different request");
+        }
+        return resultType.cast(result);
+    }
+
+    private Object await(CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.request.CaptureHoldRequest;
+import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.HoldRequest;
+import com._jasettlement.Wallet.dto.request.TransactionHistoryRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.FundsHoldResponse;
+import com._jasettlement.Wallet.dto.response.TransactionHistoryResponse;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.dto.response.WalletResponse;
+import com._jasettlement.Wallet.engine.InMemoryLedgerEngine;
+import com._jasettlement.Wallet.engine.JournalEntry;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import com._jasettlement.Wallet.exception.LedgerUnavailableException;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.service.WalletService;
+import io.micrometer.observation.annotation.Observed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * WalletService backed by the {@link InMemoryLedgerEngine} (wallet.engine.mode=IN_MEMORY). Postings
+ * and balance reads never wait on the database; wallet creation and history still go through
+ * {@link WalletServiceImpl}, and history reflects the projection, so it can trail a posting by a few
+ * milliseconds.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "wallet.engine.mode", havingValue = "IN_MEMORY")
+@RequiredArgsConstructor
+@Slf4j
+@Observed(name = "wallet.service")
+public class InMemoryWalletService implements WalletService {
+
+    private final WalletServiceImpl databaseWalletService;
+    private final InMemoryLedgerEngine ledgerEngine;
+    private final IdempotencyGuard idempotencyGuard;
+    private final WalletMetadataCache walletMetadataCache;
+    private final TransactionRepository transactionRepository;
+    private final TransferLookup transferLookup;
+    private final FundsHolds fundsHolds;
+    private final WalletProperties walletProperties;
+
+    @Override
+    public WalletResponse createWallet(CreateWalletRequest request) {
+        return databaseWalletService.createWallet(request);
+    }
+
+    @Override
+    public TransactionResponse deposit(DepositRequest request) {
+        String idempotencyKey = normalizeKey(request.getIdempotencyKey());
+        walletMetadataCache.require(request.getWalletId());
+
+        String guardKey = idempotencyKey != null ? LedgerReferences.deposit(idempotencyKey) : null;
+
+        TransactionResponse response = idempotencyGuard.execute(guardKey, TransactionResponse.class, () -> {
+            String reference = guardKey != null ? guardKey : UUID.randomUUID().toString();
+            return replayOrPost(reference, guardKey != null, () -> mapToTransactionResponse(await(
+                    ledgerEngine.post(request.getWalletId(), TransactionType.CREDIT, request.getAmountMinorUnits(),
+                            reference, request.getDescription()))));
+        });
+
+        return verifyReplay(response, idempotencyKey, TransactionType.CREDIT,
+                request.getWalletId(), request.getAmountMinorUnits());
+    }
+
+    @Override
+    public TransactionResponse withdraw(WithdrawalRequest request) {
+        String idempotencyKey = normalizeKey(request.getIdempotencyKey());
+        walletMetadataCache.require(request.getWalletId());
+
+        String guardKey = idempotencyKey != null ? LedgerReferences.withdrawal(idempotencyKey) : null;
+
+        TransactionResponse response = idempotencyGuard.execute(guardKey, TransactionResponse.class, () -> {
+            String reference = guardKey != null ? guardKey : UUID.randomUUID().toString();
+            return replayOrPost(reference, guardKey != null, () -> mapToTransactionResponse(await(
+                    ledgerEngine.post(request.getWalletId(), TransactionType.DEBIT, request.getAmountMinorUnits(),
+                            reference, request.getDescription()))));
+        });
+
+        return verifyReplay(response, idempotencyKey, TransactionType.DEBIT,
+                request.getWalletId(), request.getAmountMinorUnits());
+    }
+
+    @Override
+    public TransferResponse transfer(TransferRequest request) {
+        String idempotencyKey = normalizeKey(request.getIdempotencyKey());
+        walletMetadataCache.require(request.getFromWalletId());
+        walletMetadataCache.require(request.getToWalletId());
+
+        String guardKey = idempotencyKey != null ? LedgerReferences.transfer(idempotencyKey) : null;
+
+        TransferResponse response = idempotencyGuard.execute(guardKey, TransferResponse.class, () -> {
+            String reference = guardKey != null ? guardKey : UUID.randomUUID().toString();
+            return replayOrPostTransfer(reference, guardKey != null, () -> postTransfer(request.getFromWalletId(),
+                    request.getToWalletId(), request.getAmountMinorUnits(), reference, request.getDescription(), null));
+        });
+
+        if (idempotencyKey != null
+                && (!request.getFromWalletId().equals(response.getFromWalletId())
+                || !request.getToWalletId().equals(response.getToWalletId())
+                || !request.getAmountMinorUnits().equals(response.getAmountMinorUnits()))) {
+            throw new DuplicateTransactionException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different request");
+        }
+        return response;
+    }
+
+    @Override
+    public TransferResponse getTransfer(String transferId) {
+        return databaseWalletService.getTransfer(transferId);
+    }
+
+    /**
+     * The original is read from the projection, so a transfer can only be reversed once it has been
+     * projected. The guard collapses concurrent reversals, since the engine does not check references.
+     */
+    @Override
+    public TransferResponse reverseTransfer(String transferId) {
+        TransferResponse original = getTransfer(transferId);
+        if (original.getReversalOf() != null) {
+            throw new DuplicateTransactionException("Transfer " + transferId + " is itself a reversal");
+        }
+
+        if (original.getReversedBy() != null) {
+            return getTransfer(original.getReversedBy());
+        }
+
+        String reference = LedgerReferences.reversal(transferId);
+        return idempotencyGuard.execute(reference, TransferResponse.class,
+                () -> replayOrPostTransfer(reference, true, () -> postTransfer(original.getToWalletId(),
+                        original.getFromWalletId(), original.getAmountMinorUnits(), reference,
+                        "Reversal of " + original.getReference(), transferId)));
+    }
+
+    private TransferResponse postTransfer(String fromWalletId, String toWalletId, long amountMinorUnits,
+                                          String reference, String description, String reversalOf) {
+        List<JournalEntry> legs = await(ledgerEngine.transfer(fromWalletId, toWalletId, amountMinorUnits,
+                reference, description, reversalOf));
+        log.info("Transfer completed: {} -> {} (reference: {})", fromWalletId, toWalletId, reference);
+        return mapToTransferResponse(legs);
+    }
+
+    private TransferResponse mapToTransferResponse(List<JournalEntry> legs) {
+        JournalEntry debit = legs.get(0);
+        return transferLookup.toResponse(debit.toTransferJournal(), debit.toTransaction(),
+                legs.get(1).toTransaction(), null);
+    }
+
+    @Override
+    public WalletResponse getWallet(String walletId) {
+        WalletMetadataCache.WalletMetadata metadata = walletMetadataCache.require(walletId);
+        InMemoryLedgerEngine.WalletBalance balance = await(ledgerEngine.balance(walletId));
+
+        return WalletResponse.builder()
+                .id(metadata.id())
+                .createdAt(metadata.createdAt())
+                .walletId(metadata.walletId())
+                .ownerName(metadata.fullName())
+                .balanceMinorUnits(balance.balanceMinorUnits())
+                .currency("NGN")
+                .updatedAt(balance.updatedAt())
+                .build();
+    }
+
+    @Override
+    public TransactionHistoryResponse getTransactionHistory(String walletId, TransactionHistoryRequest request) {
+        return databaseWalletService.getTransactionHistory(walletId, request);
+    }
+
+    @Override
+    public FundsHoldResponse holdFunds(HoldRequest request) {
+        return fundsHolds.hold(request);
+    }
+
+    /**
+     * The hold is claimed before its DEBIT goes to the engine and reopened if the posting fails, since
+     * the two are not in one database transaction.
+     */
+    @Override
+    public FundsHoldResponse captureHold(String holdId, CaptureHoldRequest request) {
+        return fundsHolds.capture(holdId, request, (hold, amountMinorUnits, reference, description) -> {
+            fundsHolds.claim(hold, amountMinorUnits);
+            JournalEntry debit;
+            try {
+                debit = await(ledgerEngine.capture(hold.getWalletId(), amountMinorUnits, hold.getAmountMinorUnits(),
+                        reference, description));
+            } catch (RuntimeException ex) {
+                fundsHolds.reopen(hold);
+                throw ex;
+            }
+            fundsHolds.recordCapture(hold, debit.id());
+            return debit.toTransaction();
+        });
+    }
+
+    @Override
+    public FundsHoldResponse releaseHold(String holdId) {
+        return fundsHolds.release(holdId);
+    }
+
+    @Override
+    public FundsHoldResponse getHold(String holdId) {
+        return fundsHolds.get(holdId);
+    }
+
+    /**
+     * The idempotency guard answers replays inside its TTL; beyond that the engine knows the postings
+     * the projection has not written yet, and the projected reference index the rest. The engine is
+     * asked first: a posting leaves it only once it is in the database.
+     */
+    private TransactionResponse replayOrPost(String reference, boolean clientSupplied,
+                                             Supplier<TransactionResponse> posting) {
+        if (clientSupplied) {
+            var journaled = ledgerEngine.findUnprojected(reference);
+            if (journaled.isPresent()) {
+                log.warn("Duplicate transaction detected: {}", reference);
+                return mapToTransactionResponse(await(journaled.get()));
+            }
+            var existingTransaction = transactionRepository.findByReference(reference);
+            if (existingTransaction.isPresent()) {
+                log.warn("Duplicate transaction detected: {}", reference);
+                return mapToTransactionResponse(existingTransaction.get());
+            }
+        }
+        return posting.get();
+    }
+
+    private TransferResponse replayOrPostTransfer(String reference, boolean clientSupplied,
+                                                  Supplier<TransferResponse> posting) {
+        if (clientSupplied) {
+            var journaled = ledgerEngine.findUnprojectedTransfer(reference);
+            if (journaled.isPresent()) {
+                log.warn("Duplicate transfer detected: {}", reference);
+                return mapToTransferResponse(await(journaled.get()));
+            }
+            var existingTransfer = transferLookup.findByReference(reference);
+            if (existingTransfer.isPresent()) {
+                log.warn("Duplicate transfer detected: {}", reference);
+                return existingTransfer.get();
+            }
+        }
+        return posting.get();
+    }
+
+    /**
+     * Waits up to {@code wallet.engine.posting-timeout}. A posting that times out may still become
+     * durable, so the client is told to retry with the same idempotency key rather than a new one.
+     */
+    private <T> T await(CompletableFuture<T> posting) {
+        Duration timeout = walletProperties.getEngine().getPostingTimeout();
+        try {
+            return posting.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new LedgerUnavailableException("Ledger engine did not acknowledge the posting within "
+                    + timeout.toMillis() + " ms; retry with the same idempotency key", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new LedgerUnavailableException("Interrupted while waiting for the ledger engine", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new LedgerUnavailableException("Ledger engine failed the posting", ex.getCause());
+        }
+    }
+
+    private String normalizeKey(String idempotencyKey) {
+        return idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey.trim();
+    }
+
+    private TransactionResponse verifyReplay(TransactionResponse response, String idempotencyKey,
+                                             TransactionType type, String walletId, Long amountMinorUnits) {
+        if (idempotencyKey != null
+                && (response.getType() != type
+                || !response.getWalletId().equals(walletId)
+                || !response.getAmountMinorUnits().equals(amountMinorUnits))) {
+            throw new DuplicateTransactionException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different request");
+        }
+        return response;
+    }
+
+    private TransactionResponse mapToTransactionResponse(JournalEntry entry) {
+        return mapToTransactionResponse(entry.toTransaction());
+    }
+
+    private TransactionResponse mapToTransactionResponse(Transaction transaction) {
+        return TransactionResponse.builder()
+                .id(transaction.getId())
+                .reference(transaction.getReference())
+                .walletId(transaction.getWalletId())
+                .type(transaction.getType())
+                .amountMinorUnits(transaction.getAmountMinorUnits())
+                .currency("NGN")
+                .description(transaction.getDescription())
+                .balanceAfterMinorUnits(transaction.getBalanceAfterMinorUnits())
+                .createdAt(transaction.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.TransferJournal;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.index.MappedWalletIndex;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.repository.TransferJournalJdbcRepository;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Single place where ledger entries are created. Callers must hold the posting lock on every wallet
+ * they pass in (see {@link WalletConcurrencyControl}) and run inside its transaction. Every entry
+ * written here also gets its balance change event in the {@link WalletEventOutbox}.
+ */
+@Component
+@RequiredArgsConstructor
+public class LedgerPoster {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransferJournalJdbcRepository transferJournalJdbcRepository;
+    private final WalletConcurrencyControl concurrencyControl;
+    private final WalletEventOutbox outbox;
+    private final AvailableBalanceTracker availableBalances;
+    private final Optional<MappedWalletIndex> walletIndex;
+
+    /**
+     * Advances the wallet's balance snapshot and ledger sequence and builds the matching ledger entry.
+     * The wallet is a managed entity, so the snapshot is flushed in the same transaction as the insert;
+     * the wallet index and the {@link AvailableBalanceTracker} only see the new balance once that
+     * transaction commits.
+     */
+    public Transaction apply(Wallet wallet, TransactionType type, long amountMinorUnits,
+                             String reference, String description) {
+        long balanceAfter = wallet.getBalanceMinorUnits() + type.signedAmount(amountMinorUnits);
+        long sequence = wallet.getLedgerSequence() + 1;
+        wallet.setBalanceMinorUnits(balanceAfter);
+        wallet.setLedgerSequence(sequence);
+        afterCommit(() -> {
+            availableBalances.recordBalance(wallet.getWalletId(), balanceAfter, sequence);
+            walletIndex.ifPresent(index ->
+                    index.recordBalance(wallet.getWalletId(), balanceAfter, sequence, LocalDateTime.now()));
+        });
+
+        return Transaction.builder()
+                .reference(reference)
+                .walletId(wallet.getWalletId())
+                .type(type)
+                .amountMinorUnits(amountMinorUnits)
+                .description(description)
+                .ledgerSequence(sequence)
+                .balanceAfterMinorUnits(balanceAfter)
+                .build();
+    }
+
+    public List<Transaction> record(Transaction... transactions) {
+        concurrencyControl.beforeLedgerInsert();
+        List<Transaction> saved = transactionRepository.saveAll(List.of(transactions));
+        outbox.append(saved);
+        return saved;
+    }
+
+    /**
+     * Writes many entries as one JDBC batch.
+     */
+    public List<Transaction> recordAll(List<Transaction> transactions) {
+        concurrencyControl.beforeLedgerInsert();
+        transactionJdbcRepository.insertAll(transactions);
+        outbox.append(transactions);
+        return transactions;
+    }
+
+    /**
+     * Moves the amount between two locked wallets and builds the transfer with both of its legs.
+     * Nothing is written until {@link #recordTransfer} or {@link #recordTransfers}.
+     */
+    public TransferPosting applyTransfer(Wallet fromWallet, Wallet toWallet, long amountMinorUnits,
+                                         String reference, String description, String reversalOf) {
+        return applyTransfer(fromWallet, toWallet.getWalletId(), amountMinorUnits, reference, description,
+                reversalOf, () -> applyTransferCredit(toWallet, amountMinorUnits, reference, description));
+    }
+
+    /**
+     * Credits the destination of a transfer ahead of its debit, for callers that pass the leg to
+     * {@link #applyTransfer(Wallet, Transaction, long, String, String, String)} afterwards.
+     */
+    public Transaction applyTransferCredit(Wallet toWallet, long amountMinorUnits, String reference,
+                                           String description) {
+        return apply(toWallet, TransactionType.TRANSFER_IN, amountMinorUnits, reference + "_credit", description);
+    }
+
+    /**
+     * Variant for a credit leg built beforehand: one added to a hot destination's stripe (see
+     * {@link StripedBalances#credit}), which stays unsequenced until the next sweep, or one applied by
+     * {@link #applyTransferCredit} before the debits of a netted batch.
+     */
+    public TransferPosting applyTransfer(Wallet fromWallet, Transaction stripedCredit, long amountMinorUnits,
+                                         String reference, String description, String reversalOf) {
+        return applyTransfer(fromWallet, stripedCredit.getWalletId(), amountMinorUnits, reference, description,
+                reversalOf, () -> stripedCredit);
+    }
+
+    private TransferPosting applyTransfer(Wallet fromWallet, String toWalletId, long amountMinorUnits,
+                                          String reference, String description, String reversalOf,
+                                          Supplier<Transaction> creditLeg) {
+        TransferJournal transfer = TransferJournal.builder()
+                .id(TimeOrderedIds.nextString())
+                .reference(reference)
+                .fromWalletId(fromWallet.getWalletId())
+                .toWalletId(toWalletId)
+                .amountMinorUnits(amountMinorUnits)
+                .description(description)
+                .reversalOf(reversalOf)
+                .createdAt(LocalDateTime.now())
+                .build();
+        Transaction debit = apply(fromWallet, TransactionType.TRANSFER_OUT, amountMinorUnits,
+                reference + "_debit", description);
+        Transaction credit = creditLeg.get();
+        debit.setTransferId(transfer.getId());
+        credit.setTransferId(transfer.getId());
+        debit.setCreatedAt(transfer.getCreatedAt());
+        credit.setCreatedAt(transfer.getCreatedAt());
+        return new TransferPosting(transfer, debit, credit);
+    }
+
+    /**
+     * Writes the transfer row and both legs; the legs go out as one multi-row insert.
+     */
+    public TransferPosting recordTransfer(TransferPosting posting) {
+        concurrencyControl.beforeLedgerInsert();
+        transferJournalJdbcRepository.insertAll(List.of(posting.transfer()));
+        transactionJdbcRepository.insertPair(posting.debit(), posting.credit());
+        outbox.append(List.of(posting.debit(), posting.credit()));
+        return posting;
+    }
+
+    /**
+     * Writes many transfers: one JDBC batch for the transfer rows and one for all of their legs.
+     */
+    public List<TransferPosting> recordTransfers(List<TransferPosting> postings) {
+        concurrencyControl.beforeLedgerInsert();
+        transferJournalJdbcRepository.insertAll(postings.stream().map(TransferPosting::transfer).toList());
+        List<Transaction> legs = new ArrayList<>(postings.size() * 2);
+        for (TransferPosting posting : postings) {
+            legs.add(posting.debit());
+            legs.add(posting.credit());
+        }
+        transactionJdbcRepository.insertAll(legs);
+        outbox.append(legs);
+        return postings;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public record TransferPosting(TransferJournal transfer, Transaction debit, Transaction credit) {
+    }
+}
@@ -0,0 +1,42 @@
+package com._jasettlement.Wallet.service.implementation;
+
+/**
+ * Ledger references derived from client idempotency keys. Each operation prefixes its own namespace,
+ * so the same key sent to a deposit and a withdrawal, or a key that happens to end in a suffix used
+ * elsewhere, never resolves to another operation's posting. The idempotency guard uses the same
+ * strings as its keys, so memory and the reference index agree on what counts as a replay.
+ */
+public final class LedgerReferences {
+
+    private LedgerReferences() {}
+
+    public static String deposit(String idempotencyKey) {
+        return "deposit:" + idempotencyKey;
+    }
+
+    public static String withdrawal(String idempotencyKey) {
+        return "withdrawal:" + idempotencyKey;
+    }
+
+    public static String transfer(String idempotencyKey) {
+        return "transfer:" + idempotencyKey;
+    }
+
+    public static String batchLeg(String batchReference, int index) {
+        return "batch:" + batchReference + ":" + index;
+    }
+
+    /**
+     * A hold is captured at most once, so its id names the capture's DEBIT.
+     */
+    public static String capture(String holdId) {
+        return "capture:" + holdId;
+    }
+
+    /**
+     * A transfer is reversed at most once, so its id names the reversal.
+     */
+    public static String reversal(String transferId) {
+        return "reversal:" + transferId;
+    }
+}
@@ -0,0 +1,393 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.response.LedgerPeriodResponse;
+import com._jasettlement.Wallet.dto.response.LedgerTieringResponse;
+import com._jasettlement.Wallet.entity.LedgerPeriod;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.LedgerTieringInProgressException;
+import com._jasettlement.Wallet.repository.LedgerPeriodRepository;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.service.LedgerTieringService;
+import com._jasettlement.Wallet.util.LedgerArchiveCodec;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Monthly hot/cold tiering of the Transaction ledger.
+ * <p>
+ * Transaction ids are time-ordered, so a calendar month is a contiguous primary-key range and needs no
+ * physical partition. Once a month has ended and {@code close-lag} has passed, it is closed: every wallet
+ * with entries in it gets a {@link com._jasettlement.Wallet.entity.LedgerCheckpoint} holding its balance,
+ * entry count and last ledger sequence at the end of the month. Balances are then the latest checkpoint
+ * plus the entries after it, so reads never aggregate closed months. Closed months older than
+ * {@code hot-months} are archived: each wallet's entries for the month are streamed from a cursor into
+ * {@code transaction_archive} as gzipped blocks of at most {@code archive-block-entries} entries, and
+ * deleted from the Transaction table. Only one block is held in memory, however busy the wallets are.
+ * <p>
+ * Work is done in chunks of {@code wallet-chunk} wallets, each in its own transaction. Chunks replace
+ * whatever an interrupted run left behind for their wallets, so a run can always be repeated.
+ * <p>
+ * A wallet's ledger sequence and its entries' ids are both assigned under the wallet's lock (or on its
+ * shard), so they grow together: the entries of a month are exactly the sequences up to its checkpoint.
+ */
+@Service
+@Slf4j
+public class LedgerTieringServiceImpl implements LedgerTieringService {
+
+    private static final String OLDEST_ID_SQL = "SELECT MIN(id) FROM transaction";
+
+    private static final String PERIOD_TOTALS_SQL = """
+            SELECT wallet_id, COUNT(*) AS entry_count, MAX(ledger_sequence) AS last_sequence,
+                   SUM(CASE WHEN type IN ('CREDIT', 'TRANSFER_IN') THEN amount_minor_units
+                            ELSE -amount_minor_units END) AS net_minor_units
+            FROM transaction
+            WHERE wallet_id IN (%s) AND id >= ? AND id < ?
+            GROUP BY wallet_id
+            """;
+
+    private static final String PREVIOUS_CHECKPOINTS_SQL = """
+            SELECT c.wallet_id, c.balance_minor_units, c.entry_count
+            FROM ledger_checkpoint c
+            WHERE c.wallet_id IN (%s)
+              AND c.period_start = (SELECT MAX(p.period_start) FROM ledger_checkpoint p
+                                    WHERE p.wallet_id = c.wallet_id AND p.period_start < ?)
+            """;
+
+    private static final String DELETE_CHECKPOINTS_SQL = "DELETE FROM ledger_checkpoint WHERE period_start = ? AND wallet_id IN (%s)";
+
+    private static final String INSERT_CHECKPOINT_SQL = """
+            INSERT INTO ledger_checkpoint (id, wallet_id, period_start, balance_minor_units, ledger_sequence,
+                                           entry_count, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String ACTIVE_WALLETS_SQL =
+            "SELECT DISTINCT wallet_id FROM transaction WHERE wallet_id IN (%s) AND id >= ? AND id < ?";
+
+    private static final String ARCHIVE_ROWS_SQL = """
+            SELECT id, reference, wallet_id, type, amount_minor_units, description, ledger_sequence,
+                   balance_after_minor_units, created_at, transfer_id
+            FROM transaction
+            WHERE wallet_id IN (%s) AND id >= ? AND id < ?
+            ORDER BY wallet_id, ledger_sequence
+            """;
+
+    private static final String DELETE_ARCHIVES_SQL = "DELETE FROM transaction_archive WHERE period_start = ? AND wallet_id IN (%s)";
+
+    private static final String INSERT_ARCHIVE_SQL = """
+            INSERT INTO transaction_archive (id, period_start, wallet_id, row_count, first_ledger_sequence,
+                                             last_ledger_sequence, payload, archived_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_ROWS_SQL = "DELETE FROM transaction WHERE wallet_id IN (%s) AND id >= ? AND id < ?";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final WalletProperties.LedgerTiering settings;
+    private final ZoneId zone;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletRepository walletRepository;
+    private final LedgerPeriodRepository periodRepository;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LedgerTieringServiceImpl(WalletProperties walletProperties, JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate, WalletRepository walletRepository,
+                                    LedgerPeriodRepository periodRepository) {
+        this.settings = walletProperties.getLedgerTiering();
+        this.zone = ZoneId.of(walletProperties.getSettlement().getZone());
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.walletRepository = walletRepository;
+        this.periodRepository = periodRepository;
+    }
+
+    @Scheduled(cron = "${wallet.ledger-tiering.cron:0 30 2 * * *}", zone = "${wallet.settlement.zone:Africa/Lagos}")
+    public void runScheduled() {
+        try {
+            run();
+        } catch (LedgerTieringInProgressException ex) {
+            log.info("Scheduled ledger tiering skipped: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public LedgerTieringResponse run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new LedgerTieringInProgressException("A ledger tiering run is already in progress");
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            Totals totals = new Totals();
+            List<LocalDate> closed = closePeriods(totals);
+            List<LocalDate> archived = archivePeriods(totals);
+
+            return LedgerTieringResponse.builder()
+                    .periodsClosed(closed)
+                    .periodsArchived(archived)
+                    .checkpointsWritten(totals.checkpoints)
+                    .rowsArchived(totals.rowsArchived)
+                    .archivedBytes(totals.archivedBytes)
+                    .startedAt(startedAt)
+                    .completedAt(LocalDateTime.now())
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LedgerPeriodResponse> getPeriods() {
+        return periodRepository.findAllByOrderByPeriodStartDesc().stream()
+                .map(period -> LedgerPeriodResponse.builder()
+                        .periodStart(period.getPeriodStart())
+                        .status(period.getStatus().name())
+                        .walletCount(period.getWalletCount())
+                        .rowCount(period.getRowCount())
+                        .closedAt(period.getClosedAt())
+                        .archivedAt(period.getArchivedAt())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Closes months in order, starting after the last closed one (or at the oldest entry's month).
+     */
+    private List<LocalDate> closePeriods(Totals totals) {
+        LocalDate next = periodRepository.findFirstByOrderByPeriodStartDesc()
+                .map(period -> period.getPeriodStart().plusMonths(1))
+                .orElseGet(this::oldestPeriod);
+        List<LocalDate> closed = new ArrayList<>();
+        if (next == null) {
+            return closed;
+        }
+
+        long closeBefore = System.currentTimeMillis() - settings.getCloseLag().toMillis();
+        while (periodStartMillis(next.plusMonths(1)) <= closeBefore) {
+            closePeriod(next, totals);
+            closed.add(next);
+            next = next.plusMonths(1);
+        }
+        return closed;
+    }
+
+    private void closePeriod(LocalDate period, Totals totals) {
+        String lower = TimeOrderedIds.lowerBound(periodStartMillis(period));
+        String upper = TimeOrderedIds.lowerBound(periodStartMillis(period.plusMonths(1)));
+        long[] counts = new long[2];
+
+        forEachWalletChunk(walletIds -> transactionTemplate.executeWithoutResult(status -> {
+            Map<String, long[]> monthTotals = new LinkedHashMap<>();
+            jdbcTemplate.query(PERIOD_TOTALS_SQL.formatted(placeholders(walletIds)), rs -> {
+                monthTotals.put(rs.getString("wallet_id"), new long[]{
+                        rs.getLong("net_minor_units"), rs.getLong("entry_count"), rs.getLong("last_sequence")});
+            }, args(walletIds, lower, upper));
+            if (monthTotals.isEmpty()) {
+                return;
+            }
+
+            List<String> active = new ArrayList<>(monthTotals.keySet());
+            Map<String, long[]> previous = new HashMap<>();
+            jdbcTemplate.query(PREVIOUS_CHECKPOINTS_SQL.formatted(placeholders(active)), rs -> {
+                previous.put(rs.getString("wallet_id"),
+                        new long[]{rs.getLong("balance_minor_units"), rs.getLong("entry_count")});
+            }, args(active, period));
+
+            jdbcTemplate.update(DELETE_CHECKPOINTS_SQL.formatted(placeholders(active)), args(List.of(period), active.toArray()));
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.batchUpdate(INSERT_CHECKPOINT_SQL, active, BATCH_SIZE, (ps, walletId) -> {
+                long[] month = monthTotals.get(walletId);
+                long[] opening = previous.getOrDefault(walletId, new long[2]);
+                ps.setString(1, period + "/" + walletId);
+                ps.setString(2, walletId);
+                ps.setObject(3, period);
+                ps.setLong(4, opening[0] + month[0]);
+                ps.setLong(5, month[2]);
+                ps.setLong(6, opening[1] + month[1]);
+                ps.setObject(7, now);
+            });
+
+            counts[0] += active.size();
+            counts[1] += monthTotals.values().stream().mapToLong(month -> month[1]).sum();
+        }));
+
+        periodRepository.save(LedgerPeriod.builder()
+                .periodStart(period)
+                .status(LedgerPeriod.Status.CLOSED)
+                .walletCount(counts[0])
+                .rowCount(counts[1])
+                .closedAt(LocalDateTime.now())
+                .build());
+        totals.checkpoints += counts[0];
+        log.info("Closed ledger period {}: {} entries folded into {} wallet checkpoints", period, counts[1], counts[0]);
+    }
+
+    private List<LocalDate> archivePeriods(Totals totals) {
+        LocalDate archiveBefore = LocalDate.now(zone).withDayOfMonth(1).minusMonths(settings.getHotMonths());
+        List<LocalDate> archived = new ArrayList<>();
+        for (LedgerPeriod period : periodRepository.findByStatusOrderByPeriodStart(LedgerPeriod.Status.CLOSED)) {
+            if (!period.getPeriodStart().isBefore(archiveBefore)) {
+                break;
+            }
+            archivePeriod(period, totals);
+            archived.add(period.getPeriodStart());
+        }
+        return archived;
+    }
+
+    private void archivePeriod(LedgerPeriod period, Totals totals) {
+        LocalDate periodStart = period.getPeriodStart();
+        String lower = TimeOrderedIds.lowerBound(periodStartMillis(periodStart));
+        String upper = TimeOrderedIds.lowerBound(periodStartMillis(periodStart.plusMonths(1)));
+        int blockEntries = settings.getArchiveBlockEntries();
+        long[] counts = new long[2];
+
+        forEachWalletChunk(walletIds -> transactionTemplate.executeWithoutResult(status -> {
+            List<String> active = jdbcTemplate.queryForList(ACTIVE_WALLETS_SQL.formatted(placeholders(walletIds)),
+                    String.class, args(walletIds, lower, upper));
+            if (active.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.update(DELETE_ARCHIVES_SQL.formatted(placeholders(active)), args(List.of(periodStart), active.toArray()));
+
+            // Rows arrive in (wallet, ledger sequence) order; a block is written when it fills or its wallet ends
+            LocalDateTime now = LocalDateTime.now();
+            List<Transaction> block = new ArrayList<>(blockEntries);
+            int[] blockNumber = {0};
+            Consumer<List<Transaction>> writeBlock = entries -> {
+                Transaction first = entries.get(0);
+                byte[] payload = LedgerArchiveCodec.encode(entries);
+                jdbcTemplate.update(INSERT_ARCHIVE_SQL,
+                        periodStart + "/" + first.getWalletId() + "/" + blockNumber[0]++, periodStart,
+                        first.getWalletId(), (long) entries.size(), first.getLedgerSequence(),
+                        entries.get(entries.size() - 1).getLedgerSequence(), payload, now);
+                counts[0] += entries.size();
+                counts[1] += payload.length;
+                entries.clear();
+            };
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        ARCHIVE_ROWS_SQL.formatted(placeholders(active)),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(blockEntries);
+                Object[] values = args(active, lower, upper);
+                for (int i = 0; i < values.length; i++) {
+                    statement.setObject(i + 1, values[i]);
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                String walletId = rs.getString("wallet_id");
+                if (!block.isEmpty() && !block.get(0).getWalletId().equals(walletId)) {
+                    writeBlock.accept(block);
+                    blockNumber[0] = 0;
+                }
+                long ledgerSequence = rs.getLong("ledger_sequence");
+                boolean noLedgerSequence = rs.wasNull();
+                long balanceAfter = rs.getLong("balance_after_minor_units");
+                boolean noBalanceAfter = rs.wasNull();
+                block.add(Transaction.builder()
+                        .id(rs.getString("id"))
+                        .reference(rs.getString("reference"))
+                        .walletId(walletId)
+                        .type(TransactionType.valueOf(rs.getString("type")))
+                        .amountMinorUnits(rs.getLong("amount_minor_units"))
+                        .description(rs.getString("description"))
+                        .ledgerSequence(noLedgerSequence ? null : ledgerSequence)
+                        .balanceAfterMinorUnits(noBalanceAfter ? null : balanceAfter)
+                        .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                        .transferId(rs.getString("transfer_id"))
+                        .build());
+                if (block.size() == blockEntries) {
+                    writeBlock.accept(block);
+                }
+            });
+            if (!block.isEmpty()) {
+                writeBlock.accept(block);
+            }
+
+            jdbcTemplate.update(DELETE_ROWS_SQL.formatted(placeholders(active)), args(active, lower, upper));
+        }));
+
+        period.setStatus(LedgerPeriod.Status.ARCHIVED);
+        period.setArchivedAt(LocalDateTime.now());
+        periodRepository.save(period);
+        totals.rowsArchived += counts[0];
+        totals.archivedBytes += counts[1];
+        log.info("Archived ledger period {}: {} entries moved out of the Transaction table ({} bytes compressed)",
+                periodStart, counts[0], counts[1]);
+    }
+
+    /**
+     * Pages through all wallets in walletId order, {@code wallet-chunk} at a time.
+     */
+    private void forEachWalletChunk(Consumer<List<String>> action) {
+        String after = "";
+        List<String> page;
+        do {
+            page = walletRepository.findWalletIdsAfter(after, PageRequest.of(0, settings.getWalletChunk()));
+            if (!page.isEmpty()) {
+                action.accept(page);
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == settings.getWalletChunk());
+    }
+
+    private LocalDate oldestPeriod() {
+        String oldestId = jdbcTemplate.queryForObject(OLDEST_ID_SQL, String.class);
+        if (oldestId == null) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(TimeOrderedIds.epochMillis(oldestId)), zone)
+                .toLocalDate()
+                .withDayOfMonth(1);
+    }
+
+    private long periodStartMillis(LocalDate period) {
+        return period.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static String placeholders(List<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+
+    private static Object[] args(List<?> values, Object... trailing) {
+        Object[] args = new Object[values.size() + trailing.length];
+        for (int i = 0; i < values.size(); i++) {
+            args[i] = values.get(i);
+        }
+        System.arraycopy(trailing, 0, args, values.size(), trailing.length);
+        return args;
+    }
+
+    private static final class Totals {
+        private long checkpoints;
+        private long rowsArchived;
+        private long archivedBytes;
+    }
+}
@@ -0,0 +1,54 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks this instance's open database transactions that insert ledger entries, so settlement knows
+ * up to which time the time-ordered Transaction ids are final.
+ * <p>
+ * A transaction enlists before it generates any Transaction id, so each id it inserts is no older than
+ * the time it enlisted. Once every transaction open at time T has completed, no row with an older id
+ * can still commit, however long those transactions ran.
+ */
+@Component
+public class LedgerWriteWindow {
+
+    private final ConcurrentHashMap<Object, Long> openSince = new ConcurrentHashMap<>();
+
+    /**
+     * Enlists the current transaction, once, until it commits or rolls back. Outside a transaction each
+     * insert commits on its own and there is nothing to track.
+     */
+    public void enlist() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        Object token = new Object();
+        openSince.put(token, System.currentTimeMillis());
+        TransactionSynchronizationManager.bindResource(this, token);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(LedgerWriteWindow.this);
+                openSince.remove(token);
+            }
+        });
+    }
+
+    /**
+     * Epoch millis before which every ledger id generated by this instance is committed or rolled back.
+     */
+    public long safePoint() {
+        // Read the clock first: a transaction that enlists after this still generates no older ids
+        long safePoint = System.currentTimeMillis();
+        for (long since : openSince.values()) {
+            safePoint = Math.min(safePoint, since);
+        }
+        return safePoint;
+    }
+}
@@ -0,0 +1,663 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.response.SettlementRunResponse;
+import com._jasettlement.Wallet.dto.response.SettlementSummaryResponse;
+import com._jasettlement.Wallet.dto.response.WalletDailyPositionResponse;
+import com._jasettlement.Wallet.engine.InMemoryLedgerEngine;
+import com._jasettlement.Wallet.entity.SettlementBreak;
+import com._jasettlement.Wallet.entity.SettlementWatermark;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.SettlementInProgressException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.repository.DailyTypeTotalRepository;
+import com._jasettlement.Wallet.repository.SettlementBreakRepository;
+import com._jasettlement.Wallet.repository.SettlementWatermarkRepository;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.repository.WalletDailyPositionRepository;
+import com._jasettlement.Wallet.service.SettlementService;
+import com._jasettlement.Wallet.util.InLists;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-of-day settlement over the Transaction ledger.
+ * <p>
+ * Transaction ids are time-ordered, so a business day is a contiguous primary-key range. Ids are taken
+ * before their rows commit, though, so a row can become visible after younger ones. Each run therefore
+ * stops at the ledger's safe point: the start of the oldest posting transaction still open on this
+ * instance (see {@link LedgerWriteWindow}) or, with the in-memory engine, the last time up to which the
+ * projection is proven to have caught up. It also stays below the oldest hot wallet posting not swept
+ * yet, which has no ledger sequence and so could not close its wallet's position. {@code settle-lag}
+ * still applies on top, for postings from other instances.
+ * <p>
+ * The job walks the range up to there in keyset chunks of {@code chunk-rows} and hands each chunk's
+ * rows to one of {@code partitions} workers by walletId hash. A worker owns its wallets outright: it
+ * aggregates its share of the chunk, adds the result to the summary tables and advances its own
+ * watermark, all in one short transaction. Runs are therefore incremental and restartable, and no
+ * query ever aggregates over the raw ledger. At most {@code max-in-flight-chunks} chunks are held at
+ * once, which caps memory however many rows the day has.
+ * <p>
+ * Each transfer leg is also matched with its counterpart through the transferId index (the reference
+ * index for legs written before transfers had ids), and unmatched or mismatched legs are recorded as
+ * settlement breaks.
+ */
+@Service
+@Slf4j
+public class SettlementServiceImpl implements SettlementService {
+
+    private static final String CHUNK_SQL = """
+            SELECT id, reference, wallet_id, type, amount_minor_units, ledger_sequence, balance_after_minor_units,
+                   transfer_id
+            FROM transaction
+            WHERE id > ? AND id < ?
+            ORDER BY id
+            """;
+
+    // A watermark only ever passes ids below the safe point, so no row can commit behind it later
+    private static final String ADVANCE_WATERMARK_SQL = """
+            UPDATE settlement_watermark SET last_transaction_id = ?, rows_settled = rows_settled + ?, updated_at = ?
+            WHERE id = ? AND last_transaction_id = ?
+            """;
+
+    // The closing balance is assigned before the sequence it is compared with, so this also holds on
+    // databases that evaluate SET clauses left to right
+    private static final String UPDATE_POSITION_SQL = """
+            UPDATE wallet_daily_position
+            SET credits_minor_units = credits_minor_units + ?, debits_minor_units = debits_minor_units + ?,
+                net_minor_units = net_minor_units + ?, entry_count = entry_count + ?,
+                closing_balance_minor_units = CASE WHEN closing_ledger_sequence < ? THEN ? ELSE closing_balance_minor_units END,
+                closing_ledger_sequence = CASE WHEN closing_ledger_sequence < ? THEN ? ELSE closing_ledger_sequence END,
+                updated_at = ?
+            WHERE business_date = ? AND wallet_id = ?
+            """;
+
+    private static final String INSERT_POSITION_SQL = """
+            INSERT INTO wallet_daily_position (id, business_date, wallet_id, credits_minor_units, debits_minor_units,
+                                               net_minor_units, entry_count, closing_balance_minor_units,
+                                               closing_ledger_sequence, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_TYPE_TOTAL_SQL = """
+            UPDATE daily_type_total SET entry_count = entry_count + ?, amount_minor_units = amount_minor_units + ?
+            WHERE business_date = ? AND type = ? AND partition_no = ?
+            """;
+
+    private static final String INSERT_TYPE_TOTAL_SQL = """
+            INSERT INTO daily_type_total (id, business_date, type, partition_no, entry_count, amount_minor_units)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_BREAK_SQL = """
+            INSERT INTO settlement_break (id, business_date, kind, reference, wallet_id, amount_minor_units, detected_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String DEBIT_SUFFIX = "_debit";
+    private static final String CREDIT_SUFFIX = "_credit";
+
+    private static final int BATCH_SIZE = 500;
+    private static final Duration SAFE_POINT_WAIT = Duration.ofSeconds(10);
+
+    private final WalletProperties.Settlement settings;
+    private final ZoneId zone;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionRepository transactionRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final SettlementWatermarkRepository watermarkRepository;
+    private final WalletDailyPositionRepository positionRepository;
+    private final DailyTypeTotalRepository typeTotalRepository;
+    private final SettlementBreakRepository breakRepository;
+    private final LedgerWriteWindow ledgerWriteWindow;
+    private final Optional<InMemoryLedgerEngine> ledgerEngine;
+    private final Timer chunkTimer;
+    private final Counter rowsCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SettlementServiceImpl(WalletProperties walletProperties, JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate, TransactionRepository transactionRepository,
+                                 TransactionJdbcRepository transactionJdbcRepository,
+                                 SettlementWatermarkRepository watermarkRepository,
+                                 WalletDailyPositionRepository positionRepository,
+                                 DailyTypeTotalRepository typeTotalRepository,
+                                 SettlementBreakRepository breakRepository, LedgerWriteWindow ledgerWriteWindow,
+                                 Optional<InMemoryLedgerEngine> ledgerEngine, MeterRegistry meterRegistry) {
+        this.settings = walletProperties.getSettlement();
+        this.zone = ZoneId.of(settings.getZone());
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionRepository = transactionRepository;
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.positionRepository = positionRepository;
+        this.typeTotalRepository = typeTotalRepository;
+        this.breakRepository = breakRepository;
+        this.ledgerWriteWindow = ledgerWriteWindow;
+        this.ledgerEngine = ledgerEngine;
+        this.chunkTimer = Timer.builder("wallet.settlement.partition.chunk")
+                .description("Time for one partition to fold its share of a ledger chunk into the settlement tables")
+                .register(meterRegistry);
+        this.rowsCounter = Counter.builder("wallet.settlement.rows")
+                .description("Ledger rows folded into the settlement tables")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keeps today's totals current and closes yesterday once its last rows are past the settle lag.
+     */
+    @Scheduled(cron = "${wallet.settlement.cron:0 */15 * * * *}", zone = "${wallet.settlement.zone:Africa/Lagos}")
+    public void settleScheduled() {
+        LocalDate today = LocalDate.now(zone);
+        try {
+            if (!getSummary(today.minusDays(1)).isDayComplete()) {
+                settle(today.minusDays(1));
+            }
+            settle(today);
+        } catch (SettlementInProgressException ex) {
+            log.info("Scheduled settlement skipped: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public SettlementRunResponse settle(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new SettlementInProgressException("A settlement run is already in progress");
+        }
+        try {
+            return run(businessDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SettlementSummaryResponse getSummary(LocalDate businessDate) {
+        List<SettlementWatermark> watermarks = watermarkRepository.findByBusinessDateOrderByPartitionNo(businessDate);
+        String dayEndId = TimeOrderedIds.lowerBound(dayEnd(businessDate));
+        long rowsSettled = watermarks.stream().mapToLong(SettlementWatermark::getRowsSettled).sum();
+        String settledUpTo = watermarks.stream().map(SettlementWatermark::getLastTransactionId).min(String::compareTo).orElse(null);
+        boolean dayComplete = watermarks.size() == settings.getPartitions()
+                && watermarks.stream().allMatch(watermark -> watermark.getLastTransactionId().compareTo(dayEndId) >= 0);
+
+        return SettlementSummaryResponse.builder()
+                .businessDate(businessDate)
+                .rowsSettled(rowsSettled)
+                .settledUpTo(settledUpTo != null ? toLocalDateTime(TimeOrderedIds.epochMillis(settledUpTo)) : null)
+                .dayComplete(dayComplete)
+                .walletCount(positionRepository.countByBusinessDate(businessDate))
+                .totalsByType(typeTotalRepository.sumByType(businessDate).stream()
+                        .map(total -> SettlementSummaryResponse.TypeTotal.builder()
+                                .type(total.getType().name())
+                                .entryCount(total.getEntryCount())
+                                .amountMinorUnits(total.getAmountMinorUnits())
+                                .build())
+                        .toList())
+                .breakCount(breakRepository.countByBusinessDate(businessDate))
+                .breaks(breakRepository.findTop100ByBusinessDateOrderByReference(businessDate).stream()
+                        .map(settlementBreak -> SettlementSummaryResponse.Break.builder()
+                                .kind(settlementBreak.getKind().name())
+                                .reference(settlementBreak.getReference())
+                                .walletId(settlementBreak.getWalletId())
+                                .amountMinorUnits(settlementBreak.getAmountMinorUnits())
+                                .detectedAt(settlementBreak.getDetectedAt())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public WalletDailyPositionResponse getPosition(LocalDate businessDate, String walletId) {
+        return positionRepository.findByBusinessDateAndWalletId(businessDate, walletId)
+                .map(position -> WalletDailyPositionResponse.builder()
+                        .businessDate(position.getBusinessDate())
+                        .walletId(position.getWalletId())
+                        .creditsMinorUnits(position.getCreditsMinorUnits())
+                        .debitsMinorUnits(position.getDebitsMinorUnits())
+                        .netMinorUnits(position.getNetMinorUnits())
+                        .entryCount(position.getEntryCount())
+                        .closingBalanceMinorUnits(position.getClosingBalanceMinorUnits())
+                        .currency("NGN")
+                        .build())
+                .orElseThrow(() -> new WalletNotFoundException(
+                        "No settled position for wallet " + walletId + " on " + businessDate));
+    }
+
+    private SettlementRunResponse run(LocalDate businessDate) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long dayStart = dayStart(businessDate);
+        long dayEnd = dayEnd(businessDate);
+        long cutoff = Math.min(Math.min(dayEnd, System.currentTimeMillis() - settings.getSettleLag().toMillis()),
+                safePoint());
+
+        LongAdder rows = new LongAdder();
+        LongAdder breaks = new LongAdder();
+        if (cutoff > dayStart) {
+            String upper = TimeOrderedIds.lowerBound(cutoff);
+            String[] expected = openWatermarks(businessDate, TimeOrderedIds.lowerBound(dayStart));
+            settleRange(businessDate, expected, upper, rows, breaks);
+        }
+
+        log.info("Settlement of {}: {} rows settled, {} breaks found, up to {}{}", businessDate, rows.sum(),
+                breaks.sum(), toLocalDateTime(Math.max(cutoff, dayStart)), cutoff >= dayEnd ? " (day complete)" : "");
+        return SettlementRunResponse.builder()
+                .businessDate(businessDate)
+                .rowsSettled(rows.sum())
+                .breaksFound(breaks.sum())
+                .settledUpTo(toLocalDateTime(Math.max(cutoff, dayStart)))
+                .dayComplete(cutoff >= dayEnd)
+                .startedAt(startedAt)
+                .completedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Epoch millis below which no ledger row can still commit, or still lacks its ledger sequence.
+     */
+    private long safePoint() {
+        long safePoint = ledgerWriteWindow.safePoint();
+        if (ledgerEngine.isPresent()) {
+            safePoint = Math.min(safePoint, ledgerEngine.get().databaseSafePoint(SAFE_POINT_WAIT));
+        }
+        Optional<String> unsequenced = transactionJdbcRepository.findOldestUnsequencedId();
+        if (unsequenced.isPresent()) {
+            safePoint = Math.min(safePoint, TimeOrderedIds.epochMillis(unsequenced.get()));
+        }
+        return safePoint;
+    }
+
+    private void settleRange(LocalDate businessDate, String[] expected, String upper, LongAdder rows, LongAdder breaks) {
+        int partitions = expected.length;
+        ExecutorService[] workers = new ExecutorService[partitions];
+        for (int p = 0; p < partitions; p++) {
+            workers[p] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("settlement-" + p).factory());
+        }
+        Semaphore inFlight = new Semaphore(settings.getMaxInFlightChunks());
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        try {
+            String readFrom = expected[0];
+            for (String watermark : expected) {
+                readFrom = watermark.compareTo(readFrom) < 0 ? watermark : readFrom;
+            }
+
+            while (failure.get() == null && readFrom.compareTo(upper) < 0) {
+                List<LedgerRow> chunk = readChunk(readFrom, upper);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                String chunkEnd = chunk.get(chunk.size() - 1).id();
+
+                List<List<LedgerRow>> shares = new ArrayList<>(partitions);
+                for (int p = 0; p < partitions; p++) {
+                    shares.add(new ArrayList<>());
+                }
+                for (LedgerRow row : chunk) {
+                    int p = Math.floorMod(row.walletId().hashCode(), partitions);
+                    if (row.id().compareTo(expected[p]) > 0) {
+                        shares.get(p).add(row);
+                    }
+                }
+
+                acquire(inFlight);
+                List<CompletableFuture<Void>> tasks = new ArrayList<>();
+                for (int p = 0; p < partitions; p++) {
+                    if (!shares.get(p).isEmpty()) {
+                        tasks.add(submit(workers[p], businessDate, p, expected[p], chunkEnd, shares.get(p), rows, breaks, failure));
+                        expected[p] = chunkEnd;
+                    }
+                }
+                CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).whenComplete((ignored, ex) -> inFlight.release());
+                readFrom = chunkEnd;
+            }
+
+            // Partitions without rows near the end of the range still move up to it
+            if (failure.get() == null) {
+                for (int p = 0; p < partitions; p++) {
+                    if (expected[p].compareTo(upper) < 0) {
+                        submit(workers[p], businessDate, p, expected[p], upper, List.of(), rows, breaks, failure);
+                    }
+                }
+            }
+        } finally {
+            for (ExecutorService worker : workers) {
+                worker.shutdown();
+            }
+            for (ExecutorService worker : workers) {
+                awaitTermination(worker);
+            }
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private CompletableFuture<Void> submit(ExecutorService worker, LocalDate businessDate, int partition,
+                                           String expected, String advanceTo, List<LedgerRow> share,
+                                           LongAdder rows, LongAdder breaks, AtomicReference<RuntimeException> failure) {
+        return CompletableFuture.runAsync(() -> {
+            if (failure.get() != null) {
+                return;
+            }
+            try {
+                long started = System.nanoTime();
+                Long found = transactionTemplate.execute(status ->
+                        settlePartition(businessDate, partition, expected, advanceTo, share));
+                chunkTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                rows.add(share.size());
+                breaks.add(found);
+                rowsCounter.increment(share.size());
+            } catch (RuntimeException ex) {
+                failure.compareAndSet(null, ex);
+            }
+        }, worker);
+    }
+
+    /**
+     * Folds one partition's share of a chunk into the summary tables and advances its watermark.
+     * Returns the number of breaks recorded.
+     */
+    private long settlePartition(LocalDate businessDate, int partition, String expected, String advanceTo,
+                                 List<LedgerRow> share) {
+        LocalDateTime now = LocalDateTime.now();
+        int advanced = jdbcTemplate.update(ADVANCE_WATERMARK_SQL, advanceTo, share.size(), now,
+                watermarkId(businessDate, partition), expected);
+        if (advanced == 0) {
+            throw new SettlementInProgressException(
+                    "Settlement watermark for " + businessDate + " partition " + partition + " was moved by another run");
+        }
+        if (share.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Position> positions = new HashMap<>();
+        Map<TransactionType, long[]> typeTotals = new HashMap<>();
+        for (LedgerRow row : share) {
+            positions.computeIfAbsent(row.walletId(), walletId -> new Position()).add(row);
+            long[] total = typeTotals.computeIfAbsent(row.type(), type -> new long[2]);
+            total[0]++;
+            total[1] += row.amountMinorUnits();
+        }
+
+        upsertPositions(businessDate, positions, now);
+        upsertTypeTotals(businessDate, partition, typeTotals);
+        List<Object[]> breaks = findBreaks(businessDate, share, now);
+        if (!breaks.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BREAK_SQL, breaks);
+        }
+        return breaks.size();
+    }
+
+    private void upsertPositions(LocalDate businessDate, Map<String, Position> positions, LocalDateTime now) {
+        List<Map.Entry<String, Position>> entries = new ArrayList<>(positions.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_POSITION_SQL, entries, BATCH_SIZE, (ps, entry) -> {
+            Position position = entry.getValue();
+            ps.setLong(1, position.credits);
+            ps.setLong(2, position.debits);
+            ps.setLong(3, position.credits - position.debits);
+            ps.setLong(4, position.entries);
+            ps.setLong(5, position.closingSequence);
+            ps.setObject(6, position.closingBalance);
+            ps.setLong(7, position.closingSequence);
+            ps.setLong(8, position.closingSequence);
+            ps.setObject(9, now);
+            ps.setObject(10, businessDate);
+            ps.setString(11, entry.getKey());
+        });
+
+        List<Map.Entry<String, Position>> fresh = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    fresh.add(entries.get(index));
+                }
+                index++;
+            }
+        }
+        // Partitions own disjoint wallets, so no other worker can insert the same position concurrently
+        jdbcTemplate.batchUpdate(INSERT_POSITION_SQL, fresh, BATCH_SIZE, (ps, entry) -> {
+            Position position = entry.getValue();
+            ps.setString(1, TimeOrderedIds.nextString());
+            ps.setObject(2, businessDate);
+            ps.setString(3, entry.getKey());
+            ps.setLong(4, position.credits);
+            ps.setLong(5, position.debits);
+            ps.setLong(6, position.credits - position.debits);
+            ps.setLong(7, position.entries);
+            ps.setObject(8, position.closingBalance);
+            ps.setLong(9, position.closingSequence);
+            ps.setObject(10, now);
+        });
+    }
+
+    private void upsertTypeTotals(LocalDate businessDate, int partition, Map<TransactionType, long[]> typeTotals) {
+        typeTotals.forEach((type, total) -> {
+            int updated = jdbcTemplate.update(UPDATE_TYPE_TOTAL_SQL, total[0], total[1], businessDate, type.name(), partition);
+            if (updated == 0) {
+                jdbcTemplate.update(INSERT_TYPE_TOTAL_SQL, TimeOrderedIds.nextString(), businessDate, type.name(),
+                        partition, total[0], total[1]);
+            }
+        });
+    }
+
+    /**
+     * Matches every transfer leg of the share with its counterpart.
+     */
+    private List<Object[]> findBreaks(LocalDate businessDate, List<LedgerRow> share, LocalDateTime now) {
+        Map<String, Long> counterpartAmounts = new HashMap<>();
+        Map<LedgerRow, String> counterpartKeys = new HashMap<>();
+
+        List<String> transferIds = share.stream()
+                .filter(row -> row.transferId() != null && row.type().isTransfer())
+                .map(LedgerRow::transferId)
+                .distinct()
+                .toList();
+        for (List<String> lookup : InLists.chunks(transferIds)) {
+            for (Transaction leg : transactionRepository.findByTransferIdIn(lookup)) {
+                counterpartAmounts.put(leg.getTransferId() + "/" + leg.getType(), leg.getAmountMinorUnits());
+            }
+        }
+        for (LedgerRow row : share) {
+            if (row.transferId() != null && row.type().isTransfer()) {
+                TransactionType counterpart = row.type() == TransactionType.TRANSFER_OUT
+                        ? TransactionType.TRANSFER_IN
+                        : TransactionType.TRANSFER_OUT;
+                counterpartKeys.put(row, row.transferId() + "/" + counterpart);
+            }
+        }
+
+        // Legs written before transfers had ids are paired by reference suffix
+        Map<String, LedgerRow> legsByCounterpart = new HashMap<>();
+        for (LedgerRow row : share) {
+            if (row.transferId() != null) {
+                continue;
+            }
+            if (row.type() == TransactionType.TRANSFER_OUT && row.reference().endsWith(DEBIT_SUFFIX)) {
+                legsByCounterpart.put(counterpart(row.reference(), DEBIT_SUFFIX, CREDIT_SUFFIX), row);
+            } else if (row.type() == TransactionType.TRANSFER_IN && row.reference().endsWith(CREDIT_SUFFIX)) {
+                legsByCounterpart.put(counterpart(row.reference(), CREDIT_SUFFIX, DEBIT_SUFFIX), row);
+            }
+        }
+        legsByCounterpart.forEach((counterpartReference, leg) -> counterpartKeys.put(leg, counterpartReference));
+        if (counterpartKeys.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> references = new ArrayList<>(legsByCounterpart.keySet());
+        for (List<String> lookup : InLists.chunks(references)) {
+            for (Transaction transaction : transactionRepository.findByReferenceIn(lookup)) {
+                counterpartAmounts.put(transaction.getReference(), transaction.getAmountMinorUnits());
+            }
+        }
+
+        List<Object[]> breaks = new ArrayList<>();
+        counterpartKeys.forEach((leg, counterpartKey) -> {
+            Long counterpartAmount = counterpartAmounts.get(counterpartKey);
+            SettlementBreak.Kind kind;
+            if (counterpartAmount == null) {
+                kind = leg.type() == TransactionType.TRANSFER_OUT
+                        ? SettlementBreak.Kind.MISSING_CREDIT
+                        : SettlementBreak.Kind.MISSING_DEBIT;
+            } else if (counterpartAmount != leg.amountMinorUnits()) {
+                // Reported from the debit side only, so a mismatched pair is one break
+                if (leg.type() != TransactionType.TRANSFER_OUT) {
+                    return;
+                }
+                kind = SettlementBreak.Kind.AMOUNT_MISMATCH;
+            } else {
+                return;
+            }
+            breaks.add(new Object[]{TimeOrderedIds.nextString(), businessDate, kind.name(), leg.reference(),
+                    leg.walletId(), leg.amountMinorUnits(), now});
+        });
+        return breaks;
+    }
+
+    private List<LedgerRow> readChunk(String after, String upper) {
+        List<LedgerRow> chunk = new ArrayList<>(settings.getChunkRows());
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CHUNK_SQL);
+            statement.setMaxRows(settings.getChunkRows());
+            statement.setFetchSize(settings.getChunkRows());
+            statement.setString(1, after);
+            statement.setString(2, upper);
+            return statement;
+        }, rs -> {
+            long sequence = rs.getLong("ledger_sequence");
+            long ledgerSequence = rs.wasNull() ? -1 : sequence;
+            long balanceAfter = rs.getLong("balance_after_minor_units");
+            Long closing = rs.wasNull() ? null : balanceAfter;
+            chunk.add(new LedgerRow(rs.getString("id"), rs.getString("reference"), rs.getString("wallet_id"),
+                    TransactionType.valueOf(rs.getString("type")), rs.getLong("amount_minor_units"), ledgerSequence, closing,
+                    rs.getString("transfer_id")));
+        });
+        return chunk;
+    }
+
+    /**
+     * Loads the day's partition watermarks, creating any that do not exist yet at the start of the day.
+     */
+    private String[] openWatermarks(LocalDate businessDate, String dayStartId) {
+        int partitions = settings.getPartitions();
+        String[] expected = new String[partitions];
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Integer, SettlementWatermark> existing = new HashMap<>();
+            watermarkRepository.findByBusinessDateOrderByPartitionNo(businessDate)
+                    .forEach(watermark -> existing.put(watermark.getPartitionNo(), watermark));
+            for (int p = 0; p < partitions; p++) {
+                SettlementWatermark watermark = existing.get(p);
+                if (watermark == null) {
+                    watermark = watermarkRepository.save(SettlementWatermark.builder()
+                            .id(watermarkId(businessDate, p))
+                            .businessDate(businessDate)
+                            .partitionNo(p)
+                            .lastTransactionId(dayStartId)
+                            .rowsSettled(0L)
+                            .updatedAt(LocalDateTime.now())
+                            .build());
+                }
+                expected[p] = watermark.getLastTransactionId();
+            }
+        });
+        return expected;
+    }
+
+    private long dayStart(LocalDate businessDate) {
+        return businessDate.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private long dayEnd(LocalDate businessDate) {
+        return dayStart(businessDate.plusDays(1));
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+
+    private static String watermarkId(LocalDate businessDate, int partition) {
+        return businessDate + "/" + partition;
+    }
+
+    private static String counterpart(String reference, String suffix, String counterpartSuffix) {
+        return reference.substring(0, reference.length() - suffix.length()) + counterpartSuffix;
+    }
+
+    private static void acquire(Semaphore inFlight) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SettlementInProgressException("Interrupted while waiting for settlement partitions");
+        }
+    }
+
+    private static void awaitTermination(ExecutorService worker) {
+        try {
+            worker.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record LedgerRow(String id, String reference, String walletId, TransactionType type,
+                             long amountMinorUnits, long ledgerSequence, Long balanceAfterMinorUnits,
+                             String transferId) {
+    }
+
+    private static final class Position {
+        private long credits;
+        private long debits;
+        private long entries;
+        private long closingSequence = -1;
+        private Long closingBalance;
+
+        void add(LedgerRow row) {
+            if (row.type().isCredit()) {
+                credits += row.amountMinorUnits();
+            } else {
+                debits += row.amountMinorUnits();
+            }
+            entries++;
+            if (row.ledgerSequence() > closingSequence) {
+                closingSequence = row.ledgerSequence();
+                closingBalance = row.balanceAfterMinorUnits();
+            }
+        }
+    }
+}
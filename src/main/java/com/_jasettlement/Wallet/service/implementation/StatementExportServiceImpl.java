@@ -0,0 +1,213 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.service.StatementExportService;
+import com._jasettlement.Wallet.util.LedgerArchiveCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a wallet's ledger straight from a forward-only JDBC cursor to the response. The driver
+ * fetches {@code wallet.export.fetch-size} rows per round trip and each row is written as soon as it
+ * is read, so memory stays flat for statements of any length and the first bytes leave immediately.
+ * <p>
+ * The cursor runs inside a read-only transaction: drivers such as PostgreSQL only honour the fetch
+ * size with auto-commit off, and otherwise buffer the whole result set.
+ * <p>
+ * Entries of archived months come first, one compressed block at a time and decoded entry by entry,
+ * followed by the entries still in the Transaction table. A block holds at most
+ * {@code wallet.ledger-tiering.archive-block-entries} entries, so a busy wallet-month never has to fit
+ * in memory.
+ */
+@Service
+@Slf4j
+public class StatementExportServiceImpl implements StatementExportService {
+
+    private static final String STATEMENT_SQL = """
+            SELECT id, reference, wallet_id, type, amount_minor_units, description,
+                   ledger_sequence, balance_after_minor_units, created_at
+            FROM transaction
+            WHERE wallet_id = ?
+            ORDER BY ledger_sequence, created_at, id
+            """;
+
+    private static final String ARCHIVE_SQL = """
+            SELECT payload FROM transaction_archive
+            WHERE wallet_id = ?
+            ORDER BY period_start, first_ledger_sequence
+            """;
+
+    private static final String CSV_HEADER =
+            "id,reference,walletId,type,amountMinorUnits,currency,description,ledgerSequence,balanceAfterMinorUnits,createdAt";
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public StatementExportServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      ObjectMapper objectMapper, WalletProperties walletProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = walletProperties.getExport().getFetchSize();
+    }
+
+    @Override
+    public void export(String walletId, Format format, boolean gzip, OutputStream output) {
+        long[] rows = {0};
+        try {
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, BUFFER_BYTES) : null;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    compressed != null ? compressed : output, StandardCharsets.UTF_8), BUFFER_BYTES);
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            readOnlyTransaction.executeWithoutResult(status -> {
+                // Archive blocks are bounded in size, so they are fetched one row at a time
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(ARCHIVE_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(1);
+                    statement.setString(1, walletId);
+                    return statement;
+                }, (RowCallbackHandler) rs -> {
+                    LedgerArchiveCodec.decode(walletId, rs.getBinaryStream("payload"), entry -> {
+                        write(entry, format, writer);
+                        rows[0]++;
+                    });
+                });
+
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(STATEMENT_SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    statement.setString(1, walletId);
+                    return statement;
+                }, (RowCallbackHandler) rs -> {
+                    write(toTransaction(rs), format, writer);
+                    rows[0]++;
+                });
+            });
+
+            writer.flush();
+            if (compressed != null) {
+                compressed.finish();
+            }
+            output.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        log.info("Exported statement for wallet {}: {} entries as {}{}", walletId, rows[0], format, gzip ? " (gzip)" : "");
+    }
+
+    private void write(Transaction entry, Format format, Writer writer) {
+        try {
+            if (format == Format.CSV) {
+                writeCsv(entry, writer);
+            } else {
+                writer.write(objectMapper.writeValueAsString(toResponse(entry)));
+                writer.write('\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeCsv(Transaction entry, Writer writer) throws IOException {
+        writer.write(entry.getId());
+        writer.write(',');
+        writer.write(csv(entry.getReference()));
+        writer.write(',');
+        writer.write(entry.getWalletId());
+        writer.write(',');
+        writer.write(entry.getType().name());
+        writer.write(',');
+        writer.write(Long.toString(entry.getAmountMinorUnits()));
+        writer.write(",NGN,");
+        writer.write(csv(entry.getDescription()));
+        writer.write(',');
+        writer.write(nullable(entry.getLedgerSequence()));
+        writer.write(',');
+        writer.write(nullable(entry.getBalanceAfterMinorUnits()));
+        writer.write(',');
+        writer.write(entry.getCreatedAt() != null ? entry.getCreatedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    private TransactionResponse toResponse(Transaction entry) {
+        return TransactionResponse.builder()
+                .id(entry.getId())
+                .reference(entry.getReference())
+                .walletId(entry.getWalletId())
+                .type(entry.getType())
+                .amountMinorUnits(entry.getAmountMinorUnits())
+                .currency("NGN")
+                .description(entry.getDescription())
+                .balanceAfterMinorUnits(entry.getBalanceAfterMinorUnits())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+
+    private Transaction toTransaction(ResultSet rs) throws SQLException {
+        long ledgerSequence = rs.getLong("ledger_sequence");
+        boolean noLedgerSequence = rs.wasNull();
+        long balanceAfter = rs.getLong("balance_after_minor_units");
+        boolean noBalanceAfter = rs.wasNull();
+        return Transaction.builder()
+                .id(rs.getString("id"))
+                .reference(rs.getString("reference"))
+                .walletId(rs.getString("wallet_id"))
+                .type(TransactionType.valueOf(rs.getString("type")))
+                .amountMinorUnits(rs.getLong("amount_minor_units"))
+                .description(rs.getString("description"))
+                .ledgerSequence(noLedgerSequence ? null : ledgerSequence)
+                .balanceAfterMinorUnits(noBalanceAfter ? null : balanceAfter)
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .build();
+    }
+
+    private static String nullable(Long value) {
+        return value == null ? "" : Long.toString(value);
+    }
+
+    /**
+     * Quotes a field per RFC 4180 when it contains a delimiter, quote or line break.
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,195 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.index.MappedWalletIndex;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.repository.WalletJdbcRepository;
+import com._jasettlement.Wallet.repository.WalletStripeJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Striped sub-balances for hot wallets ({@link Wallet#getStripeCount()} &gt; 0).
+ * <p>
+ * A credit to a hot wallet is added to one randomly chosen stripe row instead of the wallet row, so
+ * concurrent credits only wait on each other when they pick the same stripe. A debit draws from a
+ * stripe that still covers it. Either way the entry is written unsequenced: it has no ledger sequence
+ * or balance-after yet.
+ * <p>
+ * A sweep folds those entries into the wallet. It runs under the wallet's lock and first locks every
+ * stripe, which waits out in-flight stripe postings. It then gives the unsequenced entries the next
+ * ledger sequences in id order and moves their net amount into balanceMinorUnits.
+ * {@link WalletConcurrencyControl} sweeps whenever it locks a hot wallet, so a sequenced posting always
+ * sees the full balance. A stripe posting takes its stripe lock before its entry gets an id, so
+ * sequences keep following ids, as the checkpoints of ledger tiering require.
+ * <p>
+ * Stripe money is not part of the {@link AvailableBalanceTracker}'s balance until it is swept, and a
+ * stripe draw only spends stripe money, so funds holds stay covered by the wallet row.
+ */
+@Component
+@Slf4j
+public class StripedBalances {
+
+    private final WalletStripeJdbcRepository stripeRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final WalletJdbcRepository walletJdbcRepository;
+    private final WalletProperties walletProperties;
+    private final AvailableBalanceTracker availableBalances;
+    private final Optional<MappedWalletIndex> walletIndex;
+    private final Counter stripeCredits;
+    private final Counter stripeDraws;
+    private final Counter drawFallbacks;
+    private final DistributionSummary sweptEntries;
+
+    public StripedBalances(WalletStripeJdbcRepository stripeRepository,
+                           TransactionJdbcRepository transactionJdbcRepository,
+                           WalletJdbcRepository walletJdbcRepository, WalletProperties walletProperties,
+                           AvailableBalanceTracker availableBalances, Optional<MappedWalletIndex> walletIndex,
+                           MeterRegistry meterRegistry) {
+        this.stripeRepository = stripeRepository;
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.walletJdbcRepository = walletJdbcRepository;
+        this.walletProperties = walletProperties;
+        this.availableBalances = availableBalances;
+        this.walletIndex = walletIndex;
+
+        this.stripeCredits = Counter.builder("wallet.stripes.postings")
+                .description("Hot wallet postings by how they were applied")
+                .tag("outcome", "credit")
+                .register(meterRegistry);
+        this.stripeDraws = Counter.builder("wallet.stripes.postings")
+                .description("Hot wallet postings by how they were applied")
+                .tag("outcome", "draw")
+                .register(meterRegistry);
+        this.drawFallbacks = Counter.builder("wallet.stripes.postings")
+                .description("Hot wallet postings by how they were applied")
+                .tag("outcome", "draw_fallback")
+                .register(meterRegistry);
+        this.sweptEntries = DistributionSummary.builder("wallet.stripes.swept.entries")
+                .description("Unsequenced entries folded into a hot wallet by one sweep")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds the amount to one of the wallet's stripes and builds its unsequenced entry; the caller
+     * inserts it in the same transaction. Returns null when the wallet no longer has that many
+     * stripes, in which case the caller posts through the wallet lock instead.
+     */
+    public Transaction credit(String walletId, int stripeCount, TransactionType type, long amountMinorUnits,
+                              String reference, String description) {
+        int stripe = ThreadLocalRandom.current().nextInt(stripeCount);
+        if (stripeRepository.add(walletId, stripe, amountMinorUnits) == 0) {
+            return null;
+        }
+        stripeCredits.increment();
+        return entry(walletId, type, amountMinorUnits, reference, description);
+    }
+
+    /**
+     * Takes the amount from a stripe that covers it and builds its unsequenced entry. Returns null when
+     * no stripe does; the caller then locks the wallet, which sweeps every stripe into its balance.
+     */
+    public Transaction draw(String walletId, TransactionType type, long amountMinorUnits,
+                            String reference, String description) {
+        List<Integer> candidates = stripeRepository.findStripesCovering(walletId, amountMinorUnits);
+        int start = candidates.isEmpty() ? 0 : ThreadLocalRandom.current().nextInt(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            int stripe = candidates.get((start + i) % candidates.size());
+            if (stripeRepository.draw(walletId, stripe, amountMinorUnits) == 1) {
+                stripeDraws.increment();
+                return entry(walletId, type, amountMinorUnits, reference, description);
+            }
+        }
+        drawFallbacks.increment();
+        return null;
+    }
+
+    /**
+     * Folds the wallet's stripes and unsequenced entries into it. The wallet must be a managed entity
+     * loaded by {@link WalletConcurrencyControl} in the current transaction.
+     */
+    public void sweep(Wallet wallet) {
+        String walletId = wallet.getWalletId();
+        if (walletProperties.getConcurrency().getMode() == WalletProperties.Concurrency.Mode.OPTIMISTIC
+                && !Objects.equals(walletJdbcRepository.lockVersion(walletId), wallet.getVersion())) {
+            // Another sweep or posting committed since the wallet was read; retry with a fresh copy
+            throw new OptimisticLockingFailureException("Wallet " + walletId + " changed before its stripes were swept");
+        }
+
+        long striped = stripeRepository.lockAll(walletId);
+        List<Transaction> pending = transactionJdbcRepository.findUnsequenced(walletId);
+        if (pending.isEmpty()) {
+            if (striped != 0) {
+                log.warn("Wallet {} has {} on its stripes but no unsequenced entries", walletId, striped);
+            }
+            return;
+        }
+
+        long balance = wallet.getBalanceMinorUnits();
+        long sequence = wallet.getLedgerSequence();
+        long net = 0;
+        for (Transaction entry : pending) {
+            long signed = entry.getType().signedAmount(entry.getAmountMinorUnits());
+            net += signed;
+            balance += signed;
+            entry.setLedgerSequence(++sequence);
+            entry.setBalanceAfterMinorUnits(balance);
+        }
+        if (net != striped) {
+            // The ledger is authoritative; the reconciliation job compares the snapshot with it
+            log.warn("Wallet {} stripes hold {} but its unsequenced entries net {}", walletId, striped, net);
+        }
+
+        transactionJdbcRepository.assignSequences(pending);
+        stripeRepository.resetAll(walletId);
+        wallet.setBalanceMinorUnits(balance);
+        wallet.setLedgerSequence(sequence);
+        sweptEntries.record(pending.size());
+
+        long balanceAfter = balance;
+        long sequenceAfter = sequence;
+        afterCommit(() -> {
+            availableBalances.recordBalance(walletId, balanceAfter, sequenceAfter);
+            walletIndex.ifPresent(index -> index.recordBalance(walletId, balanceAfter, sequenceAfter, LocalDateTime.now()));
+        });
+    }
+
+    private Transaction entry(String walletId, TransactionType type, long amountMinorUnits,
+                              String reference, String description) {
+        return Transaction.builder()
+                .reference(reference)
+                .walletId(walletId)
+                .type(type)
+                .amountMinorUnits(amountMinorUnits)
+                .description(description)
+                .build();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
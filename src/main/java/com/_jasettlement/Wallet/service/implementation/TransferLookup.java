@@ -0,0 +1,107 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.TransferJournal;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.repository.TransferJournalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads transfers back as one double entry: the TransferJournal row by id or reference, and its two
+ * legs through the transferId index. Transfers recorded before TransferJournal existed are still
+ * found through their {@code _debit} / {@code _credit} leg references.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferLookup {
+
+    private final TransferJournalRepository transferJournalRepository;
+    private final TransactionRepository transactionRepository;
+
+    public Optional<TransferResponse> findById(String transferId) {
+        return transferJournalRepository.findById(transferId).map(this::withLegs);
+    }
+
+    public Optional<TransferResponse> findByReference(String reference) {
+        Optional<TransferJournal> transfer = transferJournalRepository.findByReference(reference);
+        if (transfer.isPresent()) {
+            return transfer.map(this::withLegs);
+        }
+
+        Optional<Transaction> debit = transactionRepository.findByReference(reference + "_debit");
+        if (debit.isEmpty()) {
+            return Optional.empty();
+        }
+        Transaction credit = transactionRepository.findByReference(reference + "_credit").orElse(null);
+        Transaction legacyDebit = debit.get();
+        return Optional.of(TransferResponse.builder()
+                .reference(reference)
+                .fromWalletId(legacyDebit.getWalletId())
+                .toWalletId(credit != null ? credit.getWalletId() : null)
+                .amountMinorUnits(legacyDebit.getAmountMinorUnits())
+                .currency("NGN")
+                .description(legacyDebit.getDescription())
+                .debit(toTransactionResponse(legacyDebit))
+                .credit(credit != null ? toTransactionResponse(credit) : null)
+                .createdAt(legacyDebit.getCreatedAt())
+                .build());
+    }
+
+    /**
+     * The transfer that reversed this one, if any.
+     */
+    public Optional<TransferJournal> findReversal(String transferId) {
+        return transferJournalRepository.findByReversalOf(transferId);
+    }
+
+    public TransferResponse toResponse(TransferJournal transfer, Transaction debit, Transaction credit,
+                                       String reversedBy) {
+        return TransferResponse.builder()
+                .transferId(transfer.getId())
+                .reference(transfer.getReference())
+                .fromWalletId(transfer.getFromWalletId())
+                .toWalletId(transfer.getToWalletId())
+                .amountMinorUnits(transfer.getAmountMinorUnits())
+                .currency("NGN")
+                .description(transfer.getDescription())
+                .reversalOf(transfer.getReversalOf())
+                .reversedBy(reversedBy)
+                .debit(debit != null ? toTransactionResponse(debit) : null)
+                .credit(credit != null ? toTransactionResponse(credit) : null)
+                .createdAt(transfer.getCreatedAt())
+                .build();
+    }
+
+    private TransferResponse withLegs(TransferJournal transfer) {
+        List<Transaction> legs = transactionRepository.findByTransferId(transfer.getId());
+        Transaction debit = leg(legs, TransactionType.TRANSFER_OUT);
+        Transaction credit = leg(legs, TransactionType.TRANSFER_IN);
+        String reversedBy = findReversal(transfer.getId()).map(TransferJournal::getId).orElse(null);
+        return toResponse(transfer, debit, credit, reversedBy);
+    }
+
+    private Transaction leg(List<Transaction> legs, TransactionType type) {
+        return legs.stream().filter(leg -> leg.getType() == type).findFirst().orElse(null);
+    }
+
+    private TransactionResponse toTransactionResponse(Transaction transaction) {
+        return TransactionResponse.builder()
+                .id(transaction.getId())
+                .reference(transaction.getReference())
+                .walletId(transaction.getWalletId())
+                .type(transaction.getType())
+                .amountMinorUnits(transaction.getAmountMinorUnits())
+                .currency("NGN")
+                .description(transaction.getDescription())
+                .balanceAfterMinorUnits(transaction.getBalanceAfterMinorUnits())
+                .createdAt(transaction.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.exception.ConcurrentUpdateException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.metrics.WalletMetrics;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.util.InLists;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Serializes balance-changing work per wallet. Only the wallet rows a posting touches are locked
+ * (or version-checked), so unrelated wallets never wait on each other. Locking a hot wallet also
+ * sweeps its stripes (see {@link StripedBalances}), so the caller sees and posts against its full balance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WalletConcurrencyControl {
+
+    private final WalletRepository walletRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletProperties walletProperties;
+    private final WalletMetrics walletMetrics;
+    private final LedgerWriteWindow ledgerWriteWindow;
+    private final StripedBalances stripedBalances;
+
+    /**
+     * Runs the work in its own transaction, re-running it from scratch when it loses a lock or
+     * version race, up to the configured number of attempts.
+     */
+    public <T> T inTransaction(Supplier<T> work) {
+        WalletProperties.Concurrency settings = walletProperties.getConcurrency();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= settings.getMaxAttempts()) {
+                    log.warn("Giving up after {} attempts on contended wallet: {}", attempt, ex.getMessage());
+                    throw new ConcurrentUpdateException("Wallet is busy, please retry the request");
+                }
+                backoff(attempt, settings.getRetryBackoffMillis());
+            }
+        }
+    }
+
+    public Wallet lock(String walletId) {
+        var wallet = isOptimistic()
+                ? walletMetrics.observeQuery("findByWalletId", () -> walletRepository.findByWalletId(walletId))
+                : walletMetrics.observeQuery("findByWalletIdForUpdate", () -> walletRepository.findByWalletIdForUpdate(walletId));
+        return sweepIfStriped(wallet.orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + walletId)));
+    }
+
+    /**
+     * Locks several wallets in ascending walletId order, so two transfers in opposite directions
+     * always acquire their rows in the same order and cannot deadlock.
+     */
+    public Map<String, Wallet> lockAll(Collection<String> walletIds) {
+        Map<String, Wallet> locked = lockExisting(walletIds);
+        for (String walletId : walletIds) {
+            if (!locked.containsKey(walletId)) {
+                throw new WalletNotFoundException("Wallet not found: " + walletId);
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * Resolves and locks every wallet that exists among the given IDs with one query per chunk, in
+     * ascending walletId order. Unknown IDs are simply absent from the result.
+     */
+    public Map<String, Wallet> lockExisting(Collection<String> walletIds) {
+        List<String> ordered = new ArrayList<>(new TreeSet<>(walletIds));
+        Map<String, Wallet> locked = new HashMap<>();
+        for (List<String> chunk : InLists.chunks(ordered)) {
+            List<Wallet> wallets = isOptimistic()
+                    ? walletRepository.findAllByWalletIdIn(chunk)
+                    : walletRepository.findAllByWalletIdInForUpdate(chunk);
+            for (Wallet wallet : wallets) {
+                locked.put(wallet.getWalletId(), wallet);
+            }
+        }
+        // Stripes are locked after every wallet row, the same order stripe postings take them in
+        locked.values().forEach(this::sweepIfStriped);
+        return locked;
+    }
+
+    /**
+     * Enlists the transaction in the {@link LedgerWriteWindow} before its entries get ids. In optimistic
+     * mode, also pushes the version-checked snapshot UPDATE to the database before the ledger INSERTs.
+     * Hibernate would otherwise run the inserts first, and a racing writer would fail on the
+     * ledger-sequence index instead of on the version check.
+     */
+    public void beforeLedgerInsert() {
+        ledgerWriteWindow.enlist();
+        if (isOptimistic()) {
+            walletRepository.flush();
+        }
+    }
+
+    private Wallet sweepIfStriped(Wallet wallet) {
+        if (wallet.getStripeCount() != null && wallet.getStripeCount() > 0) {
+            stripedBalances.sweep(wallet);
+        }
+        return wallet;
+    }
+
+    private boolean isOptimistic() {
+        return walletProperties.getConcurrency().getMode() == WalletProperties.Concurrency.Mode.OPTIMISTIC;
+    }
+
+    private void backoff(int attempt, long baseMillis) {
+        long ceiling = baseMillis << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(baseMillis, ceiling + baseMillis + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while waiting to retry a contended wallet");
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.response.WalletEventResponse;
+import com._jasettlement.Wallet.entity.WalletEvent;
+import com._jasettlement.Wallet.exception.EventOffsetExpiredException;
+import com._jasettlement.Wallet.repository.WalletEventJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory fan-out of the wallet event outbox.
+ * <p>
+ * One relay thread per instance reads committed outbox rows in offset order, a page at a time. It
+ * wakes when a local posting commits and otherwise polls every {@code poll-interval}, so postings made
+ * on other instances arrive too. The relay keeps the last {@code replay-buffer} events in memory and
+ * hands each event to the subscribers of its wallet. Reads of the ledger are never needed.
+ * <p>
+ * Before each read the relay numbers newly committed outbox rows
+ * ({@link WalletEventJdbcRepository#assignOffsets}). Offsets are thus given in the order rows become
+ * visible, whichever instance numbers them: a posting that commits late simply gets a later offset,
+ * and a rolled-back posting never gets one, so the relay never has a hole to wait on.
+ * <p>
+ * Every subscriber has a bounded buffer. The relay never waits for one: a subscriber whose buffer is
+ * full is dropped, and resumes from its last offset when it reconnects.
+ */
+@Component
+@Slf4j
+public class WalletEventHub {
+
+    /**
+     * Receives events for one wallet on the relay thread. Returning false means the subscriber cannot
+     * keep up; it is then removed and {@link #dropped()} is called.
+     */
+    public interface Subscriber {
+        boolean offer(WalletEventResponse event);
+
+        void dropped();
+    }
+
+    private static final String CURRENCY = "NGN";
+    private static final long MAX_RETRY_DELAY_MILLIS = 5_000;
+
+    private final WalletEventJdbcRepository walletEventJdbcRepository;
+    private final WalletEventOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final WalletProperties.Events settings;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ArrayDeque<WalletEventResponse> recent = new ArrayDeque<>();
+    private final Counter relayed;
+    private final Counter droppedSubscribers;
+
+    // Offsets up to here have been relayed
+    private volatile long position;
+    // Every relayed event above this offset is still in recent; guarded by recent
+    private long recentFloor;
+    private volatile boolean running = true;
+    private Thread relay;
+
+    public WalletEventHub(WalletEventJdbcRepository walletEventJdbcRepository, WalletEventOutbox outbox,
+                          TransactionTemplate transactionTemplate, WalletProperties walletProperties,
+                          MeterRegistry meterRegistry) {
+        this.walletEventJdbcRepository = walletEventJdbcRepository;
+        this.outbox = outbox;
+        this.transactionTemplate = transactionTemplate;
+        this.settings = walletProperties.getEvents();
+
+        Gauge.builder("wallet.events.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Open stream and long-poll subscriptions")
+                .register(meterRegistry);
+        Gauge.builder("wallet.events.position", this, WalletEventHub::position)
+                .description("Outbox offset the relay has reached")
+                .register(meterRegistry);
+        this.relayed = Counter.builder("wallet.events.relayed")
+                .description("Outbox events read by the relay")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("wallet.events.subscribers.dropped")
+                .description("Subscribers dropped because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    // Started once the schema is in place; subscribers only see events committed from here on live
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        position = walletEventJdbcRepository.maxOffset();
+        synchronized (recent) {
+            recentFloor = position;
+        }
+        relay = Thread.ofPlatform().name("wallet-event-relay").daemon().unstarted(this::relayLoop);
+        relay.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (relay != null) {
+            relay.interrupt();
+            relay.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public long position() {
+        return position;
+    }
+
+    public void subscribe(String walletId, Subscriber subscriber) {
+        subscribers.computeIfAbsent(walletId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    }
+
+    public void unsubscribe(String walletId, Subscriber subscriber) {
+        subscribers.computeIfPresent(walletId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * The wallet's events after the offset that the relay has already passed, oldest first. Served from
+     * memory when the offset is recent enough, otherwise from the outbox table.
+     *
+     * @throws EventOffsetExpiredException when events after the offset have been purged
+     */
+    public List<WalletEventResponse> eventsAfter(String walletId, long after, int limit) {
+        long through;
+        synchronized (recent) {
+            if (after >= recentFloor) {
+                List<WalletEventResponse> events = new ArrayList<>();
+                for (WalletEventResponse event : recent) {
+                    if (event.getOffset() > after && event.getWalletId().equals(walletId)) {
+                        events.add(event);
+                        if (events.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+                return events;
+            }
+            through = recentFloor;
+        }
+
+        Long oldest = walletEventJdbcRepository.minOffset();
+        if (oldest != null && after < oldest - 1) {
+            throw new EventOffsetExpiredException("Events after offset " + after
+                    + " are no longer retained; reload the wallet and resume from offset " + position);
+        }
+        List<WalletEventResponse> events = new ArrayList<>(walletEventJdbcRepository
+                .findByWalletAfter(walletId, after, through, limit).stream()
+                .map(this::toResponse)
+                .toList());
+        if (events.size() < limit) {
+            // Everything up to through has been read; anything newer is in memory
+            events.addAll(eventsAfter(walletId, through, limit - events.size()));
+        }
+        return events;
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.events.purge-interval:10m}")
+    public void purge() {
+        int deleted = walletEventJdbcRepository.deleteCreatedBefore(LocalDateTime.now().minus(settings.getRetention()));
+        if (deleted > 0) {
+            log.info("Purged {} wallet events older than {}", deleted, settings.getRetention());
+        }
+    }
+
+    private void relayLoop() {
+        int failures = 0;
+        while (running) {
+            try {
+                outbox.awaitAppend(settings.getPollInterval());
+                int assigned;
+                List<WalletEvent> page;
+                do {
+                    assigned = transactionTemplate.execute(status ->
+                            walletEventJdbcRepository.assignOffsets(settings.getRelayBatch()));
+                    page = walletEventJdbcRepository.findAfter(position, settings.getRelayBatch());
+                    for (WalletEvent event : page) {
+                        publish(toResponse(event));
+                    }
+                } while ((assigned == settings.getRelayBatch() || page.size() == settings.getRelayBatch()) && running);
+                failures = 0;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (DataAccessException ex) {
+                long delay = Math.min(100L * ++failures, MAX_RETRY_DELAY_MILLIS);
+                log.warn("Wallet event relay failed to read the outbox, retrying in {} ms: {}", delay, ex.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void publish(WalletEventResponse event) {
+        synchronized (recent) {
+            recent.addLast(event);
+            while (recent.size() > settings.getReplayBuffer()) {
+                recentFloor = recent.removeFirst().getOffset();
+            }
+        }
+        position = event.getOffset();
+        relayed.increment();
+
+        Set<Subscriber> listening = subscribers.get(event.getWalletId());
+        if (listening == null) {
+            return;
+        }
+        for (Subscriber subscriber : listening) {
+            if (!subscriber.offer(event)) {
+                unsubscribe(event.getWalletId(), subscriber);
+                droppedSubscribers.increment();
+                subscriber.dropped();
+            }
+        }
+    }
+
+    private WalletEventResponse toResponse(WalletEvent event) {
+        return WalletEventResponse.builder()
+                .offset(event.getEventOffset())
+                .walletId(event.getWalletId())
+                .transactionId(event.getTransactionId())
+                .type(event.getType())
+                .amountMinorUnits(event.getAmountMinorUnits())
+                .currency(CURRENCY)
+                .balanceAfterMinorUnits(event.getBalanceAfterMinorUnits())
+                .ledgerSequence(event.getLedgerSequence())
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.repository.WalletEventJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox for wallet balance changes. Every ledger insert appends one event per entry in
+ * the same database transaction, so an event exists exactly when its entry does. After the commit the
+ * local {@link WalletEventHub} relay is woken, so events posted on this instance go out without waiting
+ * for its next poll.
+ */
+@Component
+@RequiredArgsConstructor
+public class WalletEventOutbox {
+
+    private final WalletEventJdbcRepository walletEventJdbcRepository;
+    private final Semaphore appended = new Semaphore(0);
+
+    /**
+     * Writes the events for entries that were just inserted. Must run in the inserting transaction.
+     */
+    public void append(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        walletEventJdbcRepository.insertAll(transactions);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    signal();
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits until a local append commits or the timeout passes, whichever comes first.
+     */
+    boolean awaitAppend(Duration timeout) throws InterruptedException {
+        boolean woken = appended.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        // One relay pass picks up every commit made so far
+        appended.drainPermits();
+        return woken;
+    }
+
+    private void signal() {
+        if (appended.availablePermits() == 0) {
+            appended.release();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.response.WalletEventResponse;
+import com._jasettlement.Wallet.dto.response.WalletEventsResponse;
+import com._jasettlement.Wallet.service.WalletEventService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscriptions to {@link WalletEventHub}. Both endpoints subscribe before reading what the client has
+ * missed, so an event relayed in between is seen twice rather than not at all, and duplicates are
+ * skipped by offset. Each stream is written by its own virtual thread, which blocks on the client while
+ * the relay only ever fills the stream's bounded buffer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalletEventServiceImpl implements WalletEventService {
+
+    private final WalletEventHub walletEventHub;
+    private final WalletMetadataCache walletMetadataCache;
+    private final WalletProperties walletProperties;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("wallet-event-stream-", 0).factory());
+
+    @Override
+    public SseEmitter stream(String walletId, Long after) {
+        WalletProperties.Events settings = walletProperties.getEvents();
+        walletMetadataCache.require(walletId);
+        long from = startOffset(after);
+
+        StreamSubscriber subscriber = new StreamSubscriber(settings.getSubscriberBuffer());
+        walletEventHub.subscribe(walletId, subscriber);
+        List<WalletEventResponse> firstPage;
+        try {
+            // Read before the emitter exists, so an expired offset is still answered with 410
+            firstPage = walletEventHub.eventsAfter(walletId, from, settings.getPageSize());
+        } catch (RuntimeException ex) {
+            walletEventHub.unsubscribe(walletId, subscriber);
+            throw ex;
+        }
+
+        SseEmitter emitter = new SseEmitter(settings.getStreamTimeout().toMillis());
+        Runnable close = () -> {
+            subscriber.closed = true;
+            walletEventHub.unsubscribe(walletId, subscriber);
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(ex -> close.run());
+        senders.execute(() -> pump(walletId, from, firstPage, subscriber, emitter));
+        return emitter;
+    }
+
+    @Override
+    public CompletableFuture<WalletEventsResponse> poll(String walletId, Long after, Duration wait) {
+        WalletProperties.Events settings = walletProperties.getEvents();
+        walletMetadataCache.require(walletId);
+        long from = startOffset(after);
+
+        CompletableFuture<Void> woken = new CompletableFuture<>();
+        WalletEventHub.Subscriber waiter = new WalletEventHub.Subscriber() {
+            @Override
+            public boolean offer(WalletEventResponse event) {
+                woken.complete(null);
+                return true;
+            }
+
+            @Override
+            public void dropped() {
+            }
+        };
+        walletEventHub.subscribe(walletId, waiter);
+        try {
+            List<WalletEventResponse> events = walletEventHub.eventsAfter(walletId, from, settings.getPageSize());
+            if (!events.isEmpty() || wait.isZero() || wait.isNegative()) {
+                walletEventHub.unsubscribe(walletId, waiter);
+                return CompletableFuture.completedFuture(toResponse(walletId, from, events));
+            }
+        } catch (RuntimeException ex) {
+            walletEventHub.unsubscribe(walletId, waiter);
+            throw ex;
+        }
+
+        long waitMillis = Math.min(wait.toMillis(), settings.getMaxWait().toMillis());
+        return woken.completeOnTimeout(null, waitMillis, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> toResponse(walletId, from,
+                        walletEventHub.eventsAfter(walletId, from, settings.getPageSize())), senders)
+                .whenComplete((response, ex) -> walletEventHub.unsubscribe(walletId, waiter));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private void pump(String walletId, long from, List<WalletEventResponse> firstPage,
+                      StreamSubscriber subscriber, SseEmitter emitter) {
+        WalletProperties.Events settings = walletProperties.getEvents();
+        long last = from;
+        try {
+            // Catch up in pages, then switch to the live buffer
+            List<WalletEventResponse> page = firstPage;
+            while (true) {
+                for (WalletEventResponse event : page) {
+                    send(emitter, event);
+                    last = event.getOffset();
+                }
+                if (page.size() < settings.getPageSize()) {
+                    break;
+                }
+                page = walletEventHub.eventsAfter(walletId, last, settings.getPageSize());
+            }
+
+            while (!subscriber.closed) {
+                // A dropped subscriber's buffer is full, so it is drained without waiting
+                WalletEventResponse event = subscriber.dropped
+                        ? subscriber.buffer.poll()
+                        : subscriber.buffer.poll(settings.getHeartbeat().toMillis(), TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    if (event.getOffset() > last) {
+                        send(emitter, event);
+                        last = event.getOffset();
+                    }
+                } else if (subscriber.dropped) {
+                    emitter.send(SseEmitter.event().name("dropped").data(Map.of("offset", last), MediaType.APPLICATION_JSON));
+                    break;
+                } else {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away or the emitter already timed out
+            log.debug("Event stream for wallet {} closed at offset {}: {}", walletId, last, ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (RuntimeException ex) {
+            emitter.completeWithError(ex);
+        } finally {
+            subscriber.closed = true;
+            walletEventHub.unsubscribe(walletId, subscriber);
+        }
+    }
+
+    private void send(SseEmitter emitter, WalletEventResponse event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getOffset()))
+                .name("balance")
+                .data(event, MediaType.APPLICATION_JSON));
+    }
+
+    private long startOffset(Long after) {
+        return after != null ? Math.max(after, 0) : walletEventHub.position();
+    }
+
+    private WalletEventsResponse toResponse(String walletId, long from, List<WalletEventResponse> events) {
+        return WalletEventsResponse.builder()
+                .walletId(walletId)
+                .events(events)
+                .nextOffset(events.isEmpty() ? from : events.get(events.size() - 1).getOffset())
+                .build();
+    }
+
+    private static final class StreamSubscriber implements WalletEventHub.Subscriber {
+
+        private final BlockingQueue<WalletEventResponse> buffer;
+        private volatile boolean dropped;
+        private volatile boolean closed;
+
+        private StreamSubscriber(int capacity) {
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public boolean offer(WalletEventResponse event) {
+            return closed || buffer.offer(event);
+        }
+
+        @Override
+        public void dropped() {
+            dropped = true;
+        }
+    }
+}
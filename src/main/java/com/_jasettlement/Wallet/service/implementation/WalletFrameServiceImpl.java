@@ -0,0 +1,172 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.exception.ConcurrentUpdateException;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import com._jasettlement.Wallet.exception.InsufficientFundsException;
+import com._jasettlement.Wallet.exception.InvalidFrameException;
+import com._jasettlement.Wallet.exception.LedgerUnavailableException;
+import com._jasettlement.Wallet.exception.TransferNotFoundException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.metrics.WalletMetrics;
+import com._jasettlement.Wallet.service.WalletFrameService;
+import com._jasettlement.Wallet.service.WalletService;
+import com._jasettlement.Wallet.util.WalletFrameCodec;
+import com._jasettlement.Wallet.util.WalletFrameCodec.RequestFrame;
+import com._jasettlement.Wallet.util.WalletFrameCodec.ResponseFrame;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class WalletFrameServiceImpl implements WalletFrameService {
+
+    // Every wallet is denominated in naira, so the response header names it once for all frames
+    private static final String CURRENCY = "NGN";
+
+    private final WalletService walletService;
+    private final Validator validator;
+    private final WalletMetrics walletMetrics;
+    private final WalletProperties walletProperties;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary framesPerRequest;
+
+    public WalletFrameServiceImpl(WalletService walletService, Validator validator, WalletMetrics walletMetrics,
+                                  WalletProperties walletProperties, MeterRegistry meterRegistry) {
+        this.walletService = walletService;
+        this.validator = validator;
+        this.walletMetrics = walletMetrics;
+        this.walletProperties = walletProperties;
+        this.meterRegistry = meterRegistry;
+        this.framesPerRequest = DistributionSummary.builder("wallet.frames.per.request")
+                .description("Frames pipelined in one request to the binary endpoint")
+                .baseUnit("frames")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void exchange(InputStream input, OutputStream output) throws IOException {
+        WalletProperties.BinaryProtocol settings = walletProperties.getBinaryProtocol();
+        DataInputStream in = new DataInputStream(input);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        WalletFrameCodec.writeResponseHeader(out, CURRENCY);
+
+        int frames = 0;
+        try {
+            RequestFrame frame;
+            while ((frame = WalletFrameCodec.readRequest(in, settings.getMaxFrameBytes())) != null) {
+                if (++frames > settings.getMaxFramesPerRequest()) {
+                    throw new InvalidFrameException("More than " + settings.getMaxFramesPerRequest()
+                            + " frames in one request");
+                }
+                WalletFrameCodec.writeResponse(out, execute(frame));
+                // Send what is ready before waiting on a frame that has not arrived yet
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (InvalidFrameException ex) {
+            // The stream cannot be resynchronised, so report it in a final frame and stop reading
+            WalletFrameCodec.writeResponse(out,
+                    new ResponseFrame(null, WalletFrameCodec.STREAM_ERROR, 400, ex.getMessage()));
+        }
+        out.flush();
+        framesPerRequest.record(frames);
+    }
+
+    private ResponseFrame execute(RequestFrame frame) {
+        if (frame.op() == null) {
+            return new ResponseFrame(null, frame.correlationId(), 400, "Unknown operation");
+        }
+
+        long started = System.nanoTime();
+        ResponseFrame response;
+        try {
+            String invalid = validate(frame.body());
+            if (invalid != null) {
+                response = new ResponseFrame(frame.op(), frame.correlationId(), 400, invalid);
+            } else {
+                Object result = switch (frame.op()) {
+                    case DEPOSIT -> walletService.deposit((DepositRequest) frame.body());
+                    case WITHDRAW -> walletService.withdraw((WithdrawalRequest) frame.body());
+                    case TRANSFER -> walletService.transfer((TransferRequest) frame.body());
+                    case GET_WALLET -> walletService.getWallet((String) frame.body());
+                };
+                response = new ResponseFrame(frame.op(), frame.correlationId(), 200, result);
+            }
+        } catch (RuntimeException ex) {
+            int status = status(ex);
+            String message = status == 500 ? "An unexpected error occurred: " + ex.getMessage() : ex.getMessage();
+            response = new ResponseFrame(frame.op(), frame.correlationId(), status, message);
+        }
+
+        Timer.builder("wallet.frames.operations")
+                .description("Operations run through the binary endpoint")
+                .tag("op", frame.op().name())
+                .tag("status", String.valueOf(response.status()))
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    // The same checks @Valid applies to the JSON endpoints, reported as one message
+    private String validate(Object body) {
+        if (body instanceof String walletId) {
+            return walletId.isBlank() ? "Validation failed: walletId: Wallet ID is required" : null;
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(body);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ", "Validation failed: ", ""));
+    }
+
+    // Mirrors GlobalExceptionHandler so both endpoints report errors the same way
+    private int status(RuntimeException ex) {
+        if (ex instanceof WalletNotFoundException) {
+            walletMetrics.recordOutcome(WalletMetrics.OUTCOME_WALLET_NOT_FOUND);
+            return 404;
+        }
+        if (ex instanceof TransferNotFoundException) {
+            return 404;
+        }
+        if (ex instanceof InsufficientFundsException) {
+            walletMetrics.recordOutcome(WalletMetrics.OUTCOME_INSUFFICIENT_FUNDS);
+            return 400;
+        }
+        if (ex instanceof DuplicateTransactionException) {
+            walletMetrics.recordOutcome(WalletMetrics.OUTCOME_DUPLICATE_TRANSACTION);
+            return 409;
+        }
+        if (ex instanceof ConcurrentUpdateException) {
+            walletMetrics.recordOutcome(WalletMetrics.OUTCOME_CONCURRENT_UPDATE);
+            return 409;
+        }
+        if (ex instanceof LedgerUnavailableException) {
+            return 503;
+        }
+        log.error("Binary frame operation failed", ex);
+        return 500;
+    }
+}
@@ -0,0 +1,92 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.util.PermutedWalletIdSequence;
+import com._jasettlement.Wallet.util.WalletIdGenerator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out walletIds for new wallets. RANDOM keeps the original random suffix; PERMUTED_SEQUENCE
+ * draws collision-free IDs from {@link PermutedWalletIdSequence}, reserving counter blocks in the
+ * wallet_id_block table.
+ * <p>
+ * A day's counter is never reset, because the ID has no year: {@code wallet.ids.space.used} reports
+ * how much of the current MMDD's lifetime space is gone, and a warning is logged once it passes 80%.
+ */
+@Component
+@Slf4j
+public class WalletIdAllocator {
+
+    private static final String ADVANCE_SQL = "UPDATE wallet_id_block SET next_counter = next_counter + ? WHERE mmdd = ?";
+    private static final String READ_SQL = "SELECT next_counter FROM wallet_id_block WHERE mmdd = ?";
+    private static final String INSERT_SQL = "INSERT INTO wallet_id_block (mmdd, next_counter) VALUES (?, ?)";
+
+    private static final double SPACE_WARNING_RATIO = 0.8;
+
+    private final WalletProperties.WalletIds settings;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate blockTransaction;
+    private final PermutedWalletIdSequence sequence;
+
+    // Share of the latest MMDD's counter space reserved so far, across every year
+    private volatile double spaceUsed;
+    private volatile String warnedMmdd;
+
+    public WalletIdAllocator(WalletProperties walletProperties, JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.settings = walletProperties.getIds();
+        if (settings.getMode() == WalletProperties.WalletIds.Mode.PERMUTED_SEQUENCE && settings.getPermutationKey() == null) {
+            throw new IllegalStateException("wallet.ids.permutation-key must be set (WALLET_ID_PERMUTATION_KEY) "
+                    + "when wallet.ids.mode is PERMUTED_SEQUENCE");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockTransaction = new TransactionTemplate(transactionManager);
+        // Reserve blocks in their own transaction so a rolled-back caller never hands a block out twice
+        blockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.sequence = settings.getPermutationKey() != null
+                ? new PermutedWalletIdSequence(this::allocateBlock, settings.getBlockSize(), settings.getPermutationKey())
+                : null;
+
+        Gauge.builder("wallet.ids.space.used", this, allocator -> allocator.spaceUsed)
+                .description("Share of the current MMDD's wallet ID space issued over the service's lifetime")
+                .register(meterRegistry);
+    }
+
+    public String nextWalletId() {
+        return settings.getMode() == WalletProperties.WalletIds.Mode.PERMUTED_SEQUENCE
+                ? sequence.next()
+                : WalletIdGenerator.generate();
+    }
+
+    private long allocateBlock(String mmdd, int size) {
+        Long start = blockTransaction.execute(status -> {
+            if (jdbcTemplate.update(ADVANCE_SQL, size, mmdd) == 0) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, mmdd, (long) size);
+                    return 0L;
+                } catch (DuplicateKeyException ex) {
+                    // Another instance opened the day first
+                    jdbcTemplate.update(ADVANCE_SQL, size, mmdd);
+                }
+            }
+            return jdbcTemplate.queryForObject(READ_SQL, Long.class, mmdd) - size;
+        });
+        log.debug("Reserved wallet ID counters {}..{} for {}", start, start + size - 1, mmdd);
+
+        spaceUsed = Math.min(1.0, (double) (start + size) / PermutedWalletIdSequence.DOMAIN);
+        if (spaceUsed >= SPACE_WARNING_RATIO && !mmdd.equals(warnedMmdd)) {
+            warnedMmdd = mmdd;
+            log.warn("{}% of the wallet ID space for MMDD {} has been issued; new wallets fail on that day once it runs out",
+                    Math.round(spaceUsed * 100), mmdd);
+        }
+        return start;
+    }
+}
@@ -0,0 +1,121 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.index.MappedWalletIndex;
+import com._jasettlement.Wallet.metrics.WalletMetrics;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.util.WalletIdGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Read-through cache of the near-immutable part of a wallet (identity, owner, currency, stripe count)
+ * keyed by walletId, with a short-lived negative cache so scans over unknown IDs do not reach the database.
+ * Balances are never cached here; they live on the wallet row and change with every posting.
+ * Hit/miss/eviction statistics are published as the cache.* meters for "walletMetadata" and
+ * "walletMetadataMisses".
+ */
+@Component
+public class WalletMetadataCache {
+
+    /**
+     * {@code stripeCount} only changes through hot wallet mode, which invalidates the entry. A stale
+     * count is harmless: a stripe posting to a missing stripe falls back to the wallet lock.
+     */
+    public record WalletMetadata(String id, String walletId, String fullName, String email,
+                                 String currency, LocalDateTime createdAt, int stripeCount) {
+
+        static WalletMetadata of(Wallet wallet) {
+            return new WalletMetadata(wallet.getId(), wallet.getWalletId(), wallet.getFullName(),
+                    wallet.getEmail(), wallet.getCurrency(), wallet.getCreatedAt(),
+                    wallet.getStripeCount() != null ? wallet.getStripeCount() : 0);
+        }
+    }
+
+    private final WalletRepository walletRepository;
+    private final WalletMetrics walletMetrics;
+    private final Cache<String, WalletMetadata> wallets;
+    private final Cache<String, Boolean> unknownWallets;
+    private final Optional<MappedWalletIndex> walletIndex;
+
+    public WalletMetadataCache(WalletRepository walletRepository, WalletMetrics walletMetrics,
+                               WalletProperties walletProperties, MeterRegistry meterRegistry,
+                               Optional<MappedWalletIndex> walletIndex) {
+        this.walletRepository = walletRepository;
+        this.walletMetrics = walletMetrics;
+        this.walletIndex = walletIndex;
+
+        WalletProperties.MetadataCache settings = walletProperties.getMetadataCache();
+        this.wallets = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxEntries())
+                .expireAfterWrite(settings.getTtl())
+                .recordStats()
+                .build();
+        this.unknownWallets = Caffeine.newBuilder()
+                .maximumSize(settings.getNegativeMaxEntries())
+                .expireAfterWrite(settings.getNegativeTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, wallets, "walletMetadata");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownWallets, "walletMetadataMisses");
+    }
+
+    public Optional<WalletMetadata> find(String walletId) {
+        if (unknownWallets.getIfPresent(walletId) != null) {
+            return Optional.empty();
+        }
+
+        // A mistyped checked ID fails its Luhn digit and never reaches the database
+        if (!WalletIdGenerator.hasValidCheckDigit(walletId)) {
+            return Optional.empty();
+        }
+
+        // The mapped index answers "no such wallet" without a query or a negative-cache entry
+        if (walletIndex.isPresent() && walletIndex.get().isAbsent(walletId)) {
+            return Optional.empty();
+        }
+
+        WalletMetadata cached = wallets.getIfPresent(walletId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Loaded inside the negative cache's computation: concurrent misses share one query, and
+        // invalidate() waits for an in-flight load, so a miss read just before a wallet commits is
+        // never stored after the creation has invalidated it
+        WalletMetadata[] loaded = new WalletMetadata[1];
+        unknownWallets.get(walletId, id -> {
+            loaded[0] = walletMetrics
+                    .observeQuery("findByWalletId", () -> walletRepository.findByWalletId(id))
+                    .map(WalletMetadata::of)
+                    .orElse(null);
+            return loaded[0] == null ? Boolean.TRUE : null;
+        });
+        if (loaded[0] != null) {
+            wallets.put(walletId, loaded[0]);
+        }
+        return Optional.ofNullable(loaded[0]);
+    }
+
+    public WalletMetadata require(String walletId) {
+        return find(walletId).orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + walletId));
+    }
+
+    /**
+     * Must be called whenever a wallet is created or its metadata changes, after the change has
+     * committed.
+     */
+    public void invalidate(String walletId) {
+        wallets.invalidate(walletId);
+        unknownWallets.invalidate(walletId);
+    }
+}
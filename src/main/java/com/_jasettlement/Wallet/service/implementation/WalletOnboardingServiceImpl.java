@@ -0,0 +1,321 @@
+package com._jasettlement.Wallet.service.implementation;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
+import com._jasettlement.Wallet.dto.response.WalletOnboardingResult;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.index.MappedWalletIndex;
+import com._jasettlement.Wallet.repository.WalletJdbcRepository;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.service.WalletOnboardingService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a bulk upload through in fixed-size chunks, so memory depends on the chunk size and not on
+ * the file. Each chunk resolves duplicate emails with one IN query plus a set of the chunk's own
+ * emails, inserts the new wallets as one JDBC batch and writes its results before the next chunk is read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalletOnboardingServiceImpl implements WalletOnboardingService {
+
+    private static final List<String> CSV_COLUMNS = List.of("fullname", "email", "bvn");
+
+    private final WalletRepository walletRepository;
+    private final WalletJdbcRepository walletJdbcRepository;
+    private final WalletIdAllocator walletIdAllocator;
+    private final WalletMetadataCache walletMetadataCache;
+    private final Optional<MappedWalletIndex> walletIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final WalletProperties walletProperties;
+
+    @Override
+    public void onboard(InputStream input, Format format, OutputStream output) {
+        int chunkSize = walletProperties.getOnboarding().getChunkSize();
+        long record = 0, created = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            if (format == Format.CSV) {
+                csvColumns = readCsvHeader(reader.readLine());
+                if (csvColumns == null) {
+                    writer.write(objectMapper.writeValueAsString(PendingRecord.invalid(0, null,
+                            "CSV header must contain the columns fullName, email and bvn").result()));
+                    writer.newLine();
+                    return;
+                }
+            }
+
+            List<PendingRecord> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                record++;
+                chunk.add(parse(record, line, format, csvColumns));
+                if (chunk.size() == chunkSize) {
+                    created += processChunk(chunk, writer);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                created += processChunk(chunk, writer);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        log.info("Bulk onboarding finished: {} wallets created, {} records rejected", created, record - created);
+    }
+
+    /**
+     * Resolves, inserts and reports one chunk. Returns the number of wallets created.
+     */
+    private long processChunk(List<PendingRecord> chunk, BufferedWriter writer) throws IOException {
+        Set<String> chunkEmails = chunk.stream()
+                .filter(pending -> pending.request() != null)
+                .map(pending -> pending.request().getEmail())
+                .collect(Collectors.toSet());
+        Set<String> existing = chunkEmails.isEmpty() ? Set.of() : new HashSet<>(walletRepository.findExistingEmails(chunkEmails));
+
+        Set<String> seen = new HashSet<>();
+        List<PendingRecord> accepted = new ArrayList<>();
+        for (PendingRecord pending : chunk) {
+            if (pending.result() != null) {
+                continue;
+            }
+            String email = pending.request().getEmail();
+            if (existing.contains(email) || !seen.add(email)) {
+                pending.reject(WalletOnboardingResult.Status.DUPLICATE, "Wallet already exists for email: " + email);
+            } else {
+                accepted.add(pending);
+            }
+        }
+
+        insert(accepted);
+
+        long created = 0;
+        for (PendingRecord pending : chunk) {
+            if (pending.result().getStatus() == WalletOnboardingResult.Status.CREATED) {
+                created++;
+            }
+            writer.write(objectMapper.writeValueAsString(pending.result()));
+            writer.newLine();
+        }
+        writer.flush();
+        return created;
+    }
+
+    private void insert(List<PendingRecord> accepted) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        accepted.forEach(pending -> pending.wallet = toWallet(pending.request()));
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    walletJdbcRepository.insertAll(accepted.stream().map(pending -> pending.wallet).toList()));
+            accepted.forEach(this::markCreated);
+        } catch (DataIntegrityViolationException ex) {
+            // An email was registered between the IN query and the batch; settle the chunk row by row
+            for (PendingRecord pending : accepted) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> walletJdbcRepository.insertAll(List.of(pending.wallet)));
+                    markCreated(pending);
+                } catch (DataIntegrityViolationException rowEx) {
+                    pending.reject(WalletOnboardingResult.Status.DUPLICATE,
+                            "Wallet already exists for email: " + pending.request().getEmail());
+                }
+            }
+        }
+    }
+
+    private void markCreated(PendingRecord pending) {
+        Wallet wallet = pending.wallet;
+        walletMetadataCache.invalidate(wallet.getWalletId());
+        walletIndex.ifPresent(index -> index.put(wallet.getWalletId(), wallet.getId(),
+                wallet.getBalanceMinorUnits(), wallet.getLedgerSequence(), wallet.getUpdatedAt()));
+        pending.result = WalletOnboardingResult.builder()
+                .record(pending.record())
+                .status(WalletOnboardingResult.Status.CREATED)
+                .email(wallet.getEmail())
+                .walletId(wallet.getWalletId())
+                .build();
+    }
+
+    private Wallet toWallet(CreateWalletRequest request) {
+        return Wallet.builder()
+                .walletId(walletIdAllocator.nextWalletId())
+                .fullName(request.getFullName())
+                .email(request.getEmail())
+                .bvn(request.getBvn())
+                .currency("NGN")
+                .build();
+    }
+
+    private PendingRecord parse(long record, String line, Format format, Map<String, Integer> csvColumns) {
+        CreateWalletRequest request;
+        try {
+            request = format == Format.CSV ? fromCsv(line, csvColumns) : objectMapper.readValue(line, CreateWalletRequest.class);
+        } catch (JacksonException | IllegalArgumentException ex) {
+            return PendingRecord.invalid(record, null, "Malformed record: " + ex.getMessage());
+        }
+
+        Set<ConstraintViolation<CreateWalletRequest>> violations = validator.validate(request);
+        if (request.getEmail() == null || request.getEmail().isBlank()) {
+            return PendingRecord.invalid(record, request.getEmail(), "email is required");
+        }
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return PendingRecord.invalid(record, request.getEmail(), error);
+        }
+        return new PendingRecord(record, request);
+    }
+
+    /**
+     * Maps lower-cased column names to positions, or returns null when a required column is missing.
+     */
+    private Map<String, Integer> readCsvHeader(String header) {
+        if (header == null) {
+            return null;
+        }
+        List<String> names;
+        try {
+            names = splitCsv(header);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns.keySet().containsAll(CSV_COLUMNS) ? columns : null;
+    }
+
+    private CreateWalletRequest fromCsv(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        CreateWalletRequest request = new CreateWalletRequest();
+        request.setFullName(field(fields, columns.get("fullname")));
+        request.setEmail(field(fields, columns.get("email")));
+        request.setBvn(field(fields, columns.get("bvn")));
+        return request;
+    }
+
+    private String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column).trim() : null;
+    }
+
+    /**
+     * Splits one RFC 4180 line: fields may be quoted, and "" inside quotes is a literal quote.
+     * Quoted fields spanning several lines are not supported.
+     */
+    private List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class PendingRecord {
+        private final long record;
+        private final CreateWalletRequest request;
+        private Wallet wallet;
+        private WalletOnboardingResult result;
+
+        PendingRecord(long record, CreateWalletRequest request) {
+            this.record = record;
+            this.request = request;
+        }
+
+        static PendingRecord invalid(long record, String email, String error) {
+            PendingRecord pending = new PendingRecord(record, null);
+            pending.result = WalletOnboardingResult.builder()
+                    .record(record)
+                    .status(WalletOnboardingResult.Status.INVALID)
+                    .email(email)
+                    .error(error)
+                    .build();
+            return pending;
+        }
+
+        long record() {
+            return record;
+        }
+
+        CreateWalletRequest request() {
+            return request;
+        }
+
+        WalletOnboardingResult result() {
+            return result;
+        }
+
+        void reject(WalletOnboardingResult.Status status, String error) {
+            result = WalletOnboardingResult.builder()
+                    .record(record)
+                    .status(status)
+                    .email(request != null ? request.getEmail() : null)
+                    .error(error)
+                    .build();
+        }
+    }
+}
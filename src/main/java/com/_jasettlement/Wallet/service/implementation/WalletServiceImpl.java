@@ -1,36 +1,74 @@
 package com._jasettlement.Wallet.service.implementation;
 
+import com._jasettlement.Wallet.dto.request.CaptureHoldRequest;
 import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
 import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.HoldRequest;
+import com._jasettlement.Wallet.dto.request.TransactionHistoryRequest;
 import com._jasettlement.Wallet.dto.request.TransferRequest;
 import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.FundsHoldResponse;
+import com._jasettlement.Wallet.dto.response.TransactionHistoryResponse;
 import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
 import com._jasettlement.Wallet.dto.response.WalletResponse;
 import com._jasettlement.Wallet.entity.Transaction;
 import com._jasettlement.Wallet.entity.TransactionType;
 import com._jasettlement.Wallet.entity.Wallet;
 import com._jasettlement.Wallet.exception.DuplicateEmailException;
-import com._jasettlement.Wallet.exception.InsufficientFundsException;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import com._jasettlement.Wallet.exception.TransferNotFoundException;
 import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.index.MappedWalletIndex;
+import com._jasettlement.Wallet.metrics.WalletMetrics;
 import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.repository.WalletBalanceView;
 import com._jasettlement.Wallet.repository.WalletRepository;
 import com._jasettlement.Wallet.service.WalletService;
+import com._jasettlement.Wallet.util.TransactionCursor;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Observed(name = "wallet.service")
 public class WalletServiceImpl implements WalletService {
 
+    // Open-ended bounds keep the history query free of nullable parameters
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     private final WalletRepository walletRepository;
     private final TransactionRepository transactionRepository;
+    private final WalletConcurrencyControl concurrencyControl;
+    private final LedgerPoster ledgerPoster;
+    private final IdempotencyGuard idempotencyGuard;
+    private final WalletMetrics walletMetrics;
+    private final WalletMetadataCache walletMetadataCache;
+    private final Optional<MappedWalletIndex> walletIndex;
+    private final WalletIdAllocator walletIdAllocator;
+    private final TransferLookup transferLookup;
+    private final StripedBalances stripedBalances;
+    private final Optional<DepositBatcher> depositBatcher;
+    private final AvailableBalanceTracker availableBalances;
+    private final FundsHolds fundsHolds;
 
 
     @Override
@@ -41,135 +79,398 @@ public class WalletServiceImpl implements WalletService {
         }
 
         Wallet wallet = Wallet.builder()
+                .walletId(walletIdAllocator.nextWalletId())
                 .fullName(request.getFullName())
                 .email(request.getEmail())
                 .bvn(request.getBvn())
                 .build();
 
         wallet = walletRepository.save(wallet);
+        walletMetadataCache.invalidate(wallet.getWalletId());
+        Wallet created = wallet;
+        walletIndex.ifPresent(index -> index.put(created.getWalletId(), created.getId(),
+                created.getBalanceMinorUnits(), created.getLedgerSequence(), created.getUpdatedAt()));
         log.info("Created wallet: {} with ID: {}", wallet.getWalletId(), wallet.getId());
 
         return mapToWalletResponse(wallet);
     }
 
     @Override
-    @Transactional
     public TransactionResponse deposit(DepositRequest request) {
+        String idempotencyKey = normalizeKey(request.getIdempotencyKey());
+
+        // Reject unknown wallets from the metadata cache before opening a transaction
+        int stripeCount = walletMetadataCache.require(request.getWalletId()).stripeCount();
+
+        String guardKey = idempotencyKey != null ? LedgerReferences.deposit(idempotencyKey) : null;
+        TransactionResponse response = idempotencyGuard.execute(guardKey, TransactionResponse.class, () -> {
+            String reference = guardKey != null ? guardKey : UUID.randomUUID().toString();
+
+            return replayOrPost(reference, guardKey != null, () -> {
+                // With batching on, plain wallets join the next group commit; hot wallets already avoid the row lock
+                if (depositBatcher.isPresent() && stripeCount == 0) {
+                    return postBatched(request, reference);
+                }
+                return concurrencyControl.inTransaction(() -> {
+                    // A hot wallet takes the credit on one of its stripes, leaving the wallet row unlocked
+                    if (stripeCount > 0) {
+                        Transaction striped = stripedBalances.credit(request.getWalletId(), stripeCount,
+                                TransactionType.CREDIT, request.getAmountMinorUnits(), reference, request.getDescription());
+                        if (striped != null) {
+                            Transaction transaction = ledgerPoster.record(striped).get(0);
+                            log.info("Processed striped CREDIT transaction: {} for wallet: {}", transaction.getId(), request.getWalletId());
+                            return mapToTransactionResponse(transaction);
+                        }
+                    }
+
+                    // Take the wallet's posting lock
+                    Wallet wallet = concurrencyControl.lock(request.getWalletId());
+
+                    Transaction transaction = ledgerPoster.record(ledgerPoster.apply(wallet, TransactionType.CREDIT,
+                            request.getAmountMinorUnits(), reference, request.getDescription())).get(0);
+                    log.info("Processed CREDIT transaction: {} for wallet: {}", transaction.getId(), wallet.getWalletId());
+
+                    return mapToTransactionResponse(transaction);
+                });
+            });
+        });
+
+        return verifyReplay(response, idempotencyKey, TransactionType.CREDIT,
+                request.getWalletId(), request.getAmountMinorUnits());
+    }
 
-        String reference = UUID.randomUUID().toString();
-
-        var existingTransaction = transactionRepository.findByReference(reference);
-        if (existingTransaction.isPresent()) {
-            log.warn("Duplicate transaction detected: {}", reference);
-            return mapToTransactionResponse(existingTransaction.get());
+    /**
+     * Hands the deposit to the {@link DepositBatcher} and waits until its batch has committed.
+     */
+    private TransactionResponse postBatched(DepositRequest request, String reference) {
+        CompletableFuture<Transaction> posting = depositBatcher.orElseThrow().submit(request.getWalletId(),
+                request.getAmountMinorUnits(), reference, request.getDescription());
+        Transaction transaction;
+        try {
+            transaction = posting.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
         }
+        log.info("Processed CREDIT transaction: {} for wallet: {}", transaction.getId(), request.getWalletId());
+        return mapToTransactionResponse(transaction);
+    }
+
+    @Override
+    public TransactionResponse withdraw(WithdrawalRequest request) {
+        String idempotencyKey = normalizeKey(request.getIdempotencyKey());
+
+        // Reject unknown wallets from the metadata cache before opening a transaction
+        int stripeCount = walletMetadataCache.require(request.getWalletId()).stripeCount();
+
+        String guardKey = idempotencyKey != null ? LedgerReferences.withdrawal(idempotencyKey) : null;
+        TransactionResponse response = idempotencyGuard.execute(guardKey, TransactionResponse.class, () -> {
+            String reference = guardKey != null ? guardKey : UUID.randomUUID().toString();
+
+            return replayOrPost(reference, guardKey != null, () -> concurrencyControl.inTransaction(() -> {
+                // A hot wallet pays from a stripe that covers the amount; otherwise the lock below sweeps it
+                if (stripeCount > 0) {
+                    Transaction striped = stripedBalances.draw(request.getWalletId(), TransactionType.DEBIT,
+                            request.getAmountMinorUnits(), reference, request.getDescription());
+                    if (striped != null) {
+                        Transaction transaction = ledgerPoster.record(striped).get(0);
+                        log.info("Processed striped DEBIT transaction: {} for wallet: {}", transaction.getId(), request.getWalletId());
+                        return mapToTransactionResponse(transaction);
+                    }
+                }
+
+                // Take the wallet's posting lock
+                Wallet wallet = concurrencyControl.lock(request.getWalletId());
+
+                // Check sufficient funds, net of active holds, and reserve them until the debit commits
+                availableBalances.reserveDebitInTransaction(request.getWalletId(), request.getAmountMinorUnits(),
+                        wallet.getBalanceMinorUnits(), 0);
+
+                Transaction transaction = ledgerPoster.record(ledgerPoster.apply(wallet, TransactionType.DEBIT,
+                        request.getAmountMinorUnits(), reference, request.getDescription())).get(0);
+                log.info("Processed DEBIT transaction: {} for wallet: {}", transaction.getId(), wallet.getWalletId());
+
+                return mapToTransactionResponse(transaction);
+            }));
+        });
+
+        return verifyReplay(response, idempotencyKey, TransactionType.DEBIT,
+                request.getWalletId(), request.getAmountMinorUnits());
+    }
 
-        // Verify wallet exists
-        Wallet wallet = walletRepository.findByWalletId(request.getWalletId())
-                .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + request.getWalletId()));
 
-        Transaction transaction = Transaction.builder()
-                .reference(reference)
-                .walletId(request.getWalletId())
-                .type(TransactionType.CREDIT)
-                .amountMinorUnits(request.getAmountMinorUnits())
-                .description(request.getDescription())
-                .build();
 
-        transaction = transactionRepository.save(transaction);
-        log.info("Processed CREDIT transaction: {} for wallet: {}", transaction.getId(), wallet.getWalletId());
+    @Override
+    public TransferResponse transfer(TransferRequest request) {
+        String idempotencyKey = normalizeKey(request.getIdempotencyKey());
 
-        return mapToTransactionResponse(transaction);
+        // Reject unknown wallets from the metadata cache before opening a transaction
+        walletMetadataCache.require(request.getFromWalletId());
+        walletMetadataCache.require(request.getToWalletId());
+
+        String guardKey = idempotencyKey != null ? LedgerReferences.transfer(idempotencyKey) : null;
+        TransferResponse response = idempotencyGuard.execute(guardKey, TransferResponse.class, () -> {
+            String reference = guardKey != null ? guardKey : UUID.randomUUID().toString();
+
+            return replayOrPostTransfer(reference, guardKey != null, () -> concurrencyControl.inTransaction(() ->
+                    postTransfer(request.getFromWalletId(), request.getToWalletId(), request.getAmountMinorUnits(),
+                            reference, request.getDescription(), null)));
+        });
+
+        return verifyTransferReplay(response, idempotencyKey, request.getFromWalletId(),
+                request.getToWalletId(), request.getAmountMinorUnits());
     }
 
     @Override
-    @Transactional
-    public TransactionResponse withdraw(WithdrawalRequest request) {
+    @Transactional(readOnly = true)
+    public TransferResponse getTransfer(String transferId) {
+        return transferLookup.findById(transferId)
+                .orElseThrow(() -> new TransferNotFoundException("Transfer not found: " + transferId));
+    }
 
-        String reference = UUID.randomUUID().toString();
+    @Override
+    public TransferResponse reverseTransfer(String transferId) {
+        TransferResponse original = getTransfer(transferId);
+        if (original.getReversalOf() != null) {
+            throw new DuplicateTransactionException("Transfer " + transferId + " is itself a reversal");
+        }
+
+        if (original.getReversedBy() != null) {
+            return getTransfer(original.getReversedBy());
+        }
 
-        // Verify wallet exists
-        Wallet wallet = walletRepository.findByWalletId(request.getWalletId())
-                .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + request.getWalletId()));
+        // The reversal's reference derives from the original's id, so every retry resolves to the same reversal
+        String reference = LedgerReferences.reversal(transferId);
+        return idempotencyGuard.execute(reference, TransferResponse.class,
+                () -> replayOrPostTransfer(reference, true, () -> concurrencyControl.inTransaction(() ->
+                        postTransfer(original.getToWalletId(), original.getFromWalletId(), original.getAmountMinorUnits(),
+                                reference, "Reversal of " + original.getReference(), transferId))));
+    }
 
-        // Check sufficient funds
-        Long currentBalance = transactionRepository.calculateBalance(request.getWalletId());
-        if (currentBalance < request.getAmountMinorUnits()) {
-            throw new InsufficientFundsException("Insufficient funds. Available: " + currentBalance + ", Required: " + request.getAmountMinorUnits());
+    /**
+     * Locks both wallets in a deterministic order and writes the transfer row and its two legs. A hot
+     * destination is not locked: its credit leg goes to one of its stripes.
+     */
+    private TransferResponse postTransfer(String fromWalletId, String toWalletId, long amountMinorUnits,
+                                          String reference, String description, String reversalOf) {
+        int toStripeCount = walletMetadataCache.require(toWalletId).stripeCount();
+        if (toStripeCount > 0 && !fromWalletId.equals(toWalletId)) {
+            Wallet fromWallet = concurrencyControl.lock(fromWalletId);
+            requireFunds(fromWallet, amountMinorUnits);
+            Transaction credit = stripedBalances.credit(toWalletId, toStripeCount, TransactionType.TRANSFER_IN,
+                    amountMinorUnits, reference + "_credit", description);
+            if (credit != null) {
+                LedgerPoster.TransferPosting posting = ledgerPoster.recordTransfer(ledgerPoster.applyTransfer(
+                        fromWallet, credit, amountMinorUnits, reference, description, reversalOf));
+                log.info("Transfer completed: {} -> {} (striped, reference: {})", fromWalletId, toWalletId, reference);
+                return transferLookup.toResponse(posting.transfer(), posting.debit(), posting.credit(), null);
+            }
         }
 
-        Transaction transaction = Transaction.builder()
-                .reference(reference)
-                .walletId(request.getWalletId())
-                .type(TransactionType.DEBIT)
-                .amountMinorUnits(request.getAmountMinorUnits())
-                .description(request.getDescription())
-                .build();
+        Map<String, Wallet> wallets = concurrencyControl.lockAll(List.of(fromWalletId, toWalletId));
+        Wallet fromWallet = wallets.get(fromWalletId);
+        Wallet toWallet = wallets.get(toWalletId);
 
-        transaction = transactionRepository.save(transaction);
-        log.info("Processed DEBIT transaction: {} for wallet: {}", transaction.getId(), wallet.getWalletId());
+        requireFunds(fromWallet, amountMinorUnits);
 
-        return mapToTransactionResponse(transaction);
-    }
+        LedgerPoster.TransferPosting posting = ledgerPoster.recordTransfer(ledgerPoster.applyTransfer(
+                fromWallet, toWallet, amountMinorUnits, reference, description, reversalOf));
+
+        log.info("Transfer completed: {} -> {} (reference: {})",
+                fromWallet.getWalletId(), toWallet.getWalletId(), reference);
 
+        return transferLookup.toResponse(posting.transfer(), posting.debit(), posting.credit(), null);
+    }
 
+    private void requireFunds(Wallet wallet, long amountMinorUnits) {
+        availableBalances.reserveDebitInTransaction(wallet.getWalletId(), amountMinorUnits,
+                wallet.getBalanceMinorUnits(), 0);
+    }
 
     @Override
-    @Transactional
-    public TransactionResponse transfer(TransferRequest request) {
+    public FundsHoldResponse holdFunds(HoldRequest request) {
+        return fundsHolds.hold(request);
+    }
 
-        String reference = UUID.randomUUID().toString();
+    @Override
+    public FundsHoldResponse captureHold(String holdId, CaptureHoldRequest request) {
+        return fundsHolds.capture(holdId, request, (hold, amountMinorUnits, reference, description) ->
+                concurrencyControl.inTransaction(() -> {
+                    Wallet wallet = concurrencyControl.lock(hold.getWalletId());
+                    // Claimed under the wallet lock, so the hold's reservation moves to the debit in one step
+                    fundsHolds.claim(hold, amountMinorUnits);
+                    availableBalances.reserveDebitInTransaction(hold.getWalletId(), amountMinorUnits,
+                            wallet.getBalanceMinorUnits(), hold.getAmountMinorUnits());
+                    Transaction transaction = ledgerPoster.record(ledgerPoster.apply(wallet, TransactionType.DEBIT,
+                            amountMinorUnits, reference, description)).get(0);
+                    fundsHolds.recordCapture(hold, transaction.getId());
+                    return transaction;
+                }));
+    }
 
-        // Verify both wallets exist
-        Wallet fromWallet = walletRepository.findByWalletId(request.getFromWalletId())
-                .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + request.getFromWalletId()));
+    @Override
+    public FundsHoldResponse releaseHold(String holdId) {
+        return fundsHolds.release(holdId);
+    }
 
-        Wallet toWallet = walletRepository.findByWalletId(request.getToWalletId())
-                .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + request.getToWalletId()));
+    @Override
+    public FundsHoldResponse getHold(String holdId) {
+        return fundsHolds.get(holdId);
+    }
 
-        // Check sufficient funds
-        Long fromWalletBalance = transactionRepository.calculateBalance(request.getFromWalletId());
-        if (fromWalletBalance < request.getAmountMinorUnits()) {
-            throw new InsufficientFundsException("Insufficient funds. Available: " + fromWalletBalance + ", Required: " + request.getAmountMinorUnits());
+    @Override
+    public WalletResponse getWallet(String walletId) {
+        WalletMetadataCache.WalletMetadata metadata = walletMetadataCache.require(walletId);
+
+        // The index holds a hot wallet's swept balance only, so hot wallets always read their stripes
+        if (walletIndex.isPresent() && metadata.stripeCount() == 0) {
+            long indexedBalance = walletIndex.get().balance(walletId);
+            if (indexedBalance != MappedWalletIndex.MISSING) {
+                return WalletResponse.builder()
+                        .id(metadata.id())
+                        .createdAt(metadata.createdAt())
+                        .walletId(metadata.walletId())
+                        .ownerName(metadata.fullName())
+                        .balanceMinorUnits(indexedBalance)
+                        .currency("NGN")
+                        .updatedAt(walletIndex.get().updatedAt(walletId))
+                        .build();
+            }
         }
 
-        Transaction debitTxn = Transaction.builder()
-                .reference(reference + "_debit")
-                .walletId(request.getFromWalletId())
-                .type(TransactionType.TRANSFER_OUT)
-                .amountMinorUnits(request.getAmountMinorUnits())
-                .description(request.getDescription())
+        WalletBalanceView balance = (metadata.stripeCount() > 0
+                ? walletMetrics.observeQuery("findStripedBalanceByWalletId", () -> walletRepository.findStripedBalanceByWalletId(walletId))
+                : walletMetrics.observeQuery("findBalanceByWalletId", () -> walletRepository.findBalanceByWalletId(walletId)))
+                .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + walletId));
+
+        return WalletResponse.builder()
+                .id(metadata.id())
+                .createdAt(metadata.createdAt())
+                .walletId(metadata.walletId())
+                .ownerName(metadata.fullName())
+                .balanceMinorUnits(balance.getBalanceMinorUnits())
+                .currency("NGN")
+                .updatedAt(balance.getUpdatedAt())
                 .build();
-        debitTxn = transactionRepository.save(debitTxn);
-
-        Transaction creditTxn = Transaction.builder()
-                .reference(reference + "_credit")
-                .walletId(request.getToWalletId())
-                .type(TransactionType.TRANSFER_IN)
-                .amountMinorUnits(request.getAmountMinorUnits())
-                .description(request.getDescription())
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistoryResponse getTransactionHistory(String walletId, TransactionHistoryRequest request) {
+        walletMetadataCache.require(walletId);
+
+        Set<TransactionType> types = request.getType() == null || request.getType().isEmpty()
+                ? EnumSet.allOf(TransactionType.class)
+                : request.getType();
+        LocalDateTime from = request.getFrom() != null ? request.getFrom() : HISTORY_START;
+        LocalDateTime to = request.getTo() != null ? request.getTo() : HISTORY_END;
+        TransactionCursor cursor = request.getCursor() != null && !request.getCursor().isBlank()
+                ? TransactionCursor.decode(request.getCursor(), walletId)
+                : new TransactionCursor(walletId, to, "");
+        int limit = request.getLimit();
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Transaction> rows = walletMetrics.observeQuery("findHistoryPage", () -> transactionRepository.findHistoryPage(
+                walletId, types, from, to, cursor.createdAt(), cursor.id(), PageRequest.of(0, limit + 1)));
+        walletMetrics.recordWalletLedgerRowsRead("findHistoryPage", rows.size());
+        boolean hasMore = rows.size() > limit;
+        List<Transaction> page = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(walletId, last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return TransactionHistoryResponse.builder()
+                .walletId(walletId)
+                .transactions(page.stream().map(this::mapToTransactionResponse).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
                 .build();
-        transactionRepository.save(creditTxn);
+    }
 
-        log.info("Transfer completed: {} -> {} (reference: {})",
-                fromWallet.getWalletId(), toWallet.getWalletId(), reference);
+    /**
+     * Runs a posting whose ledger reference came from a client idempotency key, answering from the
+     * unique reference index when that key was already committed (e.g. after the in-memory entry expired).
+     */
+    private TransactionResponse replayOrPost(String reference, boolean clientSupplied,
+                                             Supplier<TransactionResponse> posting) {
+        if (!clientSupplied) {
+            return posting.get();
+        }
 
-        return mapToTransactionResponse(debitTxn);
+        var existingTransaction = transactionRepository.findByReference(reference);
+        if (existingTransaction.isPresent()) {
+            log.warn("Duplicate transaction detected: {}", reference);
+            return mapToTransactionResponse(existingTransaction.get());
+        }
+
+        try {
+            return posting.get();
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance committed the same key between the lookup and our insert
+            return transactionRepository.findByReference(reference)
+                    .map(this::mapToTransactionResponse)
+                    .orElseThrow(() -> ex);
+        }
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public WalletResponse getWallet(String walletId) {
-        Wallet wallet = walletRepository.findByWalletId(walletId)
-                .orElseThrow(() -> new WalletNotFoundException("Wallet not found: " + walletId));
+    /**
+     * Transfer counterpart of {@link #replayOrPost}, answering from the TransferJournal reference index.
+     */
+    private TransferResponse replayOrPostTransfer(String reference, boolean clientSupplied,
+                                                  Supplier<TransferResponse> posting) {
+        if (!clientSupplied) {
+            return posting.get();
+        }
 
-        return mapToWalletResponse(wallet);
+        var existingTransfer = transferLookup.findByReference(reference);
+        if (existingTransfer.isPresent()) {
+            log.warn("Duplicate transfer detected: {}", reference);
+            return existingTransfer.get();
+        }
+
+        try {
+            return posting.get();
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance committed the same key between the lookup and our insert
+            return transferLookup.findByReference(reference).orElseThrow(() -> ex);
+        }
     }
 
+    private String normalizeKey(String idempotencyKey) {
+        return idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey.trim();
+    }
 
+    private TransactionResponse verifyReplay(TransactionResponse response, String idempotencyKey,
+                                             TransactionType type, String walletId, Long amountMinorUnits) {
+        if (idempotencyKey != null
+                && (response.getType() != type
+                || !response.getWalletId().equals(walletId)
+                || !response.getAmountMinorUnits().equals(amountMinorUnits))) {
+            throw new DuplicateTransactionException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different request");
+        }
+        return response;
+    }
+
+    private TransferResponse verifyTransferReplay(TransferResponse response, String idempotencyKey,
+                                                  String fromWalletId, String toWalletId, Long amountMinorUnits) {
+        if (idempotencyKey != null
+                && (!fromWalletId.equals(response.getFromWalletId())
+                || !toWalletId.equals(response.getToWalletId())
+                || !amountMinorUnits.equals(response.getAmountMinorUnits()))) {
+            throw new DuplicateTransactionException(
+                    "Idempotency key " + idempotencyKey + " was already used for a different request");
+        }
+        return response;
+    }
 
     private WalletResponse mapToWalletResponse(Wallet wallet) {
-        Long balance = transactionRepository.calculateBalance(wallet.getId());
+        Long balance = wallet.getBalanceMinorUnits();
         return WalletResponse.builder()
                 .id(wallet.getId())
                 .createdAt(LocalDateTime.now())
@@ -191,6 +492,7 @@ public class WalletServiceImpl implements WalletService {
                 .amountMinorUnits(transaction.getAmountMinorUnits())
                 .currency("NGN")
                 .description(transaction.getDescription())
+                .balanceAfterMinorUnits(transaction.getBalanceAfterMinorUnits())
                 .createdAt(transaction.getCreatedAt())
                 .build();
     }
@@ -0,0 +1,27 @@
+package com._jasettlement.Wallet.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits values bound into SQL {@code IN} lists into chunks, so no statement comes near the driver's
+ * bind-parameter limit (32767 for PostgreSQL) however many values a caller has.
+ */
+public final class InLists {
+
+    /** Most values bound into a single IN list. */
+    public static final int MAX_VALUES = 1_000;
+
+    private InLists() {}
+
+    /**
+     * Consecutive views of at most {@link #MAX_VALUES} values each, in the original order.
+     */
+    public static <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>((values.size() + MAX_VALUES - 1) / MAX_VALUES);
+        for (int from = 0; from < values.size(); from += MAX_VALUES) {
+            chunks.add(values.subList(from, Math.min(from + MAX_VALUES, values.size())));
+        }
+        return chunks;
+    }
+}
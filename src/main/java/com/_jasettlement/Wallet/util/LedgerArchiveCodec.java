@@ -0,0 +1,103 @@
+package com._jasettlement.Wallet.util;
+
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary block format for archived ledger entries: a version byte, an entry count, then each entry's
+ * fields in a fixed order, all gzipped. The walletId is stored once, on the archive row, not per entry.
+ * Blocks are decoded one entry at a time, so a reader never holds a whole block's entries.
+ */
+public final class LedgerArchiveCodec {
+
+    private static final int VERSION = 1;
+
+    private LedgerArchiveCodec() {}
+
+    public static byte[] encode(List<Transaction> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entries.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeByte(VERSION);
+            out.writeInt(entries.size());
+            for (Transaction entry : entries) {
+                out.writeUTF(entry.getId());
+                out.writeUTF(entry.getReference());
+                out.writeUTF(entry.getType().name());
+                out.writeLong(entry.getAmountMinorUnits());
+                writeNullable(out, entry.getDescription());
+                writeNullable(out, entry.getLedgerSequence());
+                writeNullable(out, entry.getBalanceAfterMinorUnits());
+                out.writeBoolean(entry.getCreatedAt() != null);
+                if (entry.getCreatedAt() != null) {
+                    out.writeLong(entry.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(entry.getCreatedAt().getNano());
+                }
+                writeNullable(out, entry.getTransferId());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void decode(String walletId, InputStream payload, Consumer<Transaction> action) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(payload))) {
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported ledger archive version " + version);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                action.accept(Transaction.builder()
+                        .id(in.readUTF())
+                        .reference(in.readUTF())
+                        .walletId(walletId)
+                        .type(TransactionType.valueOf(in.readUTF()))
+                        .amountMinorUnits(in.readLong())
+                        .description(readNullableString(in))
+                        .ledgerSequence(readNullableLong(in))
+                        .balanceAfterMinorUnits(readNullableLong(in))
+                        .createdAt(in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null)
+                        .transferId(readNullableString(in))
+                        .build());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+}
@@ -0,0 +1,111 @@
+package com._jasettlement.Wallet.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collision-free wallet IDs in the public "WALNG" + MMDD + six digits format, plus a check digit.
+ * <p>
+ * Each MMDD has its own counter over 0..999,999. The ID carries no year, so the counter is shared by
+ * that calendar day in every year: a given MMDD can issue at most 1,000,000 IDs over the service's
+ * whole lifetime, after which {@link #next} fails for that day. Counters are handed out in blocks by a
+ * {@link BlockAllocator}, so instances never overlap and only touch shared storage once per block.
+ * Inside a block a counter costs one atomic increment. A keyed Feistel permutation then maps the
+ * counter to the six digits. It is a bijection, so distinct counters never produce the same ID, and
+ * consecutive wallets do not get guessable consecutive numbers.
+ */
+public class PermutedWalletIdSequence {
+
+    /** Number of distinct six-digit suffixes per MMDD. */
+    public static final int DOMAIN = 1_000_000;
+
+    private static final int HALF_BITS = 10;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    @FunctionalInterface
+    public interface BlockAllocator {
+        /**
+         * Reserves {@code size} consecutive counters for the MMDD and returns the first one.
+         */
+        long allocate(String mmdd, int size);
+    }
+
+    private final BlockAllocator allocator;
+    private final int blockSize;
+    private final long[] roundKeys = new long[ROUNDS];
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public PermutedWalletIdSequence(BlockAllocator allocator, int blockSize, long permutationKey) {
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+        long seed = permutationKey;
+        for (int round = 0; round < ROUNDS; round++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            roundKeys[round] = seed;
+        }
+    }
+
+    public String next() {
+        String mmdd = WalletIdGenerator.today();
+        return WalletIdGenerator.format(mmdd, permute(nextCounter(mmdd)));
+    }
+
+    /**
+     * Bijection on 0..999,999: a 4-round Feistel network over 20 bits, cycle-walking past values
+     * outside the domain.
+     */
+    public int permute(long counter) {
+        int value = (int) counter;
+        do {
+            int left = value >>> HALF_BITS;
+            int right = value & HALF_MASK;
+            for (int round = 0; round < ROUNDS; round++) {
+                int next = left ^ (int) (mix(right ^ roundKeys[round]) & HALF_MASK);
+                left = right;
+                right = next;
+            }
+            value = (left << HALF_BITS) | right;
+        } while (value >= DOMAIN);
+        return value;
+    }
+
+    private long nextCounter(String mmdd) {
+        while (true) {
+            Block block = blocks.get(mmdd);
+            if (block != null) {
+                long counter = block.next.getAndIncrement();
+                if (counter < block.end) {
+                    return counter;
+                }
+            }
+            synchronized (this) {
+                if (blocks.get(mmdd) == block) {
+                    // Only the current day is ever drawn from again
+                    blocks.keySet().removeIf(day -> !day.equals(mmdd));
+                    long start = allocator.allocate(mmdd, blockSize);
+                    if (start >= DOMAIN) {
+                        throw new IllegalStateException("Wallet ID space for MMDD " + mmdd + " is exhausted");
+                    }
+                    blocks.put(mmdd, new Block(start, Math.min(start + blockSize, DOMAIN)));
+                }
+            }
+        }
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static final class Block {
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
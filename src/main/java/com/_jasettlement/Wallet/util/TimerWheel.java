@@ -0,0 +1,73 @@
+package com._jasettlement.Wallet.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel. Deadlines are rounded up to whole ticks and each one is kept in slot
+ * {@code tick % slots}, so scheduling is O(1) and each tick only visits the timeouts of one slot.
+ * Deadlines further away than one revolution share a slot with nearer ones and are skipped until
+ * their own tick comes round.
+ * <p>
+ * Not thread-safe: one thread schedules and advances it.
+ */
+public final class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final ArrayDeque<Timeout<T>>[] slots;
+    // The next tick whose slot has not been processed yet
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(Duration tick, int slotCount, long startMillis) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Timer wheel slots must be a power of two: " + slotCount);
+        }
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.mask = slotCount - 1;
+        this.slots = new ArrayDeque[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules the item for the first tick at or after its deadline. A deadline already passed fires
+     * on the next {@link #advance}.
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick);
+        slots[(int) (deadlineTick & mask)].add(new Timeout<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Processes every tick up to the given time and hands each timeout that has come due to the consumer.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        long nowTick = nowMillis / tickMillis;
+        for (; currentTick <= nowTick; currentTick++) {
+            Iterator<Timeout<T>> timeouts = slots[(int) (currentTick & mask)].iterator();
+            while (timeouts.hasNext()) {
+                Timeout<T> timeout = timeouts.next();
+                if (timeout.deadlineTick() <= currentTick) {
+                    timeouts.remove();
+                    size--;
+                    expired.accept(timeout.item());
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private record Timeout<T>(T item, long deadlineTick) {
+    }
+}
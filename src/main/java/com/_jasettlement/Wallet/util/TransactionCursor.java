@@ -0,0 +1,42 @@
+package com._jasettlement.Wallet.util;
+
+import com._jasettlement.Wallet.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a wallet's statement: the (createdAt, id) of the last row a client has seen.
+ * The cursor names its wallet, so one issued for another wallet's statement is rejected rather than
+ * silently seeking into this one.
+ */
+public record TransactionCursor(String walletId, LocalDateTime createdAt, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = walletId + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor, String walletId) {
+        String[] parts;
+        LocalDateTime createdAt;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3 || parts[0].isEmpty() || parts[2].isEmpty()) {
+                throw new InvalidCursorException("Malformed cursor: " + cursor);
+            }
+            createdAt = LocalDateTime.parse(parts[1]);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor);
+        }
+        if (!parts[0].equals(walletId)) {
+            throw new InvalidCursorException("Cursor was not issued for wallet " + walletId);
+        }
+        return new TransactionCursor(walletId, createdAt, parts[2]);
+    }
+}
@@ -0,0 +1,409 @@
+package com._jasettlement.Wallet.util;
+
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.dto.response.WalletResponse;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.InvalidFrameException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Length-prefixed binary frames for internal callers of the wallet API ({@value #MEDIA_TYPE}).
+ * <p>
+ * A request body is a version byte followed by any number of request frames. The response body is a
+ * version byte and the currency of every amount in it, then one response frame per request frame, in
+ * the same order. Each frame is a 4-byte length followed by that many bytes:
+ * <pre>
+ * request:  op u8 | correlationId i32 | body
+ * response: op u8 | correlationId i32 | status u16 | body (status 200) or error message
+ * </pre>
+ * Strings are written with {@link DataOutputStream#writeUTF}, amounts as longs in minor units and
+ * timestamps as microseconds since the epoch, read as UTC like {@link LedgerArchiveCodec}. Optional
+ * fields are listed in a presence byte and left out when null. Field names, the currency and ISO
+ * timestamps are never repeated per message.
+ */
+public final class WalletFrameCodec {
+
+    public static final String MEDIA_TYPE = "application/x-wallet-frame";
+    public static final int VERSION = 1;
+
+    // Correlation id of the frame that reports a broken request stream; nothing after it is read
+    public static final int STREAM_ERROR = 0;
+
+    public enum Op {
+        DEPOSIT(1), WITHDRAW(2), TRANSFER(3), GET_WALLET(4);
+
+        private final int code;
+
+        Op(int code) {
+            this.code = code;
+        }
+
+        public int code() {
+            return code;
+        }
+
+        static Op of(int code) {
+            for (Op op : values()) {
+                if (op.code == code) {
+                    return op;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A request frame. The body is a {@link DepositRequest}, {@link WithdrawalRequest} or
+     * {@link TransferRequest}, or the walletId for GET_WALLET. A decoded frame whose op code is unknown
+     * has a null op and body.
+     */
+    public record RequestFrame(Op op, int correlationId, Object body) {
+    }
+
+    /**
+     * A response frame. With status 200 the body is a {@link TransactionResponse},
+     * {@link TransferResponse} or {@link WalletResponse}; otherwise it is the error message.
+     */
+    public record ResponseFrame(Op op, int correlationId, int status, Object body) {
+    }
+
+    private WalletFrameCodec() {}
+
+    public static void writeRequestHeader(DataOutputStream out) throws IOException {
+        out.writeByte(VERSION);
+    }
+
+    public static void readRequestHeader(DataInputStream in) throws IOException {
+        int version = in.read();
+        if (version != VERSION) {
+            throw new InvalidFrameException(version < 0
+                    ? "Empty frame stream"
+                    : "Unsupported frame version " + version);
+        }
+    }
+
+    public static void writeResponseHeader(DataOutputStream out, String currency) throws IOException {
+        out.writeByte(VERSION);
+        out.writeUTF(currency);
+    }
+
+    public static String readResponseHeader(DataInputStream in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new InvalidFrameException("Unsupported frame version " + version);
+        }
+        return in.readUTF();
+    }
+
+    public static void writeRequest(DataOutputStream out, RequestFrame frame) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        DataOutputStream payload = new DataOutputStream(bytes);
+        payload.writeByte(frame.op().code());
+        payload.writeInt(frame.correlationId());
+        switch (frame.op()) {
+            case DEPOSIT -> {
+                DepositRequest request = (DepositRequest) frame.body();
+                writePosting(payload, request.getWalletId(), request.getAmountMinorUnits(),
+                        request.getDescription(), request.getIdempotencyKey());
+            }
+            case WITHDRAW -> {
+                WithdrawalRequest request = (WithdrawalRequest) frame.body();
+                writePosting(payload, request.getWalletId(), request.getAmountMinorUnits(),
+                        request.getDescription(), request.getIdempotencyKey());
+            }
+            case TRANSFER -> {
+                TransferRequest request = (TransferRequest) frame.body();
+                payload.writeUTF(request.getFromWalletId());
+                writePosting(payload, request.getToWalletId(), request.getAmountMinorUnits(),
+                        request.getDescription(), request.getIdempotencyKey());
+            }
+            case GET_WALLET -> payload.writeUTF((String) frame.body());
+        }
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    /**
+     * Reads the next request frame, or returns null once the stream ends cleanly between frames.
+     */
+    public static RequestFrame readRequest(DataInputStream in, int maxFrameBytes) throws IOException {
+        DataInputStream payload = nextFrame(in, maxFrameBytes);
+        if (payload == null) {
+            return null;
+        }
+        try {
+            Op op = Op.of(payload.readUnsignedByte());
+            int correlationId = payload.readInt();
+            if (op == null) {
+                return new RequestFrame(null, correlationId, null);
+            }
+            Object body = switch (op) {
+                case DEPOSIT -> {
+                    DepositRequest request = new DepositRequest();
+                    request.setWalletId(payload.readUTF());
+                    request.setAmountMinorUnits(payload.readLong());
+                    int present = payload.readUnsignedByte();
+                    request.setDescription(readIf(payload, present, 0));
+                    request.setIdempotencyKey(readIf(payload, present, 1));
+                    yield request;
+                }
+                case WITHDRAW -> {
+                    WithdrawalRequest request = new WithdrawalRequest();
+                    request.setWalletId(payload.readUTF());
+                    request.setAmountMinorUnits(payload.readLong());
+                    int present = payload.readUnsignedByte();
+                    request.setDescription(readIf(payload, present, 0));
+                    request.setIdempotencyKey(readIf(payload, present, 1));
+                    yield request;
+                }
+                case TRANSFER -> {
+                    TransferRequest request = new TransferRequest();
+                    request.setFromWalletId(payload.readUTF());
+                    request.setToWalletId(payload.readUTF());
+                    request.setAmountMinorUnits(payload.readLong());
+                    int present = payload.readUnsignedByte();
+                    request.setDescription(readIf(payload, present, 0));
+                    request.setIdempotencyKey(readIf(payload, present, 1));
+                    yield request;
+                }
+                case GET_WALLET -> payload.readUTF();
+            };
+            return new RequestFrame(op, correlationId, body);
+        } catch (EOFException ex) {
+            throw new InvalidFrameException("Request frame is shorter than its fields");
+        }
+    }
+
+    public static void writeResponse(DataOutputStream out, ResponseFrame frame) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(frame.status() == 200 ? 192 : 64);
+        DataOutputStream payload = new DataOutputStream(bytes);
+        payload.writeByte(frame.op() != null ? frame.op().code() : 0);
+        payload.writeInt(frame.correlationId());
+        payload.writeShort(frame.status());
+        if (frame.status() != 200) {
+            payload.writeUTF(String.valueOf(frame.body()));
+        } else if (frame.body() instanceof TransactionResponse transaction) {
+            writeTransaction(payload, transaction);
+        } else if (frame.body() instanceof TransferResponse transfer) {
+            writeTransfer(payload, transfer);
+        } else {
+            writeWallet(payload, (WalletResponse) frame.body());
+        }
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+
+    /**
+     * Reads the next response frame, or returns null at the end of the stream. Amounts get the currency
+     * read from the response header.
+     */
+    public static ResponseFrame readResponse(DataInputStream in, String currency, int maxFrameBytes) throws IOException {
+        DataInputStream payload = nextFrame(in, maxFrameBytes);
+        if (payload == null) {
+            return null;
+        }
+        try {
+            Op op = Op.of(payload.readUnsignedByte());
+            int correlationId = payload.readInt();
+            int status = payload.readUnsignedShort();
+            if (status != 200) {
+                return new ResponseFrame(op, correlationId, status, payload.readUTF());
+            }
+            if (op == null) {
+                throw new InvalidFrameException("Successful response frame without an operation");
+            }
+            Object body = switch (op) {
+                case DEPOSIT, WITHDRAW -> readTransaction(payload, currency);
+                case TRANSFER -> readTransfer(payload, currency);
+                case GET_WALLET -> readWallet(payload, currency);
+            };
+            return new ResponseFrame(op, correlationId, status, body);
+        } catch (EOFException ex) {
+            throw new InvalidFrameException("Response frame is shorter than its fields");
+        }
+    }
+
+    private static DataInputStream nextFrame(DataInputStream in, int maxFrameBytes) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        try {
+            int length = first << 24 | in.readUnsignedByte() << 16 | in.readUnsignedByte() << 8 | in.readUnsignedByte();
+            if (length < 0 || length > maxFrameBytes) {
+                throw new InvalidFrameException("Frame of " + Integer.toUnsignedString(length)
+                        + " bytes exceeds the limit of " + maxFrameBytes);
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            return new DataInputStream(new ByteArrayInputStream(payload));
+        } catch (EOFException ex) {
+            throw new InvalidFrameException("Frame stream ended inside a frame");
+        }
+    }
+
+    private static void writePosting(DataOutputStream out, String walletId, Long amountMinorUnits,
+                                     String description, String idempotencyKey) throws IOException {
+        out.writeUTF(walletId);
+        out.writeLong(amountMinorUnits);
+        out.writeByte(presence(description, idempotencyKey));
+        writeIf(out, description);
+        writeIf(out, idempotencyKey);
+    }
+
+    private static void writeTransaction(DataOutputStream out, TransactionResponse transaction) throws IOException {
+        out.writeUTF(transaction.getId());
+        out.writeUTF(transaction.getReference());
+        out.writeUTF(transaction.getWalletId());
+        // By ordinal, so new transaction types must be added at the end of the enum
+        out.writeByte(transaction.getType().ordinal());
+        out.writeLong(transaction.getAmountMinorUnits());
+        out.writeByte(presence(transaction.getDescription(), transaction.getBalanceAfterMinorUnits(),
+                transaction.getCreatedAt()));
+        writeIf(out, transaction.getDescription());
+        if (transaction.getBalanceAfterMinorUnits() != null) {
+            out.writeLong(transaction.getBalanceAfterMinorUnits());
+        }
+        writeIf(out, transaction.getCreatedAt());
+    }
+
+    private static TransactionResponse readTransaction(DataInputStream in, String currency) throws IOException {
+        TransactionResponse.TransactionResponseBuilder transaction = TransactionResponse.builder()
+                .id(in.readUTF())
+                .reference(in.readUTF())
+                .walletId(in.readUTF())
+                .type(readType(in))
+                .amountMinorUnits(in.readLong())
+                .currency(currency);
+        int present = in.readUnsignedByte();
+        return transaction
+                .description(readIf(in, present, 0))
+                .balanceAfterMinorUnits(has(present, 1) ? in.readLong() : null)
+                .createdAt(readTimeIf(in, present, 2))
+                .build();
+    }
+
+    private static TransactionType readType(DataInputStream in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        TransactionType[] types = TransactionType.values();
+        if (ordinal >= types.length) {
+            throw new InvalidFrameException("Unknown transaction type " + ordinal);
+        }
+        return types[ordinal];
+    }
+
+    private static void writeTransfer(DataOutputStream out, TransferResponse transfer) throws IOException {
+        out.writeUTF(transfer.getTransferId());
+        out.writeUTF(transfer.getReference());
+        out.writeUTF(transfer.getFromWalletId());
+        out.writeUTF(transfer.getToWalletId());
+        out.writeLong(transfer.getAmountMinorUnits());
+        out.writeByte(presence(transfer.getDescription(), transfer.getReversalOf(), transfer.getReversedBy(),
+                transfer.getCreatedAt(), transfer.getDebit(), transfer.getCredit()));
+        writeIf(out, transfer.getDescription());
+        writeIf(out, transfer.getReversalOf());
+        writeIf(out, transfer.getReversedBy());
+        writeIf(out, transfer.getCreatedAt());
+        if (transfer.getDebit() != null) {
+            writeTransaction(out, transfer.getDebit());
+        }
+        if (transfer.getCredit() != null) {
+            writeTransaction(out, transfer.getCredit());
+        }
+    }
+
+    private static TransferResponse readTransfer(DataInputStream in, String currency) throws IOException {
+        TransferResponse.TransferResponseBuilder transfer = TransferResponse.builder()
+                .transferId(in.readUTF())
+                .reference(in.readUTF())
+                .fromWalletId(in.readUTF())
+                .toWalletId(in.readUTF())
+                .amountMinorUnits(in.readLong())
+                .currency(currency);
+        int present = in.readUnsignedByte();
+        return transfer
+                .description(readIf(in, present, 0))
+                .reversalOf(readIf(in, present, 1))
+                .reversedBy(readIf(in, present, 2))
+                .createdAt(readTimeIf(in, present, 3))
+                .debit(has(present, 4) ? readTransaction(in, currency) : null)
+                .credit(has(present, 5) ? readTransaction(in, currency) : null)
+                .build();
+    }
+
+    private static void writeWallet(DataOutputStream out, WalletResponse wallet) throws IOException {
+        out.writeUTF(wallet.getId());
+        out.writeUTF(wallet.getWalletId());
+        out.writeLong(wallet.getBalanceMinorUnits());
+        out.writeByte(presence(wallet.getOwnerName(), wallet.getCreatedAt(), wallet.getUpdatedAt()));
+        writeIf(out, wallet.getOwnerName());
+        writeIf(out, wallet.getCreatedAt());
+        writeIf(out, wallet.getUpdatedAt());
+    }
+
+    private static WalletResponse readWallet(DataInputStream in, String currency) throws IOException {
+        WalletResponse.WalletResponseBuilder wallet = WalletResponse.builder()
+                .id(in.readUTF())
+                .walletId(in.readUTF())
+                .balanceMinorUnits(in.readLong())
+                .currency(currency);
+        int present = in.readUnsignedByte();
+        return wallet
+                .ownerName(readIf(in, present, 0))
+                .createdAt(readTimeIf(in, present, 1))
+                .updatedAt(readTimeIf(in, present, 2))
+                .build();
+    }
+
+    // Bit i is set when the i-th field is not null
+    private static int presence(Object... fields) {
+        int present = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                present |= 1 << i;
+            }
+        }
+        return present;
+    }
+
+    private static boolean has(int present, int field) {
+        return (present & 1 << field) != 0;
+    }
+
+    private static void writeIf(DataOutputStream out, String value) throws IOException {
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeIf(DataOutputStream out, LocalDateTime value) throws IOException {
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000);
+        }
+    }
+
+    private static String readIf(DataInputStream in, int present, int field) throws IOException {
+        return has(present, field) ? in.readUTF() : null;
+    }
+
+    private static LocalDateTime readTimeIf(DataInputStream in, int present, int field) throws IOException {
+        if (!has(present, field)) {
+            return null;
+        }
+        long micros = in.readLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -8,6 +8,7 @@ public class WalletIdGenerator {
     private static final SecureRandom RNG = new SecureRandom();
     private static final DateTimeFormatter MMDD = DateTimeFormatter.ofPattern("MMdd");
     private static final String PREFIX = "WALNG";
+    private static final int CHECKED_DIGITS = 11;
 
     private WalletIdGenerator() {}
 
@@ -17,4 +18,58 @@ public class WalletIdGenerator {
         String sixDigits = String.format("%06d", randomSix);
         return PREFIX + mmdd + sixDigits; // total prefix + 10 digits
     }
+
+    public static String today() {
+        return LocalDate.now().format(MMDD);
+    }
+
+    /**
+     * Builds "WALNG" + MMDD + six digits + a Luhn check digit over the ten digits before it.
+     */
+    public static String format(String mmdd, int sixDigits) {
+        char[] id = new char[PREFIX.length() + CHECKED_DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), id, 0);
+        mmdd.getChars(0, 4, id, PREFIX.length());
+        int value = sixDigits;
+        for (int i = PREFIX.length() + 9; i >= PREFIX.length() + 4; i--) {
+            id[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        id[id.length - 1] = (char) ('0' + luhnDigit(id, PREFIX.length(), id.length - 1));
+        return new String(id);
+    }
+
+    /**
+     * False only for IDs in the checked (11-digit) format whose last digit does not match; random
+     * 10-digit IDs carry no check digit and always pass.
+     */
+    public static boolean hasValidCheckDigit(String walletId) {
+        if (walletId == null || walletId.length() != PREFIX.length() + CHECKED_DIGITS || !walletId.startsWith(PREFIX)) {
+            return true;
+        }
+        char[] id = walletId.toCharArray();
+        for (int i = PREFIX.length(); i < id.length; i++) {
+            if (id[i] < '0' || id[i] > '9') {
+                return true;
+            }
+        }
+        return id[id.length - 1] - '0' == luhnDigit(id, PREFIX.length(), id.length - 1);
+    }
+
+    private static int luhnDigit(char[] digits, int from, int to) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = to - 1; i >= from; i--) {
+            int digit = digits[i] - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
 }
@@ -0,0 +1,40 @@
+package com._jasettlement.Wallet.util;
+
+/**
+ * Packs a wallet ID into a primitive {@code long} without allocating: the fixed "WALNG" prefix is
+ * dropped, the digits that follow are read as a number, and the digit count goes in the top bits.
+ * Keeping the count makes the packing one-to-one across ID lengths: an eleven-digit ID that starts
+ * with 0 and the ten-digit ID with the same value get different keys. A valid key is never zero.
+ */
+public final class WalletIdKeys {
+
+    /** Returned for IDs that do not follow the generated format. */
+    public static final long NO_KEY = -1L;
+
+    private static final String PREFIX = "WALNG";
+    // 10^17 fits in 57 bits, leaving the bits above for the digit count
+    private static final int MAX_DIGITS = 17;
+    private static final int DIGITS_SHIFT = 57;
+
+    private WalletIdKeys() {}
+
+    public static long toKey(String walletId) {
+        if (walletId == null || !walletId.startsWith(PREFIX)) {
+            return NO_KEY;
+        }
+        int digits = walletId.length() - PREFIX.length();
+        if (digits == 0 || digits > MAX_DIGITS) {
+            return NO_KEY;
+        }
+
+        long value = 0;
+        for (int i = PREFIX.length(); i < walletId.length(); i++) {
+            char c = walletId.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_KEY;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return ((long) digits << DIGITS_SHIFT) | value;
+    }
+}
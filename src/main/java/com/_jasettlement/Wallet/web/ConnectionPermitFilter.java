@@ -0,0 +1,74 @@
+package com._jasettlement.Wallet.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits at most as many concurrent API requests as there are pooled database connections. With
+ * virtual threads the servlet container no longer caps concurrency, so without this gate every burst
+ * would pile onto the connection pool and time out there. Excess requests park cheaply on the
+ * semaphore and are shed with 503 once the acquire timeout elapses.
+ */
+@Slf4j
+public class ConnectionPermitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final long acquireTimeoutNanos;
+
+    public ConnectionPermitFilter(int maxPermits, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxPermits);
+        this.maxPermits = maxPermits;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            log.warn("Shedding {} {}: no database permit within {} ms", request.getMethod(), request.getRequestURI(),
+                    TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos));
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"code\":503,\"message\":\"Service is at capacity, please retry\"}");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueuedRequests() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+}
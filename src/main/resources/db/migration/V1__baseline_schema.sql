@@ -0,0 +1,149 @@
+-- Baseline schema for PostgreSQL, matching the JPA entities (the prod profile validates against it).
+-- Time-ordered UUID ids use the "C" collation so the database orders them byte-wise, exactly as the
+-- application compares them for keyset paging and settlement/tiering range scans.
+
+CREATE TABLE wallet (
+    id                  VARCHAR(36) COLLATE "C" PRIMARY KEY,
+    wallet_id           VARCHAR(255) NOT NULL,
+    full_name           VARCHAR(255) NOT NULL,
+    email               VARCHAR(255) NOT NULL,
+    bvn                 VARCHAR(255) NOT NULL,
+    currency            VARCHAR(255),
+    balance_minor_units BIGINT       NOT NULL DEFAULT 0,
+    ledger_sequence     BIGINT       NOT NULL DEFAULT 0,
+    created_at          TIMESTAMP(6),
+    updated_at          TIMESTAMP(6),
+    version             BIGINT,
+    CONSTRAINT uk_wallet_wallet_id UNIQUE (wallet_id),
+    CONSTRAINT uk_wallet_email UNIQUE (email)
+);
+
+CREATE TABLE transaction (
+    id                        VARCHAR(36) COLLATE "C" PRIMARY KEY,
+    reference                 VARCHAR(255) NOT NULL,
+    wallet_id                 VARCHAR(255) NOT NULL,
+    type                      VARCHAR(255) NOT NULL,
+    amount_minor_units        BIGINT       NOT NULL,
+    description               VARCHAR(255),
+    ledger_sequence           BIGINT,
+    balance_after_minor_units BIGINT,
+    transfer_id               VARCHAR(36),
+    created_at                TIMESTAMP(6)
+);
+
+-- Idempotent replays and transfer-leg lookups by reference
+CREATE UNIQUE INDEX idx_reference ON transaction (reference);
+-- Balance reads: latest checkpoint, then the entries after its sequence
+CREATE UNIQUE INDEX uk_wallet_ledger_sequence ON transaction (wallet_id, ledger_sequence);
+-- Keyset history pages, newest first
+CREATE INDEX idx_txn_wallet_created ON transaction (wallet_id, created_at, id);
+CREATE INDEX idx_txn_transfer ON transaction (transfer_id);
+
+CREATE TABLE transfer_journal (
+    id                 VARCHAR(36) PRIMARY KEY,
+    reference          VARCHAR(255) NOT NULL,
+    from_wallet_id     VARCHAR(255) NOT NULL,
+    to_wallet_id       VARCHAR(255) NOT NULL,
+    amount_minor_units BIGINT       NOT NULL,
+    description        VARCHAR(255),
+    reversal_of        VARCHAR(36),
+    created_at         TIMESTAMP(6) NOT NULL
+);
+
+CREATE UNIQUE INDEX uk_transfer_reference ON transfer_journal (reference);
+CREATE UNIQUE INDEX uk_transfer_reversal_of ON transfer_journal (reversal_of);
+
+CREATE TABLE wallet_id_block (
+    mmdd         VARCHAR(4) PRIMARY KEY,
+    next_counter BIGINT NOT NULL
+);
+
+CREATE TABLE projection_checkpoint (
+    name           VARCHAR(255) PRIMARY KEY,
+    journal_offset BIGINT NOT NULL,
+    updated_at     TIMESTAMP(6)
+);
+
+CREATE TABLE settlement_watermark (
+    id                  VARCHAR(255) PRIMARY KEY,
+    business_date       DATE         NOT NULL,
+    partition_no        INTEGER      NOT NULL,
+    last_transaction_id VARCHAR(36) COLLATE "C" NOT NULL,
+    rows_settled        BIGINT       NOT NULL,
+    updated_at          TIMESTAMP(6)
+);
+
+CREATE INDEX idx_settlement_watermark_date ON settlement_watermark (business_date);
+
+CREATE TABLE wallet_daily_position (
+    id                          VARCHAR(36) PRIMARY KEY,
+    business_date               DATE         NOT NULL,
+    wallet_id                   VARCHAR(255) NOT NULL,
+    credits_minor_units         BIGINT       NOT NULL,
+    debits_minor_units          BIGINT       NOT NULL,
+    net_minor_units             BIGINT       NOT NULL,
+    entry_count                 BIGINT       NOT NULL,
+    closing_balance_minor_units BIGINT,
+    closing_ledger_sequence     BIGINT,
+    updated_at                  TIMESTAMP(6)
+);
+
+CREATE UNIQUE INDEX uk_position_date_wallet ON wallet_daily_position (business_date, wallet_id);
+
+CREATE TABLE daily_type_total (
+    id                 VARCHAR(36) PRIMARY KEY,
+    business_date      DATE         NOT NULL,
+    type               VARCHAR(255) NOT NULL,
+    partition_no       INTEGER      NOT NULL,
+    entry_count        BIGINT       NOT NULL,
+    amount_minor_units BIGINT       NOT NULL
+);
+
+CREATE UNIQUE INDEX uk_type_total_date_type_partition ON daily_type_total (business_date, type, partition_no);
+
+CREATE TABLE settlement_break (
+    id                 VARCHAR(36) PRIMARY KEY,
+    business_date      DATE         NOT NULL,
+    kind               VARCHAR(255) NOT NULL,
+    reference          VARCHAR(255) NOT NULL,
+    wallet_id          VARCHAR(255) NOT NULL,
+    amount_minor_units BIGINT       NOT NULL,
+    detected_at        TIMESTAMP(6)
+);
+
+CREATE INDEX idx_break_date_reference ON settlement_break (business_date, reference);
+
+CREATE TABLE ledger_period (
+    period_start DATE PRIMARY KEY,
+    status       VARCHAR(255) NOT NULL,
+    wallet_count BIGINT       NOT NULL,
+    row_count    BIGINT       NOT NULL,
+    closed_at    TIMESTAMP(6),
+    archived_at  TIMESTAMP(6)
+);
+
+CREATE TABLE ledger_checkpoint (
+    id                  VARCHAR(255) PRIMARY KEY,
+    wallet_id           VARCHAR(255) NOT NULL,
+    period_start        DATE         NOT NULL,
+    balance_minor_units BIGINT       NOT NULL,
+    ledger_sequence     BIGINT       NOT NULL,
+    entry_count         BIGINT       NOT NULL,
+    created_at          TIMESTAMP(6)
+);
+
+-- Latest checkpoint per wallet for balance reads
+CREATE UNIQUE INDEX uk_ledger_checkpoint_wallet_period ON ledger_checkpoint (wallet_id, period_start);
+
+CREATE TABLE transaction_archive (
+    id                    VARCHAR(255) PRIMARY KEY,
+    period_start          DATE         NOT NULL,
+    wallet_id             VARCHAR(255) NOT NULL,
+    row_count             BIGINT       NOT NULL,
+    first_ledger_sequence BIGINT,
+    last_ledger_sequence  BIGINT,
+    payload               BYTEA        NOT NULL,
+    archived_at           TIMESTAMP(6)
+);
+
+CREATE INDEX idx_txn_archive_wallet_period ON transaction_archive (wallet_id, period_start);
@@ -0,0 +1,18 @@
+-- Hot wallet mode: striped sub-balances that absorb concurrent postings until they are swept into
+-- the wallet row. Entries posted through a stripe stay unsequenced (ledger_sequence IS NULL) until
+-- then; uk_wallet_ledger_sequence already serves the sweep's lookup of them.
+
+ALTER TABLE wallet ADD COLUMN stripe_count INTEGER NOT NULL DEFAULT 0;
+
+-- The background sweep only visits hot wallets
+CREATE INDEX idx_wallet_striped ON wallet (wallet_id) WHERE stripe_count > 0;
+
+CREATE TABLE wallet_balance_stripe (
+    id                  VARCHAR(255) PRIMARY KEY,
+    wallet_id           VARCHAR(255) NOT NULL,
+    stripe              INTEGER      NOT NULL,
+    balance_minor_units BIGINT       NOT NULL,
+    updated_at          TIMESTAMP(6)
+);
+
+CREATE UNIQUE INDEX uk_wallet_balance_stripe ON wallet_balance_stripe (wallet_id, stripe);
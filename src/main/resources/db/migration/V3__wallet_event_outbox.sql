@@ -0,0 +1,18 @@
+-- Transactional outbox of wallet balance changes, one row per ledger entry, written in the posting's
+-- transaction. The id is the event offset that stream and long-poll subscribers resume from.
+
+CREATE TABLE wallet_event (
+    id                        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    wallet_id                 VARCHAR(255) NOT NULL,
+    transaction_id            VARCHAR(255) NOT NULL,
+    type                      VARCHAR(255) NOT NULL,
+    amount_minor_units        BIGINT       NOT NULL,
+    balance_after_minor_units BIGINT,
+    ledger_sequence           BIGINT,
+    created_at                TIMESTAMP(6) NOT NULL
+);
+
+-- Catch-up reads of one wallet's events after an offset
+CREATE INDEX idx_wallet_event_wallet ON wallet_event (wallet_id, id);
+-- Retention purge
+CREATE INDEX idx_wallet_event_created ON wallet_event (created_at);
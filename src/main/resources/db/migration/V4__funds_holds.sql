@@ -0,0 +1,22 @@
+-- Funds holds: reservations against a wallet's available balance that are later captured into a
+-- DEBIT, released, or expired by the reaper. Only ACTIVE holds count against the wallet.
+
+CREATE TABLE funds_hold (
+    id                   VARCHAR(36) COLLATE "C" PRIMARY KEY,
+    reference            VARCHAR(255) NOT NULL,
+    wallet_id            VARCHAR(255) NOT NULL,
+    amount_minor_units   BIGINT       NOT NULL,
+    status               VARCHAR(255) NOT NULL,
+    description          VARCHAR(255),
+    captured_minor_units BIGINT,
+    transaction_id       VARCHAR(255),
+    expires_at           TIMESTAMP(6) NOT NULL,
+    created_at           TIMESTAMP(6) NOT NULL,
+    closed_at            TIMESTAMP(6)
+);
+
+CREATE UNIQUE INDEX uk_funds_hold_reference ON funds_hold (reference);
+-- Sum of a wallet's active holds when its available balance is first tracked
+CREATE INDEX idx_funds_hold_wallet_status ON funds_hold (wallet_id, status);
+-- Active holds rescheduled with the reaper at startup
+CREATE INDEX idx_funds_hold_status_expires ON funds_hold (status, expires_at);
@@ -0,0 +1,3 @@
+-- The mapped wallet index catches up on wallets created while it was closed, instead of counting
+-- the whole wallet table at every startup
+CREATE INDEX idx_wallet_created ON wallet (created_at);
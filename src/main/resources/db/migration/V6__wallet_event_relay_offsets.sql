@@ -0,0 +1,22 @@
+-- Event offsets are assigned by the relay once outbox rows are committed, instead of at insert, so
+-- they follow the order in which rows become visible and rolled-back postings leave no holes.
+
+ALTER TABLE wallet_event ADD COLUMN event_offset BIGINT;
+UPDATE wallet_event SET event_offset = id;
+
+CREATE UNIQUE INDEX uk_wallet_event_offset ON wallet_event (event_offset);
+-- Committed rows still waiting for an offset, in insert order
+CREATE INDEX idx_wallet_event_unassigned ON wallet_event (id) WHERE event_offset IS NULL;
+
+-- Catch-up reads of one wallet's events after an offset
+DROP INDEX idx_wallet_event_wallet;
+CREATE INDEX idx_wallet_event_wallet ON wallet_event (wallet_id, event_offset);
+
+-- Last offset handed out; its row lock serializes the relays of every instance
+CREATE TABLE wallet_event_sequence (
+    name        VARCHAR(255) PRIMARY KEY,
+    last_offset BIGINT       NOT NULL
+);
+
+INSERT INTO wallet_event_sequence (name, last_offset)
+SELECT 'relay', COALESCE(MAX(id), 0) FROM wallet_event;
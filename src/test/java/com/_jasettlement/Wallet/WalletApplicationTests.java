@@ -3,7 +3,7 @@ package com._jasettlement.Wallet;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "wallet.balance-snapshot.verify-on-startup=true")
 class WalletApplicationTests {
 
 	@Test
@@ -0,0 +1,147 @@
+package com._jasettlement.Wallet.engine;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.repository.FundsHoldJdbcRepository;
+import com._jasettlement.Wallet.repository.WalletJdbcRepository;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.service.implementation.AvailableBalanceTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryLedgerEngineTest {
+
+    private static final long OPENING_BALANCE = 1_000;
+
+    @TempDir
+    Path directory;
+
+    private WalletProperties properties;
+    private WalletRepository walletRepository;
+    private LedgerJournal journal;
+    private RecordingProjection projection;
+    private InMemoryLedgerEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new WalletProperties();
+        properties.getEngine().setJournalPath(directory.resolve("ledger.journal").toString());
+        properties.getEngine().setShards(2);
+        walletRepository = mock(WalletRepository.class);
+        when(walletRepository.findByWalletId(anyString())).thenAnswer(invocation -> Optional.of(Wallet.builder()
+                .walletId(invocation.getArgument(0))
+                .balanceMinorUnits(OPENING_BALANCE)
+                .updatedAt(LocalDateTime.now())
+                .build()));
+        start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stop();
+    }
+
+    @Test
+    void retryOfAnUnprojectedPostingAfterARestartReturnsTheJournaledEntry() throws Exception {
+        JournalEntry posted = engine.post("WALNG0000000001", TransactionType.CREDIT, 500, "deposit:k", "Deposit").join();
+
+        restart();
+
+        assertThat(projection.frames).hasSize(1);
+        assertThat(engine.findUnprojected("deposit:k")).isPresent();
+        JournalEntry retried = engine.post("WALNG0000000001", TransactionType.CREDIT, 500, "deposit:k", "Deposit").join();
+
+        assertThat(retried.id()).isEqualTo(posted.id());
+        assertThat(engine.balance("WALNG0000000001").join().balanceMinorUnits()).isEqualTo(OPENING_BALANCE + 500);
+        // The retry appended nothing for the projection to write twice
+        assertThat(projection.frames).hasSize(1);
+    }
+
+    @Test
+    void retryOfAnUnprojectedTransferAfterARestartReturnsTheJournaledLegs() throws Exception {
+        List<JournalEntry> posted = engine.transfer("WALNG0000000001", "WALNG0000000002", 300,
+                "transfer:k", "Transfer", null).join();
+
+        restart();
+
+        List<JournalEntry> retried = engine.transfer("WALNG0000000001", "WALNG0000000002", 300,
+                "transfer:k", "Transfer", null).join();
+
+        assertThat(retried).extracting(JournalEntry::id)
+                .containsExactly(posted.get(0).id(), posted.get(1).id());
+        assertThat(engine.findUnprojectedTransfer("transfer:k")).isPresent();
+        assertThat(engine.balance("WALNG0000000001").join().balanceMinorUnits()).isEqualTo(OPENING_BALANCE - 300);
+        assertThat(engine.balance("WALNG0000000002").join().balanceMinorUnits()).isEqualTo(OPENING_BALANCE + 300);
+    }
+
+    @Test
+    void referenceIsForgottenOnceTheProjectionHasWrittenIt() {
+        engine.post("WALNG0000000001", TransactionType.CREDIT, 500, "deposit:k", "Deposit").join();
+        projection.checkpoint = projection.frames.get(0).offset();
+
+        // The next durable frame prunes every reference at or before the checkpoint
+        engine.post("WALNG0000000001", TransactionType.CREDIT, 100, "deposit:other", "Deposit").join();
+
+        assertThat(engine.findUnprojected("deposit:k")).isEmpty();
+        assertThat(engine.findUnprojected("deposit:other")).isPresent();
+    }
+
+    private void start() throws Exception {
+        journal = new LedgerJournal(properties);
+        projection = new RecordingProjection();
+        AvailableBalanceTracker availableBalances = new AvailableBalanceTracker(mock(WalletJdbcRepository.class),
+                mock(FundsHoldJdbcRepository.class), new SimpleMeterRegistry());
+        engine = new InMemoryLedgerEngine(journal, projection, walletRepository, properties, availableBalances,
+                Optional.empty());
+    }
+
+    private void stop() throws Exception {
+        engine.shutdown();
+        journal.close();
+    }
+
+    /**
+     * Simulates a crash before the database caught up: the new projection starts from checkpoint 0.
+     */
+    private void restart() throws Exception {
+        stop();
+        start();
+    }
+
+    /**
+     * Records frames and never writes them, so its checkpoint stays where the test puts it.
+     */
+    private static class RecordingProjection implements LedgerProjection {
+
+        private final List<Frame> frames = new CopyOnWriteArrayList<>();
+        private volatile long checkpoint;
+
+        @Override
+        public void enqueue(long journalOffset, List<JournalEntry> entries) {
+            frames.add(new Frame(journalOffset, entries));
+        }
+
+        @Override
+        public long checkpoint() {
+            return checkpoint;
+        }
+    }
+
+    private record Frame(long offset, List<JournalEntry> entries) {
+    }
+}
@@ -0,0 +1,63 @@
+package com._jasettlement.Wallet.engine;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compactionKeepsOffsetsAndLaterFrames() throws Exception {
+        WalletProperties properties = new WalletProperties();
+        properties.getEngine().setJournalPath(directory.resolve("ledger.journal").toString());
+
+        LedgerJournal journal = new LedgerJournal(properties);
+        long first = journal.append(List.of(entry(1))).join();
+        long second = journal.append(List.of(entry(2))).join();
+        long sizeBefore = Files.size(directory.resolve("ledger.journal"));
+
+        assertThat(journal.compact(first)).isEqualTo(first);
+        assertThat(Files.size(directory.resolve("ledger.journal"))).isLessThan(sizeBefore);
+        // Compacting to an offset already dropped is a no-op
+        assertThat(journal.compact(first)).isZero();
+
+        long third = journal.append(List.of(entry(3))).join();
+        assertThat(third).isGreaterThan(second);
+        journal.close();
+
+        LedgerJournal reopened = new LedgerJournal(properties);
+        List<Long> offsets = new ArrayList<>();
+        List<Long> sequences = new ArrayList<>();
+        long end = reopened.replay(0, (offset, entries) -> {
+            offsets.add(offset);
+            sequences.add(entries.get(0).ledgerSequence());
+        });
+        assertThat(end).isEqualTo(third);
+        assertThat(reopened.end()).isEqualTo(third);
+        assertThat(offsets).containsExactly(second, third);
+        assertThat(sequences).containsExactly(2L, 3L);
+
+        // A projection checkpoint past the base still resumes where it left off
+        List<Long> resumed = new ArrayList<>();
+        reopened.replay(second, (offset, entries) -> resumed.add(entries.get(0).ledgerSequence()));
+        assertThat(resumed).containsExactly(3L);
+        reopened.close();
+    }
+
+    private static JournalEntry entry(long sequence) {
+        return new JournalEntry("txn-" + sequence, "ref-" + sequence, "WALNG0000000001", null,
+                TransactionType.CREDIT, 100, null, sequence, 100 * sequence, LocalDateTime.now(), null, null);
+    }
+}
@@ -0,0 +1,96 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.request.BatchTransferRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.response.BatchTransferResponse;
+import com._jasettlement.Wallet.dto.response.TransferLegResult;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batches;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-",
+        "wallet.idempotency.ttl=1ms"
+})
+@Import(WalletFixtures.class)
+class BatchTransferServiceTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void nettedBatchNeverOverdrawsAndReplaysFromStoredLegs() throws Exception {
+        String funded = wallets.createWallet();
+        String relay = wallets.createWallet();
+        String payee = wallets.createWallet();
+        wallets.deposit(funded, 1_000);
+
+        // The relay wallet starts empty and is only funded by the second leg
+        String key = UUID.randomUUID().toString();
+        BatchTransferRequest request = batch(key, leg(relay, payee, 600), leg(funded, relay, 600));
+        BatchTransferResponse first = batchTransferService.transferBatch(request);
+
+        assertThat(first.isApplied()).isTrue();
+        assertThat(first.getResults()).extracting(TransferLegResult::getReference)
+                .containsExactly("batch:" + key + ":0", "batch:" + key + ":1");
+        assertThat(first.getResults()).extracting(TransferLegResult::getFromBalanceAfterMinorUnits)
+                .containsExactly(0L, 400L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT MIN(balance_after_minor_units) FROM transaction WHERE wallet_id = ?", Long.class, relay))
+                .isZero();
+
+        // Once the cached result has expired, the replay is rebuilt from the stored transfers
+        Thread.sleep(20);
+        BatchTransferResponse replay = batchTransferService.transferBatch(
+                batch(key, leg(relay, payee, 600), leg(funded, relay, 600)));
+        assertThat(replay.getResults()).extracting(TransferLegResult::getTransferId)
+                .containsExactlyElementsOf(first.getResults().stream().map(TransferLegResult::getTransferId).toList());
+        assertThat(replay.getResults()).extracting(TransferLegResult::getFromBalanceAfterMinorUnits)
+                .containsExactly(0L, 400L);
+        assertThat(walletService.getWallet(funded).getBalanceMinorUnits()).isEqualTo(400L);
+        assertThat(walletService.getWallet(payee).getBalanceMinorUnits()).isEqualTo(600L);
+
+        // The same key with different legs is a conflict, not a replay
+        Thread.sleep(20);
+        assertThatThrownBy(() -> batchTransferService.transferBatch(
+                batch(key, leg(relay, payee, 300), leg(funded, relay, 300))))
+                .isInstanceOf(DuplicateTransactionException.class);
+    }
+
+    private BatchTransferRequest batch(String idempotencyKey, TransferRequest... legs) {
+        BatchTransferRequest request = new BatchTransferRequest();
+        request.setIdempotencyKey(idempotencyKey);
+        request.setMode(BatchTransferRequest.Mode.ALL_OR_NOTHING);
+        request.setTransfers(List.of(legs));
+        return request;
+    }
+
+    private TransferRequest leg(String fromWalletId, String toWalletId, long amount) {
+        TransferRequest request = new TransferRequest();
+        request.setFromWalletId(fromWalletId);
+        request.setToWalletId(toWalletId);
+        request.setAmountMinorUnits(amount);
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.exception.LedgerUnavailableException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.service.implementation.DepositBatcher;
+import com._jasettlement.Wallet.service.implementation.LedgerPoster;
+import com._jasettlement.Wallet.service.implementation.WalletConcurrencyControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestPropertySource(properties = {
+        "wallet.deposit-batching.enabled=true",
+        "wallet.deposit-batching.window=2ms"
+})
+class BatchedDepositConcurrencyStressTest extends WalletConcurrencyStressTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private WalletConcurrencyControl concurrencyControl;
+
+    @Autowired
+    private LedgerPoster ledgerPoster;
+
+    @Test
+    void failedBatchFallsBackToOneDepositAtATime() throws Exception {
+        // A long window and a batch of exactly four, so the four deposits below always share one batch
+        WalletProperties properties = new WalletProperties();
+        properties.getDepositBatching().setWorkers(1);
+        properties.getDepositBatching().setMaxBatch(4);
+        properties.getDepositBatching().setWindow(Duration.ofSeconds(5));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DepositBatcher batcher = new DepositBatcher(concurrencyControl, ledgerPoster, properties, meterRegistry);
+
+        String walletA = wallets.createWallet();
+        String walletB = wallets.createWallet();
+        String usedReference = wallets.deposit(walletA, 100).getReference();
+
+        CompletableFuture<Transaction> first = batcher.submit(walletA, 250, UUID.randomUUID().toString(), null);
+        CompletableFuture<Transaction> missing = batcher.submit("WALNG0000000000", 250, UUID.randomUUID().toString(), null);
+        CompletableFuture<Transaction> duplicate = batcher.submit(walletB, 250, usedReference, null);
+        CompletableFuture<Transaction> last = batcher.submit(walletB, 400, UUID.randomUUID().toString(), null);
+
+        // Each deposit gets its own outcome; the two bad ones do not fail their neighbours
+        assertThat(first.get(10, TimeUnit.SECONDS).getBalanceAfterMinorUnits()).isEqualTo(350L);
+        assertThat(last.get(10, TimeUnit.SECONDS).getBalanceAfterMinorUnits()).isEqualTo(400L);
+        assertThatThrownBy(missing::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(WalletNotFoundException.class);
+        assertThatThrownBy(duplicate::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        assertThat(meterRegistry.counter("wallet.deposit.batch.fallbacks").count()).isEqualTo(1.0);
+        assertThat(walletService.getWallet(walletA).getBalanceMinorUnits()).isEqualTo(350L);
+        assertThat(walletService.getWallet(walletB).getBalanceMinorUnits()).isEqualTo(400L);
+
+        // After shutdown a deposit is refused instead of waiting on a batch that never comes
+        batcher.shutdown();
+        assertThatThrownBy(() -> batcher.submit(walletA, 1, UUID.randomUUID().toString(), null))
+                .isInstanceOf(LedgerUnavailableException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.request.CaptureHoldRequest;
+import com._jasettlement.Wallet.dto.request.HoldRequest;
+import com._jasettlement.Wallet.dto.response.FundsHoldResponse;
+import com._jasettlement.Wallet.entity.HoldStatus;
+import com._jasettlement.Wallet.exception.HoldNotActiveException;
+import com._jasettlement.Wallet.exception.InsufficientFundsException;
+import com._jasettlement.Wallet.service.implementation.AvailableBalanceTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:holds;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-",
+        "wallet.holds.reaper-tick=50ms"
+})
+@Import(WalletFixtures.class)
+class FundsHoldServiceTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private AvailableBalanceTracker availableBalances;
+
+    @Test
+    void holdsReserveFundsUntilCapturedOrReleased() {
+        String walletId = wallets.createWallet();
+        wallets.deposit(walletId, 10_000);
+
+        FundsHoldResponse hold = hold(walletId, 6_000, null);
+        assertThat(hold.getStatus()).isEqualTo(HoldStatus.ACTIVE);
+        assertThat(hold.getAvailableBalanceMinorUnits()).isEqualTo(4_000L);
+
+        // Held money can be neither withdrawn nor held again
+        assertThatThrownBy(() -> wallets.withdraw(walletId, 5_000)).isInstanceOf(InsufficientFundsException.class);
+        assertThatThrownBy(() -> hold(walletId, 5_000, null)).isInstanceOf(InsufficientFundsException.class);
+        wallets.withdraw(walletId, 1_000);
+
+        // A partial capture posts its DEBIT and gives the rest of the hold back
+        CaptureHoldRequest capture = new CaptureHoldRequest();
+        capture.setAmountMinorUnits(2_500L);
+        FundsHoldResponse captured = walletService.captureHold(hold.getHoldId(), capture);
+        assertThat(captured.getStatus()).isEqualTo(HoldStatus.CAPTURED);
+        assertThat(captured.getTransactionId()).isNotNull();
+        assertThat(captured.getAvailableBalanceMinorUnits()).isEqualTo(6_500L);
+        assertThat(walletService.getWallet(walletId).getBalanceMinorUnits()).isEqualTo(6_500L);
+        assertThat(walletService.captureHold(hold.getHoldId(), capture).getTransactionId())
+                .isEqualTo(captured.getTransactionId());
+        assertThatThrownBy(() -> walletService.releaseHold(hold.getHoldId())).isInstanceOf(HoldNotActiveException.class);
+
+        FundsHoldResponse second = hold(walletId, 6_500, null);
+        assertThat(second.getAvailableBalanceMinorUnits()).isZero();
+        FundsHoldResponse released = walletService.releaseHold(second.getHoldId());
+        assertThat(released.getStatus()).isEqualTo(HoldStatus.RELEASED);
+        assertThat(released.getAvailableBalanceMinorUnits()).isEqualTo(6_500L);
+        assertThatThrownBy(() -> walletService.captureHold(second.getHoldId(), new CaptureHoldRequest()))
+                .isInstanceOf(HoldNotActiveException.class);
+    }
+
+    @Test
+    void captureAfterRestartKeepsOtherHoldsReserved() {
+        String walletId = wallets.createWallet();
+        wallets.deposit(walletId, 10_000);
+        FundsHoldResponse captured = hold(walletId, 4_000, null);
+        FundsHoldResponse kept = hold(walletId, 3_000, null);
+
+        // As after a restart: the wallet is seeded again from its row and its active holds
+        availableBalances.forget(walletId);
+        walletService.captureHold(captured.getHoldId(), new CaptureHoldRequest());
+
+        assertThat(walletService.getWallet(walletId).getBalanceMinorUnits()).isEqualTo(6_000L);
+        assertThat(walletService.getHold(kept.getHoldId()).getAvailableBalanceMinorUnits()).isEqualTo(3_000L);
+        assertThatThrownBy(() -> wallets.withdraw(walletId, 3_001)).isInstanceOf(InsufficientFundsException.class);
+        wallets.withdraw(walletId, 3_000);
+        assertThatThrownBy(() -> wallets.withdraw(walletId, 1)).isInstanceOf(InsufficientFundsException.class);
+    }
+
+    @Test
+    void reaperExpiresStaleHolds() throws InterruptedException {
+        String walletId = wallets.createWallet();
+        wallets.deposit(walletId, 3_000);
+
+        FundsHoldResponse hold = hold(walletId, 3_000, 1L);
+        assertThat(hold.getAvailableBalanceMinorUnits()).isZero();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        FundsHoldResponse current = walletService.getHold(hold.getHoldId());
+        while (current.getStatus() == HoldStatus.ACTIVE && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            current = walletService.getHold(hold.getHoldId());
+        }
+        assertThat(current.getStatus()).isEqualTo(HoldStatus.EXPIRED);
+        assertThat(current.getAvailableBalanceMinorUnits()).isEqualTo(3_000L);
+        wallets.withdraw(walletId, 3_000);
+    }
+
+    private FundsHoldResponse hold(String walletId, long amount, Long expiresInSeconds) {
+        HoldRequest request = new HoldRequest();
+        request.setWalletId(walletId);
+        request.setAmountMinorUnits(amount);
+        request.setExpiresInSeconds(expiresInSeconds);
+        return walletService.holdFunds(request);
+    }
+}
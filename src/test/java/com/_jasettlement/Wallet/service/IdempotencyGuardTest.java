@@ -0,0 +1,91 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import com._jasettlement.Wallet.service.implementation.IdempotencyGuard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyGuardTest {
+
+    private final IdempotencyGuard guard = new IdempotencyGuard(new WalletProperties());
+
+    @Test
+    void aKeyRunsOnceAndIsReplayedAfterwards() {
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = guard.execute("deposit:k", String.class, () -> "result-" + runs.incrementAndGet());
+        String replay = guard.execute("deposit:k", String.class, () -> "result-" + runs.incrementAndGet());
+
+        assertThat(first).isEqualTo("result-1");
+        assertThat(replay).isEqualTo("result-1");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void aKeyRememberedForAnotherKindOfResultIsADuplicate() {
+        guard.execute("transfer:k", String.class, () -> "transfer");
+
+        assertThatThrownBy(() -> guard.execute("transfer:k", Long.class, () -> 1L))
+                .isInstanceOf(DuplicateTransactionException.class)
+                .hasMessageContaining("transfer:k");
+    }
+
+    @Test
+    void aFailedExecutionIsForgottenSoTheClientCanRetry() {
+        assertThatThrownBy(() -> guard.execute("deposit:k", String.class, () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(guard.execute("deposit:k", String.class, () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void concurrentCallersWithTheSameKeyShareOneExecution() throws Exception {
+        int callers = 16;
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> guard.execute("deposit:k", String.class, () -> {
+                    started.countDown();
+                    await(release);
+                    return "result-" + runs.incrementAndGet();
+                })));
+            }
+            // Hold the first execution open until every caller has had time to find it in flight
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("result-1");
+            }
+            assertThat(runs).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Keyed postings through the service. The guard's TTL is a millisecond, so a completed key is
+ * forgotten almost at once and replays are answered from the reference index, as they are once a
+ * key has aged out in production. In-flight executions never expire, so concurrent callers still meet
+ * in the guard first.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-",
+        "wallet.idempotency.ttl=1ms"
+})
+@Import(WalletFixtures.class)
+class IdempotentPostingServiceTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replayWithTheSameKeyReturnsTheOriginalPosting() throws Exception {
+        String walletId = wallets.createWallet();
+        String otherWalletId = wallets.createWallet();
+        String key = UUID.randomUUID().toString();
+
+        TransactionResponse deposit = walletService.deposit(deposit(walletId, 500, key));
+        Thread.sleep(5);
+        assertThat(walletService.deposit(deposit(walletId, 500, key)).getId()).isEqualTo(deposit.getId());
+
+        // The same key on another operation is another posting
+        TransactionResponse withdrawal = walletService.withdraw(withdrawal(walletId, 200, key));
+        assertThat(withdrawal.getId()).isNotEqualTo(deposit.getId());
+        Thread.sleep(5);
+        assertThat(walletService.withdraw(withdrawal(walletId, 200, key)).getId()).isEqualTo(withdrawal.getId());
+
+        TransferResponse transfer = walletService.transfer(transfer(walletId, otherWalletId, 100, key));
+        Thread.sleep(5);
+        assertThat(walletService.transfer(transfer(walletId, otherWalletId, 100, key)).getTransferId())
+                .isEqualTo(transfer.getTransferId());
+
+        assertThat(walletService.getWallet(walletId).getBalanceMinorUnits()).isEqualTo(200);
+        assertThat(walletService.getWallet(otherWalletId).getBalanceMinorUnits()).isEqualTo(100);
+    }
+
+    @Test
+    void aKeyReusedWithADifferentPayloadIsRejected() throws Exception {
+        String walletId = wallets.createWallet();
+        String otherWalletId = wallets.createWallet();
+        String key = UUID.randomUUID().toString();
+        walletService.deposit(deposit(walletId, 500, key));
+        walletService.transfer(transfer(walletId, otherWalletId, 100, key));
+        Thread.sleep(5);
+
+        assertThatThrownBy(() -> walletService.deposit(deposit(walletId, 600, key)))
+                .isInstanceOf(DuplicateTransactionException.class);
+        assertThatThrownBy(() -> walletService.deposit(deposit(otherWalletId, 500, key)))
+                .isInstanceOf(DuplicateTransactionException.class);
+        assertThatThrownBy(() -> walletService.transfer(transfer(otherWalletId, walletId, 100, key)))
+                .isInstanceOf(DuplicateTransactionException.class);
+        assertThatThrownBy(() -> walletService.transfer(transfer(walletId, otherWalletId, 150, key)))
+                .isInstanceOf(DuplicateTransactionException.class);
+
+        assertThat(walletService.getWallet(walletId).getBalanceMinorUnits()).isEqualTo(400);
+        assertThat(walletService.getWallet(otherWalletId).getBalanceMinorUnits()).isEqualTo(100);
+    }
+
+    @Test
+    void concurrentSubmissionsWithTheSameKeyPostOnce() throws Exception {
+        String walletId = wallets.createWallet();
+        String key = UUID.randomUUID().toString();
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<TransactionResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return walletService.deposit(deposit(walletId, 700, key));
+                }));
+            }
+            start.countDown();
+
+            String postedId = results.get(0).get(30, TimeUnit.SECONDS).getId();
+            for (Future<TransactionResponse> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).getId()).isEqualTo(postedId);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction WHERE reference = ?",
+                Long.class, "deposit:" + key)).isEqualTo(1);
+        assertThat(walletService.getWallet(walletId).getBalanceMinorUnits()).isEqualTo(700);
+    }
+
+    private static DepositRequest deposit(String walletId, long amount, String key) {
+        DepositRequest request = new DepositRequest();
+        request.setWalletId(walletId);
+        request.setAmountMinorUnits(amount);
+        request.setIdempotencyKey(key);
+        return request;
+    }
+
+    private static WithdrawalRequest withdrawal(String walletId, long amount, String key) {
+        WithdrawalRequest request = new WithdrawalRequest();
+        request.setWalletId(walletId);
+        request.setAmountMinorUnits(amount);
+        request.setIdempotencyKey(key);
+        return request;
+    }
+
+    private static TransferRequest transfer(String fromWalletId, String toWalletId, long amount, String key) {
+        TransferRequest request = new TransferRequest();
+        request.setFromWalletId(fromWalletId);
+        request.setToWalletId(toWalletId);
+        request.setAmountMinorUnits(amount);
+        request.setIdempotencyKey(key);
+        return request;
+    }
+}
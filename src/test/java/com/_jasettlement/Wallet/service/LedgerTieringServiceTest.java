@@ -0,0 +1,138 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.response.LedgerTieringResponse;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tiering;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-",
+        "wallet.ledger-tiering.hot-months=3",
+        "wallet.ledger-tiering.archive-block-entries=1"
+})
+@Import(WalletFixtures.class)
+class LedgerTieringServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Africa/Lagos");
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private LedgerTieringService ledgerTieringService;
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private BalanceReconciliationService balanceReconciliationService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void closedMonthsAreCheckpointedAndAgedMonthsArchivedWithoutChangingBalances() throws Exception {
+        String walletId = wallets.createWallet();
+        LocalDate thisMonth = LocalDate.now(ZONE).withDayOfMonth(1);
+        LocalDate sixMonthsAgo = thisMonth.minusMonths(6);
+        LocalDate fiveMonthsAgo = thisMonth.minusMonths(5);
+        LocalDate twoMonthsAgo = thisMonth.minusMonths(2);
+
+        List<Transaction> history = new ArrayList<>();
+        history.add(entry(walletId, sixMonthsAgo, 1, TransactionType.CREDIT, 10_000, 10_000));
+        history.add(entry(walletId, sixMonthsAgo, 2, TransactionType.DEBIT, 2_500, 7_500));
+        history.add(entry(walletId, fiveMonthsAgo, 3, TransactionType.TRANSFER_IN, 1_000, 8_500));
+        history.add(entry(walletId, twoMonthsAgo, 4, TransactionType.TRANSFER_OUT, 500, 8_000));
+        transactionJdbcRepository.insertAll(history);
+        jdbcTemplate.update("UPDATE wallet SET balance_minor_units = ?, ledger_sequence = ? WHERE wallet_id = ?",
+                8_000L, 4L, walletId);
+        wallets.deposit(walletId, 250);
+
+        long balance = transactionRepository.calculateBalance(walletId);
+        assertThat(balance).isEqualTo(8_250L);
+
+        LedgerTieringResponse run = ledgerTieringService.run();
+
+        assertThat(run.getPeriodsClosed()).contains(sixMonthsAgo, fiveMonthsAgo, twoMonthsAgo);
+        assertThat(run.getPeriodsArchived()).containsExactly(sixMonthsAgo, fiveMonthsAgo, thisMonth.minusMonths(4));
+        assertThat(run.getRowsArchived()).isEqualTo(3);
+        // One entry per block, so the month with two entries is split over two blocks
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction_archive WHERE wallet_id = ?",
+                Long.class, walletId)).isEqualTo(3);
+
+        // Only the month still inside the hot window and the current month remain in the Transaction table
+        assertThat(transactionRepository.countByWalletId(walletId)).isEqualTo(2);
+        assertThat(transactionRepository.calculateBalance(walletId)).isEqualTo(balance);
+        assertThat(transactionRepository.countLedgerEntries(walletId)).isEqualTo(5);
+        assertThat(walletService.getWallet(walletId).getBalanceMinorUnits()).isEqualTo(balance);
+        assertThat(balanceReconciliationService.reconcile(false).getWalletsDrifted()).isZero();
+
+        // The statement still lists every entry, archived ones first, in ledger order
+        ByteArrayOutputStream statement = new ByteArrayOutputStream();
+        statementExportService.export(walletId, StatementExportService.Format.NDJSON, false, statement);
+        String[] lines = statement.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(5);
+        for (int i = 0; i < history.size(); i++) {
+            assertThat(lines[i]).contains(history.get(i).getId());
+        }
+
+        // A second run finds nothing left to do and leaves balances untouched
+        LedgerTieringResponse rerun = ledgerTieringService.run();
+        assertThat(rerun.getPeriodsClosed()).isEmpty();
+        assertThat(rerun.getPeriodsArchived()).isEmpty();
+        assertThat(transactionRepository.calculateBalance(walletId)).isEqualTo(balance);
+
+        wallets.deposit(walletId, 750);
+        assertThat(transactionRepository.calculateBalance(walletId)).isEqualTo(balance + 750);
+    }
+
+    private Transaction entry(String walletId, LocalDate month, long sequence, TransactionType type,
+                              long amount, long balanceAfter) {
+        LocalDateTime createdAt = month.plusDays(14).atTime(12, 0).plusMinutes(sequence);
+        long millis = createdAt.atZone(ZONE).toInstant().toEpochMilli();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID id = new UUID((millis << 16) | 0x7000L | (random.nextLong() & 0x0FFFL),
+                (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+        return Transaction.builder()
+                .id(id.toString())
+                .reference(UUID.randomUUID().toString())
+                .walletId(walletId)
+                .type(type)
+                .amountMinorUnits(amount)
+                .description("Tiering test")
+                .ledgerSequence(sequence)
+                .balanceAfterMinorUnits(balanceAfter)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,10 @@
+package com._jasettlement.Wallet.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "wallet.concurrency.mode=OPTIMISTIC",
+        "wallet.concurrency.max-attempts=20"
+})
+class OptimisticWalletConcurrencyStressTest extends WalletConcurrencyStressTest {
+}
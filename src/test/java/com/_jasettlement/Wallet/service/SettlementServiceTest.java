@@ -0,0 +1,257 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.response.SettlementRunResponse;
+import com._jasettlement.Wallet.dto.response.SettlementSummaryResponse;
+import com._jasettlement.Wallet.dto.response.WalletDailyPositionResponse;
+import com._jasettlement.Wallet.entity.SettlementWatermark;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.SettlementInProgressException;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.repository.DailyTypeTotalRepository;
+import com._jasettlement.Wallet.repository.SettlementBreakRepository;
+import com._jasettlement.Wallet.repository.SettlementWatermarkRepository;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import com._jasettlement.Wallet.repository.WalletDailyPositionRepository;
+import com._jasettlement.Wallet.service.implementation.LedgerWriteWindow;
+import com._jasettlement.Wallet.service.implementation.SettlementServiceImpl;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:settlement;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.settlement.settle-lag=0s",
+        "wallet.ledger-tiering.cron=-",
+        "wallet.hot-wallet.sweep-interval=1h"
+})
+@Import(WalletFixtures.class)
+class SettlementServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Africa/Lagos");
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private HotWalletService hotWalletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private WalletProperties walletProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private WalletDailyPositionRepository positionRepository;
+
+    @Autowired
+    private DailyTypeTotalRepository typeTotalRepository;
+
+    @Autowired
+    private SettlementBreakRepository breakRepository;
+
+    @Autowired
+    private LedgerWriteWindow ledgerWriteWindow;
+
+    @Test
+    void settlingADayTwiceGivesTheSameResult() {
+        LocalDate day = LocalDate.now(ZONE).minusDays(3);
+        String walletId = wallets.createWallet();
+        transactionJdbcRepository.insertAll(List.of(
+                entry(walletId, day, 1, TransactionType.CREDIT, 10_000, 10_000, null),
+                entry(walletId, day, 2, TransactionType.DEBIT, 2_500, 7_500, null),
+                entry(walletId, day, 3, TransactionType.CREDIT, 1_000, 8_500, null)));
+
+        SettlementRunResponse first = settlementService.settle(day);
+        SettlementSummaryResponse summary = settlementService.getSummary(day);
+        WalletDailyPositionResponse position = settlementService.getPosition(day, walletId);
+
+        assertThat(first.getRowsSettled()).isEqualTo(3);
+        assertThat(first.getBreaksFound()).isZero();
+        assertThat(first.isDayComplete()).isTrue();
+        assertThat(summary.isDayComplete()).isTrue();
+        assertThat(position.getCreditsMinorUnits()).isEqualTo(11_000);
+        assertThat(position.getDebitsMinorUnits()).isEqualTo(2_500);
+        assertThat(position.getNetMinorUnits()).isEqualTo(8_500);
+        assertThat(position.getEntryCount()).isEqualTo(3);
+        assertThat(position.getClosingBalanceMinorUnits()).isEqualTo(8_500);
+
+        // The watermarks are at the end of the day, so a rerun finds nothing new and counts nothing twice
+        SettlementRunResponse second = settlementService.settle(day);
+        assertThat(second.getRowsSettled()).isZero();
+        assertThat(second.isDayComplete()).isTrue();
+        assertThat(settlementService.getSummary(day)).usingRecursiveComparison().isEqualTo(summary);
+        assertThat(settlementService.getPosition(day, walletId)).usingRecursiveComparison().isEqualTo(position);
+    }
+
+    @Test
+    void oneLeggedTransfersAreReportedAsBreaks() {
+        LocalDate day = LocalDate.now(ZONE).minusDays(4);
+        String from = wallets.createWallet();
+        String to = wallets.createWallet();
+        String suffix = UUID.randomUUID().toString();
+        String paired = TimeOrderedIds.nextString();
+        String orphan = TimeOrderedIds.nextString();
+
+        List<Transaction> entries = new ArrayList<>();
+        entries.add(entry(from, day, 1, TransactionType.CREDIT, 5_000, 5_000, null));
+        entries.add(withReference(entry(from, day, 2, TransactionType.TRANSFER_OUT, 1_000, 4_000, paired),
+                "transfer:paired-" + suffix + "_debit"));
+        entries.add(withReference(entry(to, day, 1, TransactionType.TRANSFER_IN, 1_000, 1_000, paired),
+                "transfer:paired-" + suffix + "_credit"));
+        // A debit whose credit never reached the ledger, with and without a transfer id
+        entries.add(withReference(entry(from, day, 3, TransactionType.TRANSFER_OUT, 700, 3_300, orphan),
+                "transfer:orphan-" + suffix + "_debit"));
+        entries.add(withReference(entry(from, day, 4, TransactionType.TRANSFER_OUT, 300, 3_000, null),
+                "legacy-" + suffix + "_debit"));
+        transactionJdbcRepository.insertAll(entries);
+
+        SettlementRunResponse run = settlementService.settle(day);
+
+        assertThat(run.getBreaksFound()).isEqualTo(2);
+        SettlementSummaryResponse summary = settlementService.getSummary(day);
+        assertThat(summary.getBreakCount()).isEqualTo(2);
+        assertThat(summary.getBreaks())
+                .extracting(SettlementSummaryResponse.Break::getKind, SettlementSummaryResponse.Break::getReference,
+                        SettlementSummaryResponse.Break::getAmountMinorUnits)
+                .containsExactlyInAnyOrder(
+                        tuple("MISSING_CREDIT", "transfer:orphan-" + suffix + "_debit", 700L),
+                        tuple("MISSING_CREDIT", "legacy-" + suffix + "_debit", 300L));
+
+        // Breaks are found with the rows they belong to, so a rerun does not report them again
+        settlementService.settle(day);
+        assertThat(settlementService.getSummary(day).getBreakCount()).isEqualTo(2);
+    }
+
+    @Test
+    void aRunThatLosesTheWatermarkRaceLeavesTheTotalsUntouched() {
+        LocalDate day = LocalDate.now(ZONE).minusDays(5);
+        String walletId = wallets.createWallet();
+        transactionJdbcRepository.insertAll(List.of(
+                entry(walletId, day, 1, TransactionType.CREDIT, 4_000, 4_000, null),
+                entry(walletId, day, 2, TransactionType.DEBIT, 1_500, 2_500, null)));
+
+        // A second instance that read the day's watermarks before this one moved them
+        SettlementWatermarkRepository staleWatermarks = mock(SettlementWatermarkRepository.class);
+        when(staleWatermarks.findByBusinessDateOrderByPartitionNo(day)).thenReturn(watermarksAtStartOf(day));
+        SettlementService concurrentRun = new SettlementServiceImpl(walletProperties, jdbcTemplate,
+                transactionTemplate, transactionRepository, transactionJdbcRepository, staleWatermarks,
+                positionRepository, typeTotalRepository, breakRepository, ledgerWriteWindow, Optional.empty(),
+                new SimpleMeterRegistry());
+
+        settlementService.settle(day);
+        SettlementSummaryResponse summary = settlementService.getSummary(day);
+        WalletDailyPositionResponse position = settlementService.getPosition(day, walletId);
+
+        assertThatThrownBy(() -> concurrentRun.settle(day))
+                .isInstanceOf(SettlementInProgressException.class)
+                .hasMessageContaining("moved by another run");
+        assertThat(settlementService.getSummary(day)).usingRecursiveComparison().isEqualTo(summary);
+        assertThat(settlementService.getPosition(day, walletId)).usingRecursiveComparison().isEqualTo(position);
+        assertThat(position.getEntryCount()).isEqualTo(2);
+    }
+
+    @Test
+    void stripePostingsWaitForTheirSweepBeforeTheyAreSettled() throws Exception {
+        LocalDate today = LocalDate.now(ZONE);
+        String walletId = wallets.createWallet();
+        hotWalletService.configure(walletId, 4);
+        wallets.deposit(walletId, 1_000);
+        Thread.sleep(5);
+
+        // The credit sits on a stripe without a ledger sequence, so the run stops short of it
+        SettlementRunResponse beforeSweep = settlementService.settle(today);
+        assertThat(beforeSweep.isDayComplete()).isFalse();
+        assertThatThrownBy(() -> settlementService.getPosition(today, walletId))
+                .isInstanceOf(WalletNotFoundException.class);
+
+        // Locking the wallet sweeps its stripes and sequences the credit
+        hotWalletService.configure(walletId, 4);
+        Thread.sleep(5);
+        settlementService.settle(today);
+
+        WalletDailyPositionResponse position = settlementService.getPosition(today, walletId);
+        assertThat(position.getCreditsMinorUnits()).isEqualTo(1_000);
+        assertThat(position.getEntryCount()).isEqualTo(1);
+        assertThat(position.getClosingBalanceMinorUnits()).isEqualTo(1_000);
+    }
+
+    private List<SettlementWatermark> watermarksAtStartOf(LocalDate day) {
+        String dayStartId = TimeOrderedIds.lowerBound(day.atStartOfDay(ZONE).toInstant().toEpochMilli());
+        List<SettlementWatermark> watermarks = new ArrayList<>();
+        for (int p = 0; p < walletProperties.getSettlement().getPartitions(); p++) {
+            watermarks.add(SettlementWatermark.builder()
+                    .id(day + "/" + p)
+                    .businessDate(day)
+                    .partitionNo(p)
+                    .lastTransactionId(dayStartId)
+                    .rowsSettled(0L)
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        return watermarks;
+    }
+
+    private static Transaction withReference(Transaction transaction, String reference) {
+        transaction.setReference(reference);
+        return transaction;
+    }
+
+    private Transaction entry(String walletId, LocalDate day, long sequence, TransactionType type,
+                              long amount, long balanceAfter, String transferId) {
+        LocalDateTime createdAt = day.atTime(12, 0).plusMinutes(sequence);
+        long millis = createdAt.atZone(ZONE).toInstant().toEpochMilli();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID id = new UUID((millis << 16) | 0x7000L | (random.nextLong() & 0x0FFFL),
+                (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+        return Transaction.builder()
+                .id(id.toString())
+                .reference(UUID.randomUUID().toString())
+                .walletId(walletId)
+                .type(type)
+                .amountMinorUnits(amount)
+                .description("Settlement test")
+                .ledgerSequence(sequence)
+                .balanceAfterMinorUnits(balanceAfter)
+                .createdAt(createdAt)
+                .transferId(transferId)
+                .build();
+    }
+}
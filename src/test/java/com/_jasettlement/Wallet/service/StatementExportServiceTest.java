@@ -0,0 +1,147 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-",
+        "wallet.ledger-tiering.hot-months=3",
+        "wallet.ledger-tiering.archive-block-entries=1",
+        "wallet.export.fetch-size=2"
+})
+@Import(WalletFixtures.class)
+class StatementExportServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Africa/Lagos");
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private LedgerTieringService ledgerTieringService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void streamsEveryEntryInLedgerOrderAsCsvAndNdjson() throws Exception {
+        String walletId = wallets.createWallet();
+        List<String> posted = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            posted.add(wallets.deposit(walletId, i * 100L).getId());
+        }
+        posted.add(wallets.withdraw(walletId, 50).getId());
+        jdbcTemplate.update("UPDATE transaction SET description = ? WHERE id = ?", "Refund, \"partial\"", posted.get(5));
+
+        String[] ndjson = export(walletId, StatementExportService.Format.NDJSON, false).split("\n");
+        assertThat(ndjson).hasSize(6);
+        for (int i = 0; i < posted.size(); i++) {
+            assertThat(ndjson[i]).contains("\"id\":\"" + posted.get(i) + "\"");
+        }
+        assertThat(ndjson[5]).contains("\"type\":\"DEBIT\"").contains("\"balanceAfterMinorUnits\":1450");
+
+        // The gzip stream carries the same rows, with RFC 4180 quoting where a field needs it
+        String[] csv = export(walletId, StatementExportService.Format.CSV, true).split("\n");
+        assertThat(csv).hasSize(7);
+        assertThat(csv[0]).startsWith("id,reference,walletId,type,amountMinorUnits");
+        assertThat(csv[1]).startsWith(posted.get(0) + ",").contains(",CREDIT,100,NGN,");
+        assertThat(csv[6]).contains(",DEBIT,50,NGN,\"Refund, \"\"partial\"\"\",6,1450,");
+    }
+
+    @Test
+    void archivedMonthsAndTheHotTableJoinWithoutGapsOrRepeats() throws Exception {
+        String walletId = wallets.createWallet();
+        LocalDate thisMonth = LocalDate.now(ZONE).withDayOfMonth(1);
+        LocalDateTime boundary = thisMonth.minusMonths(5).atStartOfDay();
+
+        // The last instant of one archived month, the first of the next, and a month still inside the hot window
+        List<Transaction> history = List.of(
+                entry(walletId, thisMonth.minusMonths(6).plusDays(10).atTime(9, 0), 1, TransactionType.CREDIT, 10_000, 10_000),
+                entry(walletId, boundary.minusNanos(1_000_000), 2, TransactionType.DEBIT, 1_000, 9_000),
+                entry(walletId, boundary, 3, TransactionType.CREDIT, 500, 9_500),
+                entry(walletId, thisMonth.minusMonths(5).plusDays(20).atTime(18, 0), 4, TransactionType.DEBIT, 500, 9_000),
+                entry(walletId, thisMonth.minusMonths(1).plusDays(3).atTime(8, 0), 5, TransactionType.CREDIT, 1_000, 10_000));
+        transactionJdbcRepository.insertAll(history);
+        jdbcTemplate.update("UPDATE wallet SET balance_minor_units = ?, ledger_sequence = ? WHERE wallet_id = ?",
+                10_000L, 5L, walletId);
+        String current = wallets.deposit(walletId, 250).getId();
+
+        String beforeTiering = export(walletId, StatementExportService.Format.NDJSON, false);
+        String csvBeforeTiering = export(walletId, StatementExportService.Format.CSV, false);
+
+        assertThat(ledgerTieringService.run().getRowsArchived()).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction WHERE wallet_id = ?",
+                Long.class, walletId)).isEqualTo(2);
+
+        // Moving months into archive blocks does not change a byte of the statement
+        String afterTiering = export(walletId, StatementExportService.Format.NDJSON, false);
+        assertThat(afterTiering).isEqualTo(beforeTiering);
+        assertThat(export(walletId, StatementExportService.Format.CSV, false)).isEqualTo(csvBeforeTiering);
+
+        String[] lines = afterTiering.split("\n");
+        assertThat(lines).hasSize(6);
+        for (int i = 0; i < history.size(); i++) {
+            assertThat(lines[i]).contains("\"id\":\"" + history.get(i).getId() + "\"");
+        }
+        assertThat(lines[5]).contains("\"id\":\"" + current + "\"").contains("\"balanceAfterMinorUnits\":10250");
+    }
+
+    private String export(String walletId, StatementExportService.Format format, boolean gzip) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        statementExportService.export(walletId, format, gzip, output);
+        if (!gzip) {
+            return output.toString(StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private Transaction entry(String walletId, LocalDateTime createdAt, long sequence, TransactionType type,
+                              long amount, long balanceAfter) {
+        long millis = createdAt.atZone(ZONE).toInstant().toEpochMilli();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID id = new UUID((millis << 16) | 0x7000L | (random.nextLong() & 0x0FFFL),
+                (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L);
+        return Transaction.builder()
+                .id(id.toString())
+                .reference(UUID.randomUUID().toString())
+                .walletId(walletId)
+                .type(type)
+                .amountMinorUnits(amount)
+                .description("Statement test")
+                .ledgerSequence(sequence)
+                .balanceAfterMinorUnits(balanceAfter)
+                .createdAt(createdAt)
+                .build();
+    }
+}
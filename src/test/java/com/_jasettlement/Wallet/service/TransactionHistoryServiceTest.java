@@ -0,0 +1,148 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.request.TransactionHistoryRequest;
+import com._jasettlement.Wallet.dto.response.TransactionHistoryResponse;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.InvalidCursorException;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-"
+})
+@Import(WalletFixtures.class)
+class TransactionHistoryServiceTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Test
+    void pagesEndExactlyWhereTheLedgerDoes() {
+        String walletId = wallets.createWallet();
+        List<String> posted = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            posted.add(wallets.deposit(walletId, i * 100L).getId());
+        }
+
+        List<TransactionHistoryResponse> pages = readAll(walletId, 2);
+
+        assertThat(pages).extracting(page -> page.getTransactions().size()).containsExactly(2, 2, 1);
+        assertThat(pages).extracting(TransactionHistoryResponse::isHasMore).containsExactly(true, true, false);
+        assertThat(pages.get(2).getNextCursor()).isNull();
+        assertThat(ids(pages)).containsExactlyElementsOf(posted.reversed());
+
+        // A page that holds exactly the remaining rows learns from the extra fetched row that there is no next one
+        TransactionHistoryResponse exact = page(walletId, 5, null);
+        assertThat(exact.getTransactions()).hasSize(5);
+        assertThat(exact.isHasMore()).isFalse();
+        assertThat(exact.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rowsSharingACreationTimeAreNeitherSkippedNorRepeated() {
+        String walletId = wallets.createWallet();
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS).minusMinutes(1);
+        List<Transaction> tied = new ArrayList<>();
+        for (int sequence = 1; sequence <= 5; sequence++) {
+            tied.add(Transaction.builder()
+                    .id(TimeOrderedIds.nextString())
+                    .reference(UUID.randomUUID().toString())
+                    .walletId(walletId)
+                    .type(TransactionType.CREDIT)
+                    .amountMinorUnits(100L)
+                    .description("History test")
+                    .ledgerSequence((long) sequence)
+                    .balanceAfterMinorUnits(sequence * 100L)
+                    .createdAt(createdAt)
+                    .build());
+        }
+        transactionJdbcRepository.insertAll(tied);
+
+        List<TransactionHistoryResponse> pages = readAll(walletId, 2);
+
+        // Within one timestamp the id breaks the tie, newest first
+        assertThat(ids(pages)).containsExactlyElementsOf(tied.stream()
+                .map(Transaction::getId)
+                .sorted(Comparator.reverseOrder())
+                .toList());
+    }
+
+    @Test
+    void corruptedOrForeignCursorsAreRejected() {
+        String walletId = wallets.createWallet();
+        String otherWalletId = wallets.createWallet();
+        for (int i = 0; i < 3; i++) {
+            wallets.deposit(walletId, 100);
+            wallets.deposit(otherWalletId, 100);
+        }
+        String cursor = page(walletId, 1, null).getNextCursor();
+        assertThat(cursor).isNotNull();
+
+        assertThatThrownBy(() -> page(walletId, 1, "not a cursor"))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> page(walletId, 1, cursor.substring(0, cursor.length() / 2)))
+                .isInstanceOf(InvalidCursorException.class);
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((walletId + "|yesterday|" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> page(walletId, 1, forged))
+                .isInstanceOf(InvalidCursorException.class);
+
+        // A well-formed cursor from one wallet's statement does not page through another's
+        assertThatThrownBy(() -> page(otherWalletId, 1, cursor))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining(otherWalletId);
+        assertThat(page(walletId, 1, cursor).getTransactions()).hasSize(1);
+    }
+
+    private List<TransactionHistoryResponse> readAll(String walletId, int limit) {
+        List<TransactionHistoryResponse> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionHistoryResponse page = page(walletId, limit, cursor);
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private TransactionHistoryResponse page(String walletId, int limit, String cursor) {
+        TransactionHistoryRequest request = new TransactionHistoryRequest();
+        request.setLimit(limit);
+        request.setCursor(cursor);
+        return walletService.getTransactionHistory(walletId, request);
+    }
+
+    private static List<String> ids(List<TransactionHistoryResponse> pages) {
+        return pages.stream()
+                .flatMap(page -> page.getTransactions().stream())
+                .map(TransactionResponse::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,180 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.DuplicateTransactionException;
+import com._jasettlement.Wallet.exception.TransferNotFoundException;
+import com._jasettlement.Wallet.repository.TransactionJdbcRepository;
+import com._jasettlement.Wallet.service.implementation.TransferLookup;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transfers;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-"
+})
+@Import(WalletFixtures.class)
+class TransferJournalServiceTest {
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private TransferLookup transferLookup;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void aTransferIsFoundByIdAndByReferenceWithBothLegs() {
+        String from = wallets.createWallet();
+        String to = wallets.createWallet();
+        wallets.deposit(from, 1_000);
+        String key = UUID.randomUUID().toString();
+
+        TransferResponse posted = walletService.transfer(transfer(from, to, 400, key));
+        TransferResponse byId = walletService.getTransfer(posted.getTransferId());
+        TransferResponse byReference = transferLookup.findByReference("transfer:" + key).orElseThrow();
+
+        assertThat(byId).usingRecursiveComparison().isEqualTo(byReference);
+        assertThat(byId.getReference()).isEqualTo("transfer:" + key);
+        assertThat(byId.getFromWalletId()).isEqualTo(from);
+        assertThat(byId.getToWalletId()).isEqualTo(to);
+        assertThat(byId.getAmountMinorUnits()).isEqualTo(400);
+        assertThat(byId.getDebit().getReference()).isEqualTo("transfer:" + key + "_debit");
+        assertThat(byId.getDebit().getBalanceAfterMinorUnits()).isEqualTo(600);
+        assertThat(byId.getCredit().getReference()).isEqualTo("transfer:" + key + "_credit");
+        assertThat(byId.getCredit().getBalanceAfterMinorUnits()).isEqualTo(400);
+        assertThat(byId.getReversedBy()).isNull();
+
+        assertThatThrownBy(() -> walletService.getTransfer(TimeOrderedIds.nextString()))
+                .isInstanceOf(TransferNotFoundException.class);
+        assertThat(transferLookup.findByReference("transfer:" + UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void aTransferIsReversedExactlyOnce() throws Exception {
+        String from = wallets.createWallet();
+        String to = wallets.createWallet();
+        wallets.deposit(from, 1_000);
+        TransferResponse original = walletService.transfer(transfer(from, to, 300, null));
+
+        // Concurrent reversal requests resolve to a single reversal
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<TransferResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return walletService.reverseTransfer(original.getTransferId());
+                }));
+            }
+            start.countDown();
+            String reversalId = results.get(0).get(30, TimeUnit.SECONDS).getTransferId();
+            for (Future<TransferResponse> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS).getTransferId()).isEqualTo(reversalId);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        TransferResponse reversal = walletService.getTransfer(results.get(0).get().getTransferId());
+        assertThat(reversal.getReversalOf()).isEqualTo(original.getTransferId());
+        assertThat(reversal.getFromWalletId()).isEqualTo(to);
+        assertThat(reversal.getToWalletId()).isEqualTo(from);
+        assertThat(walletService.getTransfer(original.getTransferId()).getReversedBy()).isEqualTo(reversal.getTransferId());
+        assertThat(walletService.reverseTransfer(original.getTransferId()).getTransferId())
+                .isEqualTo(reversal.getTransferId());
+        assertThat(walletService.getWallet(from).getBalanceMinorUnits()).isEqualTo(1_000);
+        assertThat(walletService.getWallet(to).getBalanceMinorUnits()).isZero();
+
+        assertThatThrownBy(() -> walletService.reverseTransfer(reversal.getTransferId()))
+                .isInstanceOf(DuplicateTransactionException.class);
+
+        // The index is the last line of defence: no second journal row may reverse the same transfer
+        assertThatThrownBy(() -> jdbcTemplate.update("""
+                INSERT INTO transfer_journal (id, reference, from_wallet_id, to_wallet_id, amount_minor_units,
+                                              reversal_of, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, TimeOrderedIds.nextString(), "reversal:again-" + UUID.randomUUID(), to, from, 300L,
+                original.getTransferId(), LocalDateTime.now()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void legacyTransfersAreFoundThroughTheirLegReferences() {
+        String from = wallets.createWallet();
+        String to = wallets.createWallet();
+        String reference = "legacy:" + UUID.randomUUID();
+        String oneLegged = "legacy:" + UUID.randomUUID();
+        transactionJdbcRepository.insertAll(List.of(
+                legacyLeg(reference + "_debit", from, TransactionType.TRANSFER_OUT, 1),
+                legacyLeg(reference + "_credit", to, TransactionType.TRANSFER_IN, 1),
+                legacyLeg(oneLegged + "_debit", from, TransactionType.TRANSFER_OUT, 2)));
+
+        TransferResponse legacy = transferLookup.findByReference(reference).orElseThrow();
+        assertThat(legacy.getTransferId()).isNull();
+        assertThat(legacy.getFromWalletId()).isEqualTo(from);
+        assertThat(legacy.getToWalletId()).isEqualTo(to);
+        assertThat(legacy.getAmountMinorUnits()).isEqualTo(250);
+        assertThat(legacy.getDebit().getReference()).isEqualTo(reference + "_debit");
+        assertThat(legacy.getCredit().getReference()).isEqualTo(reference + "_credit");
+
+        // A debit whose credit never landed is still reported, without a destination
+        TransferResponse debitOnly = transferLookup.findByReference(oneLegged).orElseThrow();
+        assertThat(debitOnly.getFromWalletId()).isEqualTo(from);
+        assertThat(debitOnly.getToWalletId()).isNull();
+        assertThat(debitOnly.getCredit()).isNull();
+    }
+
+    private static Transaction legacyLeg(String reference, String walletId, TransactionType type, long sequence) {
+        return Transaction.builder()
+                .reference(reference)
+                .walletId(walletId)
+                .type(type)
+                .amountMinorUnits(250L)
+                .description("Legacy transfer")
+                .ledgerSequence(sequence)
+                .balanceAfterMinorUnits(type.signedAmount(250L) * sequence)
+                .build();
+    }
+
+    private static TransferRequest transfer(String fromWalletId, String toWalletId, long amount, String key) {
+        TransferRequest request = new TransferRequest();
+        request.setFromWalletId(fromWalletId);
+        request.setToWalletId(toWalletId);
+        request.setAmountMinorUnits(amount);
+        request.setIdempotencyKey(key);
+        return request;
+    }
+}
@@ -0,0 +1,209 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.exception.ConcurrentUpdateException;
+import com._jasettlement.Wallet.exception.InsufficientFundsException;
+import com._jasettlement.Wallet.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The database name follows the concurrency and batching modes so subclasses running another mode get their own schema
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stress-${wallet.concurrency.mode:PESSIMISTIC}-${wallet.deposit-batching.enabled:false};DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "wallet.balance-snapshot.verify-on-startup=false"
+})
+@Import(WalletFixtures.class)
+class WalletConcurrencyStressTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private HotWalletService hotWalletService;
+
+    @Test
+    void concurrentWithdrawalsNeverOverdrawHotWallet() throws Exception {
+        String hotWallet = wallets.createWallet();
+        wallets.deposit(hotWallet, 10_000);
+
+        AtomicLong withdrawn = new AtomicLong();
+        runConcurrently(() -> {
+            WithdrawalRequest request = new WithdrawalRequest();
+            request.setWalletId(hotWallet);
+            request.setAmountMinorUnits(30L);
+            try {
+                walletService.withdraw(request);
+                withdrawn.addAndGet(30);
+            } catch (InsufficientFundsException | ConcurrentUpdateException expected) {
+                // Rejected debits must leave the balance untouched
+            }
+        });
+
+        long balance = walletService.getWallet(hotWallet).getBalanceMinorUnits();
+        assertThat(balance).isGreaterThanOrEqualTo(0);
+        assertThat(balance).isEqualTo(10_000 - withdrawn.get());
+        assertThat(transactionRepository.calculateBalance(hotWallet)).isEqualTo(balance);
+    }
+
+    @Test
+    void opposingTransfersConserveFundsWithoutDeadlock() throws Exception {
+        String walletA = wallets.createWallet();
+        String walletB = wallets.createWallet();
+        wallets.deposit(walletA, 5_000);
+        wallets.deposit(walletB, 5_000);
+
+        runConcurrently(() -> {
+            boolean aToB = ThreadLocalRandom.current().nextBoolean();
+            TransferRequest request = new TransferRequest();
+            request.setFromWalletId(aToB ? walletA : walletB);
+            request.setToWalletId(aToB ? walletB : walletA);
+            request.setAmountMinorUnits(ThreadLocalRandom.current().nextLong(1, 400));
+            try {
+                walletService.transfer(request);
+            } catch (InsufficientFundsException | ConcurrentUpdateException expected) {
+                // Rejected transfers must leave both balances untouched
+            }
+        });
+
+        long balanceA = walletService.getWallet(walletA).getBalanceMinorUnits();
+        long balanceB = walletService.getWallet(walletB).getBalanceMinorUnits();
+        assertThat(balanceA).isGreaterThanOrEqualTo(0);
+        assertThat(balanceB).isGreaterThanOrEqualTo(0);
+        assertThat(balanceA + balanceB).isEqualTo(10_000);
+        assertThat(transactionRepository.calculateBalance(walletA)).isEqualTo(balanceA);
+        assertThat(transactionRepository.calculateBalance(walletB)).isEqualTo(balanceB);
+    }
+
+    @Test
+    void unrelatedWalletsAreNotBlockedByHotWallet() throws Exception {
+        String hotWallet = wallets.createWallet();
+        wallets.deposit(hotWallet, 1_000_000);
+        List<String> coldWallets = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String wallet = wallets.createWallet();
+            wallets.deposit(wallet, 1_000);
+            coldWallets.add(wallet);
+        }
+
+        // Each thread owns one cold wallet, so the only contention is on the hot wallet
+        AtomicInteger nextColdWallet = new AtomicInteger();
+        ThreadLocal<String> coldWallet = ThreadLocal.withInitial(() -> coldWallets.get(nextColdWallet.getAndIncrement()));
+        AtomicLong coldWithdrawn = new AtomicLong();
+        runConcurrently(() -> {
+            boolean hot = ThreadLocalRandom.current().nextBoolean();
+            WithdrawalRequest request = new WithdrawalRequest();
+            request.setWalletId(hot ? hotWallet : coldWallet.get());
+            request.setAmountMinorUnits(1L);
+            if (!hot) {
+                // A cold debit that fails here fails the test
+                walletService.withdraw(request);
+                coldWithdrawn.incrementAndGet();
+                return;
+            }
+            try {
+                walletService.withdraw(request);
+            } catch (InsufficientFundsException | ConcurrentUpdateException expected) {
+                // Only contention on the hot wallet may reject a debit
+            }
+        });
+
+        long coldTotal = 0;
+        for (String wallet : coldWallets) {
+            long balance = walletService.getWallet(wallet).getBalanceMinorUnits();
+            assertThat(balance).isGreaterThanOrEqualTo(0);
+            assertThat(transactionRepository.calculateBalance(wallet)).isEqualTo(balance);
+            coldTotal += balance;
+        }
+        assertThat(coldTotal).isEqualTo(THREADS * 1_000L - coldWithdrawn.get());
+    }
+
+    @Test
+    void stripedHotWalletKeepsLedgerAndBalanceInStep() throws Exception {
+        String hotWallet = wallets.createWallet();
+        String payer = wallets.createWallet();
+        wallets.deposit(hotWallet, 1_000);
+        wallets.deposit(payer, 1_000_000);
+        hotWalletService.configure(hotWallet, 8);
+
+        AtomicLong expected = new AtomicLong(1_000);
+        runConcurrently(() -> {
+            int operation = ThreadLocalRandom.current().nextInt(4);
+            try {
+                if (operation == 0) {
+                    WithdrawalRequest request = new WithdrawalRequest();
+                    request.setWalletId(hotWallet);
+                    request.setAmountMinorUnits(25L);
+                    walletService.withdraw(request);
+                    expected.addAndGet(-25);
+                } else if (operation == 1) {
+                    TransferRequest request = new TransferRequest();
+                    request.setFromWalletId(payer);
+                    request.setToWalletId(hotWallet);
+                    request.setAmountMinorUnits(7L);
+                    walletService.transfer(request);
+                    expected.addAndGet(7);
+                } else {
+                    wallets.deposit(hotWallet, 10);
+                    expected.addAndGet(10);
+                }
+            } catch (InsufficientFundsException | ConcurrentUpdateException expectedRejection) {
+                // Rejected postings must leave the balance untouched
+            }
+        });
+
+        assertThat(walletService.getWallet(hotWallet).getBalanceMinorUnits()).isEqualTo(expected.get());
+
+        // Turning the mode off sweeps every stripe posting into the wallet row and the sequenced ledger
+        assertThat(hotWalletService.configure(hotWallet, 0).getBalanceMinorUnits()).isEqualTo(expected.get());
+        assertThat(walletService.getWallet(hotWallet).getBalanceMinorUnits()).isEqualTo(expected.get());
+        assertThat(transactionRepository.calculateBalance(hotWallet)).isEqualTo(expected.get());
+        assertThat(transactionRepository.countLedgerEntries(hotWallet))
+                .isEqualTo(transactionRepository.countByWalletId(hotWallet));
+    }
+
+    private void runConcurrently(Runnable operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    operation.run();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+    }
+}
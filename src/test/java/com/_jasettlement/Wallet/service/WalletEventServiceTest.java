@@ -0,0 +1,213 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.response.WalletEventResponse;
+import com._jasettlement.Wallet.dto.response.WalletEventsResponse;
+import com._jasettlement.Wallet.entity.Transaction;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.EventOffsetExpiredException;
+import com._jasettlement.Wallet.exception.GlobalExceptionHandler;
+import com._jasettlement.Wallet.repository.WalletEventJdbcRepository;
+import com._jasettlement.Wallet.service.implementation.WalletEventHub;
+import com._jasettlement.Wallet.util.TimeOrderedIds;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:events;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-",
+        "wallet.events.replay-buffer=2"
+})
+@Import(WalletFixtures.class)
+class WalletEventServiceTest {
+
+    @Autowired
+    private WalletFixtures wallets;
+
+    @Autowired
+    private WalletEventService walletEventService;
+
+    @Autowired
+    private WalletEventHub walletEventHub;
+
+    @Autowired
+    private WalletEventJdbcRepository walletEventJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Test
+    void longPollWakesOnDepositAndResumesFromNextOffset() throws Exception {
+        String walletId = wallets.createWallet();
+        WalletEventsResponse empty = walletEventService.poll(walletId, null, Duration.ZERO).get();
+        assertThat(empty.getEvents()).isEmpty();
+        long start = empty.getNextOffset();
+
+        CompletableFuture<WalletEventsResponse> waiting = walletEventService.poll(walletId, start, Duration.ofSeconds(10));
+        wallets.deposit(walletId, 5_000);
+        WalletEventsResponse first = waiting.get(10, TimeUnit.SECONDS);
+        assertThat(first.getEvents()).hasSize(1);
+        WalletEventResponse credit = first.getEvents().get(0);
+        assertThat(credit.getType()).isEqualTo(TransactionType.CREDIT);
+        assertThat(credit.getAmountMinorUnits()).isEqualTo(5_000L);
+        assertThat(credit.getBalanceAfterMinorUnits()).isEqualTo(5_000L);
+        assertThat(first.getNextOffset()).isEqualTo(credit.getOffset());
+
+        wallets.withdraw(walletId, 1_500);
+        wallets.deposit(wallets.createWallet(), 700);
+        WalletEventsResponse resumed = walletEventService
+                .poll(walletId, first.getNextOffset(), Duration.ofSeconds(10)).get(10, TimeUnit.SECONDS);
+        assertThat(resumed.getEvents()).singleElement().satisfies(debit -> {
+            assertThat(debit.getType()).isEqualTo(TransactionType.DEBIT);
+            assertThat(debit.getBalanceAfterMinorUnits()).isEqualTo(3_500L);
+            assertThat(debit.getOffset()).isGreaterThan(credit.getOffset());
+        });
+
+        // Replaying from the start returns both entries in order, without waiting
+        WalletEventsResponse replay = walletEventService.poll(walletId, start, Duration.ZERO).get();
+        assertThat(replay.getEvents()).extracting(WalletEventResponse::getType)
+                .containsExactly(TransactionType.CREDIT, TransactionType.DEBIT);
+    }
+
+    @Test
+    void postingThatCommitsLateIsStreamedAfterLaterCommits() throws Exception {
+        String slowWallet = wallets.createWallet();
+        String fastWallet = wallets.createWallet();
+        long start = walletEventService.poll(slowWallet, null, Duration.ZERO).get().getNextOffset();
+
+        // The slow posting's outbox row is inserted first but commits after the fast one
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowCommit = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            walletEventJdbcRepository.insertAll(List.of(ledgerEntry(slowWallet, 900)));
+            inserted.countDown();
+            await(release);
+        }));
+        assertThat(inserted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        wallets.deposit(fastWallet, 400);
+        WalletEventResponse fast = walletEventService.poll(fastWallet, start, Duration.ofSeconds(10))
+                .get(10, TimeUnit.SECONDS).getEvents().get(0);
+
+        release.countDown();
+        slowCommit.get(10, TimeUnit.SECONDS);
+        WalletEventsResponse slow = walletEventService.poll(slowWallet, start, Duration.ofSeconds(10))
+                .get(10, TimeUnit.SECONDS);
+        assertThat(slow.getEvents()).singleElement().satisfies(event -> {
+            assertThat(event.getAmountMinorUnits()).isEqualTo(900L);
+            assertThat(event.getOffset()).isGreaterThan(fast.getOffset());
+        });
+    }
+
+    @Test
+    void rolledBackPostingDoesNotHoldBackLaterEvents() throws Exception {
+        String walletId = wallets.createWallet();
+        long start = walletEventService.poll(walletId, null, Duration.ZERO).get().getNextOffset();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            walletEventJdbcRepository.insertAll(List.of(ledgerEntry(walletId, 900)));
+            status.setRollbackOnly();
+        });
+        wallets.deposit(walletId, 300);
+
+        WalletEventsResponse response = walletEventService.poll(walletId, start, Duration.ofSeconds(2))
+                .get(3, TimeUnit.SECONDS);
+        assertThat(response.getEvents()).extracting(WalletEventResponse::getAmountMinorUnits)
+                .containsExactly(300L);
+    }
+
+    @Test
+    void subscriberThatCannotKeepUpIsDropped() throws Exception {
+        String walletId = wallets.createWallet();
+        long start = walletEventService.poll(walletId, null, Duration.ZERO).get().getNextOffset();
+        AtomicInteger offers = new AtomicInteger();
+        CountDownLatch dropped = new CountDownLatch(1);
+        walletEventHub.subscribe(walletId, new WalletEventHub.Subscriber() {
+            @Override
+            public boolean offer(WalletEventResponse event) {
+                offers.incrementAndGet();
+                return false;
+            }
+
+            @Override
+            public void dropped() {
+                dropped.countDown();
+            }
+        });
+
+        wallets.deposit(walletId, 100);
+        assertThat(dropped.await(10, TimeUnit.SECONDS)).isTrue();
+        WalletEventResponse first = walletEventService.poll(walletId, start, Duration.ZERO).get().getEvents().get(0);
+        wallets.deposit(walletId, 200);
+
+        // Once the second event is relayed, the dropped subscriber must not have been offered it
+        WalletEventsResponse second = walletEventService.poll(walletId, first.getOffset(), Duration.ofSeconds(10))
+                .get(10, TimeUnit.SECONDS);
+        assertThat(second.getEvents()).hasSize(1);
+        assertThat(offers).hasValue(1);
+    }
+
+    @Test
+    void resumingFromPurgedOffsetIsGone() throws Exception {
+        String walletId = wallets.createWallet();
+        long start = walletEventService.poll(walletId, null, Duration.ZERO).get().getNextOffset();
+        for (long amount = 100; amount <= 400; amount += 100) {
+            wallets.deposit(walletId, amount);
+        }
+        List<WalletEventResponse> events = walletEventService.poll(walletId, start, Duration.ofSeconds(10))
+                .get(10, TimeUnit.SECONDS).getEvents();
+        assertThat(events).hasSize(4);
+
+        // Purge everything up to the wallet's first event; the replay buffer only holds the last two
+        jdbcTemplate.update("DELETE FROM wallet_event WHERE event_offset <= ?", events.get(0).getOffset());
+
+        assertThatThrownBy(() -> walletEventService.poll(walletId, 0L, Duration.ZERO))
+                .isInstanceOfSatisfying(EventOffsetExpiredException.class, ex ->
+                        assertThat(globalExceptionHandler.handleEventOffsetExpired(ex).getStatusCode().value())
+                                .isEqualTo(410));
+        // Offsets still retained resume normally
+        assertThat(walletEventService.poll(walletId, events.get(0).getOffset(), Duration.ZERO).get().getEvents())
+                .hasSize(3);
+    }
+
+    private static Transaction ledgerEntry(String walletId, long amount) {
+        return Transaction.builder()
+                .id(TimeOrderedIds.nextString())
+                .walletId(walletId)
+                .type(TransactionType.CREDIT)
+                .amountMinorUnits(amount)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Wallets and postings the service tests set up through the public API. Tests pull it in with
+ * {@code @Import(WalletFixtures.class)} and autowire it.
+ */
+class WalletFixtures {
+
+    private final WalletService walletService;
+
+    WalletFixtures(WalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    /**
+     * A new wallet with a unique email and a random BVN, and a zero balance.
+     */
+    String createWallet() {
+        CreateWalletRequest request = new CreateWalletRequest();
+        request.setFullName("Fixture Wallet");
+        request.setEmail(UUID.randomUUID() + "@fixtures.test");
+        request.setBvn(String.valueOf(ThreadLocalRandom.current().nextLong(1_000_000_000L, 10_000_000_000L)));
+        return walletService.createWallet(request).getWalletId();
+    }
+
+    TransactionResponse deposit(String walletId, long amount) {
+        DepositRequest request = new DepositRequest();
+        request.setWalletId(walletId);
+        request.setAmountMinorUnits(amount);
+        return walletService.deposit(request);
+    }
+
+    TransactionResponse withdraw(String walletId, long amount) {
+        WithdrawalRequest request = new WithdrawalRequest();
+        request.setWalletId(walletId);
+        request.setAmountMinorUnits(amount);
+        return walletService.withdraw(request);
+    }
+}
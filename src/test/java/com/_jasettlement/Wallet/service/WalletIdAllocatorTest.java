@@ -0,0 +1,22 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.service.implementation.WalletIdAllocator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WalletIdAllocatorTest {
+
+    @Test
+    void permutedSequenceRefusesToStartWithoutAKey() {
+        WalletProperties properties = new WalletProperties();
+        properties.getIds().setMode(WalletProperties.WalletIds.Mode.PERMUTED_SEQUENCE);
+
+        assertThatThrownBy(() -> new WalletIdAllocator(properties, new JdbcTemplate(), null, new SimpleMeterRegistry()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("WALLET_ID_PERMUTATION_KEY");
+    }
+}
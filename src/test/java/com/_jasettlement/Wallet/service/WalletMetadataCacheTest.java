@@ -0,0 +1,88 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.entity.Wallet;
+import com._jasettlement.Wallet.exception.WalletNotFoundException;
+import com._jasettlement.Wallet.index.MappedWalletIndex;
+import com._jasettlement.Wallet.metrics.WalletMetrics;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.service.implementation.WalletMetadataCache;
+import com._jasettlement.Wallet.util.WalletIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WalletMetadataCacheTest {
+
+    private static final String WALLET_ID = WalletIdGenerator.format("0101", 123_456);
+
+    private final WalletRepository walletRepository = mock(WalletRepository.class);
+
+    @Test
+    void anIdFailingItsCheckDigitIsRejectedWithoutAQuery() {
+        WalletMetadataCache cache = cache(Optional.empty());
+        char last = WALLET_ID.charAt(WALLET_ID.length() - 1);
+        String mistyped = WALLET_ID.substring(0, WALLET_ID.length() - 1) + (char) ('0' + (last - '0' + 1) % 10);
+
+        assertThatThrownBy(() -> cache.require(mistyped)).isInstanceOf(WalletNotFoundException.class);
+        verify(walletRepository, never()).findByWalletId(anyString());
+    }
+
+    @Test
+    void anIdTheIndexReportsAbsentIsRejectedWithoutAQuery() {
+        MappedWalletIndex index = mock(MappedWalletIndex.class);
+        when(index.isAbsent(WALLET_ID)).thenReturn(true);
+        WalletMetadataCache cache = cache(Optional.of(index));
+
+        assertThat(cache.find(WALLET_ID)).isEmpty();
+        verify(walletRepository, never()).findByWalletId(anyString());
+    }
+
+    @Test
+    void aMissIsCachedUntilTheWalletIsCreated() {
+        when(walletRepository.findByWalletId(WALLET_ID)).thenReturn(Optional.empty());
+        WalletMetadataCache cache = cache(Optional.empty());
+
+        assertThat(cache.find(WALLET_ID)).isEmpty();
+        assertThat(cache.find(WALLET_ID)).isEmpty();
+        verify(walletRepository, times(1)).findByWalletId(WALLET_ID);
+
+        // Wallet creation invalidates the id once its row has committed
+        when(walletRepository.findByWalletId(WALLET_ID)).thenReturn(Optional.of(wallet()));
+        cache.invalidate(WALLET_ID);
+
+        assertThat(cache.find(WALLET_ID)).hasValueSatisfying(metadata ->
+                assertThat(metadata.fullName()).isEqualTo("Ada Obi"));
+        assertThat(cache.find(WALLET_ID)).isPresent();
+        verify(walletRepository, times(2)).findByWalletId(WALLET_ID);
+    }
+
+    private WalletMetadataCache cache(Optional<MappedWalletIndex> index) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new WalletMetadataCache(walletRepository, new WalletMetrics(ObservationRegistry.NOOP, meterRegistry),
+                new WalletProperties(), meterRegistry, index);
+    }
+
+    private static Wallet wallet() {
+        return Wallet.builder()
+                .id("wallet-1")
+                .walletId(WALLET_ID)
+                .fullName("Ada Obi")
+                .email("ada@example.com")
+                .bvn("12345678901")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
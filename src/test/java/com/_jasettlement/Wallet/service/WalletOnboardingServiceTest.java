@@ -0,0 +1,162 @@
+package com._jasettlement.Wallet.service;
+
+import com._jasettlement.Wallet.config.WalletProperties;
+import com._jasettlement.Wallet.dto.request.CreateWalletRequest;
+import com._jasettlement.Wallet.repository.WalletJdbcRepository;
+import com._jasettlement.Wallet.repository.WalletRepository;
+import com._jasettlement.Wallet.service.implementation.WalletIdAllocator;
+import com._jasettlement.Wallet.service.implementation.WalletMetadataCache;
+import com._jasettlement.Wallet.service.implementation.WalletOnboardingServiceImpl;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:onboarding;DB_CLOSE_DELAY=-1",
+        "wallet.balance-snapshot.verify-on-startup=false",
+        "wallet.settlement.cron=-",
+        "wallet.ledger-tiering.cron=-",
+        "wallet.onboarding.chunk-size=3"
+})
+class WalletOnboardingServiceTest {
+
+    @Autowired
+    private WalletOnboardingService walletOnboardingService;
+
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private WalletJdbcRepository walletJdbcRepository;
+
+    @Autowired
+    private WalletIdAllocator walletIdAllocator;
+
+    @Autowired
+    private WalletMetadataCache walletMetadataCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WalletProperties walletProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void duplicatesAreRejectedWithinAChunkAcrossChunksAndAgainstExistingWallets() {
+        String existing = register();
+        String first = email();
+        String second = email();
+        String third = email();
+
+        // Chunks of three: [first, existing, first] [second, bad bvn, first] [third]
+        List<Map<String, Object>> results = onboard(walletOnboardingService, WalletOnboardingService.Format.NDJSON,
+                record(first), record(existing), record(first),
+                record(second), "{\"fullName\":\"Bad Bvn\",\"email\":\"" + email() + "\",\"bvn\":\"12\"}", record(first),
+                record(third));
+
+        assertThat(results).extracting(result -> result.get("record"))
+                .containsExactly(1, 2, 3, 4, 5, 6, 7);
+        assertThat(results).extracting(result -> result.get("status"))
+                .containsExactly("CREATED", "DUPLICATE", "DUPLICATE", "CREATED", "INVALID", "DUPLICATE", "CREATED");
+        assertThat(results.get(0).get("walletId")).isNotNull();
+        assertThat(results.get(4).get("error").toString()).contains("bvn");
+        for (String email : List.of(first, second, third, existing)) {
+            assertThat(walletsWithEmail(email)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void csvColumnsAreMatchedByHeaderName() {
+        String email = email();
+
+        List<Map<String, Object>> results = onboard(walletOnboardingService, WalletOnboardingService.Format.CSV,
+                "Email,BVN,fullName",
+                email + ",1234567890,\"Obi, Ada \"\"Nkem\"\"\"",
+                "not-an-email,1234567890,Someone");
+
+        assertThat(results).extracting(result -> result.get("status")).containsExactly("CREATED", "INVALID");
+        assertThat(jdbcTemplate.queryForObject("SELECT full_name FROM wallet WHERE email = ?", String.class, email))
+                .isEqualTo("Obi, Ada \"Nkem\"");
+    }
+
+    @Test
+    void aBatchThatHitsAConcurrentRegistrationIsSettledRowByRow() {
+        String registeredMeanwhile = register();
+        String before = email();
+        String after = email();
+        // The IN query ran before the other registration committed, so it reports no existing emails
+        WalletRepository staleRepository = mock(WalletRepository.class);
+        when(staleRepository.findExistingEmails(any())).thenReturn(List.of());
+        WalletOnboardingService onboarding = new WalletOnboardingServiceImpl(staleRepository, walletJdbcRepository,
+                walletIdAllocator, walletMetadataCache, Optional.empty(), transactionTemplate, validator,
+                objectMapper, walletProperties);
+
+        List<Map<String, Object>> results = onboard(onboarding, WalletOnboardingService.Format.NDJSON,
+                record(before), record(registeredMeanwhile), record(after));
+
+        assertThat(results).extracting(result -> result.get("status"))
+                .containsExactly("CREATED", "DUPLICATE", "CREATED");
+        assertThat(walletsWithEmail(before)).isEqualTo(1);
+        assertThat(walletsWithEmail(registeredMeanwhile)).isEqualTo(1);
+        assertThat(walletsWithEmail(after)).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> onboard(WalletOnboardingService onboarding, WalletOnboardingService.Format format,
+                                              String... lines) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        onboarding.onboard(new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)),
+                format, output);
+        return Arrays.stream(output.toString(StandardCharsets.UTF_8).split("\n"))
+                .map(line -> (Map<String, Object>) objectMapper.readValue(line, Map.class))
+                .toList();
+    }
+
+    private String register() {
+        CreateWalletRequest request = new CreateWalletRequest();
+        request.setFullName("Existing Wallet");
+        request.setEmail(email());
+        request.setBvn("1234567890");
+        walletService.createWallet(request);
+        return request.getEmail();
+    }
+
+    private long walletsWithEmail(String email) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM wallet WHERE email = ?", Long.class, email);
+    }
+
+    private static String record(String email) {
+        return "{\"fullName\":\"Onboarded Wallet\",\"email\":\"" + email + "\",\"bvn\":\"1234567890\"}";
+    }
+
+    private static String email() {
+        return UUID.randomUUID() + "@onboarding.test";
+    }
+}
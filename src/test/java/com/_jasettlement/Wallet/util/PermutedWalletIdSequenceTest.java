@@ -0,0 +1,72 @@
+package com._jasettlement.Wallet.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PermutedWalletIdSequenceTest {
+
+    @Test
+    void permutationIsABijectionOnTheSixDigitDomain() {
+        PermutedWalletIdSequence sequence = new PermutedWalletIdSequence((mmdd, size) -> 0, 1_000, 6221085L);
+
+        BitSet seen = new BitSet(PermutedWalletIdSequence.DOMAIN);
+        for (int counter = 0; counter < PermutedWalletIdSequence.DOMAIN; counter++) {
+            int value = sequence.permute(counter);
+            assertThat(value).isBetween(0, PermutedWalletIdSequence.DOMAIN - 1);
+            assertThat(seen.get(value)).as("suffix %d issued twice", value).isFalse();
+            seen.set(value);
+        }
+        assertThat(seen.cardinality()).isEqualTo(PermutedWalletIdSequence.DOMAIN);
+    }
+
+    @Test
+    void permutationDependsOnTheKeyAndHidesTheCounter() {
+        PermutedWalletIdSequence first = new PermutedWalletIdSequence((mmdd, size) -> 0, 1_000, 1L);
+        PermutedWalletIdSequence second = new PermutedWalletIdSequence((mmdd, size) -> 0, 1_000, 2L);
+
+        int differing = 0;
+        int consecutive = 0;
+        for (int counter = 0; counter < 1_000; counter++) {
+            if (first.permute(counter) != second.permute(counter)) {
+                differing++;
+            }
+            if (first.permute(counter + 1) == first.permute(counter) + 1) {
+                consecutive++;
+            }
+        }
+        assertThat(differing).isGreaterThan(990);
+        assertThat(consecutive).isLessThan(10);
+    }
+
+    @Test
+    void idsAreUniqueAcrossBlocksAndCarryAValidCheckDigit() {
+        AtomicLong counters = new AtomicLong();
+        PermutedWalletIdSequence sequence = new PermutedWalletIdSequence(
+                (mmdd, size) -> counters.getAndAdd(size), 7, 6221085L);
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = sequence.next();
+            assertThat(id).startsWith("WALNG" + WalletIdGenerator.today()).hasSize(16);
+            assertThat(WalletIdGenerator.hasValidCheckDigit(id)).isTrue();
+            assertThat(ids.add(id)).as("duplicate %s", id).isTrue();
+        }
+    }
+
+    @Test
+    void exhaustedDayFails() {
+        PermutedWalletIdSequence sequence = new PermutedWalletIdSequence(
+                (mmdd, size) -> PermutedWalletIdSequence.DOMAIN, 1_000, 6221085L);
+
+        assertThatThrownBy(sequence::next)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exhausted");
+    }
+}
@@ -0,0 +1,292 @@
+package com._jasettlement.Wallet.util;
+
+import com._jasettlement.Wallet.dto.request.DepositRequest;
+import com._jasettlement.Wallet.dto.request.TransferRequest;
+import com._jasettlement.Wallet.dto.request.WithdrawalRequest;
+import com._jasettlement.Wallet.dto.response.TransactionResponse;
+import com._jasettlement.Wallet.dto.response.TransferResponse;
+import com._jasettlement.Wallet.dto.response.WalletResponse;
+import com._jasettlement.Wallet.entity.TransactionType;
+import com._jasettlement.Wallet.exception.InvalidFrameException;
+import com._jasettlement.Wallet.util.WalletFrameCodec.Op;
+import com._jasettlement.Wallet.util.WalletFrameCodec.RequestFrame;
+import com._jasettlement.Wallet.util.WalletFrameCodec.ResponseFrame;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WalletFrameCodecTest {
+
+    private static final int MAX_FRAME_BYTES = 4_096;
+    private static final String CURRENCY = "NGN";
+
+    // Microsecond precision, the resolution timestamps travel at
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_000);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 3, 15, 0, 0, 0, 1_000);
+
+    @Test
+    void requestFramesRoundTripForEveryOp() throws IOException {
+        DepositRequest deposit = new DepositRequest();
+        deposit.setWalletId("WALNG031400000017");
+        deposit.setAmountMinorUnits(12_500L);
+        deposit.setDescription("Salary");
+        deposit.setIdempotencyKey("key-1");
+
+        // No description or key: both presence bits are clear
+        WithdrawalRequest withdrawal = new WithdrawalRequest();
+        withdrawal.setWalletId("WALNG031400000017");
+        withdrawal.setAmountMinorUnits(1L);
+
+        TransferRequest transfer = new TransferRequest();
+        transfer.setFromWalletId("WALNG031400000017");
+        transfer.setToWalletId("WALNG031400000025");
+        transfer.setAmountMinorUnits(Long.MAX_VALUE);
+        transfer.setIdempotencyKey("key-2");
+
+        List<RequestFrame> frames = List.of(
+                new RequestFrame(Op.DEPOSIT, 1, deposit),
+                new RequestFrame(Op.WITHDRAW, 2, withdrawal),
+                new RequestFrame(Op.TRANSFER, 3, transfer),
+                new RequestFrame(Op.GET_WALLET, -4, "WALNG031400000025"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        WalletFrameCodec.writeRequestHeader(out);
+        for (RequestFrame frame : frames) {
+            WalletFrameCodec.writeRequest(out, frame);
+        }
+
+        DataInputStream in = input(bytes.toByteArray());
+        WalletFrameCodec.readRequestHeader(in);
+        List<RequestFrame> decoded = new ArrayList<>();
+        RequestFrame frame;
+        while ((frame = WalletFrameCodec.readRequest(in, MAX_FRAME_BYTES)) != null) {
+            decoded.add(frame);
+        }
+        assertThat(decoded).isEqualTo(frames);
+    }
+
+    @Test
+    void responseBodiesRoundTripWithAndWithoutOptionalFields() throws IOException {
+        TransactionResponse fullTransaction = transaction("tx-1", TransactionType.TRANSFER_OUT, "Rent", 4_000L, CREATED);
+        TransactionResponse bareTransaction = transaction("tx-2", TransactionType.CREDIT, null, null, null);
+
+        TransferResponse fullTransfer = TransferResponse.builder()
+                .transferId("tr-1")
+                .reference("transfer:key-2")
+                .fromWalletId("WALNG031400000017")
+                .toWalletId("WALNG031400000025")
+                .amountMinorUnits(4_000L)
+                .currency(CURRENCY)
+                .description("Rent")
+                .reversalOf("tr-0")
+                .reversedBy("tr-2")
+                .createdAt(CREATED)
+                .debit(fullTransaction)
+                .credit(transaction("tx-3", TransactionType.TRANSFER_IN, "Rent", 4_000L, CREATED))
+                .build();
+        TransferResponse bareTransfer = TransferResponse.builder()
+                .transferId("tr-3")
+                .reference("transfer:key-3")
+                .fromWalletId("WALNG031400000017")
+                .toWalletId("WALNG031400000025")
+                .amountMinorUnits(1L)
+                .currency(CURRENCY)
+                .build();
+
+        WalletResponse fullWallet = WalletResponse.builder()
+                .id("w-1")
+                .walletId("WALNG031400000017")
+                .ownerName("Ada Obi")
+                .balanceMinorUnits(0L)
+                .currency(CURRENCY)
+                .createdAt(CREATED)
+                .updatedAt(UPDATED)
+                .build();
+        WalletResponse bareWallet = WalletResponse.builder()
+                .id("w-2")
+                .walletId("WALNG031400000025")
+                .balanceMinorUnits(-1L)
+                .currency(CURRENCY)
+                .build();
+
+        List<ResponseFrame> frames = List.of(
+                new ResponseFrame(Op.DEPOSIT, 1, 200, fullTransaction),
+                new ResponseFrame(Op.WITHDRAW, 2, 200, bareTransaction),
+                new ResponseFrame(Op.TRANSFER, 3, 200, fullTransfer),
+                new ResponseFrame(Op.TRANSFER, 4, 200, bareTransfer),
+                new ResponseFrame(Op.GET_WALLET, 5, 200, fullWallet),
+                new ResponseFrame(Op.GET_WALLET, 6, 200, bareWallet),
+                new ResponseFrame(Op.WITHDRAW, 7, 422, "Insufficient funds"),
+                new ResponseFrame(null, WalletFrameCodec.STREAM_ERROR, 400, "Frame stream ended inside a frame"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        WalletFrameCodec.writeResponseHeader(out, CURRENCY);
+        for (ResponseFrame frame : frames) {
+            WalletFrameCodec.writeResponse(out, frame);
+        }
+
+        DataInputStream in = input(bytes.toByteArray());
+        String currency = WalletFrameCodec.readResponseHeader(in);
+        assertThat(currency).isEqualTo(CURRENCY);
+        List<ResponseFrame> decoded = new ArrayList<>();
+        ResponseFrame frame;
+        while ((frame = WalletFrameCodec.readResponse(in, currency, MAX_FRAME_BYTES)) != null) {
+            decoded.add(frame);
+        }
+        assertThat(decoded).isEqualTo(frames);
+    }
+
+    @Test
+    void unknownRequestOpKeepsItsCorrelationId() throws IOException {
+        RequestFrame frame = WalletFrameCodec.readRequest(input(frame(payload -> {
+            payload.writeByte(99);
+            payload.writeInt(42);
+        })), MAX_FRAME_BYTES);
+
+        assertThat(frame).isEqualTo(new RequestFrame(null, 42, null));
+    }
+
+    @Test
+    void successfulResponseWithUnknownOpIsRejected() {
+        byte[] bytes = frame(payload -> {
+            payload.writeByte(99);
+            payload.writeInt(1);
+            payload.writeShort(200);
+        });
+
+        assertThatThrownBy(() -> WalletFrameCodec.readResponse(input(bytes), CURRENCY, MAX_FRAME_BYTES))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("without an operation");
+    }
+
+    @Test
+    void unknownTransactionTypeIsAnInvalidFrame() {
+        byte[] bytes = frame(payload -> {
+            payload.writeByte(Op.DEPOSIT.code());
+            payload.writeInt(1);
+            payload.writeShort(200);
+            payload.writeUTF("tx-1");
+            payload.writeUTF("deposit:key-1");
+            payload.writeUTF("WALNG031400000017");
+            payload.writeByte(TransactionType.values().length);
+            payload.writeLong(100L);
+            payload.writeByte(0);
+        });
+
+        assertThatThrownBy(() -> WalletFrameCodec.readResponse(input(bytes), CURRENCY, MAX_FRAME_BYTES))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("Unknown transaction type");
+    }
+
+    @Test
+    void truncatedFramesAreRejected() {
+        // The stream ends before the declared length is read
+        byte[] cut = new byte[]{0, 0, 0, 20, (byte) Op.GET_WALLET.code(), 0, 0};
+        assertThatThrownBy(() -> WalletFrameCodec.readRequest(input(cut), MAX_FRAME_BYTES))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("ended inside a frame");
+
+        // The stream ends inside the length prefix
+        assertThatThrownBy(() -> WalletFrameCodec.readRequest(input(new byte[]{0, 0}), MAX_FRAME_BYTES))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("ended inside a frame");
+
+        // A complete frame that is too short for the op's fields
+        byte[] shortDeposit = frame(payload -> {
+            payload.writeByte(Op.DEPOSIT.code());
+            payload.writeInt(1);
+            payload.writeUTF("WALNG031400000017");
+        });
+        assertThatThrownBy(() -> WalletFrameCodec.readRequest(input(shortDeposit), MAX_FRAME_BYTES))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("shorter than its fields");
+
+        byte[] shortWallet = frame(payload -> {
+            payload.writeByte(Op.GET_WALLET.code());
+            payload.writeInt(1);
+            payload.writeShort(200);
+            payload.writeUTF("w-1");
+        });
+        assertThatThrownBy(() -> WalletFrameCodec.readResponse(input(shortWallet), CURRENCY, MAX_FRAME_BYTES))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("shorter than its fields");
+    }
+
+    @Test
+    void oversizedAndNegativeLengthsAreRejected() {
+        byte[] oversized = new byte[]{0, 0, 0x10, 1};
+        assertThatThrownBy(() -> WalletFrameCodec.readRequest(input(oversized), MAX_FRAME_BYTES))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("exceeds the limit of " + MAX_FRAME_BYTES);
+
+        byte[] negative = new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        assertThatThrownBy(() -> WalletFrameCodec.readRequest(input(negative), MAX_FRAME_BYTES))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("4294967295 bytes");
+    }
+
+    @Test
+    void streamHeaderIsChecked() throws IOException {
+        assertThatThrownBy(() -> WalletFrameCodec.readRequestHeader(input(new byte[0])))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("Empty frame stream");
+        assertThatThrownBy(() -> WalletFrameCodec.readRequestHeader(input(new byte[]{2})))
+                .isInstanceOf(InvalidFrameException.class)
+                .hasMessageContaining("Unsupported frame version 2");
+
+        // A header with no frames after it is an empty, valid stream
+        DataInputStream in = input(new byte[]{WalletFrameCodec.VERSION});
+        WalletFrameCodec.readRequestHeader(in);
+        assertThat(WalletFrameCodec.readRequest(in, MAX_FRAME_BYTES)).isNull();
+    }
+
+    private static TransactionResponse transaction(String id, TransactionType type, String description,
+                                                   Long balanceAfter, LocalDateTime createdAt) {
+        return TransactionResponse.builder()
+                .id(id)
+                .reference("ref-" + id)
+                .walletId("WALNG031400000017")
+                .type(type)
+                .amountMinorUnits(4_000L)
+                .currency(CURRENCY)
+                .description(description)
+                .balanceAfterMinorUnits(balanceAfter)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream payload) throws IOException;
+    }
+
+    // One length-prefixed frame around whatever the writer puts in it
+    private static byte[] frame(PayloadWriter writer) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            writer.write(new DataOutputStream(payload));
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(payload.size());
+            payload.writeTo(out);
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static DataInputStream input(byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+}
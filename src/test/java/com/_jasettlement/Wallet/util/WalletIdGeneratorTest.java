@@ -0,0 +1,56 @@
+package com._jasettlement.Wallet.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WalletIdGeneratorTest {
+
+    @Test
+    void formatAppendsTheLuhnDigit() {
+        // 7992739871 is the textbook Luhn example; its check digit is 3
+        assertThat(WalletIdGenerator.format("7992", 739_871)).isEqualTo("WALNG79927398713");
+        assertThat(WalletIdGenerator.format("0101", 42)).isEqualTo("WALNG0101000042" + luhn("0101000042"));
+    }
+
+    @Test
+    void checkDigitCatchesSingleDigitErrorsAndTranspositions() {
+        String id = WalletIdGenerator.format("0317", 504_218);
+        assertThat(WalletIdGenerator.hasValidCheckDigit(id)).isTrue();
+
+        for (int i = 5; i < id.length(); i++) {
+            char[] mistyped = id.toCharArray();
+            mistyped[i] = (char) ('0' + (mistyped[i] - '0' + 1) % 10);
+            assertThat(WalletIdGenerator.hasValidCheckDigit(new String(mistyped))).as("digit %d", i).isFalse();
+        }
+
+        char[] swapped = id.toCharArray();
+        char digit = swapped[9];
+        swapped[9] = swapped[10];
+        swapped[10] = digit;
+        if (swapped[9] != swapped[10]) {
+            assertThat(WalletIdGenerator.hasValidCheckDigit(new String(swapped))).isFalse();
+        }
+    }
+
+    @Test
+    void idsWithoutACheckDigitAlwaysPass() {
+        assertThat(WalletIdGenerator.hasValidCheckDigit(WalletIdGenerator.generate())).isTrue();
+        assertThat(WalletIdGenerator.hasValidCheckDigit("WALNG0317")).isTrue();
+        assertThat(WalletIdGenerator.hasValidCheckDigit(null)).isTrue();
+    }
+
+    private static int luhn(String digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,30 @@
+package com._jasettlement.Wallet.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WalletIdKeysTest {
+
+    @Test
+    void idsOfDifferentLengthsNeverShareAKey() {
+        // An eleven-digit sequence ID with a leading zero against the ten-digit ID of the same value
+        long permuted = WalletIdKeys.toKey("WALNG01231234567");
+        long random = WalletIdKeys.toKey("WALNG1231234567");
+
+        assertThat(permuted).isNotEqualTo(random);
+        assertThat(WalletIdKeys.toKey("WALNG01231234567")).isEqualTo(permuted);
+        assertThat(WalletIdKeys.toKey("WALNG0")).isNotEqualTo(WalletIdKeys.toKey("WALNG00"));
+        assertThat(WalletIdKeys.toKey("WALNG0")).isNotZero();
+    }
+
+    @Test
+    void idsOutsideTheGeneratedFormatHaveNoKey() {
+        assertThat(WalletIdKeys.toKey(null)).isEqualTo(WalletIdKeys.NO_KEY);
+        assertThat(WalletIdKeys.toKey("WALNG")).isEqualTo(WalletIdKeys.NO_KEY);
+        assertThat(WalletIdKeys.toKey("WALNG12a4")).isEqualTo(WalletIdKeys.NO_KEY);
+        assertThat(WalletIdKeys.toKey("ACCT1234567890")).isEqualTo(WalletIdKeys.NO_KEY);
+        assertThat(WalletIdKeys.toKey("WALNG" + "9".repeat(18))).isEqualTo(WalletIdKeys.NO_KEY);
+        assertThat(WalletIdKeys.toKey("WALNG" + "9".repeat(17))).isPositive();
+    }
+}